@@ -84,6 +84,19 @@ public abstract class LeaderConfig {
         return 5000L;
     }
 
+    /**
+     * If positive, the leader serves requests for this long after verifying that it is still the leader, rather than
+     * verifying this with a quorum for every request. Other nodes cannot become leader for twice this long after they
+     * last confirmed the leader's round, so this delays failover accordingly. All nodes must use the same value.
+     *
+     * This is only supported by TimeLock, which stops relying on the lease while its nodes' clocks are out of sync.
+     * Embedded leader election rejects a positive value.
+     */
+    @Value.Default
+    public long leaderLeaseMs() {
+        return 0L;
+    }
+
     @Value.Check
     protected final void check() {
         Preconditions.checkState(quorumSize() > leaders().size() / 2,
@@ -91,6 +104,8 @@ public abstract class LeaderConfig {
         Preconditions.checkState(leaders().size() >= quorumSize(),
                 "The quorumSize '%s' must be less than or equal to the amount of leader entries %s.",
                 quorumSize(), leaders());
+        Preconditions.checkState(leaderLeaseMs() >= 0,
+                "The leaderLeaseMs '%s' must not be negative.", leaderLeaseMs());
 
         Preconditions.checkArgument(leaders().contains(localServer()),
                 "The localServer '%s' must included in the leader entries %s.", localServer(), leaders());
@@ -30,6 +30,8 @@ import javax.ws.rs.QueryParam;
 import javax.ws.rs.core.MediaType;
 
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.annotation.Idempotent;
 import com.palantir.common.annotation.NonIdempotent;
@@ -158,6 +160,36 @@ public interface KeyValueService extends AutoCloseable {
     @Idempotent
     Map<Cell, Value> get(@QueryParam("tableRef") TableReference tableRef, Map<Cell, Long> timestampByCell);
 
+    /**
+     * Asynchronous version of {@link #get(TableReference, Map)}. Implementations that can read without blocking
+     * a thread should override this; by default the read is performed synchronously in the calling thread.
+     */
+    @Idempotent
+    default ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        try {
+            return Futures.immediateFuture(get(tableRef, timestampByCell));
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    /**
+     * Asynchronous version of {@link #getRows(TableReference, Iterable, ColumnSelection, long)}. Implementations
+     * that can read without blocking a thread should override this; by default the read is performed synchronously
+     * in the calling thread.
+     */
+    @Idempotent
+    default ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                            Iterable<byte[]> rows,
+                                                            ColumnSelection columnSelection,
+                                                            long timestamp) {
+        try {
+            return Futures.immediateFuture(getRows(tableRef, rows, columnSelection, timestamp));
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
     /**
      * Gets timestamp values from the key-value store.
      *
@@ -719,6 +751,15 @@ public interface KeyValueService extends AutoCloseable {
         return false;
     }
 
+    /**
+     * Whether {@link #putUnlessExists(TableReference, Map)} writes cells in different rows in a single round trip to
+     * the backing store, rather than one row at a time. This is used to decide whether concurrent writes to the
+     * transactions table are worth coalescing.
+     */
+    default boolean supportsMultiRowPutUnlessExists() {
+        return false;
+    }
+
     /**
      * Whether {@link #compactInternally(TableReference)} should be called to free disk space.
      */
@@ -22,6 +22,7 @@ import java.util.SortedMap;
 import java.util.function.BiFunction;
 import java.util.stream.Stream;
 
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ColumnRangeSelection;
@@ -62,6 +63,27 @@ public interface Transaction {
     @Idempotent
     Map<Cell, byte[]> get(TableReference tableRef, Set<Cell> cells);
 
+    /**
+     * Asynchronous version of {@link #get(TableReference, Set)}. This allows reads of several tables within one
+     * transaction to be in flight at the same time, without dedicating a thread to each of them.
+     *
+     * The transaction must not be committed or aborted before the returned future is complete. Implementations may
+     * fail to commit while reads are outstanding, and may wait for them to complete before aborting.
+     */
+    @Idempotent
+    ListenableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells);
+
+    /**
+     * Asynchronous version of {@link #getRows(TableReference, Iterable, ColumnSelection)}.
+     *
+     * The transaction must not be committed or aborted before the returned future is complete.
+     */
+    @Idempotent
+    ListenableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection);
+
     /**
      * Creates a visitable that scans the provided range.
      *
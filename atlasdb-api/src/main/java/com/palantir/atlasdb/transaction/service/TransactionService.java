@@ -19,6 +19,8 @@ import java.util.Map;
 
 import javax.annotation.CheckForNull;
 
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 
 /**
@@ -38,6 +40,18 @@ public interface TransactionService {
 
     Map<Long, Long> get(Iterable<Long> startTimestamps);
 
+    /**
+     * Asynchronous version of {@link #get(Iterable)}. By default the lookup is performed synchronously in the
+     * calling thread.
+     */
+    default ListenableFuture<Map<Long, Long>> getAsync(Iterable<Long> startTimestamps) {
+        try {
+            return Futures.immediateFuture(get(startTimestamps));
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
     /**
      * This operation is guaranteed to be atomic and only set the value if it hasn't already been
      * set.
@@ -48,4 +62,19 @@ public interface TransactionService {
      */
     void putUnlessExists(long startTimestamp, long commitTimestamp)
             throws KeyAlreadyExistsException;
+
+    /**
+     * Equivalent to calling {@link #putUnlessExists(long, long)} for each entry, but implementations may write all
+     * of the entries in a single call to the underlying store. This operation is atomic for each entry, but not
+     * across entries.
+     * @throws KeyAlreadyExistsException If the value for any of the entries was already set. In this case any
+     * subset of the other entries may or may not have been written, and {@link #get(Iterable)} should be called to
+     * check what the values were set to.
+     * @throws RuntimeException If a runtime exception is thrown, any subset of the entries may or may not have been
+     * written.
+     */
+    default void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp)
+            throws KeyAlreadyExistsException {
+        startTimestampToCommitTimestamp.forEach(this::putUnlessExists);
+    }
 }
@@ -319,6 +319,27 @@ public class CassandraKeyValueServiceIntegrationTest extends AbstractKeyValueSer
         }
     }
 
+    @Test
+    public void multiPutAsyncWritesOverAsynchronousConnections() throws Exception {
+        CassandraKeyValueService kvs = createKvs(
+                getConfigWithGcGraceSeconds(FOUR_DAYS_IN_SECONDS).withAsyncConnectionsPerHost(2),
+                logger);
+        try {
+            TableReference tableReference =
+                    TableReference.createFromFullyQualifiedName("test." + RandomStringUtils.randomAlphanumeric(16));
+            kvs.createTable(tableReference, AtlasDbConstants.GENERIC_TABLE_METADATA);
+            byte[] contents = PtBytes.toBytes("async");
+
+            kvs.multiPutAsync(ImmutableMap.of(tableReference, ImmutableMap.of(CELL, contents)), 10L).get();
+
+            Map<Cell, Value> results = kvs.get(tableReference, ImmutableMap.of(CELL, 11L));
+            assertThat(Arrays.equals(results.get(CELL).getContents(), contents), is(true));
+            assertThat(results.get(CELL).getTimestamp(), is(10L));
+        } finally {
+            kvs.close();
+        }
+    }
+
     @Test
     public void sweepSentinelsAreWrittenAtFreshTimestamp() throws Exception {
         TableReference tableReference =
@@ -0,0 +1,65 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cassandra;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.google.common.base.Preconditions;
+
+/**
+ * Configures hedged reads: if a read has not completed within a given percentile of the latency of recent reads from
+ * the same table, a duplicate read is sent to another host, and whichever completes first is used.
+ */
+@JsonDeserialize(as = ImmutableCassandraHedgedReadsConfig.class)
+@JsonSerialize(as = ImmutableCassandraHedgedReadsConfig.class)
+@Value.Immutable
+public abstract class CassandraHedgedReadsConfig {
+    /**
+     * The percentile of the latency of recent reads from a table after which a read from that table is hedged.
+     */
+    @Value.Default
+    public double latencyPercentile() {
+        return 0.95;
+    }
+
+    /**
+     * Reads are never hedged sooner than this after they are sent.
+     */
+    @Value.Default
+    public long minimumHedgeDelayMillis() {
+        return 5;
+    }
+
+    /**
+     * The maximum number of hedged reads, as a proportion of all reads. This bounds the extra load that hedging puts
+     * on the cluster when it is slow overall, rather than on a single host.
+     */
+    @Value.Default
+    public double maxHedgedReadProportion() {
+        return 0.05;
+    }
+
+    @Value.Check
+    protected final void check() {
+        Preconditions.checkState(latencyPercentile() > 0.0 && latencyPercentile() < 1.0,
+                "latencyPercentile must be strictly between 0 and 1");
+        Preconditions.checkState(minimumHedgeDelayMillis() >= 0, "minimumHedgeDelayMillis must be non-negative");
+        Preconditions.checkState(maxHedgedReadProportion() >= 0.0 && maxHedgedReadProportion() <= 1.0,
+                "maxHedgedReadProportion must be between 0 and 1");
+    }
+}
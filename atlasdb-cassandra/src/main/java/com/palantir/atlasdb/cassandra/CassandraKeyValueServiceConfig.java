@@ -75,6 +75,32 @@ public abstract class CassandraKeyValueServiceConfig implements KeyValueServiceC
         return 100;
     }
 
+    /**
+     * The number of non-blocking connections to each host over which asynchronous reads and writes, such as
+     * {@link com.palantir.atlasdb.keyvalue.api.KeyValueService#getRowsAsync}, are sent. These connections do not
+     * support SSL. If zero, or if SSL is configured, asynchronous operations are performed synchronously.
+     */
+    @Value.Default
+    public int asyncConnectionsPerHost() {
+        return 0;
+    }
+
+    /**
+     * If true, requests are routed to the host that has recently been serving requests the fastest, taking into
+     * account its number of open requests, rather than to a random host weighted by its number of open requests.
+     * Requests for a given key are still routed to one of its replicas.
+     */
+    @Value.Default
+    public boolean latencyAwareHostSelection() {
+        return false;
+    }
+
+    /**
+     * If present, reads of rows that take longer than usual are hedged by sending a duplicate read to another host.
+     * See {@link CassandraHedgedReadsConfig}.
+     */
+    public abstract Optional<CassandraHedgedReadsConfig> hedgedReads();
+
     /**
      * The proportion of {@link #poolSize()} connections that are checked approximately
      * every {@link #timeBetweenConnectionEvictionRunsSeconds()} seconds to see if has been idle at least
@@ -0,0 +1,437 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.cassandra.thrift.AuthenticationRequest;
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.thrift.TException;
+import org.apache.thrift.async.AsyncMethodCallback;
+import org.apache.thrift.async.TAsyncClientManager;
+import org.apache.thrift.protocol.TBinaryProtocol;
+import org.apache.thrift.protocol.TProtocolException;
+import org.apache.thrift.protocol.TProtocolFactory;
+import org.apache.thrift.transport.TNonblockingSocket;
+import org.apache.thrift.transport.TTransportException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.cassandra.CassandraCredentialsConfig;
+import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
+import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Runs Thrift calls against Cassandra without blocking a thread for the duration of each call.
+ *
+ * Each host has a bounded set of non-blocking connections, all of which are driven by a single selector thread for
+ * that host. A call is started on an idle connection if there is one, on a new connection if the host has fewer than
+ * {@link CassandraKeyValueServiceConfig#asyncConnectionsPerHost()} connections, and otherwise waits until a
+ * connection becomes idle. Concurrency is thus bounded by the number of connections rather than by the number of
+ * threads. The Cassandra Thrift server processes the requests on a connection in order, so a connection only ever
+ * has one call in flight.
+ *
+ * The returned futures are completed on a small shared executor rather than on the selector thread of the host, so
+ * that listeners added to them cannot stall every other call to that host.
+ *
+ * Calls are not retried on failure, and do not go through the rate limiting of {@link CassandraClientPool}. Closing
+ * the pool fails every call that has not yet completed.
+ * Non-blocking connections do not support SSL, so this pool is unavailable if SSL is configured.
+ */
+final class AsyncCassandraClientPool implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(AsyncCassandraClientPool.class);
+
+    private static final TProtocolFactory PROTOCOL_FACTORY = new TBinaryProtocol.Factory();
+    private static final int CALLBACK_THREADS = Math.max(2, Runtime.getRuntime().availableProcessors());
+
+    /**
+     * Starts a call on an async client, which completes the given callback with the call.
+     */
+    @FunctionalInterface
+    interface AsyncCall<C> {
+        void start(Cassandra.AsyncClient client, AsyncMethodCallback<C> callback) throws TException;
+    }
+
+    /**
+     * Reads the result of a completed call, throwing the exception returned by Cassandra if there was one.
+     */
+    @FunctionalInterface
+    interface ResultReader<C, V> {
+        V read(C completedCall) throws Exception;
+    }
+
+    private final CassandraKeyValueServiceConfig config;
+    private final ConcurrentMap<InetSocketAddress, HostConnections> connectionsByHost = Maps.newConcurrentMap();
+    private final ExecutorService callbackExecutor = PTExecutors.newFixedThreadPool(
+            CALLBACK_THREADS, new NamedThreadFactory("Atlas Cassandra KVS async callbacks", true));
+
+    private volatile boolean closed = false;
+
+    private AsyncCassandraClientPool(CassandraKeyValueServiceConfig config) {
+        this.config = config;
+    }
+
+    static Optional<AsyncCassandraClientPool> create(CassandraKeyValueServiceConfig config) {
+        if (config.asyncConnectionsPerHost() <= 0) {
+            return Optional.empty();
+        }
+        if (config.usingSsl()) {
+            log.warn("Asynchronous Cassandra connections were configured, but are not supported over SSL."
+                    + " Asynchronous operations will instead be performed synchronously.");
+            return Optional.empty();
+        }
+        return Optional.of(new AsyncCassandraClientPool(config));
+    }
+
+    <C, V> ListenableFuture<V> run(InetSocketAddress host, AsyncCall<C> call, ResultReader<C, V> resultReader) {
+        HostConnections connections = getConnections(host);
+        if (connections == null) {
+            return Futures.immediateFailedFuture(poolClosed());
+        }
+        PendingCall<C, V> pendingCall = new PendingCall<>(call, resultReader);
+        connections.submit(pendingCall);
+        return pendingCall.future;
+    }
+
+    private HostConnections getConnections(InetSocketAddress host) {
+        HostConnections connections = connectionsByHost.get(host);
+        if (connections != null) {
+            return connections;
+        }
+        // Each host has its own selector thread, so we must not create one after close() has stopped them all.
+        synchronized (this) {
+            return closed ? null : connectionsByHost.computeIfAbsent(host, HostConnections::new);
+        }
+    }
+
+    @Override
+    public void close() {
+        synchronized (this) {
+            closed = true;
+        }
+        connectionsByHost.values().forEach(HostConnections::close);
+        callbackExecutor.shutdown();
+    }
+
+    private void completeOnCallbackExecutor(Runnable completion) {
+        try {
+            callbackExecutor.execute(completion);
+        } catch (RejectedExecutionException e) {
+            // We have been closed, so there is nothing left for listeners to hold up.
+            completion.run();
+        }
+    }
+
+    private static IllegalStateException poolClosed() {
+        return new IllegalStateException("The async client pool has been closed");
+    }
+
+    private <C, V> ListenableFuture<V> runOnClient(
+            Cassandra.AsyncClient client,
+            AsyncCall<C> call,
+            ResultReader<C, V> resultReader) {
+        SettableFuture<V> future = SettableFuture.create();
+        client.setTimeout(config.socketQueryTimeoutMillis());
+        try {
+            call.start(client, new AsyncMethodCallback<C>() {
+                @Override
+                public void onComplete(C completedCall) {
+                    try {
+                        future.set(resultReader.read(completedCall));
+                    } catch (Exception e) {
+                        future.setException(e);
+                    }
+                }
+
+                @Override
+                public void onError(Exception e) {
+                    future.setException(new ConnectionFailedException(e));
+                }
+            });
+        } catch (TException | RuntimeException e) {
+            future.setException(new ConnectionFailedException(e));
+        }
+        return future;
+    }
+
+    private static boolean isConnectionFailure(Throwable throwable) {
+        return throwable instanceof ConnectionFailedException
+                || throwable instanceof TTransportException
+                || throwable instanceof TProtocolException;
+    }
+
+    private static Throwable unwrapConnectionFailure(Throwable throwable) {
+        return throwable instanceof ConnectionFailedException ? throwable.getCause() : throwable;
+    }
+
+    private final class HostConnections {
+        private final InetSocketAddress host;
+        private final TAsyncClientManager clientManager;
+
+        private final Deque<Connection> idleConnections = new ArrayDeque<>();
+        private final Queue<PendingCall<?, ?>> waitingCalls = new ArrayDeque<>();
+        // Every call that has been submitted but not yet completed, whether waiting or in flight.
+        private final Set<PendingCall<?, ?>> outstandingCalls = Sets.newIdentityHashSet();
+        private int numConnections = 0;
+        private boolean hostClosed = false;
+
+        HostConnections(InetSocketAddress host) {
+            this.host = host;
+            try {
+                this.clientManager = new TAsyncClientManager();
+            } catch (IOException e) {
+                throw Throwables.rewrapAndThrowUncheckedException(e);
+            }
+        }
+
+        void submit(PendingCall<?, ?> pendingCall) {
+            Connection connection;
+            synchronized (this) {
+                if (hostClosed) {
+                    pendingCall.future.setException(poolClosed());
+                    return;
+                }
+                outstandingCalls.add(pendingCall);
+                pendingCall.future.addListener(() -> forget(pendingCall), MoreExecutors.directExecutor());
+                connection = idleConnections.pollFirst();
+                if (connection == null) {
+                    if (numConnections >= config.asyncConnectionsPerHost()) {
+                        waitingCalls.add(pendingCall);
+                        return;
+                    }
+                    numConnections++;
+                }
+            }
+            if (connection == null) {
+                connectAndStart(pendingCall);
+            } else {
+                start(connection, pendingCall);
+            }
+        }
+
+        private <C, V> void start(Connection connection, PendingCall<C, V> pendingCall) {
+            ListenableFuture<V> result = runOnClient(connection.client, pendingCall.call, pendingCall.resultReader);
+            Futures.addCallback(result, new FutureCallback<V>() {
+                @Override
+                public void onSuccess(V value) {
+                    release(connection);
+                    completeOnCallbackExecutor(() -> pendingCall.future.set(value));
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    if (isConnectionFailure(throwable)) {
+                        discard(connection);
+                    } else {
+                        release(connection);
+                    }
+                    completeOnCallbackExecutor(
+                            () -> pendingCall.future.setException(unwrapConnectionFailure(throwable)));
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        private void connectAndStart(PendingCall<?, ?> pendingCall) {
+            Futures.addCallback(connect(), new FutureCallback<Connection>() {
+                @Override
+                public void onSuccess(Connection connection) {
+                    start(connection, pendingCall);
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    log.warn("Failed to open an asynchronous connection to {}",
+                            SafeArg.of("host", CassandraLogHelper.host(host)),
+                            throwable);
+                    onConnectionLost();
+                    completeOnCallbackExecutor(
+                            () -> pendingCall.future.setException(unwrapConnectionFailure(throwable)));
+                }
+            }, MoreExecutors.directExecutor());
+        }
+
+        private ListenableFuture<Connection> connect() {
+            Connection connection;
+            try {
+                TNonblockingSocket socket = new TNonblockingSocket(
+                        host.getHostString(), host.getPort(), config.socketTimeoutMillis());
+                connection = new Connection(new Cassandra.AsyncClient(PROTOCOL_FACTORY, clientManager, socket), socket);
+            } catch (IOException e) {
+                return Futures.immediateFailedFuture(e);
+            }
+            Cassandra.AsyncClient client = connection.client;
+
+            ListenableFuture<Void> loggedIn = config.credentials().isPresent()
+                    ? runOnClient(client,
+                            (asyncClient, callback) -> asyncClient.login(login(config.credentials().get()), callback),
+                            (Cassandra.AsyncClient.login_call call) -> {
+                                call.getResult();
+                                return null;
+                            })
+                    : Futures.immediateFuture(null);
+            ListenableFuture<Void> keyspaceSet = Futures.transformAsync(loggedIn,
+                    ignored -> runOnClient(client,
+                            (asyncClient, callback) -> asyncClient.set_keyspace(config.getKeyspaceOrThrow(), callback),
+                            (Cassandra.AsyncClient.set_keyspace_call call) -> {
+                                call.getResult();
+                                return null;
+                            }),
+                    MoreExecutors.directExecutor());
+            ListenableFuture<Connection> connected = Futures.transform(
+                    keyspaceSet, ignored -> connection, MoreExecutors.directExecutor());
+            Futures.addCallback(connected, new FutureCallback<Connection>() {
+                @Override
+                public void onSuccess(Connection result) {
+                    // Nothing to clean up.
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    closeQuietly(connection);
+                }
+            }, MoreExecutors.directExecutor());
+            return connected;
+        }
+
+        private void release(Connection connection) {
+            PendingCall<?, ?> nextCall;
+            synchronized (this) {
+                nextCall = hostClosed ? null : waitingCalls.poll();
+                if (nextCall == null && !hostClosed) {
+                    idleConnections.addFirst(connection);
+                    return;
+                }
+            }
+            if (nextCall == null) {
+                closeQuietly(connection);
+            } else {
+                start(connection, nextCall);
+            }
+        }
+
+        private void discard(Connection connection) {
+            closeQuietly(connection);
+            onConnectionLost();
+        }
+
+        private void onConnectionLost() {
+            PendingCall<?, ?> nextCall;
+            synchronized (this) {
+                numConnections--;
+                nextCall = waitingCalls.poll();
+                if (nextCall != null) {
+                    numConnections++;
+                }
+            }
+            if (nextCall != null) {
+                connectAndStart(nextCall);
+            }
+        }
+
+        private synchronized void forget(PendingCall<?, ?> pendingCall) {
+            outstandingCalls.remove(pendingCall);
+        }
+
+        void close() {
+            List<Connection> connectionsToClose;
+            List<PendingCall<?, ?>> callsToFail;
+            synchronized (this) {
+                hostClosed = true;
+                connectionsToClose = Lists.newArrayList(idleConnections);
+                // Calls in flight would never complete once the selector thread is stopped, so fail them too.
+                callsToFail = Lists.newArrayList(outstandingCalls);
+                idleConnections.clear();
+                waitingCalls.clear();
+                outstandingCalls.clear();
+            }
+            connectionsToClose.forEach(this::closeQuietly);
+            callsToFail.forEach(call -> call.future.setException(poolClosed()));
+            clientManager.stop();
+        }
+
+        private void closeQuietly(Connection connection) {
+            try {
+                connection.socket.close();
+            } catch (RuntimeException e) {
+                log.debug("Failed to close an asynchronous connection to {}",
+                        SafeArg.of("host", CassandraLogHelper.host(host)),
+                        e);
+            }
+        }
+    }
+
+    private static AuthenticationRequest login(CassandraCredentialsConfig credentials) {
+        Map<String, String> credentialsMap = ImmutableMap.of(
+                "username", credentials.username(),
+                "password", credentials.password());
+        return new AuthenticationRequest(credentialsMap);
+    }
+
+    private static final class Connection {
+        private final Cassandra.AsyncClient client;
+        private final TNonblockingSocket socket;
+
+        Connection(Cassandra.AsyncClient client, TNonblockingSocket socket) {
+            this.client = client;
+            this.socket = socket;
+        }
+    }
+
+    private static final class PendingCall<C, V> {
+        private final AsyncCall<C> call;
+        private final ResultReader<C, V> resultReader;
+        private final SettableFuture<V> future = SettableFuture.create();
+
+        PendingCall(AsyncCall<C> call, ResultReader<C, V> resultReader) {
+            this.call = call;
+            this.resultReader = resultReader;
+        }
+    }
+
+    /**
+     * A failure of the connection itself, rather than of the call, after which the connection cannot be reused.
+     */
+    private static final class ConnectionFailedException extends Exception {
+        private static final long serialVersionUID = 1L;
+
+        ConnectionFailedException(Throwable cause) {
+            super(cause);
+        }
+    }
+}
@@ -18,6 +18,7 @@ package com.palantir.atlasdb.keyvalue.cassandra;
 
 import java.net.InetSocketAddress;
 import java.util.Map;
+import java.util.Optional;
 
 import com.palantir.common.base.FunctionCheckedException;
 import com.palantir.processors.AutoDelegate;
@@ -33,6 +34,7 @@ public interface CassandraClientPool {
             FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     <V, K extends Exception> V runWithRetry(FunctionCheckedException<CassandraClient, V, K> fn) throws K;
     InetSocketAddress getRandomHostForKey(byte[] key);
+    Optional<InetSocketAddress> getAlternativeHostForKey(byte[] key, InetSocketAddress excludedHost);
     Map<InetSocketAddress, CassandraClientPoolingContainer> getCurrentPools();
     void shutdown();
 }
@@ -20,6 +20,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
@@ -300,6 +301,11 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         return cassandra.getRandomHostForKey(key);
     }
 
+    @Override
+    public Optional<InetSocketAddress> getAlternativeHostForKey(byte[] key, InetSocketAddress excludedHost) {
+        return cassandra.getAlternativeHostForKey(key, excludedHost);
+    }
+
     @VisibleForTesting
     void runOneTimeStartupChecks() {
         try {
@@ -431,6 +437,9 @@ public class CassandraClientPoolImpl implements CassandraClientPool {
         metrics.recordRequestOnHost(hostPool);
         try {
             return hostPool.runWithPooledResource(fn);
+        } catch (CancellationException e) {
+            // The caller gave up on the request, so it does not count against the host.
+            throw e;
         } catch (Exception e) {
             metrics.recordExceptionOnHost(hostPool);
             if (CassandraRequestExceptionHandler.isConnectionException(e)) {
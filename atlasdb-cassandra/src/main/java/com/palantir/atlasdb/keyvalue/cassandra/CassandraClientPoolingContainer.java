@@ -19,6 +19,7 @@ import java.lang.reflect.Field;
 import java.net.InetSocketAddress;
 import java.time.Instant;
 import java.time.format.DateTimeFormatter;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
@@ -55,6 +56,7 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
     private final MetricsManager metricsManager;
     private final AtomicLong count = new AtomicLong();
     private final AtomicInteger openRequests = new AtomicInteger();
+    private final RequestLatencyEwma latency = new RequestLatencyEwma(System::nanoTime);
     private final GenericObjectPool<CassandraClient> clientPool;
     private final int poolNumber;
 
@@ -86,6 +88,15 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
         return openRequests.get();
     }
 
+    /**
+     * A score for how quickly this host is expected to serve a new request, lower being faster: the exponentially
+     * weighted moving average of the latency of requests to this host in microseconds, multiplied by one more than
+     * the number of open requests. This is zero if no request to this host has completed recently.
+     */
+    public double getLatencyScore() {
+        return latency.getAverageNanos() / TimeUnit.MICROSECONDS.toNanos(1) * (Math.max(getOpenRequests(), 0) + 1);
+    }
+
     // returns negative if not available; only expected use is debugging
     public int getActiveCheckouts() {
         return clientPool.getNumActive();
@@ -104,15 +115,24 @@ public class CassandraClientPoolingContainer implements PoolingContainer<Cassand
                 + " calling cassandra host " + host
                 + " started at " + DateTimeFormatter.ISO_INSTANT.format(Instant.now())
                 + " - " + count.getAndIncrement());
+        long startNanos = System.nanoTime();
+        boolean cancelled = false;
         try {
             openRequests.getAndIncrement();
             return runWithGoodResource(fn);
+        } catch (CancellationException e) {
+            // A request cut short by its caller (e.g. a hedged read that lost) says nothing about how fast we are.
+            cancelled = true;
+            throw e;
         } catch (Throwable t) {
             log.warn("Error occurred talking to host '{}': {}",
                     SafeArg.of("host", CassandraLogHelper.host(host)), UnsafeArg.of("exception", t.toString()));
             throw t;
         } finally {
             openRequests.getAndDecrement();
+            if (!cancelled) {
+                latency.update(System.nanoTime() - startNanos);
+            }
             Thread.currentThread().setName(origName);
         }
     }
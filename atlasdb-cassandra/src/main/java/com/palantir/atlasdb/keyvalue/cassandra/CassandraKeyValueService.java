@@ -15,7 +15,12 @@
  */
 package com.palantir.atlasdb.keyvalue.cassandra;
 
+import java.util.Map;
+
+import com.google.common.util.concurrent.ListenableFuture;
+import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.processors.AutoDelegate;
 
 @AutoDelegate(typeToExtend = CassandraKeyValueService.class)
@@ -24,4 +29,12 @@ public interface CassandraKeyValueService extends KeyValueService {
     TracingQueryRunner getTracingQueryRunner();
     CassandraClientPool getClientPool();
     boolean isInitialized();
+
+    /**
+     * Asynchronous version of {@link #multiPut(Map, long)}. If asynchronous connections are not configured, the
+     * values are put synchronously in the calling thread.
+     */
+    ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp);
 }
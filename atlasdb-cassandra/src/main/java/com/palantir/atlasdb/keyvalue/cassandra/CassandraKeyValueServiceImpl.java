@@ -34,9 +34,11 @@ import java.util.concurrent.TimeUnit;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
+import org.apache.cassandra.thrift.Cassandra;
 import org.apache.cassandra.thrift.CfDef;
 import org.apache.cassandra.thrift.Column;
 import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.ColumnParent;
 import org.apache.cassandra.thrift.ConsistencyLevel;
 import org.apache.cassandra.thrift.KsDef;
 import org.apache.cassandra.thrift.Mutation;
@@ -65,9 +67,14 @@ import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.collect.Ordering;
 import com.google.common.collect.SetMultimap;
 import com.google.common.collect.Sets;
+import com.google.common.collect.TreeMultimap;
+import com.google.common.primitives.UnsignedBytes;
 import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.google.common.util.concurrent.UncheckedExecutionException;
 import com.palantir.async.initializer.AsyncInitializer;
 import com.palantir.atlasdb.AtlasDbConstants;
@@ -200,6 +207,8 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     private final MetricsManager metricsManager;
     private final CassandraKeyValueServiceConfig config;
     private final CassandraClientPool clientPool;
+    private final Optional<AsyncCassandraClientPool> asyncClientPool;
+    private final Optional<HedgedReads> hedgedReads;
 
     private SchemaMutationLock schemaMutationLock;
     private final ExecutorService schemaMutationExecutor;
@@ -356,6 +365,8 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         this.metricsManager = metricsManager;
         this.config = config;
         this.clientPool = clientPool;
+        this.asyncClientPool = AsyncCassandraClientPool.create(config);
+        this.hedgedReads = HedgedReads.create(metricsManager, clientPool, config.hedgedReads());
         this.leaderConfig = leaderConfig;
         this.mutationTimestampProvider = mutationTimestampProvider;
 
@@ -577,7 +588,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             int fetchBatchCount = config.fetchBatchCount();
             for (final List<byte[]> batch : Lists.partition(rows, fetchBatchCount)) {
                 rowCount += batch.size();
-                result.putAll(clientPool.runWithRetryOnHost(host,
+                result.putAll(runReadWithRetryOnHost(host, tableRef, batch.get(0),
                         new FunctionCheckedException<CassandraClient, Map<Cell, Value>, Exception>() {
                             @Override
                             public Map<Cell, Value> apply(CassandraClient client) throws Exception {
@@ -614,6 +625,21 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         }
     }
 
+    /**
+     * Runs the given read of the given row, and possibly other rows, on the given host, hedging it if hedged reads
+     * are configured.
+     */
+    private <V> V runReadWithRetryOnHost(
+            InetSocketAddress host,
+            TableReference tableRef,
+            byte[] row,
+            FunctionCheckedException<CassandraClient, V, Exception> fn) throws Exception {
+        if (hedgedReads.isPresent()) {
+            return hedgedReads.get().runWithRetryOnHost(tableRef, host, row, fn);
+        }
+        return clientPool.runWithRetryOnHost(host, fn);
+    }
+
     private List<ByteBuffer> wrap(List<byte[]> arrays) {
         List<ByteBuffer> byteBuffers = Lists.newArrayListWithCapacity(arrays.size());
         for (byte[] r : arrays) {
@@ -691,6 +717,137 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
         return collector.getCollectedResults();
     }
 
+    /**
+     * Asynchronous version of {@link #getRows(TableReference, Iterable, ColumnSelection, long)}. If
+     * {@link CassandraKeyValueServiceConfig#asyncConnectionsPerHost()} is positive, the rows are read over
+     * non-blocking connections, without blocking a thread for each host; otherwise, they are read synchronously in
+     * the calling thread.
+     */
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection selection,
+            long startTs) {
+        if (!asyncClientPool.isPresent()) {
+            return CassandraKeyValueService.super.getRowsAsync(tableRef, rows, selection, startTs);
+        }
+        if (!selection.allColumnsSelected()) {
+            Set<Cell> cells = Sets.newHashSet();
+            for (byte[] row : rows) {
+                for (byte[] col : selection.getSelectedColumns()) {
+                    cells.add(Cell.create(row, col));
+                }
+            }
+            return withAtlasDbExceptions(loadCellsAsync(tableRef, cells, startTs));
+        }
+
+        // We want to get all the columns in the row so set start and end to empty.
+        SlicePredicate predicate = SlicePredicates.create(Range.ALL, Limit.NO_LIMIT);
+        List<ListenableFuture<Map<Cell, Value>>> futures = Lists.newArrayList();
+        Map<InetSocketAddress, List<byte[]>> rowsByHost = HostPartitioner.partitionByHost(clientPool, rows,
+                Functions.identity());
+        for (Map.Entry<InetSocketAddress, List<byte[]>> hostAndRows : rowsByHost.entrySet()) {
+            for (List<byte[]> batch : Lists.partition(hostAndRows.getValue(), config.fetchBatchCount())) {
+                futures.add(Futures.transform(
+                        multigetAsync(hostAndRows.getKey(), tableRef, wrap(batch), predicate),
+                        results -> {
+                            Map<Cell, Value> ret = Maps.newHashMapWithExpectedSize(batch.size());
+                            new ValueExtractor(metricsManager, ret)
+                                    .extractResults(results, startTs, ColumnSelection.all());
+                            return ret;
+                        },
+                        MoreExecutors.directExecutor()));
+            }
+        }
+        return withAtlasDbExceptions(Futures.transform(
+                Futures.allAsList(futures),
+                CassandraKeyValueServiceImpl::mergeResults,
+                MoreExecutors.directExecutor()));
+    }
+
+    /**
+     * Asynchronous version of {@link #get(TableReference, Map)}. If
+     * {@link CassandraKeyValueServiceConfig#asyncConnectionsPerHost()} is positive, the cells are read over
+     * non-blocking connections, without blocking a thread for each host; otherwise, they are read synchronously in
+     * the calling thread.
+     */
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        if (!asyncClientPool.isPresent() || timestampByCell.isEmpty()) {
+            return CassandraKeyValueService.super.getAsync(tableRef, timestampByCell);
+        }
+
+        SetMultimap<Long, Cell> cellsByTs = Multimaps.invertFrom(
+                Multimaps.forMap(timestampByCell), HashMultimap.<Long, Cell>create());
+        List<ListenableFuture<Map<Cell, Value>>> futures = Lists.newArrayList();
+        for (long ts : cellsByTs.keySet()) {
+            futures.add(loadCellsAsync(tableRef, cellsByTs.get(ts), ts));
+        }
+        return withAtlasDbExceptions(Futures.transform(
+                Futures.allAsList(futures),
+                CassandraKeyValueServiceImpl::mergeResults,
+                MoreExecutors.directExecutor()));
+    }
+
+    private ListenableFuture<Map<Cell, Value>> loadCellsAsync(TableReference tableRef, Set<Cell> cells, long startTs) {
+        StartTsResultsCollector collector = new StartTsResultsCollector(metricsManager, startTs);
+        List<ListenableFuture<Void>> futures = Lists.newArrayList();
+        Map<InetSocketAddress, List<Cell>> cellsByHost = HostPartitioner.partitionByHost(clientPool, cells,
+                Cells.getRowFunction());
+        for (Map.Entry<InetSocketAddress, List<Cell>> hostAndCells : cellsByHost.entrySet()) {
+            // As in CellLoader, each query reads a single column from many rows.
+            Multimap<byte[], Cell> cellsByColumn =
+                    TreeMultimap.create(UnsignedBytes.lexicographicalComparator(), Ordering.natural());
+            for (Cell cell : hostAndCells.getValue()) {
+                cellsByColumn.put(cell.getColumnName(), cell);
+            }
+            for (Map.Entry<byte[], Collection<Cell>> columnAndCells : cellsByColumn.asMap().entrySet()) {
+                SlicePredicate predicate = SlicePredicates.create(
+                        Range.singleColumn(columnAndCells.getKey(), startTs), Limit.ONE);
+                for (List<Cell> batch : Iterables.partition(
+                        columnAndCells.getValue(), AtlasDbConstants.TRANSACTION_TIMESTAMP_LOAD_BATCH_LIMIT)) {
+                    List<ByteBuffer> rowNames = batch.stream()
+                            .map(cell -> ByteBuffer.wrap(cell.getRowName()))
+                            .collect(Collectors.toList());
+                    futures.add(Futures.transform(
+                            multigetAsync(hostAndCells.getKey(), tableRef, rowNames, predicate),
+                            results -> {
+                                collector.visit(results);
+                                return null;
+                            },
+                            MoreExecutors.directExecutor()));
+                }
+            }
+        }
+        return Futures.transform(
+                Futures.allAsList(futures), ignored -> collector.getCollectedResults(), MoreExecutors.directExecutor());
+    }
+
+    private ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> multigetAsync(
+            InetSocketAddress host,
+            TableReference tableRef,
+            List<ByteBuffer> rowNames,
+            SlicePredicate predicate) {
+        ColumnParent colFam = new ColumnParent(internalTableName(tableRef));
+        ConsistencyLevel consistency = readConsistency;
+        return asyncClientPool.get().run(host,
+                (client, callback) -> client.multiget_slice(rowNames, colFam, predicate, consistency, callback),
+                Cassandra.AsyncClient.multiget_slice_call::getResult);
+    }
+
+    private static Map<Cell, Value> mergeResults(List<Map<Cell, Value>> results) {
+        Map<Cell, Value> merged = Maps.newHashMap();
+        results.forEach(merged::putAll);
+        return merged;
+    }
+
+    private static <V> ListenableFuture<V> withAtlasDbExceptions(ListenableFuture<V> future) {
+        return Futures.catching(future, Exception.class, e -> {
+            throw QosAwareThrowables.unwrapAndThrowRateLimitExceededOrAtlasDbDependencyException(e);
+        }, MoreExecutors.directExecutor());
+    }
+
     /**
      * Gets values from the key-value store for the specified rows and column range
      * as separate iterators for each row.
@@ -803,7 +960,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
                                                              BatchColumnRangeSelection batchColumnRangeSelection,
                                                              long startTs) {
         try {
-            return clientPool.runWithRetryOnHost(host,
+            return runReadWithRetryOnHost(host, tableRef, rows.get(0),
                     new FunctionCheckedException<CassandraClient, RowColumnRangeExtractor.RowColumnRangeResult,
                             Exception>() {
                         @Override
@@ -858,7 +1015,7 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             }
 
             TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]> page(final byte[] startCol) throws Exception {
-                return clientPool.runWithRetryOnHost(host, new FunctionCheckedException<
+                return runReadWithRetryOnHost(host, tableRef, row, new FunctionCheckedException<
                         CassandraClient,
                         TokenBackedBasicResultsPage<Entry<Cell, Value>, byte[]>,
                         Exception>() {
@@ -998,31 +1155,74 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
     @Override
     public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp)
             throws KeyAlreadyExistsException {
+        List<Callable<Void>> callables = Lists.newArrayList();
+        for (Map.Entry<InetSocketAddress, List<TableCellAndValue>> entry
+                : partitionMultiPutByHost(valuesByTable).entrySet()) {
+            callables.addAll(getMultiPutTasksForSingleHost(entry.getKey(), entry.getValue(), timestamp));
+        }
+        taskRunner.runAllTasksCancelOnFailure(callables);
+    }
+
+    /**
+     * Asynchronous version of {@link #multiPut(Map, long)}. If
+     * {@link CassandraKeyValueServiceConfig#asyncConnectionsPerHost()} is positive, the values are written over
+     * non-blocking connections, without blocking a thread for each batch; otherwise, they are written synchronously
+     * in the calling thread.
+     */
+    @Override
+    public ListenableFuture<Void> multiPutAsync(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable,
+            long timestamp) {
+        if (!asyncClientPool.isPresent()) {
+            try {
+                multiPut(valuesByTable, timestamp);
+                return Futures.immediateFuture(null);
+            } catch (RuntimeException e) {
+                return Futures.immediateFailedFuture(e);
+            }
+        }
+
+        List<ListenableFuture<Void>> futures = Lists.newArrayList();
+        for (Map.Entry<InetSocketAddress, List<TableCellAndValue>> entry
+                : partitionMultiPutByHost(valuesByTable).entrySet()) {
+            for (List<TableCellAndValue> batch : partitionMultiPutBatches(entry.getValue())) {
+                Map<ByteBuffer, Map<String, List<Mutation>>> mutationMap =
+                        convertToMutations(batch, timestamp).toMap();
+                futures.add(asyncClientPool.get().run(entry.getKey(),
+                        (client, callback) -> client.batch_mutate(mutationMap, writeConsistency, callback),
+                        (Cassandra.AsyncClient.batch_mutate_call call) -> {
+                            call.getResult();
+                            return null;
+                        }));
+            }
+        }
+        return withAtlasDbExceptions(Futures.transform(
+                Futures.allAsList(futures), ignored -> null, MoreExecutors.directExecutor()));
+    }
+
+    private Map<InetSocketAddress, List<TableCellAndValue>> partitionMultiPutByHost(
+            Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable) {
         List<TableCellAndValue> flattened = Lists.newArrayList();
         for (Map.Entry<TableReference, ? extends Map<Cell, byte[]>> tableAndValues : valuesByTable.entrySet()) {
             for (Map.Entry<Cell, byte[]> entry : tableAndValues.getValue().entrySet()) {
                 flattened.add(new TableCellAndValue(tableAndValues.getKey(), entry.getKey(), entry.getValue()));
             }
         }
-        Map<InetSocketAddress, List<TableCellAndValue>> partitionedByHost = HostPartitioner.partitionByHost(clientPool,
-                flattened, TableCellAndValue.EXTRACT_ROW_NAME_FUNCTION);
+        return HostPartitioner.partitionByHost(clientPool, flattened, TableCellAndValue.EXTRACT_ROW_NAME_FUNCTION);
+    }
 
-        List<Callable<Void>> callables = Lists.newArrayList();
-        for (Map.Entry<InetSocketAddress, List<TableCellAndValue>> entry : partitionedByHost.entrySet()) {
-            callables.addAll(getMultiPutTasksForSingleHost(entry.getKey(), entry.getValue(), timestamp));
-        }
-        taskRunner.runAllTasksCancelOnFailure(callables);
+    private Iterable<List<TableCellAndValue>> partitionMultiPutBatches(Collection<TableCellAndValue> values) {
+        return IterablePartitioner.partitionByCountAndBytes(values,
+                getMultiPutBatchCount(),
+                getMultiPutBatchSizeBytes(),
+                extractTableNames(values).toString(),
+                TableCellAndValue.SIZING_FUNCTION);
     }
 
     private List<Callable<Void>> getMultiPutTasksForSingleHost(final InetSocketAddress host,
                                                                Collection<TableCellAndValue> values,
                                                                final long timestamp) {
-        Iterable<List<TableCellAndValue>> partitioned =
-                IterablePartitioner.partitionByCountAndBytes(values,
-                        getMultiPutBatchCount(),
-                        getMultiPutBatchSizeBytes(),
-                        extractTableNames(values).toString(),
-                        TableCellAndValue.SIZING_FUNCTION);
+        Iterable<List<TableCellAndValue>> partitioned = partitionMultiPutBatches(values);
         List<Callable<Void>> tasks = Lists.newArrayList();
         for (final List<TableCellAndValue> batch : partitioned) {
             final Set<TableReference> tableRefs = extractTableNames(batch);
@@ -1925,6 +2125,8 @@ public class CassandraKeyValueServiceImpl extends AbstractKeyValueService implem
             // Continue with further transaction manager clean-up
             Thread.currentThread().interrupt();
         }
+        asyncClientPool.ifPresent(AsyncCassandraClientPool::close);
+        hedgedReads.ifPresent(HedgedReads::close);
         clientPool.shutdown();
         super.close();
     }
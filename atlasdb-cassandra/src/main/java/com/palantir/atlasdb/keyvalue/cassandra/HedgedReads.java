@@ -0,0 +1,386 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.ExponentiallyDecayingReservoir;
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.FutureCallback;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.cassandra.CassandraHedgedReadsConfig;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.common.base.FunctionCheckedException;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Hedges reads: a read that has not completed within {@link CassandraHedgedReadsConfig#latencyPercentile()} of the
+ * latency of recent reads from the same table is duplicated to another host, preferably another replica of the rows
+ * read, and the first of the two reads to succeed is used. This cuts the tail latency of reads when a single host is
+ * slow, for example during a garbage collection pause or a compaction, rather than waiting for the socket timeout
+ * before the read is retried on another host.
+ *
+ * The original read runs on the calling thread, and only hedges run on a pool of at most
+ * {@link #MAX_CONCURRENT_HEDGES} threads; a read is not hedged if the pool is busy. The read that loses is cancelled:
+ * blocking Thrift calls cannot be interrupted, so the connection it is using is closed, and it fails without being
+ * retried or counting against its host.
+ *
+ * Hedged reads are budgeted: each read earns {@link CassandraHedgedReadsConfig#maxHedgedReadProportion()} of a hedge,
+ * up to {@link #MAX_BUFFERED_HEDGES}, and a read is only hedged if a whole hedge has been earned. A table is not
+ * hedged until {@link #MIN_SAMPLES_BEFORE_HEDGING} reads from it have completed.
+ */
+final class HedgedReads implements AutoCloseable {
+    private static final Logger log = LoggerFactory.getLogger(HedgedReads.class);
+
+    @VisibleForTesting
+    static final int MIN_SAMPLES_BEFORE_HEDGING = 100;
+    @VisibleForTesting
+    static final int MAX_BUFFERED_HEDGES = 10;
+    private static final int MAX_CONCURRENT_HEDGES = 32;
+    private static final long BUDGET_UNITS_PER_HEDGE = 1_000;
+    private static final long HEDGE_DELAY_RECOMPUTE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CassandraClientPool clientPool;
+    private final CassandraHedgedReadsConfig config;
+    private final ListeningExecutorService hedgeExecutor;
+    private final ScheduledExecutorService hedgeScheduler;
+    private final LongSupplier nanoClock;
+    private final ConcurrentMap<TableReference, TableLatency> latencies = Maps.newConcurrentMap();
+    private final AtomicLong budgetUnits = new AtomicLong();
+    private final long budgetUnitsPerRead;
+    private final Meter hedgesSent;
+    private final Meter hedgesWon;
+
+    @VisibleForTesting
+    HedgedReads(
+            MetricsManager metricsManager,
+            CassandraClientPool clientPool,
+            CassandraHedgedReadsConfig config,
+            ExecutorService hedgeExecutor,
+            ScheduledExecutorService hedgeScheduler,
+            LongSupplier nanoClock) {
+        this.clientPool = clientPool;
+        this.config = config;
+        this.hedgeExecutor = MoreExecutors.listeningDecorator(hedgeExecutor);
+        this.hedgeScheduler = hedgeScheduler;
+        this.nanoClock = nanoClock;
+        this.budgetUnitsPerRead = Math.round(config.maxHedgedReadProportion() * BUDGET_UNITS_PER_HEDGE);
+        this.hedgesSent = metricsManager.registerOrGetMeter(HedgedReads.class, "hedgesSent");
+        this.hedgesWon = metricsManager.registerOrGetMeter(HedgedReads.class, "hedgesWon");
+    }
+
+    static Optional<HedgedReads> create(
+            MetricsManager metricsManager,
+            CassandraClientPool clientPool,
+            Optional<CassandraHedgedReadsConfig> config) {
+        return config.map(hedgedReadsConfig -> new HedgedReads(
+                metricsManager,
+                clientPool,
+                hedgedReadsConfig,
+                PTExecutors.newThreadPoolExecutor(0, MAX_CONCURRENT_HEDGES, 1, TimeUnit.MINUTES,
+                        new SynchronousQueue<>(),
+                        new NamedThreadFactory("Atlas Cassandra KVS hedged reads", true),
+                        new ThreadPoolExecutor.AbortPolicy()),
+                PTExecutors.newSingleThreadScheduledExecutor(
+                        new NamedThreadFactory("Atlas Cassandra KVS hedged read scheduler", true)),
+                System::nanoTime));
+    }
+
+    /**
+     * Runs the given read on the given host, with retries as per
+     * {@link CassandraClientPool#runWithRetryOnHost(InetSocketAddress, FunctionCheckedException)}, and hedges it if
+     * it is slow. The read must be idempotent, and must be able to be served by any host; the hedged read is sent to
+     * a replica of the given row if possible.
+     */
+    <V> V runWithRetryOnHost(
+            TableReference tableRef,
+            InetSocketAddress host,
+            byte[] row,
+            FunctionCheckedException<CassandraClient, V, Exception> fn) throws Exception {
+        earnBudget();
+        TableLatency latency = latencies.computeIfAbsent(tableRef, unused -> new TableLatency());
+
+        Optional<Long> hedgeDelayNanos = latency.getHedgeDelayNanos();
+        if (!hedgeDelayNanos.isPresent()) {
+            return new CancellableRead<>(fn, latency).run(host);
+        }
+        return new HedgedRead<>(host, row, fn, latency).run(hedgeDelayNanos.get());
+    }
+
+    @Override
+    public void close() {
+        hedgeScheduler.shutdownNow();
+        hedgeExecutor.shutdownNow();
+    }
+
+    private void earnBudget() {
+        long maxBudgetUnits = MAX_BUFFERED_HEDGES * BUDGET_UNITS_PER_HEDGE;
+        if (budgetUnits.get() < maxBudgetUnits) {
+            budgetUnits.updateAndGet(units -> Math.min(units + budgetUnitsPerRead, maxBudgetUnits));
+        }
+    }
+
+    private boolean trySpendBudget() {
+        long unitsBeforeSpending = budgetUnits.getAndUpdate(
+                units -> units >= BUDGET_UNITS_PER_HEDGE ? units - BUDGET_UNITS_PER_HEDGE : units);
+        return unitsBeforeSpending >= BUDGET_UNITS_PER_HEDGE;
+    }
+
+    private void refundBudget() {
+        budgetUnits.addAndGet(BUDGET_UNITS_PER_HEDGE);
+    }
+
+    private static <V> V getResult(ListenableFuture<V> future) throws Exception {
+        try {
+            return Uninterruptibles.getUninterruptibly(future);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof Error) {
+                throw (Error) cause;
+            }
+            throw cause instanceof Exception ? (Exception) cause : e;
+        }
+    }
+
+    /**
+     * A read and its hedge. The original read runs on the calling thread, and the hedge is sent from the hedge
+     * scheduler once the hedge delay has passed, if the original read has not completed by then.
+     */
+    private final class HedgedRead<V> {
+        private final InetSocketAddress host;
+        private final byte[] row;
+        private final CancellableRead<V> originalRead;
+        private final CancellableRead<V> hedge;
+        private final SettableFuture<V> hedgeResult = SettableFuture.create();
+
+        @GuardedBy("this")
+        private boolean originalReadCompleted = false;
+        @GuardedBy("this")
+        private boolean hedgeSent = false;
+
+        HedgedRead(
+                InetSocketAddress host,
+                byte[] row,
+                FunctionCheckedException<CassandraClient, V, Exception> fn,
+                TableLatency latency) {
+            this.host = host;
+            this.row = row;
+            this.originalRead = new CancellableRead<>(fn, latency);
+            this.hedge = new CancellableRead<>(fn, latency);
+        }
+
+        V run(long hedgeDelayNanos) throws Exception {
+            ScheduledFuture<?> scheduledHedge = hedgeScheduler.schedule(
+                    this::sendHedge, hedgeDelayNanos, TimeUnit.NANOSECONDS);
+            try {
+                V result = originalRead.run(host);
+                completeOriginalRead();
+                hedge.cancel();
+                return result;
+            } catch (Exception e) {
+                if (!completeOriginalRead()) {
+                    throw e;
+                }
+                try {
+                    return getResult(hedgeResult);
+                } catch (Exception hedgeFailure) {
+                    // The original read has already been retried on other hosts, so its failure is the one to throw.
+                    throw e;
+                }
+            } finally {
+                scheduledHedge.cancel(false);
+            }
+        }
+
+        /**
+         * Stops any hedge from being sent from now on, and returns whether one was sent.
+         */
+        private synchronized boolean completeOriginalRead() {
+            originalReadCompleted = true;
+            return hedgeSent;
+        }
+
+        private void sendHedge() {
+            Optional<InetSocketAddress> hedgeHost = clientPool.getAlternativeHostForKey(row, host);
+            if (!hedgeHost.isPresent() || !trySpendBudget()) {
+                return;
+            }
+            synchronized (this) {
+                if (originalReadCompleted) {
+                    refundBudget();
+                    return;
+                }
+                try {
+                    hedgeResult.setFuture(hedgeExecutor.submit(() -> hedge.run(hedgeHost.get())));
+                } catch (RejectedExecutionException e) {
+                    log.debug("Not hedging a read, as too many hedged reads are in flight", e);
+                    refundBudget();
+                    return;
+                }
+                hedgeSent = true;
+            }
+            hedgesSent.mark();
+            Futures.addCallback(hedgeResult, new FutureCallback<V>() {
+                @Override
+                public void onSuccess(V result) {
+                    if (originalRead.cancel()) {
+                        hedgesWon.mark();
+                    }
+                }
+
+                @Override
+                public void onFailure(Throwable throwable) {
+                    // The original read carries on regardless.
+                }
+            }, MoreExecutors.directExecutor());
+        }
+    }
+
+    /**
+     * A read that may be cancelled from another thread while it runs, by closing the connection it is using. Once
+     * cancelled, the read fails with a {@link CancellationException}, which is not retried and does not count against
+     * the host that the read was using: it is neither recorded as an exception on the host nor sampled in the host's
+     * latency score.
+     */
+    private final class CancellableRead<V> {
+        private final FunctionCheckedException<CassandraClient, V, Exception> fn;
+        private final TableLatency latency;
+
+        @GuardedBy("this")
+        private boolean cancelled = false;
+        @GuardedBy("this")
+        private boolean completed = false;
+        @GuardedBy("this")
+        private CassandraClient clientInUse = null;
+
+        CancellableRead(FunctionCheckedException<CassandraClient, V, Exception> fn, TableLatency latency) {
+            this.fn = fn;
+            this.latency = latency;
+        }
+
+        V run(InetSocketAddress host) throws Exception {
+            long startNanos = nanoClock.getAsLong();
+            V result = clientPool.runWithRetryOnHost(host, this::apply);
+            synchronized (this) {
+                checkNotCancelled();
+                completed = true;
+            }
+            latency.update(nanoClock.getAsLong() - startNanos);
+            return result;
+        }
+
+        /**
+         * Cancels this read, unless it has already completed, and returns whether it was cancelled.
+         */
+        synchronized boolean cancel() {
+            if (completed) {
+                return false;
+            }
+            cancelled = true;
+            if (clientInUse != null) {
+                clientInUse.getOutputProtocol().getTransport().close();
+            }
+            return true;
+        }
+
+        private V apply(CassandraClient client) throws Exception {
+            synchronized (this) {
+                checkNotCancelled();
+                clientInUse = client;
+            }
+            try {
+                return fn.apply(client);
+            } catch (Exception e) {
+                synchronized (this) {
+                    checkNotCancelled();
+                }
+                throw e;
+            } finally {
+                synchronized (this) {
+                    clientInUse = null;
+                }
+            }
+        }
+
+        @GuardedBy("this")
+        private void checkNotCancelled() {
+            if (cancelled) {
+                throw new CancellationException("The read was cancelled, as another read of its rows completed first");
+            }
+        }
+    }
+
+    /**
+     * The latencies of recent reads from a table, from which the delay after which reads from the table are hedged
+     * is recomputed at most every {@link #HEDGE_DELAY_RECOMPUTE_INTERVAL_NANOS}.
+     */
+    private final class TableLatency {
+        private final Histogram latencyNanos = new Histogram(new ExponentiallyDecayingReservoir());
+        private volatile Optional<Long> hedgeDelayNanos = Optional.empty();
+        private volatile long hedgeDelayComputedAtNanos;
+
+        void update(long readNanos) {
+            latencyNanos.update(readNanos);
+        }
+
+        Optional<Long> getHedgeDelayNanos() {
+            if (latencyNanos.getCount() < MIN_SAMPLES_BEFORE_HEDGING) {
+                return Optional.empty();
+            }
+            long now = nanoClock.getAsLong();
+            boolean isStale = now - hedgeDelayComputedAtNanos > HEDGE_DELAY_RECOMPUTE_INTERVAL_NANOS;
+            if (!hedgeDelayNanos.isPresent() || isStale) {
+                recomputeHedgeDelay(now);
+            }
+            return hedgeDelayNanos;
+        }
+
+        private synchronized void recomputeHedgeDelay(long now) {
+            long percentileNanos = (long) latencyNanos.getSnapshot().getValue(config.latencyPercentile());
+            hedgeDelayNanos = Optional.of(
+                    Math.max(percentileNanos, TimeUnit.MILLISECONDS.toNanos(config.minimumHedgeDelayMillis())));
+            hedgeDelayComputedAtNanos = now;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+
+/**
+ * An exponentially weighted moving average of the latency of requests to a host.
+ *
+ * The average decays towards zero while no requests complete, halving every {@link #DECAY_HALF_LIFE_NANOS}. A host
+ * that is avoided because it was once slow is thus eventually tried again, and its average then reflects how fast
+ * it is now.
+ */
+final class RequestLatencyEwma {
+    @VisibleForTesting
+    static final double WEIGHT_OF_LATEST_REQUEST = 0.25;
+    @VisibleForTesting
+    static final long DECAY_HALF_LIFE_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final LongSupplier nanoClock;
+
+    private double averageNanos = 0.0;
+    private long lastUpdatedNanos;
+    private boolean hasSamples = false;
+
+    RequestLatencyEwma(LongSupplier nanoClock) {
+        this.nanoClock = nanoClock;
+    }
+
+    synchronized void update(long latencyNanos) {
+        long now = nanoClock.getAsLong();
+        if (hasSamples) {
+            double decayedAverage = decay(averageNanos, now - lastUpdatedNanos);
+            averageNanos = WEIGHT_OF_LATEST_REQUEST * latencyNanos + (1 - WEIGHT_OF_LATEST_REQUEST) * decayedAverage;
+        } else {
+            averageNanos = latencyNanos;
+            hasSamples = true;
+        }
+        lastUpdatedNanos = now;
+    }
+
+    /**
+     * Returns the average latency in nanoseconds, or zero if no request has completed yet.
+     */
+    synchronized double getAverageNanos() {
+        if (!hasSamples) {
+            return 0.0;
+        }
+        return decay(averageNanos, nanoClock.getAsLong() - lastUpdatedNanos);
+    }
+
+    private static double decay(double average, long elapsedNanos) {
+        return average * Math.pow(0.5, (double) Math.max(elapsedNanos, 0) / DECAY_HALF_LIFE_NANOS);
+    }
+}
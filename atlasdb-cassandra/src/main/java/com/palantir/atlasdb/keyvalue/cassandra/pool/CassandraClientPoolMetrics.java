@@ -19,18 +19,24 @@ package com.palantir.atlasdb.keyvalue.cassandra.pool;
 import java.net.InetSocketAddress;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentMap;
 import java.util.function.Consumer;
 
 import com.codahale.metrics.Meter;
 import com.google.common.base.Supplier;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
 import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPool;
 import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraLogHelper;
 import com.palantir.atlasdb.util.MetricsManager;
 
 public class CassandraClientPoolMetrics {
     private final MetricsManager metricsManager;
     private final RequestMetrics aggregateMetrics;
     private final Map<InetSocketAddress, RequestMetrics> metricsByHost = new HashMap<>();
+    private final ConcurrentMap<InetSocketAddress, CassandraClientPoolingContainer> poolsWithScoreMetrics =
+            Maps.newConcurrentMap();
 
     public CassandraClientPoolMetrics(MetricsManager metricsManager) {
         this.metricsManager = metricsManager;
@@ -51,6 +57,7 @@ public class CassandraClientPoolMetrics {
     }
 
     public void recordRequestOnHost(CassandraClientPoolingContainer hostPool) {
+        registerScoreMetricIfAbsent(hostPool);
         updateMetricOnAggregateAndHost(hostPool, RequestMetrics::markRequest);
     }
 
@@ -62,6 +69,24 @@ public class CassandraClientPoolMetrics {
         updateMetricOnAggregateAndHost(hostPool, RequestMetrics::markRequestConnectionException);
     }
 
+    /**
+     * Registers a gauge of {@link CassandraClientPoolingContainer#getLatencyScore()}, tagged with the host, the first
+     * time that a request is made through a given pool. A pool that replaces an earlier pool for the same host
+     * replaces its gauge.
+     */
+    private void registerScoreMetricIfAbsent(CassandraClientPoolingContainer hostPool) {
+        InetSocketAddress host = hostPool.getHost();
+        if (poolsWithScoreMetrics.get(host) == hostPool) {
+            return;
+        }
+        if (poolsWithScoreMetrics.put(host, hostPool) != hostPool) {
+            metricsManager.registerMetric(
+                    CassandraClientPool.class, "hostLatencyScore",
+                    hostPool::getLatencyScore,
+                    ImmutableMap.of("host", CassandraLogHelper.host(host)));
+        }
+    }
+
     private void updateMetricOnAggregateAndHost(
             CassandraClientPoolingContainer hostPool,
             Consumer<RequestMetrics> metricsConsumer) {
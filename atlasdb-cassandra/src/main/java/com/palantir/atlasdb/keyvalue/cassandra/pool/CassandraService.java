@@ -37,6 +37,7 @@ import org.slf4j.LoggerFactory;
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableRangeMap;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Range;
@@ -189,7 +190,7 @@ public class CassandraService implements AutoCloseable {
             livingHosts = filteredHosts;
         }
 
-        Optional<InetSocketAddress> randomLivingHost = getRandomHostByActiveConnections(livingHosts);
+        Optional<InetSocketAddress> randomLivingHost = getHostToRouteTo(livingHosts);
         return randomLivingHost.flatMap(host -> Optional.ofNullable(pools.get(host)));
     }
 
@@ -210,13 +211,16 @@ public class CassandraService implements AutoCloseable {
         return currentPools;
     }
 
-    private Optional<InetSocketAddress> getRandomHostByActiveConnections(Set<InetSocketAddress> desiredHosts) {
+    private Optional<InetSocketAddress> getHostToRouteTo(Set<InetSocketAddress> desiredHosts) {
         Map<InetSocketAddress, CassandraClientPoolingContainer> matchingPools = Maps.filterKeys(currentPools,
                 desiredHosts::contains);
         if (matchingPools.isEmpty()) {
             return Optional.empty();
         }
 
+        if (config.latencyAwareHostSelection()) {
+            return Optional.of(LatencyAwareHosts.getFastestHost(matchingPools));
+        }
         return Optional.of(WeightedHosts.create(matchingPools).getRandomHost());
     }
 
@@ -254,7 +258,7 @@ public class CassandraService implements AutoCloseable {
         Set<InetSocketAddress> liveOwnerHosts = blacklist.filterBlacklistedHostsFrom(hostsForKey);
 
         if (!liveOwnerHosts.isEmpty()) {
-            Optional<InetSocketAddress> activeHost = getRandomHostByActiveConnections(liveOwnerHosts);
+            Optional<InetSocketAddress> activeHost = getHostToRouteTo(liveOwnerHosts);
             if (activeHost.isPresent()) {
                 return activeHost.get();
             }
@@ -270,6 +274,24 @@ public class CassandraService implements AutoCloseable {
         return getRandomGoodHost().getHost();
     }
 
+    /**
+     * Returns a live host other than the given host to route a query for the given key to, preferring the replicas
+     * of the key, or empty if there is no such host.
+     */
+    public Optional<InetSocketAddress> getAlternativeHostForKey(byte[] key, InetSocketAddress excludedHost) {
+        List<InetSocketAddress> hostsForKey = getHostsFor(key);
+        if (hostsForKey != null) {
+            Set<InetSocketAddress> liveOtherOwnerHosts = Sets.difference(
+                    blacklist.filterBlacklistedHostsFrom(hostsForKey), ImmutableSet.of(excludedHost));
+            Optional<InetSocketAddress> ownerHost = getHostToRouteTo(liveOtherOwnerHosts);
+            if (ownerHost.isPresent()) {
+                return ownerHost;
+            }
+        }
+        return getHostToRouteTo(Sets.difference(
+                blacklist.filterBlacklistedHostsFrom(currentPools.keySet()), ImmutableSet.of(excludedHost)));
+    }
+
     public void addPool(InetSocketAddress server) {
         int currentPoolNumber = cassandraHosts.indexOf(server) + 1;
         currentPools.put(server,
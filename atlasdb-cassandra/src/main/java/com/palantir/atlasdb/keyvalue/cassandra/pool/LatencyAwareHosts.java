@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+
+/**
+ * Picks the host that is expected to serve a request the fastest, by
+ * {@link CassandraClientPoolingContainer#getLatencyScore()}. This is a client-side equivalent of Cassandra's dynamic
+ * snitch: given the replicas of a key, it routes to the one that has recently been responding the fastest and is
+ * not already busy. Ties, such as between hosts that have not yet served a request, are broken at random.
+ */
+public final class LatencyAwareHosts {
+    private LatencyAwareHosts() {
+        // Utility class.
+    }
+
+    public static InetSocketAddress getFastestHost(Map<InetSocketAddress, CassandraClientPoolingContainer> pools) {
+        Preconditions.checkArgument(!pools.isEmpty(), "pools should be non-empty");
+
+        List<InetSocketAddress> fastestHosts = Lists.newArrayList();
+        double lowestScore = Double.POSITIVE_INFINITY;
+        for (Map.Entry<InetSocketAddress, CassandraClientPoolingContainer> poolEntry : pools.entrySet()) {
+            double score = poolEntry.getValue().getLatencyScore();
+            if (score < lowestScore) {
+                fastestHosts.clear();
+                lowestScore = score;
+            }
+            if (score == lowestScore) {
+                fastestHosts.add(poolEntry.getKey());
+            }
+        }
+        return fastestHosts.get(ThreadLocalRandom.current().nextInt(fastestHosts.size()));
+    }
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyListOf;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.nio.ByteBuffer;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.cassandra.thrift.Cassandra;
+import org.apache.cassandra.thrift.Column;
+import org.apache.cassandra.thrift.ColumnOrSuperColumn;
+import org.apache.cassandra.thrift.ColumnParent;
+import org.apache.cassandra.thrift.ConsistencyLevel;
+import org.apache.cassandra.thrift.InvalidRequestException;
+import org.apache.cassandra.thrift.SlicePredicate;
+import org.apache.thrift.server.TNonblockingServer;
+import org.apache.thrift.server.TServer;
+import org.apache.thrift.transport.TNonblockingServerSocket;
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.palantir.atlasdb.cassandra.CassandraKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.cassandra.thrift.SlicePredicates;
+
+public class AsyncCassandraClientPoolTest {
+    private static final String KEYSPACE = "keyspace";
+    private static final ByteBuffer ROW = ByteBuffer.wrap(new byte[] {1, 2, 3});
+    private static final ColumnParent COLUMN_PARENT = new ColumnParent("table");
+    private static final SlicePredicate PREDICATE =
+            SlicePredicates.create(SlicePredicates.Range.ALL, SlicePredicates.Limit.NO_LIMIT);
+    private static final Map<ByteBuffer, List<ColumnOrSuperColumn>> RESULT = ImmutableMap.of(ROW, ImmutableList.of(
+            new ColumnOrSuperColumn().setColumn(new Column(ByteBuffer.wrap(new byte[] {4})).setTimestamp(5))));
+
+    private final Cassandra.Iface cassandra = mock(Cassandra.Iface.class);
+    private final CassandraKeyValueServiceConfig config = mock(CassandraKeyValueServiceConfig.class);
+
+    private TServer server;
+    private InetSocketAddress host;
+    private AsyncCassandraClientPool pool;
+
+    @Before
+    public void setUp() throws Exception {
+        host = new InetSocketAddress("localhost", getFreePort());
+        server = new TNonblockingServer(new TNonblockingServer.Args(new TNonblockingServerSocket(host))
+                .processor(new Cassandra.Processor<>(cassandra)));
+        new Thread(server::serve).start();
+        Awaitility.await().atMost(10, TimeUnit.SECONDS).until(server::isServing);
+
+        when(config.asyncConnectionsPerHost()).thenReturn(1);
+        when(config.getKeyspaceOrThrow()).thenReturn(KEYSPACE);
+        when(config.credentials()).thenReturn(Optional.empty());
+        when(config.socketTimeoutMillis()).thenReturn(2_000);
+        when(config.socketQueryTimeoutMillis()).thenReturn(10_000);
+        when(cassandra.multiget_slice(anyListOf(ByteBuffer.class), any(), any(), any())).thenReturn(RESULT);
+
+        pool = AsyncCassandraClientPool.create(config).get();
+    }
+
+    @After
+    public void tearDown() {
+        pool.close();
+        server.stop();
+    }
+
+    @Test
+    public void isNotCreatedIfNoConnectionsAreConfigured() {
+        when(config.asyncConnectionsPerHost()).thenReturn(0);
+
+        assertThat(AsyncCassandraClientPool.create(config)).isEmpty();
+    }
+
+    @Test
+    public void isNotCreatedIfSslIsConfigured() {
+        when(config.usingSsl()).thenReturn(true);
+
+        assertThat(AsyncCassandraClientPool.create(config)).isEmpty();
+    }
+
+    @Test
+    public void runsCallsOnConnectionsToTheGivenKeyspace() throws Exception {
+        assertThat(multiget().get()).isEqualTo(RESULT);
+
+        verify(cassandra).set_keyspace(KEYSPACE);
+        verify(cassandra).multiget_slice(ImmutableList.of(ROW), COLUMN_PARENT, PREDICATE, ConsistencyLevel.QUORUM);
+    }
+
+    @Test
+    public void reusesConnections() throws Exception {
+        multiget().get();
+        multiget().get();
+
+        verify(cassandra, times(1)).set_keyspace(KEYSPACE);
+        verify(cassandra, times(2))
+                .multiget_slice(ImmutableList.of(ROW), COLUMN_PARENT, PREDICATE, ConsistencyLevel.QUORUM);
+    }
+
+    @Test
+    public void callsWaitForAConnectionOnceThePoolIsFull() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        when(cassandra.multiget_slice(anyListOf(ByteBuffer.class), any(), any(), any())).thenAnswer(invocation -> {
+            latch.await();
+            return RESULT;
+        });
+
+        List<ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>>> futures = Lists.newArrayList();
+        for (int i = 0; i < 10; i++) {
+            futures.add(multiget());
+        }
+        for (ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> future : futures) {
+            assertThat(future.isDone()).isFalse();
+        }
+        latch.countDown();
+
+        for (ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> future : futures) {
+            assertThat(future.get()).isEqualTo(RESULT);
+        }
+        verify(cassandra, times(1)).set_keyspace(KEYSPACE);
+    }
+
+    @Test
+    public void completesFuturesOffTheSelectorThread() throws Exception {
+        ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> future = multiget();
+        SettableFuture<String> listenerThreadName = SettableFuture.create();
+        future.addListener(() -> listenerThreadName.set(Thread.currentThread().getName()),
+                MoreExecutors.directExecutor());
+
+        future.get();
+        assertThat(listenerThreadName.get(10, TimeUnit.SECONDS)).startsWith("Atlas Cassandra KVS async callbacks");
+    }
+
+    @Test
+    public void propagatesCassandraExceptionsAndKeepsTheConnection() throws Exception {
+        when(cassandra.multiget_slice(anyListOf(ByteBuffer.class), any(), any(), any()))
+                .thenThrow(new InvalidRequestException("bad request"))
+                .thenReturn(RESULT);
+
+        assertThatThrownBy(() -> multiget().get())
+                .isInstanceOf(ExecutionException.class)
+                .hasCauseInstanceOf(InvalidRequestException.class);
+        assertThat(multiget().get()).isEqualTo(RESULT);
+        verify(cassandra, times(1)).set_keyspace(KEYSPACE);
+    }
+
+    @Test
+    public void failsCallsToUnreachableHosts() throws Exception {
+        InetSocketAddress unreachableHost = new InetSocketAddress("localhost", getFreePort());
+
+        ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> future = pool.run(unreachableHost,
+                (client, callback) -> client.multiget_slice(
+                        ImmutableList.of(ROW), COLUMN_PARENT, PREDICATE, ConsistencyLevel.QUORUM, callback),
+                Cassandra.AsyncClient.multiget_slice_call::getResult);
+
+        assertThatThrownBy(future::get).isInstanceOf(ExecutionException.class);
+    }
+
+    @Test
+    public void failsCallsAfterClosing() {
+        pool.close();
+
+        assertThatThrownBy(() -> multiget().get()).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    @Test
+    public void failsCallsInFlightOnClose() throws Exception {
+        CountDownLatch latch = new CountDownLatch(1);
+        when(cassandra.multiget_slice(anyListOf(ByteBuffer.class), any(), any(), any())).thenAnswer(invocation -> {
+            latch.await();
+            return RESULT;
+        });
+
+        ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> inFlight = multiget();
+        ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> waiting = multiget();
+        verify(cassandra, timeout(10_000)).multiget_slice(anyListOf(ByteBuffer.class), any(), any(), any());
+
+        pool.close();
+        latch.countDown();
+
+        assertThatThrownBy(() -> inFlight.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> waiting.get(10, TimeUnit.SECONDS)).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private ListenableFuture<Map<ByteBuffer, List<ColumnOrSuperColumn>>> multiget() {
+        return pool.run(host,
+                (client, callback) -> client.multiget_slice(
+                        ImmutableList.of(ROW), COLUMN_PARENT, PREDICATE, ConsistencyLevel.QUORUM, callback),
+                Cassandra.AsyncClient.multiget_slice_call::getResult);
+    }
+
+    private static int getFreePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0)) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -31,6 +31,7 @@ import java.util.LinkedList;
 import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Function;
@@ -151,6 +152,12 @@ public class CassandraClientPoolTest {
         verifyAggregateFailureMetrics(0.25, 0.0);
     }
 
+    @Test
+    public void cancelledRequestsDoNotCountAsFailures() {
+        runTwoNoopsOnTwoHostsAndThrowFromSecondRunOnFirstHost(new CancellationException("test_cancellation"));
+        verifyAggregateFailureMetrics(0.0, 0.0);
+    }
+
     private void runTwoNoopsOnTwoHostsAndThrowFromSecondRunOnFirstHost(Exception exception) {
         CassandraClientPoolImpl cassandraClientPool = clientPoolWithServersInCurrentPool(
                 ImmutableSet.of(HOST_1, HOST_2));
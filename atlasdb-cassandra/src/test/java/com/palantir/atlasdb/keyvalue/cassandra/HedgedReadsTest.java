@@ -0,0 +1,235 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.apache.thrift.protocol.TProtocol;
+import org.apache.thrift.transport.TTransport;
+import org.apache.thrift.transport.TTransportException;
+import org.junit.After;
+import org.junit.Test;
+
+import com.palantir.atlasdb.cassandra.CassandraHedgedReadsConfig;
+import com.palantir.atlasdb.cassandra.ImmutableCassandraHedgedReadsConfig;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.util.MetricsManager;
+import com.palantir.atlasdb.util.MetricsManagers;
+import com.palantir.common.base.FunctionCheckedException;
+
+public class HedgedReadsTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("ns.table");
+    private static final InetSocketAddress HOST = new InetSocketAddress(1);
+    private static final InetSocketAddress OTHER_HOST = new InetSocketAddress(2);
+    private static final byte[] ROW = {1, 2, 3};
+    private static final String RESULT = "result";
+    private static final String HEDGED_RESULT = "hedged";
+    private static final FunctionCheckedException<CassandraClient, String, Exception> READ = client -> RESULT;
+
+    private final MetricsManager metricsManager = MetricsManagers.createForTests();
+    private final CassandraClientPool clientPool = mock(CassandraClientPool.class);
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final CountDownLatch slowReadLatch = new CountDownLatch(1);
+
+    @After
+    public void tearDown() {
+        slowReadLatch.countDown();
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void doesNotHedgeReadsFromTablesWithoutEnoughSamples() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        whenReadingFromHostReturn(HOST, RESULT);
+
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ)).isEqualTo(RESULT);
+
+        verify(clientPool, never()).getAlternativeHostForKey(any(), any());
+    }
+
+    @Test
+    public void runsTheOriginalReadOnTheCallingThread() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        primeLatencies(hedgedReads);
+        AtomicReference<Thread> readingThread = new AtomicReference<>();
+        when(clientPool.runWithRetryOnHost(eq(HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    readingThread.set(Thread.currentThread());
+                    return RESULT;
+                });
+
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ)).isEqualTo(RESULT);
+
+        assertThat(readingThread.get()).isEqualTo(Thread.currentThread());
+    }
+
+    @Test
+    public void hedgesSlowReadsToAnotherHostAndCancelsTheOriginalRead() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        primeLatencies(hedgedReads);
+        CassandraClient client = clientThatReleasesTheSlowReadWhenClosed();
+        when(clientPool.runWithRetryOnHost(eq(HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> invocation.getArgumentAt(1, FunctionCheckedException.class).apply(client));
+        whenReadingFromHostReturn(OTHER_HOST, HEDGED_RESULT);
+        when(clientPool.getAlternativeHostForKey(ROW, HOST)).thenReturn(Optional.of(OTHER_HOST));
+
+        FunctionCheckedException<CassandraClient, String, Exception> readUntilConnectionClosed = unused -> {
+            slowReadLatch.await();
+            throw new TTransportException("connection closed");
+        };
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, readUntilConnectionClosed))
+                .isEqualTo(HEDGED_RESULT);
+
+        assertThat(getMeterCount("hedgesSent")).isEqualTo(1);
+        assertThat(getMeterCount("hedgesWon")).isEqualTo(1);
+    }
+
+    @Test
+    public void usesTheOriginalReadIfTheHedgedReadFails() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        primeLatencies(hedgedReads);
+        whenReadingFromHostWaitForLatch(HOST);
+        when(clientPool.runWithRetryOnHost(eq(OTHER_HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    slowReadLatch.countDown();
+                    throw new IllegalStateException("hedge failed");
+                });
+        when(clientPool.getAlternativeHostForKey(ROW, HOST)).thenReturn(Optional.of(OTHER_HOST));
+
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ)).isEqualTo(RESULT);
+
+        assertThat(getMeterCount("hedgesSent")).isEqualTo(1);
+        assertThat(getMeterCount("hedgesWon")).isEqualTo(0);
+    }
+
+    @Test
+    public void throwsTheFailureOfTheOriginalReadIfBothReadsFail() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        primeLatencies(hedgedReads);
+        when(clientPool.runWithRetryOnHost(eq(HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    slowReadLatch.await();
+                    throw new IllegalStateException("original read failed");
+                });
+        when(clientPool.runWithRetryOnHost(eq(OTHER_HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    slowReadLatch.countDown();
+                    throw new IllegalArgumentException("hedge failed");
+                });
+        when(clientPool.getAlternativeHostForKey(ROW, HOST)).thenReturn(Optional.of(OTHER_HOST));
+
+        assertThatThrownBy(() -> hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ))
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessage("original read failed");
+    }
+
+    @Test
+    public void doesNotHedgeReadsWhenTooManyHedgesAreInFlight() throws Exception {
+        executor.shutdown();
+        HedgedReads hedgedReads = createHedgedReads(1.0);
+        primeLatencies(hedgedReads);
+        when(clientPool.runWithRetryOnHost(eq(HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    Thread.sleep(50);
+                    return RESULT;
+                });
+        when(clientPool.getAlternativeHostForKey(ROW, HOST)).thenReturn(Optional.of(OTHER_HOST));
+
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ)).isEqualTo(RESULT);
+
+        verify(clientPool, never()).runWithRetryOnHost(eq(OTHER_HOST), any(FunctionCheckedException.class));
+        assertThat(getMeterCount("hedgesSent")).isEqualTo(0);
+    }
+
+    @Test
+    public void doesNotHedgeReadsBeyondTheBudget() throws Exception {
+        HedgedReads hedgedReads = createHedgedReads(0.0);
+        primeLatencies(hedgedReads);
+        when(clientPool.runWithRetryOnHost(eq(HOST), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    Thread.sleep(50);
+                    return RESULT;
+                });
+        when(clientPool.getAlternativeHostForKey(ROW, HOST)).thenReturn(Optional.of(OTHER_HOST));
+
+        assertThat(hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ)).isEqualTo(RESULT);
+
+        verify(clientPool, never()).runWithRetryOnHost(eq(OTHER_HOST), any(FunctionCheckedException.class));
+        assertThat(getMeterCount("hedgesSent")).isEqualTo(0);
+    }
+
+    private HedgedReads createHedgedReads(double maxHedgedReadProportion) {
+        CassandraHedgedReadsConfig config = ImmutableCassandraHedgedReadsConfig.builder()
+                .minimumHedgeDelayMillis(1)
+                .maxHedgedReadProportion(maxHedgedReadProportion)
+                .build();
+        return new HedgedReads(metricsManager, clientPool, config, executor, scheduler, System::nanoTime);
+    }
+
+    private void primeLatencies(HedgedReads hedgedReads) throws Exception {
+        whenReadingFromHostReturn(HOST, RESULT);
+        for (int i = 0; i < HedgedReads.MIN_SAMPLES_BEFORE_HEDGING; i++) {
+            hedgedReads.runWithRetryOnHost(TABLE, HOST, ROW, READ);
+        }
+    }
+
+    private void whenReadingFromHostReturn(InetSocketAddress host, String result) throws Exception {
+        when(clientPool.runWithRetryOnHost(eq(host), any(FunctionCheckedException.class))).thenReturn(result);
+    }
+
+    private void whenReadingFromHostWaitForLatch(InetSocketAddress host) throws Exception {
+        when(clientPool.runWithRetryOnHost(eq(host), any(FunctionCheckedException.class))).thenAnswer(
+                invocation -> {
+                    slowReadLatch.await();
+                    return RESULT;
+                });
+    }
+
+    private CassandraClient clientThatReleasesTheSlowReadWhenClosed() {
+        TTransport transport = mock(TTransport.class);
+        doAnswer(invocation -> {
+            slowReadLatch.countDown();
+            return null;
+        }).when(transport).close();
+        TProtocol protocol = mock(TProtocol.class);
+        when(protocol.getTransport()).thenReturn(transport);
+        CassandraClient client = mock(CassandraClient.class);
+        when(client.getOutputProtocol()).thenReturn(protocol);
+        return client;
+    }
+
+    private long getMeterCount(String name) {
+        return metricsManager.getRegistry().meter(HedgedReads.class.getName() + "." + name).getCount();
+    }
+}
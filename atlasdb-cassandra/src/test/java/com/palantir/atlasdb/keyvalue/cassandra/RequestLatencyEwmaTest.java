@@ -0,0 +1,74 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+public class RequestLatencyEwmaTest {
+    private static final double TOLERANCE = 1e-6;
+
+    private final AtomicLong nanos = new AtomicLong();
+    private final RequestLatencyEwma latency = new RequestLatencyEwma(nanos::get);
+
+    @Test
+    public void isZeroBeforeAnyRequestCompletes() {
+        assertThat(latency.getAverageNanos()).isEqualTo(0.0);
+    }
+
+    @Test
+    public void firstRequestSetsTheAverage() {
+        latency.update(1_000);
+
+        assertThat(latency.getAverageNanos()).isCloseTo(1_000.0, within(TOLERANCE));
+    }
+
+    @Test
+    public void laterRequestsAreWeightedIntoTheAverage() {
+        latency.update(1_000);
+        latency.update(2_000);
+
+        double expected = RequestLatencyEwma.WEIGHT_OF_LATEST_REQUEST * 2_000
+                + (1 - RequestLatencyEwma.WEIGHT_OF_LATEST_REQUEST) * 1_000;
+        assertThat(latency.getAverageNanos()).isCloseTo(expected, within(TOLERANCE));
+    }
+
+    @Test
+    public void averageHalvesEveryHalfLifeWithoutRequests() {
+        latency.update(1_000);
+
+        nanos.addAndGet(RequestLatencyEwma.DECAY_HALF_LIFE_NANOS);
+        assertThat(latency.getAverageNanos()).isCloseTo(500.0, within(TOLERANCE));
+
+        nanos.addAndGet(RequestLatencyEwma.DECAY_HALF_LIFE_NANOS);
+        assertThat(latency.getAverageNanos()).isCloseTo(250.0, within(TOLERANCE));
+    }
+
+    @Test
+    public void decayedAverageIsWeightedWithTheNextRequest() {
+        latency.update(1_000);
+        nanos.addAndGet(RequestLatencyEwma.DECAY_HALF_LIFE_NANOS);
+        latency.update(1_000);
+
+        double expected = RequestLatencyEwma.WEIGHT_OF_LATEST_REQUEST * 1_000
+                + (1 - RequestLatencyEwma.WEIGHT_OF_LATEST_REQUEST) * 500;
+        assertThat(latency.getAverageNanos()).isCloseTo(expected, within(TOLERANCE));
+    }
+}
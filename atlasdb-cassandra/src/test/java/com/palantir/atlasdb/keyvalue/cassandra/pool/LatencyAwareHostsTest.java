@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.cassandra.pool;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetSocketAddress;
+import java.util.Map;
+import java.util.Set;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Sets;
+import com.palantir.atlasdb.keyvalue.cassandra.CassandraClientPoolingContainer;
+
+public class LatencyAwareHostsTest {
+    private static final InetSocketAddress HOST_1 = new InetSocketAddress(1);
+    private static final InetSocketAddress HOST_2 = new InetSocketAddress(2);
+    private static final InetSocketAddress HOST_3 = new InetSocketAddress(3);
+
+    @Test
+    public void picksTheHostWithTheLowestScore() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockClientPoolingContainerWithScore(300.0),
+                HOST_2, createMockClientPoolingContainerWithScore(100.0),
+                HOST_3, createMockClientPoolingContainerWithScore(200.0));
+
+        for (int i = 0; i < 100; i++) {
+            assertThat(LatencyAwareHosts.getFastestHost(pools)).isEqualTo(HOST_2);
+        }
+    }
+
+    @Test
+    public void breaksTiesAtRandom() {
+        Map<InetSocketAddress, CassandraClientPoolingContainer> pools = ImmutableMap.of(
+                HOST_1, createMockClientPoolingContainerWithScore(0.0),
+                HOST_2, createMockClientPoolingContainerWithScore(0.0),
+                HOST_3, createMockClientPoolingContainerWithScore(100.0));
+
+        Set<InetSocketAddress> pickedHosts = Sets.newHashSet();
+        for (int i = 0; i < 1000; i++) {
+            pickedHosts.add(LatencyAwareHosts.getFastestHost(pools));
+        }
+        assertThat(pickedHosts).containsExactlyInAnyOrder(HOST_1, HOST_2);
+    }
+
+    @Test
+    public void throwsIfThereAreNoHosts() {
+        assertThatThrownBy(() -> LatencyAwareHosts.getFastestHost(ImmutableMap.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static CassandraClientPoolingContainer createMockClientPoolingContainerWithScore(double score) {
+        CassandraClientPoolingContainer container = mock(CassandraClientPoolingContainer.class);
+        when(container.getLatencyScore()).thenReturn(score);
+        return container;
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * Copyright 2016 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import javax.annotation.Nullable;
+
+import com.codahale.metrics.MetricRegistry;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Supplier;
+import com.palantir.atlasdb.util.AtlasDbMetrics;
+
+/**
+ * A {@link TimestampCache} backed by a Caffeine cache. This is simple and has good hit rates, but stores boxed
+ * entries on heap; see {@link OffHeapTimestampCache} for an alternative suited to very large caches.
+ */
+public class DefaultTimestampCache implements TimestampCache {
+    private final Supplier<Long> size;
+
+    private final Cache<Long, Long> startToCommitTimestampCache;
+    private final Policy.Eviction<Long, Long> evictionPolicy;
+
+    @VisibleForTesting
+    static Cache<Long, Long> createCache(long size) {
+        return Caffeine.newBuilder()
+                .maximumSize(size)
+                .recordStats()
+                .build();
+    }
+
+    public DefaultTimestampCache(MetricRegistry metricRegistry, Supplier<Long> size) {
+        this.size = size;
+        startToCommitTimestampCache = createCache(size.get());
+        evictionPolicy = startToCommitTimestampCache.policy().eviction().get();
+        AtlasDbMetrics.registerCache(metricRegistry, startToCommitTimestampCache,
+                MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
+    }
+
+    @VisibleForTesting
+    DefaultTimestampCache(Cache<Long, Long> cache) {
+        this.evictionPolicy = cache.policy().eviction().get();
+        this.size = evictionPolicy::getMaximum;
+        this.startToCommitTimestampCache = cache;
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        resizeIfNecessary();
+        return startToCommitTimestampCache.getIfPresent(startTimestamp);
+    }
+
+    private void resizeIfNecessary() {
+        if (evictionPolicy.getMaximum() != size.get()) {
+            evictionPolicy.setMaximum(size.get());
+        }
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        startToCommitTimestampCache.put(startTimestamp, commitTimestamp);
+    }
+
+    @Override
+    public void clear() {
+        startToCommitTimestampCache.invalidateAll();
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+
+import javax.annotation.Nullable;
+
+import com.codahale.metrics.Counter;
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+
+/**
+ * A {@link TimestampCache} that stores entries as primitive longs in direct (off-heap) memory, so that caches of
+ * tens of millions of entries neither occupy gigabytes of heap nor put pressure on the garbage collector.
+ *
+ * Entries are partitioned into segments, each of which is an open-addressing hash table with linear probing, guarded
+ * by its own monitor. Eviction is approximately LRU, using the CLOCK algorithm: reading an entry marks it as
+ * referenced, and when a segment is full the clock hand sweeps over its entries, clearing reference marks until it
+ * finds an unreferenced entry to evict.
+ *
+ * Each entry costs 16 bytes off heap, and tables are sized to be at most three quarters full. If the configured size
+ * changes, the cache is reallocated and its entries are copied across, evicting as usual if the new size is smaller.
+ * Entries added to the old table while the copy is in progress may be lost, which only costs a later cache miss.
+ */
+public final class OffHeapTimestampCache implements TimestampCache {
+    private static final int MAX_SEGMENTS = 64;
+    private static final int MIN_ENTRIES_PER_SEGMENT = 1024;
+    private static final int MAX_SLOTS_PER_SEGMENT = 1 << 26;
+
+    private final Supplier<Long> size;
+    private final Counter hits;
+    private final Counter misses;
+    private final Counter evictions;
+
+    private volatile Table table;
+
+    public OffHeapTimestampCache(MetricRegistry metricRegistry, Supplier<Long> size) {
+        this.size = size;
+        this.hits = metricRegistry.counter(MetricRegistry.name(OffHeapTimestampCache.class, "hit"));
+        this.misses = metricRegistry.counter(MetricRegistry.name(OffHeapTimestampCache.class, "miss"));
+        this.evictions = metricRegistry.counter(MetricRegistry.name(OffHeapTimestampCache.class, "eviction"));
+        this.table = new Table(size.get());
+    }
+
+    @Override
+    @Nullable
+    public Long getCommitTimestampIfPresent(Long startTimestamp) {
+        long commitTimestamp = get(resizeIfNecessary(), startTimestamp);
+        return commitTimestamp == NOT_PRESENT ? null : commitTimestamp;
+    }
+
+    @Override
+    public long[] getCommitTimestampsIfPresent(long[] startTimestamps) {
+        Table current = resizeIfNecessary();
+        long[] commitTimestamps = new long[startTimestamps.length];
+        for (int i = 0; i < startTimestamps.length; i++) {
+            commitTimestamps[i] = get(current, startTimestamps[i]);
+        }
+        return commitTimestamps;
+    }
+
+    private long get(Table current, long startTimestamp) {
+        long commitTimestamp = current.get(startTimestamp);
+        if (commitTimestamp == NOT_PRESENT) {
+            misses.inc();
+        } else {
+            hits.inc();
+        }
+        return commitTimestamp;
+    }
+
+    @Override
+    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
+        if (resizeIfNecessary().put(startTimestamp, commitTimestamp)) {
+            evictions.inc();
+        }
+    }
+
+    @Override
+    public void clear() {
+        table.clear();
+    }
+
+    @VisibleForTesting
+    long size() {
+        return table.size();
+    }
+
+    private Table resizeIfNecessary() {
+        Table current = table;
+        long maxEntries = size.get();
+        if (current.maxEntries != maxEntries) {
+            synchronized (this) {
+                current = table;
+                if (current.maxEntries != maxEntries) {
+                    Table resized = new Table(maxEntries);
+                    current.copyTo(resized);
+                    table = resized;
+                    current = resized;
+                }
+            }
+        }
+        return current;
+    }
+
+    /**
+     * Murmur3's 64-bit finalizer, so that the low and high bits of the hash are independent of one another. The low
+     * bits are used to select a segment, and the high bits the slot within that segment.
+     */
+    private static long hash(long key) {
+        long hash = key;
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+
+    private static final class Table {
+        private final long maxEntries;
+        private final Segment[] segments;
+        private final int segmentMask;
+
+        Table(long maxEntries) {
+            Preconditions.checkArgument(maxEntries > 0, "Timestamp cache size must be positive, but was %s",
+                    maxEntries);
+            this.maxEntries = maxEntries;
+            int numSegments = (int) Math.min(MAX_SEGMENTS,
+                    Long.highestOneBit(Math.max(1, maxEntries / MIN_ENTRIES_PER_SEGMENT)));
+            int entriesPerSegment = (int) Math.min(Integer.MAX_VALUE, (maxEntries + numSegments - 1) / numSegments);
+            this.segments = new Segment[numSegments];
+            for (int i = 0; i < numSegments; i++) {
+                segments[i] = new Segment(entriesPerSegment);
+            }
+            this.segmentMask = numSegments - 1;
+        }
+
+        long get(long key) {
+            long hash = hash(key);
+            return segments[(int) hash & segmentMask].get(key, hash);
+        }
+
+        /**
+         * @return whether an entry was evicted to make room for this one
+         */
+        boolean put(long key, long value) {
+            if (key == Segment.EMPTY_KEY) {
+                // Not representable, and never a valid start timestamp in any case.
+                return false;
+            }
+            long hash = hash(key);
+            return segments[(int) hash & segmentMask].put(key, value, hash);
+        }
+
+        void clear() {
+            for (Segment segment : segments) {
+                segment.clear();
+            }
+        }
+
+        void copyTo(Table destination) {
+            for (Segment segment : segments) {
+                segment.copyTo(destination);
+            }
+        }
+
+        long size() {
+            long size = 0;
+            for (Segment segment : segments) {
+                size += segment.size();
+            }
+            return size;
+        }
+    }
+
+    private static final class Segment {
+        private static final long EMPTY_KEY = Long.MIN_VALUE;
+
+        // Keys are at even indices, and the corresponding values at the following odd index.
+        private final LongBuffer entries;
+        private final long[] referenced;
+        private final int slotMask;
+        private final int maxEntries;
+
+        private int size;
+        private int clockHand;
+
+        Segment(int maxEntries) {
+            long minSlots = Math.max(2L, (long) maxEntries + maxEntries / 3);
+            Preconditions.checkArgument(minSlots <= MAX_SLOTS_PER_SEGMENT,
+                    "Timestamp cache segment of %s entries is too large", maxEntries);
+            int slots = Integer.highestOneBit((int) minSlots - 1) << 1;
+            this.entries = ByteBuffer.allocateDirect(slots * 2 * Long.BYTES)
+                    .order(ByteOrder.nativeOrder())
+                    .asLongBuffer();
+            this.referenced = new long[(slots + Long.SIZE - 1) / Long.SIZE];
+            this.slotMask = slots - 1;
+            this.maxEntries = Math.min(maxEntries, slots - 1);
+            clear();
+        }
+
+        synchronized long get(long key, long hash) {
+            int slot = find(key, hash);
+            if (slot < 0) {
+                return NOT_PRESENT;
+            }
+            setReferenced(slot, true);
+            return valueAt(slot);
+        }
+
+        synchronized boolean put(long key, long value, long hash) {
+            int slot = find(key, hash);
+            if (slot >= 0) {
+                entries.put(2 * slot + 1, value);
+                return false;
+            }
+
+            boolean evicted = false;
+            if (size >= maxEntries) {
+                evict();
+                evicted = true;
+            }
+            slot = idealSlot(hash);
+            while (keyAt(slot) != EMPTY_KEY) {
+                slot = (slot + 1) & slotMask;
+            }
+            entries.put(2 * slot, key);
+            entries.put(2 * slot + 1, value);
+            setReferenced(slot, false);
+            size++;
+            return evicted;
+        }
+
+        synchronized void clear() {
+            for (int slot = 0; slot <= slotMask; slot++) {
+                entries.put(2 * slot, EMPTY_KEY);
+            }
+            for (int i = 0; i < referenced.length; i++) {
+                referenced[i] = 0L;
+            }
+            size = 0;
+            clockHand = 0;
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        synchronized void copyTo(Table destination) {
+            for (int slot = 0; slot <= slotMask; slot++) {
+                long key = keyAt(slot);
+                if (key != EMPTY_KEY) {
+                    destination.put(key, valueAt(slot));
+                }
+            }
+        }
+
+        private int find(long key, long hash) {
+            int slot = idealSlot(hash);
+            while (true) {
+                long current = keyAt(slot);
+                if (current == key) {
+                    return slot;
+                }
+                if (current == EMPTY_KEY) {
+                    return -1;
+                }
+                slot = (slot + 1) & slotMask;
+            }
+        }
+
+        private void evict() {
+            while (true) {
+                int slot = clockHand;
+                clockHand = (clockHand + 1) & slotMask;
+                if (keyAt(slot) == EMPTY_KEY) {
+                    continue;
+                }
+                if (isReferenced(slot)) {
+                    setReferenced(slot, false);
+                } else {
+                    removeAt(slot);
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Removes the entry at the given slot, shifting back any later entries in the same probe sequence so that
+         * lookups never need to skip over deleted slots.
+         */
+        private void removeAt(int slot) {
+            int hole = slot;
+            int next = (hole + 1) & slotMask;
+            long nextKey;
+            while ((nextKey = keyAt(next)) != EMPTY_KEY) {
+                int ideal = idealSlot(hash(nextKey));
+                if (((next - ideal) & slotMask) >= ((next - hole) & slotMask)) {
+                    entries.put(2 * hole, nextKey);
+                    entries.put(2 * hole + 1, valueAt(next));
+                    setReferenced(hole, isReferenced(next));
+                    hole = next;
+                }
+                next = (next + 1) & slotMask;
+            }
+            entries.put(2 * hole, EMPTY_KEY);
+            setReferenced(hole, false);
+            size--;
+        }
+
+        private int idealSlot(long hash) {
+            return (int) (hash >>> 32) & slotMask;
+        }
+
+        private long keyAt(int slot) {
+            return entries.get(2 * slot);
+        }
+
+        private long valueAt(int slot) {
+            return entries.get(2 * slot + 1);
+        }
+
+        private boolean isReferenced(int slot) {
+            return (referenced[slot / Long.SIZE] & (1L << slot)) != 0;
+        }
+
+        private void setReferenced(int slot, boolean isReferenced) {
+            if (isReferenced) {
+                referenced[slot / Long.SIZE] |= 1L << slot;
+            } else {
+                referenced[slot / Long.SIZE] &= ~(1L << slot);
+            }
+        }
+    }
+}
@@ -18,41 +18,15 @@ package com.palantir.atlasdb.cache;
 import javax.annotation.Nullable;
 
 import com.codahale.metrics.MetricRegistry;
-import com.github.benmanes.caffeine.cache.Cache;
-import com.github.benmanes.caffeine.cache.Caffeine;
-import com.github.benmanes.caffeine.cache.Policy;
-import com.google.common.annotations.VisibleForTesting;
-import com.google.common.base.Supplier;
-import com.palantir.atlasdb.util.AtlasDbMetrics;
 
-public class TimestampCache {
-    private final Supplier<Long> size;
-
-    private final Cache<Long, Long> startToCommitTimestampCache;
-    private final Policy.Eviction<Long, Long> evictionPolicy;
-
-    @VisibleForTesting
-    static Cache<Long, Long> createCache(long size) {
-        return Caffeine.newBuilder()
-                .maximumSize(size)
-                .recordStats()
-                .build();
-    }
-
-    public TimestampCache(MetricRegistry metricRegistry, Supplier<Long> size) {
-        this.size = size;
-        startToCommitTimestampCache = createCache(size.get());
-        evictionPolicy = startToCommitTimestampCache.policy().eviction().get();
-        AtlasDbMetrics.registerCache(metricRegistry, startToCommitTimestampCache,
-                MetricRegistry.name(TimestampCache.class, "startToCommitTimestamp"));
-    }
-
-    @VisibleForTesting
-    TimestampCache(Cache<Long, Long> cache) {
-        this.evictionPolicy = cache.policy().eviction().get();
-        this.size = evictionPolicy::getMaximum;
-        this.startToCommitTimestampCache = cache;
-    }
+/**
+ * Caches the commit timestamps of transactions, keyed by their start timestamps.
+ */
+public interface TimestampCache {
+    /**
+     * Value returned by {@link #getCommitTimestampsIfPresent(long[])} for start timestamps that are not cached.
+     */
+    long NOT_PRESENT = Long.MIN_VALUE;
 
     /**
      * Returns null if not present.
@@ -61,15 +35,22 @@ public class TimestampCache {
      * @return commit timestamp for the specified transaction start timestamp if present in cache, otherwise null
      */
     @Nullable
-    public Long getCommitTimestampIfPresent(Long startTimestamp) {
-        resizeIfNecessary();
-        return startToCommitTimestampCache.getIfPresent(startTimestamp);
-    }
+    Long getCommitTimestampIfPresent(Long startTimestamp);
 
-    private void resizeIfNecessary() {
-        if (evictionPolicy.getMaximum() != size.get()) {
-            evictionPolicy.setMaximum(size.get());
+    /**
+     * Looks up a batch of start timestamps at once. Implementations may override this to avoid allocating per entry.
+     *
+     * @param startTimestamps transaction start timestamps
+     * @return an array of the same length, containing at each index the commit timestamp for the start timestamp at
+     * that index if present in cache, otherwise {@link #NOT_PRESENT}
+     */
+    default long[] getCommitTimestampsIfPresent(long[] startTimestamps) {
+        long[] commitTimestamps = new long[startTimestamps.length];
+        for (int i = 0; i < startTimestamps.length; i++) {
+            Long commitTimestamp = getCommitTimestampIfPresent(startTimestamps[i]);
+            commitTimestamps[i] = commitTimestamp == null ? NOT_PRESENT : commitTimestamp;
         }
+        return commitTimestamps;
     }
 
     /**
@@ -79,18 +60,14 @@ public class TimestampCache {
      * @param startTimestamp transaction start timestamp
      * @param commitTimestamp transaction commit timestamp
      */
-    public void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp) {
-        startToCommitTimestampCache.put(startTimestamp, commitTimestamp);
-    }
+    void putAlreadyCommittedTransaction(Long startTimestamp, Long commitTimestamp);
 
     /**
      * Clear all values from the cache.
      */
-    public void clear() {
-        startToCommitTimestampCache.invalidateAll();
-    }
+    void clear();
 
-    public static TimestampCache createForTests() {
-        return new TimestampCache(new MetricRegistry(), () -> 1000L);
+    static TimestampCache createForTests() {
+        return new DefaultTimestampCache(new MetricRegistry(), () -> 1000L);
     }
 }
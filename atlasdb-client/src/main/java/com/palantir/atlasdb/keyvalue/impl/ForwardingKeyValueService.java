@@ -23,6 +23,7 @@ import java.util.Set;
 import com.google.common.collect.ForwardingObject;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
@@ -101,6 +102,19 @@ public abstract class ForwardingKeyValueService extends ForwardingObject impleme
         return delegate().get(tableRef, timestampByCell);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return delegate().getAsync(tableRef, timestampByCell);
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                           Iterable<byte[]> rows,
+                                                           ColumnSelection columnSelection,
+                                                           long timestamp) {
+        return delegate().getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
     @Override
     public Map<Cell, Value> getRows(TableReference tableRef, Iterable<byte[]> rows,
                                     ColumnSelection columnSelection, long timestamp) {
@@ -182,6 +196,11 @@ public abstract class ForwardingKeyValueService extends ForwardingObject impleme
         return delegate().supportsCheckAndSet();
     }
 
+    @Override
+    public boolean supportsMultiRowPutUnlessExists() {
+        return delegate().supportsMultiRowPutUnlessExists();
+    }
+
     @Override
     public void checkAndSet(CheckAndSetRequest request) {
         delegate().checkAndSet(request);
@@ -397,6 +397,11 @@ public class InMemoryKeyValueService extends AbstractKeyValueService {
                 true);
     }
 
+    @Override
+    public boolean supportsMultiRowPutUnlessExists() {
+        return true;
+    }
+
     private void putInternal(
             TableReference tableRef,
             Collection<Map.Entry<Cell, Value>> values,
@@ -28,6 +28,7 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
 import com.google.common.primitives.Longs;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
@@ -210,6 +211,19 @@ public final class ProfilingKeyValueService implements KeyValueService {
                 logCellResultSize(4L));
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return delegate.getAsync(tableRef, timestampByCell);
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                           Iterable<byte[]> rows,
+                                                           ColumnSelection columnSelection,
+                                                           long timestamp) {
+        return delegate.getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
     @Override
     public Set<TableReference> getAllTableNames() {
         return maybeLog(delegate::getAllTableNames,
@@ -339,6 +353,11 @@ public final class ProfilingKeyValueService implements KeyValueService {
         return delegate.supportsCheckAndSet();
     }
 
+    @Override
+    public boolean supportsMultiRowPutUnlessExists() {
+        return delegate.supportsMultiRowPutUnlessExists();
+    }
+
     @Override
     public void checkAndSet(CheckAndSetRequest request) {
         maybeLog(() -> delegate.checkAndSet(request),
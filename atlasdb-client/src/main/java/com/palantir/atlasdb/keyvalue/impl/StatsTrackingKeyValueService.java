@@ -27,6 +27,8 @@ import javax.annotation.concurrent.ThreadSafe;
 import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.CheckAndSetRequest;
 import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
@@ -154,6 +156,28 @@ public class StatsTrackingKeyValueService extends ForwardingKeyValueService {
         return r;
     }
 
+    // Asynchronous reads are done synchronously here, so that they are tracked like any other read.
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        try {
+            return Futures.immediateFuture(get(tableRef, timestampByCell));
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                           Iterable<byte[]> rows,
+                                                           ColumnSelection columnSelection,
+                                                           long timestamp) {
+        try {
+            return Futures.immediateFuture(getRows(tableRef, rows, columnSelection, timestamp));
+        } catch (RuntimeException e) {
+            return Futures.immediateFailedFuture(e);
+        }
+    }
+
     @Override
     public ClosableIterator<RowResult<Value>> getRange(final TableReference tableRef, RangeRequest range,
                                                        long timestamp) {
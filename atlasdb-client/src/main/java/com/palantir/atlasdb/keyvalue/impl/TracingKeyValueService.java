@@ -25,6 +25,7 @@ import com.google.common.collect.ForwardingObject;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Multimap;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweeping;
 import com.palantir.atlasdb.keyvalue.api.CandidateCellForSweepingRequest;
@@ -201,6 +202,19 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         }
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        return delegate().getAsync(tableRef, timestampByCell);
+    }
+
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef,
+                                                           Iterable<byte[]> rows,
+                                                           ColumnSelection columnSelection,
+                                                           long timestamp) {
+        return delegate().getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
     @Override
     public Set<TableReference> getAllTableNames() {
         //noinspection unused - try-with-resources closes trace
@@ -374,6 +388,11 @@ public final class TracingKeyValueService extends ForwardingObject implements Ke
         return delegate().supportsCheckAndSet();
     }
 
+    @Override
+    public boolean supportsMultiRowPutUnlessExists() {
+        return delegate().supportsMultiRowPutUnlessExists();
+    }
+
     @Override
     public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> values) {
         //noinspection unused - try-with-resources closes trace
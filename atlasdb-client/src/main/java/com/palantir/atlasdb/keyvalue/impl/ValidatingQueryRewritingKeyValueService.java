@@ -32,6 +32,8 @@ import com.google.common.collect.Iterables;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.ClusterAvailabilityStatus;
@@ -139,6 +141,14 @@ public class ValidatingQueryRewritingKeyValueService extends ForwardingKeyValueS
         return delegate.get(tableRef, timestampByCell);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getAsync(TableReference tableRef, Map<Cell, Long> timestampByCell) {
+        if (timestampByCell.isEmpty()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return delegate.getAsync(tableRef, timestampByCell);
+    }
+
     @Override
     public Multimap<Cell, Long> getAllTimestamps(TableReference tableRef, Set<Cell> cells, long timestamp) {
         if (cells.isEmpty()) {
@@ -182,6 +192,15 @@ public class ValidatingQueryRewritingKeyValueService extends ForwardingKeyValueS
         return delegate.getRows(tableRef, rows, columnSelection, timestamp);
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, Value>> getRowsAsync(TableReference tableRef, Iterable<byte[]> rows,
+            ColumnSelection columnSelection, long timestamp) {
+        if (Iterables.isEmpty(rows) || columnSelection.noColumnsSelected()) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        return delegate.getRowsAsync(tableRef, rows, columnSelection, timestamp);
+    }
+
     @Override
     public void multiPut(Map<TableReference, ? extends Map<Cell, byte[]>> valuesByTable, long timestamp) throws KeyAlreadyExistsException {
         if (valuesByTable.isEmpty()) {
@@ -25,6 +25,7 @@ import java.io.OutputStream;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.ExecutorService;
 import java.util.stream.Collectors;
 
 import javax.annotation.CheckForNull;
@@ -41,11 +42,18 @@ import com.palantir.atlasdb.protos.generated.StreamPersistence.StreamMetadata;
 import com.palantir.atlasdb.transaction.api.Transaction;
 import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.util.ByteArrayIOStream;
 
 public abstract class AbstractGenericStreamStore<T> implements GenericStreamStore<T> {
     protected static final Logger log = LoggerFactory.getLogger(AbstractGenericStreamStore.class);
 
+    // Shared by every stream store, so that read-ahead cannot use up an unbounded number of threads.
+    private static final int READ_AHEAD_THREADS = 16;
+    private static final ExecutorService READ_AHEAD_EXECUTOR = PTExecutors.newFixedThreadPool(
+            READ_AHEAD_THREADS, new NamedThreadFactory("stream-store-read-ahead", true));
+
     @CheckForNull protected final TransactionManager txnMgr;
 
     protected AbstractGenericStreamStore(TransactionManager txManager) {
@@ -136,10 +144,22 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
             public int expectedBlockLength() {
                 return BLOCK_SIZE_IN_BYTES;
             }
+
+            // The parent transaction may only be used by its own thread, so we only read ahead once blocks are read
+            // in fresh read-only transactions.
+            @Override
+            public boolean canGetInBackground() {
+                return !parent.isUncommitted();
+            }
         };
 
+        int readAheadWindows = getNumberOfReadAheadWindows();
         try {
-            return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
+            if (readAheadWindows <= 0) {
+                return BlockConsumingInputStream.create(pageRefresher, totalBlocks, blocksInMemory);
+            }
+            return BlockConsumingInputStream.create(
+                    pageRefresher, totalBlocks, blocksInMemory, readAheadWindows, READ_AHEAD_EXECUTOR);
         } catch (IOException e) {
             throw Throwables.throwUncheckedException(e);
         }
@@ -151,6 +171,14 @@ public abstract class AbstractGenericStreamStore<T> implements GenericStreamStor
         return Math.max(1, blocksInMemory);
     }
 
+    /**
+     * The number of windows of {@link #getNumberOfBlocksThatFitInMemory()} blocks that streams load in the background
+     * ahead of their readers, once the transaction the stream was loaded in has finished. Zero disables read-ahead.
+     */
+    protected int getNumberOfReadAheadWindows() {
+        return 0;
+    }
+
     @Override
     public final File loadStreamAsFile(Transaction transaction, T id) {
         StreamMetadata metadata = getMetadata(transaction, id);
@@ -17,9 +17,15 @@ package com.palantir.atlasdb.stream;
 
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
 import java.security.DigestInputStream;
 import java.security.MessageDigest;
+import java.util.List;
 import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -28,6 +34,7 @@ import com.google.common.base.Functions;
 import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
 import com.google.common.io.ByteStreams;
@@ -41,11 +48,18 @@ import com.palantir.atlasdb.transaction.api.TransactionManager;
 import com.palantir.atlasdb.transaction.api.TransactionTask;
 import com.palantir.atlasdb.transaction.impl.TxTask;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.util.Pair;
 import com.palantir.util.crypto.Sha256Hash;
 
 public abstract class AbstractPersistentStreamStore extends AbstractGenericStreamStore<Long>
         implements PersistentStreamStore {
+    private static final int WRITE_THREADS = 16;
+    private static final ExecutorService WRITE_EXECUTOR = PTExecutors.newFixedThreadPool(
+            WRITE_THREADS, new NamedThreadFactory("stream-store-writer", true));
+
+    private final Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration;
     private final StreamStoreBackoffStrategy backoffStrategy;
 
     protected AbstractPersistentStreamStore(TransactionManager txManager) {
@@ -55,9 +69,17 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
     protected AbstractPersistentStreamStore(TransactionManager txManager,
             Supplier<StreamStorePersistenceConfiguration> persistenceConfiguration) {
         super(txManager);
+        this.persistenceConfiguration = persistenceConfiguration;
         this.backoffStrategy = StandardPeriodicBackoffStrategy.create(persistenceConfiguration);
     }
 
+    @Override
+    protected int getNumberOfReadAheadWindows() {
+        StreamStorePersistenceConfiguration config = persistenceConfiguration.get();
+        long windowSizeInBytes = (long) getNumberOfBlocksThatFitInMemory() * BLOCK_SIZE_IN_BYTES;
+        return (int) Math.min(config.numReadAheadWindows(), config.maxReadAheadBytes() / windowSizeInBytes);
+    }
+
     protected final void storeMetadataAndIndex(final long streamId, final StreamMetadata metadata) {
         Preconditions.checkNotNull(txnMgr, "Transaction manager must not be null");
         txnMgr.runTaskThrowOnConflict((TxTask) tx -> {
@@ -183,6 +205,15 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
     }
 
     private void storeBlocksFromStream(@Nullable Transaction tx, long id, InputStream stream) throws IOException {
+        if (!streamOperationIsTransactional(tx)) {
+            StreamStorePersistenceConfiguration config = persistenceConfiguration.get();
+            if (config.numParallelWriteTransactions() > 1 || config.numBlocksPerWriteTransaction() > 1) {
+                storeBlocksFromStreamInBatches(id, stream,
+                        config.numParallelWriteTransactions(), config.numBlocksPerWriteTransaction());
+                return;
+            }
+        }
+
         long blockNumber = 0;
 
         while (true) {
@@ -207,6 +238,92 @@ public abstract class AbstractPersistentStreamStore extends AbstractGenericStrea
         }
     }
 
+    /**
+     * Reads the stream on the calling thread, so that it is hashed and counted in order, and writes its blocks in
+     * batches of blocksPerBatch, each in its own transaction, with up to numThreads batches being written at once on
+     * a pool shared by all stores. At most one more batch than that is held in memory at once.
+     */
+    private void storeBlocksFromStreamInBatches(long id, InputStream stream, int numThreads, int blocksPerBatch)
+            throws IOException {
+        Preconditions.checkNotNull(txnMgr, "Transaction manager must not be null");
+        Semaphore batchesInFlight = new Semaphore(numThreads);
+        List<Future<?>> writes = Lists.newArrayList();
+        try {
+            long blockNumber = 0;
+            boolean endOfStream = false;
+            while (!endOfStream) {
+                Map<Long, byte[]> batch = Maps.newHashMapWithExpectedSize(blocksPerBatch);
+                while (batch.size() < blocksPerBatch) {
+                    byte[] block = readBlock(stream);
+                    if (block.length > 0) {
+                        batch.put(blockNumber, block);
+                        blockNumber++;
+                    }
+                    if (block.length < BLOCK_SIZE_IN_BYTES) {
+                        endOfStream = true;
+                        break;
+                    }
+                    backoffStrategy.accept(blockNumber);
+                }
+                if (batch.isEmpty()) {
+                    break;
+                }
+
+                checkForFailedWrites(writes);
+                batchesInFlight.acquire();
+                writes.add(WRITE_EXECUTOR.submit(() -> {
+                    try {
+                        storeBatch(id, batch);
+                    } finally {
+                        batchesInFlight.release();
+                    }
+                }));
+            }
+
+            for (Future<?> write : writes) {
+                getWrite(write);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while storing stream " + id);
+        } finally {
+            // Only does anything if storing the stream failed, in which case the remaining writes are abandoned.
+            writes.forEach(write -> write.cancel(true));
+        }
+    }
+
+    private void storeBatch(long id, Map<Long, byte[]> blocksByNumber) {
+        txnMgr.runTaskThrowOnConflict((TransactionTask<Void, RuntimeException>) t -> {
+            blocksByNumber.forEach((blockNumber, block) -> storeBlock(t, id, blockNumber, block));
+            return null;
+        });
+    }
+
+    private static void checkForFailedWrites(List<Future<?>> writes) throws InterruptedException {
+        for (Future<?> write : writes) {
+            if (write.isDone()) {
+                getWrite(write);
+            }
+        }
+    }
+
+    private static void getWrite(Future<?> write) throws InterruptedException {
+        try {
+            write.get();
+        } catch (ExecutionException e) {
+            throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+        }
+    }
+
+    /**
+     * Returns the next block of the stream, which is shorter than a full block only at the end of the stream.
+     */
+    private static byte[] readBlock(InputStream stream) throws IOException {
+        byte[] block = new byte[BLOCK_SIZE_IN_BYTES];
+        int length = ByteStreams.read(stream, block, 0, BLOCK_SIZE_IN_BYTES);
+        return length < BLOCK_SIZE_IN_BYTES ? PtBytes.head(block, length) : block;
+    }
+
     private boolean streamOperationIsTransactional(@Nullable Transaction tx) {
         // TODO (jkong): I'm using tx == null as a proxy for whether the entire operation should be done
         // transactionally or not (null implies nontransactional).
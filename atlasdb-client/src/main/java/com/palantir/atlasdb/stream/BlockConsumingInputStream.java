@@ -18,15 +18,42 @@ package com.palantir.atlasdb.stream;
 import java.io.ByteArrayOutputStream;
 import java.io.IOException;
 import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+
+import javax.annotation.Nullable;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
 import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
+import com.palantir.logsafe.SafeArg;
 
+/**
+ * Reads a stream of blocks, loading up to blocksInMemory blocks at a time.
+ *
+ * With read-ahead, up to readAheadWindows further loads of blocksInMemory blocks are kept in flight on the given
+ * executor while the current blocks are read, so that reading the stream overlaps with loading it. A load that fails
+ * in the background is retried synchronously when its blocks are needed, so that its error surfaces as it would
+ * without read-ahead, and a load that has not started when its blocks are needed is done by the reader. Blocks are
+ * only read ahead while the {@link BlockGetter} can get them in the background, and are loaded by the reader
+ * otherwise. Loads still in flight when the stream is closed are cancelled.
+ */
 public final class BlockConsumingInputStream extends InputStream {
+    private static final Logger log = LoggerFactory.getLogger(BlockConsumingInputStream.class);
+
     private final BlockGetter blockGetter;
     private final long numBlocks;
     private final int blocksInMemory;
+    private final int readAheadWindows;
+    @Nullable private final ExecutorService readAheadExecutor;
+    private final Deque<Window> windowsReadAhead = new ArrayDeque<>();
 
     private long nextBlockToRead;
 
@@ -38,7 +65,24 @@ public final class BlockConsumingInputStream extends InputStream {
             long numBlocks,
             int blocksInMemory) throws IOException {
         ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
-        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory);
+        return new BlockConsumingInputStream(blockGetter, numBlocks, blocksInMemory, 0, null);
+    }
+
+    /**
+     * As above, where up to readAheadWindows further windows of blocksInMemory blocks are loaded on readAheadExecutor
+     * ahead of the reader, holding up to (readAheadWindows + 1) * blocksInMemory blocks in memory.
+     */
+    public static BlockConsumingInputStream create(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            int readAheadWindows,
+            ExecutorService readAheadExecutor) throws IOException {
+        Preconditions.checkArgument(readAheadWindows >= 0,
+                "Number of windows to read ahead must not be negative, but was %s", readAheadWindows);
+        ensureExpectedArraySizeDoesNotOverflow(blockGetter, blocksInMemory);
+        return new BlockConsumingInputStream(
+                blockGetter, numBlocks, blocksInMemory, readAheadWindows, readAheadExecutor);
     }
 
     // we don't want to actually create a very large array in tests, as the external test VM would run out of memory.
@@ -57,10 +101,17 @@ public final class BlockConsumingInputStream extends InputStream {
                 expectedBufferSize);
     }
 
-    private BlockConsumingInputStream(BlockGetter blockGetter, long numBlocks, int blocksInMemory) {
+    private BlockConsumingInputStream(
+            BlockGetter blockGetter,
+            long numBlocks,
+            int blocksInMemory,
+            int readAheadWindows,
+            @Nullable ExecutorService readAheadExecutor) {
         this.blockGetter = blockGetter;
         this.numBlocks = numBlocks;
         this.blocksInMemory = blocksInMemory;
+        this.readAheadWindows = readAheadExecutor == null ? 0 : readAheadWindows;
+        this.readAheadExecutor = readAheadExecutor;
         this.nextBlockToRead = 0L;
         this.positionInBuffer = 0;
         this.buffer = new byte[0];
@@ -72,16 +123,12 @@ public final class BlockConsumingInputStream extends InputStream {
             return buffer[positionInBuffer++] & 0xff;
         }
 
-        if (nextBlockToRead < numBlocks) {
-            boolean reloaded = refillBuffer();
-            if (!reloaded) {
-                return -1;
-            }
-
-            return buffer[positionInBuffer++] & 0xff;
+        boolean reloaded = refillBuffer();
+        if (!reloaded) {
+            return -1;
         }
 
-        return -1;
+        return buffer[positionInBuffer++] & 0xff;
     }
 
     @Override
@@ -117,24 +164,100 @@ public final class BlockConsumingInputStream extends InputStream {
         return bytesRead;
     }
 
+    @Override
+    public void close() throws IOException {
+        for (Window window : windowsReadAhead) {
+            window.loadedBlocks.cancel(true);
+        }
+        windowsReadAhead.clear();
+        super.close();
+    }
+
     private boolean refillBuffer() throws IOException {
+        if (readAheadWindows > 0) {
+            return refillBufferFromWindowsReadAhead();
+        }
+        return refillBufferSynchronously();
+    }
+
+    private boolean refillBufferSynchronously() throws IOException {
         // since blocksInMemory is an int, the min is guaranteed to fit in an int
         int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
         if (numBlocksToGet <= 0) {
             return false;
         }
 
+        buffer = loadBlocks(nextBlockToRead, numBlocksToGet);
+        nextBlockToRead += numBlocksToGet;
+        positionInBuffer = 0;
+        return true;
+    }
+
+    private boolean refillBufferFromWindowsReadAhead() throws IOException {
+        readAhead();
+        Window window = windowsReadAhead.poll();
+        if (window == null) {
+            return refillBufferSynchronously();
+        }
+
+        buffer = window.await();
+        positionInBuffer = 0;
+        readAhead();
+        return true;
+    }
+
+    private void readAhead() {
+        if (!blockGetter.canGetInBackground()) {
+            return;
+        }
+        while (windowsReadAhead.size() < readAheadWindows && blocksLeft() > 0) {
+            // since blocksInMemory is an int, the min is guaranteed to fit in an int
+            int numBlocksToGet = (int) Math.min(blocksLeft(), blocksInMemory);
+            windowsReadAhead.add(new Window(nextBlockToRead, numBlocksToGet));
+            nextBlockToRead += numBlocksToGet;
+        }
+    }
+
+    private byte[] loadBlocks(long firstBlock, int numBlocksToGet) throws IOException {
         int expectedLength = blockGetter.expectedBlockLength() * numBlocksToGet;
         try (ByteArrayOutputStream outputStream = new ByteArrayOutputStream(expectedLength)) {
-            blockGetter.get(nextBlockToRead, numBlocksToGet, outputStream);
-            nextBlockToRead += numBlocksToGet;
-            buffer = outputStream.toByteArray();
-            positionInBuffer = 0;
-            return true;
+            blockGetter.get(firstBlock, numBlocksToGet, outputStream);
+            return outputStream.toByteArray();
         }
     }
 
     private long blocksLeft() {
         return Math.max(0L, numBlocks - nextBlockToRead);
     }
+
+    private final class Window {
+        private final long firstBlock;
+        private final int numBlocksInWindow;
+        private final Future<byte[]> loadedBlocks;
+
+        Window(long firstBlock, int numBlocksInWindow) {
+            this.firstBlock = firstBlock;
+            this.numBlocksInWindow = numBlocksInWindow;
+            this.loadedBlocks = readAheadExecutor.submit(() -> loadBlocks(firstBlock, numBlocksInWindow));
+        }
+
+        byte[] await() throws IOException {
+            if (loadedBlocks.cancel(false)) {
+                // The load had not started, as every read-ahead thread was busy, so it is quicker to do it ourselves.
+                return loadBlocks(firstBlock, numBlocksInWindow);
+            }
+            try {
+                return loadedBlocks.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Interrupted while waiting for blocks to load");
+            } catch (ExecutionException e) {
+                log.debug("Failed to read ahead {} blocks from block {}; loading them again",
+                        SafeArg.of("numBlocks", numBlocksInWindow),
+                        SafeArg.of("firstBlock", firstBlock),
+                        e.getCause());
+                return loadBlocks(firstBlock, numBlocksInWindow);
+            }
+        }
+    }
 }
@@ -37,4 +37,12 @@ public interface BlockGetter {
      * @return expected length in bytes
      */
     int expectedBlockLength();
+
+    /**
+     * Whether {@link #get} may currently be called from a thread other than the one reading the stream, for example
+     * to load blocks ahead of the reader. Once this returns true, it should keep doing so.
+     */
+    default boolean canGetInBackground() {
+        return true;
+    }
 }
@@ -56,11 +56,67 @@ public interface StreamStorePersistenceConfiguration {
         return 0;
     }
 
+    /**
+     * The number of windows of blocks that streams returned by loadStream() and its variants load in the background
+     * ahead of the reader, where a window is as many blocks as fit within the stream store's in-memory threshold.
+     * Zero disables read-ahead.
+     *
+     * This parameter is live reloadable. If live reloaded, streams loaded after the reload use the new value.
+     */
+    @Value.Default
+    default int numReadAheadWindows() {
+        return 0;
+    }
+
+    /**
+     * The maximum number of bytes that a single stream holds in windows that it has read ahead. If fewer than
+     * numReadAheadWindows windows fit within this bound, streams read ahead as many windows as fit.
+     *
+     * This parameter is live reloadable, in the same way as numReadAheadWindows.
+     */
+    @Value.Default
+    default long maxReadAheadBytes() {
+        return 64_000_000L;
+    }
+
+    /**
+     * The number of transactions that a nontransactional storeStream() runs concurrently to write the blocks of a
+     * stream. The stream is still read and hashed sequentially; only the writes of its blocks are spread over
+     * several threads. A value of 1 writes blocks serially on the calling thread. The writes of all streams share
+     * a pool of 16 threads.
+     *
+     * This parameter is live reloadable. If live reloaded, streams stored after the reload use the new value.
+     */
+    @Value.Default
+    default int numParallelWriteTransactions() {
+        return 1;
+    }
+
+    /**
+     * The number of blocks that a nontransactional storeStream() writes in each of its transactions. Larger values
+     * reduce the number of transactions, and thus timestamps and commits, needed to store a large stream, at the
+     * cost of larger transactions.
+     *
+     * This parameter is live reloadable, in the same way as numParallelWriteTransactions.
+     */
+    @Value.Default
+    default int numBlocksPerWriteTransaction() {
+        return 1;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkState(numBlocksToWriteBeforePause() > 0,
                 "Number of blocks to write before pausing must be positive");
         Preconditions.checkState(writePauseDurationMillis() >= 0,
                 "Pause duration between batches of writes must be non-negative");
+        Preconditions.checkState(numReadAheadWindows() >= 0,
+                "Number of windows to read ahead must be non-negative");
+        Preconditions.checkState(maxReadAheadBytes() >= 0,
+                "Maximum number of bytes to read ahead must be non-negative");
+        Preconditions.checkState(numParallelWriteTransactions() > 0,
+                "Number of parallel write transactions must be positive");
+        Preconditions.checkState(numBlocksPerWriteTransaction() > 0,
+                "Number of blocks per write transaction must be positive");
     }
 }
@@ -32,19 +32,19 @@ import com.github.benmanes.caffeine.cache.Cache;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
 
-public class TimestampCacheTest {
-    private static final String TEST_CACHE_NAME = MetricRegistry.name(TimestampCacheTest.class, "test");
+public class DefaultTimestampCacheTest {
+    private static final String TEST_CACHE_NAME = MetricRegistry.name(DefaultTimestampCacheTest.class, "test");
 
     private final MetricRegistry metrics = new MetricRegistry();
 
     @Test
     public void cacheExposesMetrics() throws Exception {
-        Cache<Long, Long> cache = TimestampCache.createCache(AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
+        Cache<Long, Long> cache = DefaultTimestampCache.createCache(AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
         AtlasDbMetrics.registerCache(metrics, cache, TEST_CACHE_NAME);
 
-        TimestampCache timestampCache = new TimestampCache(cache);
+        TimestampCache timestampCache = new DefaultTimestampCache(cache);
 
-        SortedMap<String, Gauge> gauges = metrics.getGauges(startsWith(TimestampCache.class.getName()));
+        SortedMap<String, Gauge> gauges = metrics.getGauges(startsWith(DefaultTimestampCache.class.getName()));
         assertThat(gauges.keySet(), hasItems(cacheMetricName("hit.count"), cacheMetricName("miss.ratio")));
 
         assertThat(timestampCache.getCommitTimestampIfPresent(1L), is(nullValue()));
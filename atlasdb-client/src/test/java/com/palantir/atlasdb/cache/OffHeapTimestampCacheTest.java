@@ -0,0 +1,135 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.Test;
+
+import com.codahale.metrics.MetricRegistry;
+
+public class OffHeapTimestampCacheTest {
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final AtomicLong size = new AtomicLong(10_000);
+    private final OffHeapTimestampCache cache = new OffHeapTimestampCache(metrics, size::get);
+
+    @Test
+    public void returnsNullIfNotPresent() {
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+    }
+
+    @Test
+    public void returnsCommitTimestampIfPresent() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.putAlreadyCommittedTransaction(3L, -1L);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        assertThat(cache.getCommitTimestampIfPresent(3L)).isEqualTo(-1L);
+    }
+
+    @Test
+    public void canLookUpBatches() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.putAlreadyCommittedTransaction(5L, 7L);
+
+        assertThat(cache.getCommitTimestampsIfPresent(new long[] {1L, 3L, 5L}))
+                .containsExactly(2L, TimestampCache.NOT_PRESENT, 7L);
+    }
+
+    @Test
+    public void clearRemovesAllEntries() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.clear();
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isNull();
+        assertThat(cache.size()).isEqualTo(0L);
+    }
+
+    @Test
+    public void evictsEntriesBeyondMaximumSize() {
+        for (long startTs = 1; startTs <= 100_000; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+
+        assertThat(cache.size()).isLessThanOrEqualTo(size.get());
+        assertThat(metrics.counter(MetricRegistry.name(OffHeapTimestampCache.class, "eviction")).getCount())
+                .isGreaterThanOrEqualTo(100_000 - size.get());
+        for (long startTs = 1; startTs <= 100_000; startTs++) {
+            Long commitTs = cache.getCommitTimestampIfPresent(startTs);
+            assertThat(commitTs == null || commitTs == startTs + 1).isTrue();
+        }
+    }
+
+    @Test
+    public void retainsRecentlyReadEntriesOnEviction() {
+        cache.putAlreadyCommittedTransaction(0L, 1L);
+        for (long startTs = 1; startTs <= 100_000; startTs++) {
+            cache.getCommitTimestampIfPresent(0L);
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+
+        assertThat(cache.getCommitTimestampIfPresent(0L)).isEqualTo(1L);
+    }
+
+    @Test
+    public void resizesWhenSizeChanges() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        size.set(100);
+
+        assertThat(cache.getCommitTimestampIfPresent(1L)).isEqualTo(2L);
+        for (long startTs = 1; startTs <= 1000; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+        assertThat(cache.size()).isLessThanOrEqualTo(100L);
+    }
+
+    @Test
+    public void keepsEntriesWhenGrowing() {
+        for (long startTs = 1; startTs <= 1000; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+        size.set(100_000);
+
+        for (long startTs = 1; startTs <= 1000; startTs++) {
+            assertThat(cache.getCommitTimestampIfPresent(startTs)).isEqualTo(startTs + 1);
+        }
+    }
+
+    @Test
+    public void keepsAsManyEntriesAsFitWhenShrinking() {
+        for (long startTs = 1; startTs <= 1000; startTs++) {
+            cache.putAlreadyCommittedTransaction(startTs, startTs + 1);
+        }
+        size.set(100);
+
+        assertThat(cache.getCommitTimestampsIfPresent(new long[] {1L})).hasSize(1);
+        assertThat(cache.size()).isBetween(1L, 100L);
+    }
+
+    @Test
+    public void recordsHitsAndMisses() {
+        cache.putAlreadyCommittedTransaction(1L, 2L);
+        cache.getCommitTimestampIfPresent(1L);
+        cache.getCommitTimestampsIfPresent(new long[] {1L, 2L});
+
+        assertThat(metrics.counter(MetricRegistry.name(OffHeapTimestampCache.class, "hit")).getCount())
+                .isEqualTo(2L);
+        assertThat(metrics.counter(MetricRegistry.name(OffHeapTimestampCache.class, "miss")).getCount())
+                .isEqualTo(1L);
+    }
+}
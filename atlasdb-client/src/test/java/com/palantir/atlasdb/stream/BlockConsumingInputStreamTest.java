@@ -22,18 +22,27 @@ import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
 import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.junit.Before;
 import org.junit.Test;
 import org.mockito.Mockito;
 
+import com.google.common.util.concurrent.MoreExecutors;
+
 import com.palantir.atlasdb.schema.stream.StreamStoreDefinition;
 
 @SuppressWarnings("ResultOfMethodCallIgnored")
@@ -291,6 +300,119 @@ public class BlockConsumingInputStreamTest {
         verify(spiedGetter, times(1)).get(anyLong(), eq(1L), any());
     }
 
+    @Test
+    public void canReadAllBlocksWithReadAhead() throws IOException {
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                singleByteConsumer, DATA_SIZE, 1, 2, MoreExecutors.newDirectExecutorService());
+
+        byte[] result = new byte[DATA_SIZE];
+        assertEquals(DATA_SIZE, stream.read(result));
+        assertArrayEquals(data, result);
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    public void readsAheadTheConfiguredNumberOfWindows() throws IOException {
+        BlockGetter spiedGetter = Mockito.spy(singleByteConsumer);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                spiedGetter, DATA_SIZE, 1, 2, MoreExecutors.newDirectExecutorService());
+
+        stream.read();
+        verify(spiedGetter).get(eq(0L), eq(1L), any());
+        verify(spiedGetter).get(eq(1L), eq(1L), any());
+        verify(spiedGetter).get(eq(2L), eq(1L), any());
+        verify(spiedGetter, never()).get(eq(3L), anyLong(), any());
+    }
+
+    @Test
+    public void retriesFailedReadAheadWhenItsBlocksAreRead() throws IOException {
+        AtomicBoolean failed = new AtomicBoolean(false);
+        BlockGetter failingOnceGetter = new BlockGetter() {
+            @Override
+            public void get(long offset, long numBlocks, OutputStream os) {
+                if (!failed.getAndSet(true)) {
+                    throw new RuntimeException("failed");
+                }
+                singleByteConsumer.get(offset, numBlocks, os);
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return data.length;
+            }
+        };
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                failingOnceGetter, DATA_SIZE, 2, 1, MoreExecutors.newDirectExecutorService());
+
+        byte[] result = new byte[DATA_SIZE];
+        assertEquals(DATA_SIZE, stream.read(result));
+        assertArrayEquals(data, result);
+        assertTrue(failed.get());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void closingCancelsReadAhead() throws Exception {
+        ExecutorService executor = mock(ExecutorService.class);
+        Future<byte[]> readAhead = mock(Future.class);
+        when(readAhead.get()).thenReturn(new byte[] { 1 });
+        when(executor.submit(any(Callable.class))).thenReturn(readAhead);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                singleByteConsumer, DATA_SIZE, 1, 2, executor);
+
+        stream.read();
+        stream.close();
+        verify(readAhead, times(2)).cancel(true);
+    }
+
+    @Test
+    public void doesNotReadAheadWhileTheGetterCannotGetInBackground() throws IOException {
+        AtomicBoolean canGetInBackground = new AtomicBoolean(false);
+        BlockGetter foregroundOnlyGetter = new BlockGetter() {
+            @Override
+            public void get(long offset, long numBlocks, OutputStream os) {
+                singleByteConsumer.get(offset, numBlocks, os);
+            }
+
+            @Override
+            public int expectedBlockLength() {
+                return data.length;
+            }
+
+            @Override
+            public boolean canGetInBackground() {
+                return canGetInBackground.get();
+            }
+        };
+        ExecutorService executor = Mockito.spy(MoreExecutors.newDirectExecutorService());
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                foregroundOnlyGetter, DATA_SIZE, 1, 2, executor);
+
+        expectNextBytesFromStream(stream, "da");
+        verify(executor, never()).submit(any(Callable.class));
+
+        canGetInBackground.set(true);
+        expectNextBytesFromStream(stream, "ta");
+        verify(executor, times(1)).submit(any(Callable.class));
+        assertEquals(-1, stream.read());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void loadsWindowsThatHaveNotStartedOnTheReader() throws Exception {
+        ExecutorService executor = mock(ExecutorService.class);
+        Future<byte[]> readAhead = mock(Future.class);
+        when(readAhead.cancel(false)).thenReturn(true);
+        when(executor.submit(any(Callable.class))).thenReturn(readAhead);
+        BlockConsumingInputStream stream = BlockConsumingInputStream.create(
+                singleByteConsumer, DATA_SIZE, 1, 1, executor);
+
+        byte[] result = new byte[DATA_SIZE];
+        assertEquals(DATA_SIZE, stream.read(result));
+        assertArrayEquals(data, result);
+        verify(readAhead, never()).get();
+    }
+
     private void expectNextBytesFromStream(BlockConsumingInputStream stream, String expectedOutput) throws IOException {
         byte[] chunk = new byte[2];
         int read = stream.read(chunk);
@@ -31,6 +31,16 @@ public abstract class TimestampClientConfig {
         return true;
     }
 
+    /**
+     * If true, concurrent transaction starts are coalesced into a single call to TimeLock, which returns a shared
+     * immutable timestamp lock and a range of start timestamps. This requires TimeLock to support the
+     * start-atlasdb-transaction-batch endpoint; otherwise, the batch is started through its constituent calls.
+     */
+    @Value.Default
+    public boolean enableTransactionStartBatching() {
+        return false;
+    }
+
     // TODO (jkong): Make timestamp wait intervals configurable.
     // This should ONLY be done once the timestamp client supports nanosecond precision;
     // millisecond precision isn't too useful (realistically it's very unlikely you want to set this beyond
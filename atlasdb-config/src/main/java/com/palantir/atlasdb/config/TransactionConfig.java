@@ -32,4 +32,38 @@ public abstract class TransactionConfig {
         return AtlasDbConstants.DEFAULT_TRANSACTION_LOCK_ACQUIRE_TIMEOUT_MS;
     }
 
+    /**
+     * If true, stages of the commit protocol that do not depend on one another are run concurrently: the write to
+     * the targeted sweep queue overlaps with the conflict check, and the pre-commit lock check overlaps with user
+     * pre-commit conditions. This reduces commit latency at the cost of some extra threads.
+     *
+     * The sweep queue write still finishes before the write to the key value service starts, so targeted sweep
+     * knows about every value that is written.
+     */
+    @Value.Default
+    public boolean enablePipelinedCommit() {
+        return false;
+    }
+
+    /**
+     * If true, concurrent writes of commit timestamps to the transactions table are coalesced into batches, so that
+     * many committing transactions share a single round trip to the key value service. This reduces load on the
+     * transactions table under high commit throughput, at the cost of some latency for uncontended commits when
+     * batches are already in flight. This has no effect on key value services that write the transactions table one
+     * row at a time, such as Cassandra.
+     */
+    @Value.Default
+    public boolean coalesceCommitTimestampWrites() {
+        return false;
+    }
+
+    /**
+     * The implementation of the cache of commit timestamps, whose size is given by
+     * {@link AtlasDbRuntimeConfig#getTimestampCacheSize()}. This is only read when the transaction manager is created.
+     */
+    @Value.Default
+    public TimestampCacheType timestampCacheType() {
+        return TimestampCacheType.ON_HEAP;
+    }
+
 }
@@ -22,6 +22,7 @@ import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
@@ -31,6 +32,7 @@ import org.immutables.value.Value;
 
 import com.codahale.metrics.InstrumentedExecutorService;
 import com.codahale.metrics.MetricRegistry;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Sets;
@@ -49,6 +51,7 @@ import com.palantir.leader.PaxosLeaderElectionService;
 import com.palantir.leader.PaxosLeaderElectionServiceBuilder;
 import com.palantir.leader.PaxosLeadershipEventRecorder;
 import com.palantir.leader.PingableLeader;
+import com.palantir.paxos.LeaseGrantingPaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptorImpl;
 import com.palantir.paxos.PaxosLearner;
@@ -102,20 +105,46 @@ public final class Leaders {
         return createInstrumentedLocalServices(metricsManager, config, runtime, remotePaxosServerSpec, userAgent);
     }
 
+    /**
+     * Leader leases are not supported here, because nothing checks that the nodes' clocks run at the same rate. A
+     * lease is only safe while they do, so leases are rejected unless a check is supplied through the overload below.
+     */
     public static LocalPaxosServices createInstrumentedLocalServices(
             MetricsManager metricsManager,
             LeaderConfig config,
             Supplier<LeaderRuntimeConfig> runtime,
             RemotePaxosServerSpec remotePaxosServerSpec,
             String userAgent) {
+        Preconditions.checkArgument(config.leaderLeaseMs() == 0,
+                "Leader leases are only supported by TimeLock, which checks that the nodes' clocks are in sync,"
+                        + " but leaderLeaseMs was %s.", config.leaderLeaseMs());
+        return createInstrumentedLocalServices(
+                metricsManager, config, runtime, remotePaxosServerSpec, userAgent, () -> true);
+    }
+
+    /**
+     * As above, where leader leases, if enabled, are only used while {@code clocksAreInSync} holds. Leases rely on the
+     * nodes' clocks running at the same rate, so {@code clocksAreInSync} must only hold while that has been verified.
+     */
+    public static LocalPaxosServices createInstrumentedLocalServices(
+            MetricsManager metricsManager,
+            LeaderConfig config,
+            Supplier<LeaderRuntimeConfig> runtime,
+            RemotePaxosServerSpec remotePaxosServerSpec,
+            String userAgent,
+            BooleanSupplier clocksAreInSync) {
         UUID leaderUuid = UUID.randomUUID();
 
         PaxosLeadershipEventRecorder leadershipEventRecorder = PaxosLeadershipEventRecorder.create(
                 metricsManager.getRegistry(), leaderUuid.toString());
 
+        PaxosAcceptor acceptor = PaxosAcceptorImpl.newAcceptor(config.acceptorLogDir().getPath());
+        if (config.leaderLeaseMs() > 0) {
+            acceptor = LeaseGrantingPaxosAcceptor.create(acceptor, config.leaderLeaseMs());
+        }
         PaxosAcceptor ourAcceptor = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
                 PaxosAcceptor.class,
-                PaxosAcceptorImpl.newAcceptor(config.acceptorLogDir().getPath()));
+                acceptor);
         PaxosLearner ourLearner = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
                 PaxosLearner.class,
                 PaxosLearnerImpl.newLearner(config.learnerLogDir().getPath(), leadershipEventRecorder));
@@ -168,6 +197,8 @@ public final class Leaders {
                 .leaderPingResponseWaitMs(config.leaderPingResponseWaitMs())
                 .eventRecorder(leadershipEventRecorder)
                 .onlyLogOnQuorumFailure(JavaSuppliers.compose(LeaderRuntimeConfig::onlyLogOnQuorumFailure, runtime))
+                .leaderLeaseMs(config.leaderLeaseMs())
+                .clocksAreInSync(clocksAreInSync)
                 .build();
 
         LeaderElectionService leaderElectionService = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
@@ -43,6 +43,8 @@ import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.async.initializer.AsyncInitializer;
 import com.palantir.async.initializer.Callback;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
+import com.palantir.atlasdb.cache.OffHeapTimestampCache;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.CleanupFollower;
 import com.palantir.atlasdb.cleaner.DefaultCleanerBuilder;
@@ -118,6 +120,7 @@ import com.palantir.atlasdb.transaction.impl.SweepStrategyManager;
 import com.palantir.atlasdb.transaction.impl.SweepStrategyManagers;
 import com.palantir.atlasdb.transaction.impl.TimelockTimestampServiceAdapter;
 import com.palantir.atlasdb.transaction.impl.consistency.ImmutableTimestampCorroborationConsistencyCheck;
+import com.palantir.atlasdb.transaction.service.CoalescingTransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.transaction.service.TransactionServices;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
@@ -327,7 +330,7 @@ public abstract class TransactionManagers {
                 keyValueService, registrar(), config.initializeAsync());
 
         TransactionService transactionService = AtlasDbMetrics.instrument(metricsManager.getRegistry(),
-                TransactionService.class, TransactionServices.createTransactionService(keyValueService));
+                TransactionService.class, createTransactionService(keyValueService, runtimeConfigSupplier));
         ConflictDetectionManager conflictManager = ConflictDetectionManagers.create(keyValueService);
         SweepStrategyManager sweepStrategyManager = SweepStrategyManagers.createDefault(keyValueService);
 
@@ -377,11 +380,11 @@ public abstract class TransactionManagers {
                         config.keyValueService().concurrentGetRangesThreadPoolSize(),
                         config.keyValueService().defaultGetRangesConcurrency(),
                         config.initializeAsync(),
-                        new TimestampCache(metricsManager.getRegistry(),
-                                () -> runtimeConfigSupplier.get().getTimestampCacheSize()),
+                        createTimestampCache(metricsManager, runtimeConfigSupplier),
                         targetedSweep,
                         callbacks,
-                        validateLocksOnReads()),
+                        validateLocksOnReads(),
+                        () -> runtimeConfigSupplier.get().transaction().enablePipelinedCommit()),
                 closeables);
         TransactionManager instrumentedTransactionManager =
                 AtlasDbMetrics.instrument(metricsManager.getRegistry(), TransactionManager.class, transactionManager);
@@ -471,6 +474,31 @@ public abstract class TransactionManagers {
         return AtlasDbQosClient.create(metricsManager, rateLimiters);
     }
 
+    private static TimestampCache createTimestampCache(
+            MetricsManager metricsManager,
+            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier) {
+        switch (runtimeConfigSupplier.get().transaction().timestampCacheType()) {
+            case OFF_HEAP:
+                return new OffHeapTimestampCache(metricsManager.getRegistry(),
+                        () -> runtimeConfigSupplier.get().getTimestampCacheSize());
+            case ON_HEAP:
+            default:
+                return new DefaultTimestampCache(metricsManager.getRegistry(),
+                        () -> runtimeConfigSupplier.get().getTimestampCacheSize());
+        }
+    }
+
+    private static TransactionService createTransactionService(KeyValueService keyValueService,
+            Supplier<AtlasDbRuntimeConfig> runtimeConfigSupplier) {
+        TransactionService transactionService = TransactionServices.createTransactionService(keyValueService);
+        if (!keyValueService.supportsMultiRowPutUnlessExists()) {
+            // Coalesced writes would still be made one row at a time, but with less concurrency.
+            return transactionService;
+        }
+        return CoalescingTransactionService.create(transactionService,
+                () -> runtimeConfigSupplier.get().transaction().coalesceCommitTimestampWrites());
+    }
+
     private static boolean areTransactionManagerInitializationPrerequisitesSatisfied(
             AsyncInitializer initializer,
             LockAndTimestampServices lockAndTimestampServices) {
@@ -670,7 +698,8 @@ public abstract class TransactionManagers {
                 metricsManager,
                 () -> runtimeConfigSupplier.get().timestampClient(),
                 withRefreshingLockService(
-                        withBridgingTimelockService(lockAndTimestampServices)));
+                        withBridgingTimelockService(lockAndTimestampServices),
+                        () -> runtimeConfigSupplier.get().timestampClient().enableTransactionStartBatching()));
     }
 
     private static LockAndTimestampServices withBridgingTimelockService(
@@ -682,8 +711,10 @@ public abstract class TransactionManagers {
     }
 
     private static LockAndTimestampServices withRefreshingLockService(
-            LockAndTimestampServices lockAndTimestampServices) {
-        TimeLockClient timeLockClient = TimeLockClient.createDefault(lockAndTimestampServices.timelock());
+            LockAndTimestampServices lockAndTimestampServices,
+            Supplier<Boolean> batchTransactionStarts) {
+        TimeLockClient timeLockClient = TimeLockClient.createDefault(
+                lockAndTimestampServices.timelock(), batchTransactionStarts);
         return ImmutableLockAndTimestampServices.builder()
                 .from(lockAndTimestampServices)
                 .timelock(timeLockClient)
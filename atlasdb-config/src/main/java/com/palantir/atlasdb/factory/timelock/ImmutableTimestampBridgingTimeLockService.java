@@ -25,12 +25,14 @@ import com.google.common.util.concurrent.RateLimiter;
 import com.palantir.atlasdb.http.errors.AtlasDbRemoteException;
 import com.palantir.lock.v2.AutoDelegate_TimelockService;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.TimelockService;
 
 /**
  * This class serves as a bridge to allow newer Atlas clients to maintain compatibility with TimeLock servers that
- * do not support the {@link TimelockService::startAtlasDbTransaction()} operation.
+ * do not support the {@link TimelockService::startAtlasDbTransaction()} or
+ * {@link TimelockService::startAtlasDbTransactionBatch()} operations.
  *
  * Initially, we assume that the server does support this operation. If we get a 404, we assume that the server does
  * not support this. We try the new endpoints once an hour in case someone upgraded TimeLock (that said, if a user
@@ -48,6 +50,7 @@ public class ImmutableTimestampBridgingTimeLockService implements AutoDelegate_T
     private final RateLimiter rateLimiter;
 
     private volatile boolean serverSupportsStartAtlasDbTransaction = true;
+    private volatile boolean serverSupportsStartAtlasDbTransactionBatch = true;
 
     @VisibleForTesting
     ImmutableTimestampBridgingTimeLockService(TimelockService delegate, RateLimiter rateLimiter) {
@@ -87,6 +90,26 @@ public class ImmutableTimestampBridgingTimeLockService implements AutoDelegate_T
         }
     }
 
+    @Override
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(IdentifiedTimeLockRequest request,
+            int count) {
+        if (serverSupportsStartAtlasDbTransactionBatch || rateLimiter.tryAcquire()) {
+            try {
+                StartAtlasDbTransactionBatchResponse response = delegate.startAtlasDbTransactionBatch(request, count);
+                serverSupportsStartAtlasDbTransactionBatch = true;
+                return response;
+            } catch (AtlasDbRemoteException remoteException) {
+                if (remoteException.getStatus() == Response.Status.NOT_FOUND.getStatusCode()) {
+                    serverSupportsStartAtlasDbTransactionBatch = false;
+                    return startTransactionBatchViaConstituentCalls(request, count);
+                }
+                throw remoteException;
+            }
+        } else {
+            return startTransactionBatchViaConstituentCalls(request, count);
+        }
+    }
+
     private boolean shouldUseStartAtlasDbTransactionEndpoint() {
         return serverSupportsStartAtlasDbTransaction || rateLimiter.tryAcquire();
     }
@@ -96,4 +119,11 @@ public class ImmutableTimestampBridgingTimeLockService implements AutoDelegate_T
                 delegate.lockImmutableTimestamp(request),
                 delegate.getFreshTimestamp());
     }
+
+    private StartAtlasDbTransactionBatchResponse startTransactionBatchViaConstituentCalls(
+            IdentifiedTimeLockRequest request, int count) {
+        return StartAtlasDbTransactionBatchResponse.of(
+                delegate.lockImmutableTimestamp(request),
+                delegate.getFreshTimestamps(count));
+    }
 }
@@ -34,6 +34,11 @@ import org.junit.Test;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Iterables;
+import com.palantir.atlasdb.config.ImmutableLeaderConfig;
+import com.palantir.atlasdb.config.ImmutableLeaderRuntimeConfig;
+import com.palantir.atlasdb.config.LeaderConfig;
+import com.palantir.atlasdb.http.UserAgents;
+import com.palantir.atlasdb.util.MetricsManagers;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosValue;
@@ -113,6 +118,22 @@ public class LeadersTest {
                 BigInteger.class);
     }
 
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsLeaderLeasesWithoutAClockSkewCheck() {
+        LeaderConfig config = ImmutableLeaderConfig.builder()
+                .quorumSize(1)
+                .localServer("me")
+                .addLeaders("me")
+                .leaderLeaseMs(1000L)
+                .build();
+
+        Leaders.createInstrumentedLocalServices(
+                MetricsManagers.createForTests(),
+                config,
+                () -> ImmutableLeaderRuntimeConfig.builder().build(),
+                UserAgents.DEFAULT_USER_AGENT);
+    }
+
     @Test(expected = NullPointerException.class)
     public void createProxyAndLocalListThrowsIfNullClassProvided() {
         PaxosAcceptor localAcceptor = mock(PaxosAcceptor.class);
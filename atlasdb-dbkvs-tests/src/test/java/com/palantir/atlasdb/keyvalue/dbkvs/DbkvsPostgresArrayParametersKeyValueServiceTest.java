@@ -0,0 +1,75 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.ColumnSelection;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionManagerAwareDbKvs;
+import com.palantir.remoting.api.config.service.HumanReadableDuration;
+
+public class DbkvsPostgresArrayParametersKeyValueServiceTest extends AbstractDbKvsKeyValueServiceTest {
+    private static final int NUM_ROWS = 1000;
+
+    @Override
+    protected KeyValueService getKeyValueService() {
+        KeyValueService kvs = ConnectionManagerAwareDbKvs.create(DbkvsPostgresTestSuite.getKvsConfig(
+                ImmutablePostgresDdlConfig.builder()
+                        .compactInterval(HumanReadableDuration.days(2))
+                        .useArrayParameterQueries(true)
+                        .build()));
+        kvs.getAllTableNames().stream().filter(table -> !table.getQualifiedName().equals("_metadata")).forEach(
+                kvs::dropTable);
+        return kvs;
+    }
+
+    @Test
+    public void readsManyRowsAndCellsInOneQuery() {
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        Map<Cell, Long> cellsToRead = Maps.newHashMap();
+        List<byte[]> rows = Lists.newArrayList();
+        for (int i = 0; i < NUM_ROWS; i++) {
+            byte[] row = PtBytes.toBytes(i);
+            Cell cell = Cell.create(row, column0);
+            values.put(cell, value00);
+            cellsToRead.put(cell, TEST_TIMESTAMP + 1);
+            rows.add(row);
+        }
+        keyValueService.put(TEST_TABLE, values, TEST_TIMESTAMP);
+
+        Map<Cell, Value> cells = keyValueService.get(TEST_TABLE, cellsToRead);
+        assertThat(cells).hasSize(NUM_ROWS);
+        assertThat(cells.values()).allMatch(value -> value.getTimestamp() == TEST_TIMESTAMP);
+
+        assertThat(keyValueService.getRows(TEST_TABLE, rows, ColumnSelection.all(), TEST_TIMESTAMP + 1))
+                .hasSize(NUM_ROWS);
+
+        assertThat(keyValueService.getLatestTimestamps(TEST_TABLE, cellsToRead).values())
+                .hasSize(NUM_ROWS)
+                .containsOnly(TEST_TIMESTAMP);
+    }
+}
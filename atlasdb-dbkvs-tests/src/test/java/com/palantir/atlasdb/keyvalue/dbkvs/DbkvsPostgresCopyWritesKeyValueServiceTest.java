@@ -0,0 +1,115 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionManagerAwareDbKvs;
+import com.palantir.remoting.api.config.service.HumanReadableDuration;
+
+/**
+ * Runs the KVS tests with a low enough copy threshold that almost every multi-cell put goes through {@code COPY}.
+ */
+public class DbkvsPostgresCopyWritesKeyValueServiceTest extends AbstractDbKvsKeyValueServiceTest {
+    private static final int COPY_WRITE_THRESHOLD = 2;
+
+    @Override
+    protected KeyValueService getKeyValueService() {
+        KeyValueService kvs = ConnectionManagerAwareDbKvs.create(DbkvsPostgresTestSuite.getKvsConfig(
+                ImmutablePostgresDdlConfig.builder()
+                        .compactInterval(HumanReadableDuration.days(2))
+                        .copyWriteThreshold(COPY_WRITE_THRESHOLD)
+                        .build()));
+        kvs.getAllTableNames().stream().filter(table -> !table.getQualifiedName().equals("_metadata")).forEach(
+                kvs::dropTable);
+        return kvs;
+    }
+
+    @Test
+    public void copiesLargePuts() {
+        Map<Cell, byte[]> values = createValues(0, 1000);
+        keyValueService.put(TEST_TABLE, values, TEST_TIMESTAMP);
+
+        Map<Cell, Value> result = keyValueService.get(TEST_TABLE, Maps.transformValues(values, v -> Long.MAX_VALUE));
+        assertThat(result).hasSize(values.size());
+        values.forEach((cell, value) -> {
+            assertThat(result.get(cell).getContents()).isEqualTo(value);
+            assertThat(result.get(cell).getTimestamp()).isEqualTo(TEST_TIMESTAMP);
+        });
+    }
+
+    @Test
+    public void copiesLargeMultiPutsInParallelPartitions() {
+        Map<Cell, byte[]> values = createValues(0, 1000);
+        keyValueService.multiPut(ImmutableMap.of(TEST_TABLE, values), TEST_TIMESTAMP);
+
+        Map<Cell, Value> result = keyValueService.get(TEST_TABLE, Maps.transformValues(values, v -> Long.MAX_VALUE));
+        assertThat(result).hasSize(values.size());
+        values.forEach((cell, value) -> assertThat(result.get(cell).getContents()).isEqualTo(value));
+    }
+
+    @Test
+    public void reusesTheStagingTableAcrossCopies() {
+        for (int i = 0; i < 10; i++) {
+            keyValueService.put(TEST_TABLE, createValues(100 * i, 100), TEST_TIMESTAMP);
+        }
+
+        Map<Cell, byte[]> allValues = createValues(0, 1000);
+        assertThat(keyValueService.get(TEST_TABLE, Maps.transformValues(allValues, v -> Long.MAX_VALUE)))
+                .hasSize(allValues.size());
+    }
+
+    @Test
+    public void copyingOverAnExistingCellThrowsKeyAlreadyExists() {
+        keyValueService.putUnlessExists(TEST_TABLE, ImmutableMap.of(Cell.create(row0, column0), value00));
+
+        assertThatThrownBy(() -> keyValueService.putUnlessExists(TEST_TABLE, ImmutableMap.of(
+                Cell.create(row0, column0), value01,
+                Cell.create(row1, column0), value10)))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+
+        // A failed copy leaves nothing behind, neither in the table nor in the staging table.
+        assertThat(keyValueService.get(TEST_TABLE, ImmutableMap.of(Cell.create(row1, column0), Long.MAX_VALUE)))
+                .isEmpty();
+        Map<Cell, byte[]> values = ImmutableMap.of(
+                Cell.create(row1, column0), value10,
+                Cell.create(row2, column0), value21);
+        keyValueService.putUnlessExists(TEST_TABLE, values);
+        assertThat(keyValueService.get(TEST_TABLE, Maps.transformValues(values, v -> Long.MAX_VALUE)).keySet())
+                .isEqualTo(ImmutableSet.copyOf(values.keySet()));
+    }
+
+    private static Map<Cell, byte[]> createValues(int firstRow, int numRows) {
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = firstRow; i < firstRow + numRows; i++) {
+            values.put(Cell.create(PtBytes.toBytes(i), column0), PtBytes.toBytes("value" + i));
+        }
+        return values;
+    }
+}
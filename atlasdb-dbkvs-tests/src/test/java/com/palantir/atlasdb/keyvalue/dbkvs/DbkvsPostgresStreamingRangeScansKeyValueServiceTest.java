@@ -0,0 +1,103 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.Map;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.RangeRequest;
+import com.palantir.atlasdb.keyvalue.api.RowResult;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionManagerAwareDbKvs;
+import com.palantir.common.base.ClosableIterator;
+import com.palantir.nexus.db.pool.ConnectionManager;
+import com.palantir.remoting.api.config.service.HumanReadableDuration;
+
+public class DbkvsPostgresStreamingRangeScansKeyValueServiceTest extends AbstractDbKvsKeyValueServiceTest {
+    @Override
+    protected KeyValueService getKeyValueService() {
+        KeyValueService kvs = ConnectionManagerAwareDbKvs.create(DbkvsPostgresTestSuite.getKvsConfig(
+                ImmutablePostgresDdlConfig.builder()
+                        .compactInterval(HumanReadableDuration.days(2))
+                        .useStreamingRangeScans(true)
+                        .build()));
+        kvs.getAllTableNames().stream().filter(table -> !table.getQualifiedName().equals("_metadata")).forEach(
+                kvs::dropTable);
+        return kvs;
+    }
+
+    @Test
+    public void streamsRangesLargerThanTheBatchHint() {
+        Map<Cell, byte[]> values = Maps.newHashMap();
+        for (int i = 0; i < 1000; i++) {
+            values.put(Cell.create(PtBytes.toBytes(i), column0), value00);
+            values.put(Cell.create(PtBytes.toBytes(i), column1), value01);
+        }
+        keyValueService.put(TEST_TABLE, values, TEST_TIMESTAMP);
+
+        RangeRequest request = RangeRequest.builder().batchHint(10).build();
+        int numRows = 0;
+        try (ClosableIterator<RowResult<Value>> rows = keyValueService.getRange(TEST_TABLE, request, Long.MAX_VALUE)) {
+            while (rows.hasNext()) {
+                assertThat(rows.next().getColumns()).hasSize(2);
+                numRows++;
+            }
+        }
+        assertThat(numRows).isEqualTo(1000);
+    }
+
+    @Test
+    public void closingPartiallyReadRangesReleasesTheirConnections() {
+        keyValueService.put(TEST_TABLE,
+                ImmutableMap.of(Cell.create(row0, column0), value00, Cell.create(row1, column0), value10),
+                TEST_TIMESTAMP);
+
+        // Many more scans than there are connections in the pool.
+        for (int i = 0; i < 100; i++) {
+            try (ClosableIterator<RowResult<Value>> rows =
+                    keyValueService.getRange(TEST_TABLE, RangeRequest.all(), Long.MAX_VALUE)) {
+                assertThat(rows.next().getRowName()).isEqualTo(row0);
+            }
+        }
+    }
+
+    @Test
+    public void closingPartiallyReadRangesRestoresAutoCommit() throws SQLException {
+        keyValueService.put(TEST_TABLE,
+                ImmutableMap.of(Cell.create(row0, column0), value00, Cell.create(row1, column0), value10),
+                TEST_TIMESTAMP);
+
+        try (ClosableIterator<RowResult<Value>> rows =
+                keyValueService.getRange(TEST_TABLE, RangeRequest.all(), Long.MAX_VALUE)) {
+            assertThat(rows.next().getRowName()).isEqualTo(row0);
+        }
+
+        ConnectionManager connectionManager = ((ConnectionManagerAwareDbKvs) keyValueService).getConnectionManager();
+        try (Connection connection = connectionManager.getConnection()) {
+            assertThat(connection.getAutoCommit()).isTrue();
+        }
+    }
+}
@@ -41,12 +41,16 @@ import com.palantir.remoting.api.config.service.HumanReadableDuration;
 @RunWith(Suite.class)
 @SuiteClasses({
         DbkvsPostgresKeyValueServiceTest.class,
+        DbkvsPostgresStreamingRangeScansKeyValueServiceTest.class,
+        DbkvsPostgresArrayParametersKeyValueServiceTest.class,
+        DbkvsPostgresCopyWritesKeyValueServiceTest.class,
         DbkvsPostgresSerializableTransactionTest.class,
         DbkvsPostgresSweepTaskRunnerTest.class,
         DbkvsBackgroundSweeperIntegrationTest.class,
         PostgresDbTimestampBoundStoreTest.class,
         DbKvsPostgresGetCandidateCellsForSweepingTest.class,
-        DbKvsSweepProgressStoreIntegrationTest.class
+        DbKvsSweepProgressStoreIntegrationTest.class,
+        DbkvsPostgresCoalescingTransactionServiceTest.class
         })
 public final class DbkvsPostgresTestSuite {
     private static final int POSTGRES_PORT_NUMBER = 5432;
@@ -72,6 +76,12 @@ public final class DbkvsPostgresTestSuite {
     }
 
     public static DbKeyValueServiceConfig getKvsConfig() {
+        return getKvsConfig(ImmutablePostgresDdlConfig.builder()
+                .compactInterval(HumanReadableDuration.days(2))
+                .build());
+    }
+
+    public static DbKeyValueServiceConfig getKvsConfig(PostgresDdlConfig ddlConfig) {
         DockerPort port = docker.containers()
                 .container("postgres")
                 .port(POSTGRES_PORT_NUMBER);
@@ -88,9 +98,7 @@ public final class DbkvsPostgresTestSuite {
 
         return ImmutableDbKeyValueServiceConfig.builder()
                 .connection(connectionConfig)
-                .ddl(ImmutablePostgresDdlConfig.builder()
-                        .compactInterval(HumanReadableDuration.days(2))
-                        .build())
+                .ddl(ddlConfig)
                 .build();
     }
 
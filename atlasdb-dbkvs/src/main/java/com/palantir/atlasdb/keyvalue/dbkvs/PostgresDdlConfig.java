@@ -51,4 +51,35 @@ public abstract class PostgresDdlConfig extends DdlConfig {
     public HumanReadableDuration compactInterval() {
         return HumanReadableDuration.seconds(0);
     }
+
+    /**
+     * Puts of at least this many cells into a table are streamed into a staging table with {@code COPY}, and then
+     * inserted from there in a single statement, rather than inserted in batches of {@link #mutationBatchCount()}
+     * cells. A non-positive value disables this. {@code COPY} needs the Postgres driver, so this is ignored on H2 and
+     * on other drivers.
+     */
+    @Value.Default
+    public int copyWriteThreshold() {
+        return 10_000;
+    }
+
+    /**
+     * If true, reads of many rows or cells pass them to Postgres as a few array parameters, joined against the table
+     * with {@code unnest}, rather than as one parameter per row or cell. The text of these queries then does not
+     * depend on how many rows or cells are read, so Postgres can plan them once and reuse the prepared statement.
+     */
+    @Value.Default
+    public boolean useArrayParameterQueries() {
+        return false;
+    }
+
+    /**
+     * If true, each range scan reads its whole range through one server-side cursor, which is held open until the
+     * iterator returned by {@code getRange} is exhausted or closed, instead of issuing one query per page. Each
+     * open range scan holds a database connection, so callers must close range iterators that they do not exhaust.
+     */
+    @Value.Default
+    public boolean useStreamingRangeScans() {
+        return false;
+    }
 }
@@ -38,7 +38,7 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
     protected final DdlConfig config;
     protected final ConnectionSupplier conns;
     protected final TableReference tableRef;
-    private final PrefixedTableNames prefixedTableNames;
+    protected final PrefixedTableNames prefixedTableNames;
 
     protected AbstractDbWriteTable(
             DdlConfig config,
@@ -51,6 +51,11 @@ public abstract class AbstractDbWriteTable implements DbWriteTable {
         this.prefixedTableNames = prefixedTableNames;
     }
 
+    @Override
+    public boolean shouldPutInBulk(int numCells) {
+        return false;
+    }
+
     @Override
     public void put(Collection<Map.Entry<Cell, byte[]>> data, long ts) {
         List<Object[]> args = Lists.newArrayListWithCapacity(data.size());
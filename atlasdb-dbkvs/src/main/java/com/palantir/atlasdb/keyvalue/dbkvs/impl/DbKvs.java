@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl;
 
+import java.math.RoundingMode;
 import java.sql.Connection;
 import java.sql.SQLException;
 import java.util.ArrayList;
@@ -69,6 +70,7 @@ import com.google.common.collect.Multimap;
 import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
+import com.google.common.math.IntMath;
 import com.google.common.util.concurrent.Atomics;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.keyvalue.api.BatchColumnRangeSelection;
@@ -140,6 +142,7 @@ public final class DbKvs extends AbstractKeyValueService {
     public static final String TIMESTAMP = "ts";
     public static final String VAL = "val";
     public static final long DEFAULT_GET_RANGE_OF_TS_BATCH = 1_000_000L;
+    private static final String POSTGRES_DRIVER_CLASS = "org.postgresql.Driver";
 
     private long maxRangeOfTimestampsBatchSize = DEFAULT_GET_RANGE_OF_TS_BATCH;
 
@@ -152,11 +155,27 @@ public final class DbKvs extends AbstractKeyValueService {
     private final DbKvsGetCandidateCellsForSweeping getCandidateCellsForSweepingStrategy;
 
     public static DbKvs create(DbKeyValueServiceConfig config, SqlConnectionSupplier sqlConnSupplier) {
-        DbKvs dbKvs = createNoInit(config.ddl(), sqlConnSupplier);
+        DbKvs dbKvs = createNoInit(withCopySupportOfDriver(config), sqlConnSupplier);
         dbKvs.init();
         return dbKvs;
     }
 
+    /**
+     * The COPY API is specific to the Postgres driver, so bulk puts are inserted in batches when Postgres tables are
+     * accessed through any other driver.
+     */
+    private static DdlConfig withCopySupportOfDriver(DbKeyValueServiceConfig config) {
+        DdlConfig ddlConfig = config.ddl();
+        if (ddlConfig instanceof PostgresDdlConfig
+                && !POSTGRES_DRIVER_CLASS.equals(config.connection().getDriverClass())) {
+            return ImmutablePostgresDdlConfig.builder()
+                    .from((PostgresDdlConfig) ddlConfig)
+                    .copyWriteThreshold(0)
+                    .build();
+        }
+        return ddlConfig;
+    }
+
     /**
      * Constructor for a SQL (either Postgres or Oracle) backed key value store.  This method should not
      * be used directly and is exposed to support legacy software.  Instead you should prefer the use of
@@ -172,7 +191,11 @@ public final class DbKvs extends AbstractKeyValueService {
             }
             @Override
             public DbKvs visit(H2DdlConfig h2DdlConfig) {
-                PostgresDdlConfig postgresDdlConfig = ImmutablePostgresDdlConfig.builder().from(h2DdlConfig).build();
+                // H2 has no COPY, so bulk puts are always inserted in batches.
+                PostgresDdlConfig postgresDdlConfig = ImmutablePostgresDdlConfig.builder()
+                        .from(h2DdlConfig)
+                        .copyWriteThreshold(0)
+                        .build();
                 return createPostgres(executor, postgresDdlConfig, connections);
             }
             @Override
@@ -197,7 +220,7 @@ public final class DbKvs extends AbstractKeyValueService {
                 connections,
                 new ParallelTaskRunner(newFixedThreadPool(config.poolSize()), config.fetchBatchSize()),
                 (conns, tbl, ids) -> Collections.emptyMap(), // no overflow on postgres
-                new PostgresGetRange(prefixedTableNames, connections, tableMetadataCache),
+                new PostgresGetRange(prefixedTableNames, connections, tableMetadataCache, config),
                 new DbKvsGetCandidateCellsForSweeping(cellTsPairLoader));
     }
 
@@ -397,12 +420,7 @@ public final class DbKvs extends AbstractKeyValueService {
             // We sort here because some key value stores are more efficient if you store adjacent keys together.
             NavigableMap<Cell, byte[]> sortedMap = ImmutableSortedMap.copyOf(e.getValue());
 
-            Iterable<List<Entry<Cell, byte[]>>> partitions = IterablePartitioner.partitionByCountAndBytes(
-                    sortedMap.entrySet(),
-                    getMultiPutBatchCount(),
-                    getMultiPutBatchSizeBytes(),
-                    table,
-                    entry -> entry == null ? 0 : entry.getValue().length + Cells.getApproxSizeOfCell(entry.getKey()));
+            Iterable<List<Entry<Cell, byte[]>>> partitions = partitionForMultiPut(table, sortedMap);
 
             for (final List<Entry<Cell, byte[]>> p : partitions) {
                 callables.add(() -> {
@@ -442,14 +460,15 @@ public final class DbKvs extends AbstractKeyValueService {
     }
 
     private void put(TableReference tableRef, Map<Cell, byte[]> values, long timestamp, boolean idempotent) {
-        Iterable<List<Entry<Cell, byte[]>>> batches = IterablePartitioner.partitionByCountAndBytes(
-                values.entrySet(),
-                config.mutationBatchCount(),
-                config.mutationBatchSizeBytes(),
-                tableRef,
-                getByteSizingFunction());
-
         runReadWrite(tableRef, (readTable, writeTable) -> {
+            Iterable<List<Entry<Cell, byte[]>>> batches = writeTable.shouldPutInBulk(values.size())
+                    ? ImmutableList.of(Lists.newArrayList(values.entrySet()))
+                    : IterablePartitioner.partitionByCountAndBytes(
+                            values.entrySet(),
+                            config.mutationBatchCount(),
+                            config.mutationBatchSizeBytes(),
+                            tableRef,
+                            getByteSizingFunction());
             for (List<Entry<Cell, byte[]>> batch : batches) {
                 try {
                     writeTable.put(batch, timestamp);
@@ -512,14 +531,15 @@ public final class DbKvs extends AbstractKeyValueService {
     @Override
     public void putWithTimestamps(TableReference tableRef, Multimap<Cell, Value> cellValues)
             throws KeyAlreadyExistsException {
-        Iterable<List<Entry<Cell, Value>>> batches = IterablePartitioner.partitionByCountAndBytes(
-                cellValues.entries(),
-                config.mutationBatchCount(),
-                config.mutationBatchSizeBytes(),
-                tableRef,
-                getValueSizingFunction());
-
         runReadWrite(tableRef, (readTable, writeTable) -> {
+            Iterable<List<Entry<Cell, Value>>> batches = writeTable.shouldPutInBulk(cellValues.size())
+                    ? ImmutableList.of(Lists.newArrayList(cellValues.entries()))
+                    : IterablePartitioner.partitionByCountAndBytes(
+                            cellValues.entries(),
+                            config.mutationBatchCount(),
+                            config.mutationBatchSizeBytes(),
+                            tableRef,
+                            getValueSizingFunction());
             for (List<Entry<Cell, Value>> batch : batches) {
                 try {
                     writeTable.put(batch);
@@ -536,6 +556,14 @@ public final class DbKvs extends AbstractKeyValueService {
         put(tableRef, values, AtlasDbConstants.TRANSACTION_TS, false);
     }
 
+    /**
+     * Cells are inserted in batches, regardless of which rows they are in.
+     */
+    @Override
+    public boolean supportsMultiRowPutUnlessExists() {
+        return true;
+    }
+
     @Override
     public void checkAndSet(CheckAndSetRequest checkAndSetRequest) throws CheckAndSetException {
         if (checkAndSetRequest.oldValue().isPresent()) {
@@ -622,7 +650,7 @@ public final class DbKvs extends AbstractKeyValueService {
             TableReference tableRef,
             RangeRequest rangeRequest,
             long timestamp) {
-        return ClosableIterators.wrap(getRangeStrategy.getRange(tableRef, rangeRequest, timestamp));
+        return getRangeStrategy.getRange(tableRef, rangeRequest, timestamp);
     }
 
     public void setMaxRangeOfTimestampsBatchSize(long newValue) {
@@ -1334,6 +1362,38 @@ public final class DbKvs extends AbstractKeyValueService {
         }
     }
 
+    /**
+     * Splits the cells of a multiPut into partitions that are written in parallel. Cells that are written in bulk are
+     * split into as many partitions as the pool can write at once, as long as each partition is still written in
+     * bulk.
+     */
+    private Iterable<List<Entry<Cell, byte[]>>> partitionForMultiPut(
+            TableReference table,
+            NavigableMap<Cell, byte[]> sortedMap) {
+        // Deciding whether to put in bulk does not check out a connection.
+        return runWrite(table, writeTable -> {
+            int numCells = sortedMap.size();
+            if (!writeTable.shouldPutInBulk(numCells)) {
+                return IterablePartitioner.partitionByCountAndBytes(
+                        sortedMap.entrySet(),
+                        getMultiPutBatchCount(),
+                        getMultiPutBatchSizeBytes(),
+                        table,
+                        entry -> entry == null
+                                ? 0
+                                : entry.getValue().length + Cells.getApproxSizeOfCell(entry.getKey()));
+            }
+            for (int numPartitions = Math.min(config.poolSize(), numCells); numPartitions > 1; numPartitions--) {
+                int partitionSize = IntMath.divide(numCells, numPartitions, RoundingMode.CEILING);
+                int smallestPartitionSize = numCells % partitionSize == 0 ? partitionSize : numCells % partitionSize;
+                if (writeTable.shouldPutInBulk(smallestPartitionSize)) {
+                    return Iterables.partition(sortedMap.entrySet(), partitionSize);
+                }
+            }
+            return ImmutableList.of(Lists.newArrayList(sortedMap.entrySet()));
+        });
+    }
+
     private <T> T runReadWrite(TableReference tableRef, ReadWriteTask<T> runner) {
         ConnectionSupplier conns = new ConnectionSupplier(connections);
         try {
@@ -25,6 +25,12 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.Value;
 
 public interface DbWriteTable {
+    /**
+     * Returns whether putting the given number of cells at once would use a bulk write path, in which case they
+     * should be passed to {@link #put(Collection, long)} or {@link #put(Collection)} in a single call rather than in
+     * batches.
+     */
+    boolean shouldPutInBulk(int numCells);
     void put(Collection<Map.Entry<Cell, byte[]>> data, long ts);
     void put(Collection<Map.Entry<Cell, Value>> data);
     void putSentinels(Iterable<Cell> cells);
@@ -147,9 +147,11 @@ public class OracleGetRange implements DbKvsGetRange {
     }
 
     @Override
-    public Iterator<RowResult<Value>> getRange(TableReference tableRef, RangeRequest rangeRequest, long timestamp) {
+    public ClosableIterator<RowResult<Value>> getRange(TableReference tableRef,
+                                                       RangeRequest rangeRequest,
+                                                       long timestamp) {
         boolean haveOverflow = checkIfTableHasOverflowUsingNewConnection(tableRef);
-        return Iterators.concat(new PageIterator(
+        return ClosableIterators.wrap(Iterators.concat(new PageIterator(
                 rangeRequest.getStartInclusive(),
                 rangeRequest.getEndExclusive(),
                 rangeRequest.getColumnNames(),
@@ -157,7 +159,7 @@ public class OracleGetRange implements DbKvsGetRange {
                 tableRef,
                 haveOverflow,
                 RangeHelpers.getMaxRowsPerPage(rangeRequest),
-                timestamp));
+                timestamp)));
     }
 
     private boolean checkIfTableHasOverflowUsingNewConnection(TableReference tableRef) {
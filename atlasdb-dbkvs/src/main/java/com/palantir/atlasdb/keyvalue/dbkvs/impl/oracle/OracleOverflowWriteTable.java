@@ -84,6 +84,11 @@ public final class OracleOverflowWriteTable implements DbWriteTable {
                 config, conns, sequenceSupplier, oracleTableNameGetter, oraclePrefixedTableNames, tableRef);
     }
 
+    @Override
+    public boolean shouldPutInBulk(int numCells) {
+        return false;
+    }
+
     @Override
     public void put(Collection<Map.Entry<Cell, byte[]>> data, long ts) {
         List<Object[]> args = Lists.newArrayListWithCapacity(data.size());
@@ -0,0 +1,55 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import com.google.common.io.BaseEncoding;
+
+/**
+ * Encodes arrays as Postgres array literals, so that they can be bound as a single text parameter and cast to an
+ * array type in the query, for example {@code ?::bytea[]}.
+ */
+final class PostgresArrays {
+    private static final BaseEncoding HEX = BaseEncoding.base16().lowerCase();
+
+    private PostgresArrays() {
+        // utility
+    }
+
+    /**
+     * Each element is written in the hex format of {@code bytea}, which is quoted because it contains a backslash.
+     */
+    static String byteaArray(Iterable<byte[]> values) {
+        StringBuilder builder = new StringBuilder("{");
+        for (byte[] value : values) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append("\"\\\\x").append(HEX.encode(value)).append('"');
+        }
+        return builder.append('}').toString();
+    }
+
+    static String bigintArray(Iterable<Long> values) {
+        StringBuilder builder = new StringBuilder("{");
+        for (Long value : values) {
+            if (builder.length() > 1) {
+                builder.append(',');
+            }
+            builder.append(value.longValue());
+        }
+        return builder.append('}').toString();
+    }
+}
@@ -0,0 +1,70 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+
+import javax.annotation.Nullable;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+/**
+ * Writes cells in the binary format of Postgres' {@code COPY ... FROM STDIN (FORMAT binary)}, as tuples of
+ * {@code (row_name BYTEA, col_name BYTEA, ts INT8, val BYTEA)}. Binary values are sent as they are, rather than
+ * escaped as in the text format.
+ *
+ * See https://www.postgresql.org/docs/current/static/sql-copy.html for the format.
+ */
+final class PostgresBinaryCopyFormat {
+    private static final byte[] SIGNATURE = {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0};
+    private static final short FIELDS_PER_TUPLE = 4;
+    private static final short END_OF_DATA = -1;
+    private static final int NULL_LENGTH = -1;
+
+    private PostgresBinaryCopyFormat() {
+        // Utility class.
+    }
+
+    static void writeHeader(DataOutputStream out) throws IOException {
+        out.write(SIGNATURE);
+        // No flags, and no header extension.
+        out.writeInt(0);
+        out.writeInt(0);
+    }
+
+    static void writeTuple(DataOutputStream out, Cell cell, long ts, @Nullable byte[] value) throws IOException {
+        out.writeShort(FIELDS_PER_TUPLE);
+        writeBytes(out, cell.getRowName());
+        writeBytes(out, cell.getColumnName());
+        out.writeInt(Long.BYTES);
+        out.writeLong(ts);
+        writeBytes(out, value);
+    }
+
+    static void writeTrailer(DataOutputStream out) throws IOException {
+        out.writeShort(END_OF_DATA);
+    }
+
+    private static void writeBytes(DataOutputStream out, @Nullable byte[] bytes) throws IOException {
+        if (bytes == null) {
+            out.writeInt(NULL_LENGTH);
+        } else {
+            out.writeInt(bytes.length);
+            out.write(bytes);
+        }
+    }
+}
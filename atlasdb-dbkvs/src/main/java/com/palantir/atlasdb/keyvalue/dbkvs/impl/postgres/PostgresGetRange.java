@@ -15,13 +15,18 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import java.sql.Connection;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Optional;
+import java.util.OptionalInt;
 import java.util.Set;
 
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
 import com.google.common.base.Preconditions;
 import com.google.common.collect.AbstractIterator;
 import com.google.common.collect.ImmutableSortedMap;
@@ -33,6 +38,7 @@ import com.palantir.atlasdb.keyvalue.api.RangeRequests;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
 import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.DbKvs;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.FullQuery;
@@ -48,6 +54,7 @@ import com.palantir.common.base.ClosableIterators;
 import com.palantir.nexus.db.DBType;
 import com.palantir.nexus.db.sql.AgnosticLightResultRow;
 import com.palantir.nexus.db.sql.AgnosticLightResultSet;
+import com.palantir.sql.Connections;
 
 /* 1) On Postgres, there seems to be no efficient way to page at atlas row boundaries.
  *    The approach with 'DENSE_RANK() <= x' that works exceptionally well on Oracle,
@@ -120,29 +127,53 @@ import com.palantir.nexus.db.sql.AgnosticLightResultSet;
  *
  *    All of the above seem to perform wrose than the self-join approach.
  *
+ *
+ * 3) If streaming range scans are enabled, the whole range is instead read with a single query, without a LIMIT,
+ *    through a server-side cursor that stays open until the returned iterator is closed. The cursor fetches
+ *    as many cells at a time as a page would hold, and only when the consumer asks for them. Postgres only
+ *    uses a cursor for a query if the connection is not in autocommit mode, so each streaming range scan holds
+ *    a connection and a read-only transaction open for its lifetime.
  */
 public class PostgresGetRange implements DbKvsGetRange {
+    private static final Logger log = LoggerFactory.getLogger(PostgresGetRange.class);
+
     private final PostgresPrefixedTableNames prefixedTableNames;
     private final SqlConnectionSupplier connectionPool;
     private final TableMetadataCache tableMetadataCache;
+    private final PostgresDdlConfig config;
 
     public PostgresGetRange(PostgresPrefixedTableNames prefixedTableNames,
                             SqlConnectionSupplier connectionPool,
-                            TableMetadataCache tableMetadataCache) {
+                            TableMetadataCache tableMetadataCache,
+                            PostgresDdlConfig config) {
         this.prefixedTableNames = prefixedTableNames;
         this.connectionPool = connectionPool;
         this.tableMetadataCache = tableMetadataCache;
+        this.config = config;
     }
 
     @Override
-    public Iterator<RowResult<Value>> getRange(TableReference tableRef,
-                                               RangeRequest rangeRequest,
-                                               long timestamp) {
+    public ClosableIterator<RowResult<Value>> getRange(TableReference tableRef,
+                                                       RangeRequest rangeRequest,
+                                                       long timestamp) {
         int maxRowsPerPage = RangeHelpers.getMaxRowsPerPage(rangeRequest);
         int cellsPerRowEstimate = getCellsPerRowEstimate(tableRef, rangeRequest);
         int maxCellsPerPage = Math.min(
                 AtlasDbPerformanceConstants.MAX_BATCH_SIZE, maxRowsPerPage * cellsPerRowEstimate) + 1;
         String tableName = DbKvs.internalTableName(tableRef);
+        if (config.useStreamingRangeScans()) {
+            FullQuery query = getRangeQuery(
+                    tableName,
+                    prefixedTableNames.get(tableRef),
+                    timestamp,
+                    rangeRequest.isReverse(),
+                    rangeRequest.getStartInclusive(),
+                    PtBytes.EMPTY_BYTE_ARRAY,
+                    rangeRequest.getEndExclusive(),
+                    rangeRequest.getColumnNames(),
+                    OptionalInt.empty());
+            return StreamingRowIterator.create(new ConnectionSupplier(connectionPool), query, maxCellsPerPage);
+        }
         Iterator<Iterator<RowResult<Value>>> pageIterator = new PageIterator(
                 rangeRequest.getStartInclusive(),
                 rangeRequest.getEndExclusive(),
@@ -153,7 +184,7 @@ public class PostgresGetRange implements DbKvsGetRange {
                 maxCellsPerPage,
                 tableName,
                 prefixedTableNames.get(tableRef));
-        return Iterators.concat(pageIterator);
+        return ClosableIterators.wrap(Iterators.concat(pageIterator));
     }
 
     private int getCellsPerRowEstimate(TableReference tableRef, RangeRequest rangeRequest) {
@@ -274,28 +305,156 @@ public class PostgresGetRange implements DbKvsGetRange {
         }
 
         private FullQuery getRangeQuery() {
-            String direction = reverse ? "DESC" : "ASC";
-            FullQuery.Builder queryBuilder = FullQuery.builder()
-                    .append("/* GET_RANGE(").append(tableName).append(") */")
-                    .append("SELECT wrap.row_name, wrap.col_name, wrap.ts, wrap.val")
-                    .append("  FROM ").append(prefixedTableName).append(" wrap, (")
-                    .append("    SELECT row_name, col_name, MAX(ts) AS ts FROM ").append(prefixedTableName)
-                    .append("    WHERE ts < ? ", ts);
-            RangePredicateHelper.create(reverse, DBType.POSTGRESQL, queryBuilder)
-                    .startCellInclusive(currentRowName, firstRowStartColumnInclusive)
-                    .endRowExclusive(endExclusive)
-                    .columnSelection(columnSelection);
-            queryBuilder
-                    .append("    GROUP BY row_name, col_name")
-                    .append("    ORDER BY row_name ").append(direction).append(", col_name ").append(direction)
-                    .append("    LIMIT ").append(maxCellsPerPage)
-                    .append("  ) i")
-                    .append("  WHERE wrap.row_name = i.row_name")
-                    .append("    AND wrap.col_name = i.col_name")
-                    .append("    AND wrap.ts = i.ts")
-                    .append("  ORDER BY row_name ").append(direction).append(", col_name ").append(direction);
-            return queryBuilder.build();
+            return PostgresGetRange.getRangeQuery(tableName, prefixedTableName, ts, reverse, currentRowName,
+                    firstRowStartColumnInclusive, endExclusive, columnSelection, OptionalInt.of(maxCellsPerPage));
         }
     }
 
+    private static FullQuery getRangeQuery(String tableName,
+                                           String prefixedTableName,
+                                           long ts,
+                                           boolean reverse,
+                                           byte[] startRowInclusive,
+                                           byte[] startColumnInclusive,
+                                           byte[] endRowExclusive,
+                                           Set<byte[]> columnSelection,
+                                           OptionalInt maxCells) {
+        String direction = reverse ? "DESC" : "ASC";
+        FullQuery.Builder queryBuilder = FullQuery.builder()
+                .append("/* GET_RANGE(").append(tableName).append(") */")
+                .append("SELECT wrap.row_name, wrap.col_name, wrap.ts, wrap.val")
+                .append("  FROM ").append(prefixedTableName).append(" wrap, (")
+                .append("    SELECT row_name, col_name, MAX(ts) AS ts FROM ").append(prefixedTableName)
+                .append("    WHERE ts < ? ", ts);
+        RangePredicateHelper.create(reverse, DBType.POSTGRESQL, queryBuilder)
+                .startCellInclusive(startRowInclusive, startColumnInclusive)
+                .endRowExclusive(endRowExclusive)
+                .columnSelection(columnSelection);
+        queryBuilder
+                .append("    GROUP BY row_name, col_name")
+                .append("    ORDER BY row_name ").append(direction).append(", col_name ").append(direction);
+        maxCells.ifPresent(limit -> queryBuilder.append("    LIMIT ").append(limit));
+        queryBuilder
+                .append("  ) i")
+                .append("  WHERE wrap.row_name = i.row_name")
+                .append("    AND wrap.col_name = i.col_name")
+                .append("    AND wrap.ts = i.ts")
+                .append("  ORDER BY row_name ").append(direction).append(", col_name ").append(direction);
+        return queryBuilder.build();
+    }
+
+    /**
+     * Groups the cells read through a server-side cursor into rows. The cursor's connection is released once all
+     * cells have been read, or when the iterator is closed, whichever comes first. The cursor needs a transaction, so
+     * the connection is returned to the pool with autocommit restored.
+     *
+     * An iterator that is abandoned without being closed holds its connection and transaction until it is garbage
+     * collected, at which point it is closed and a warning is logged.
+     */
+    private static final class StreamingRowIterator extends AbstractIterator<RowResult<Value>>
+            implements ClosableIterator<RowResult<Value>> {
+        private final ConnectionSupplier conns;
+        private final AgnosticLightResultSet resultSet;
+        private final Iterator<AgnosticLightResultRow> sqlRows;
+
+        private byte[] currentRowName;
+        private ImmutableSortedMap.Builder<byte[], Value> currentRowCells = RangeHelpers.newColumnMap();
+        private volatile boolean closed = false;
+
+        private StreamingRowIterator(ConnectionSupplier conns, AgnosticLightResultSet resultSet) {
+            this.conns = conns;
+            this.resultSet = resultSet;
+            this.sqlRows = resultSet.iterator();
+        }
+
+        @SuppressWarnings("deprecation")
+        static StreamingRowIterator create(ConnectionSupplier conns, FullQuery query, int fetchSize) {
+            try {
+                Connections.setAutoCommit(conns.get().getUnderlyingConnection(), false);
+                AgnosticLightResultSet resultSet = conns.get().selectLightResultSetUnregisteredQueryWithFetchSize(
+                        query.getQuery(), fetchSize, query.getArgs());
+                // The result set otherwise caps how many rows it fetches at once at a small default.
+                resultSet.setFetchSize(fetchSize);
+                return new StreamingRowIterator(conns, resultSet);
+            } catch (RuntimeException | Error e) {
+                try {
+                    endTransaction(conns);
+                } finally {
+                    conns.close();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        protected RowResult<Value> computeNext() {
+            while (!closed && sqlRows.hasNext()) {
+                AgnosticLightResultRow sqlRow = sqlRows.next();
+                byte[] rowName = sqlRow.getBytes("row_name");
+                byte[] colName = Preconditions.checkNotNull(sqlRow.getBytes("col_name"),
+                        "received a null col_name from the database");
+                Value value = Value.create(sqlRow.getBytes("val"), sqlRow.getLong("ts"));
+                if (currentRowName != null && !Arrays.equals(currentRowName, rowName)) {
+                    RowResult<Value> row = RowResult.create(currentRowName, currentRowCells.build());
+                    currentRowName = rowName;
+                    currentRowCells = RangeHelpers.newColumnMap();
+                    currentRowCells.put(colName, value);
+                    return row;
+                }
+                currentRowName = rowName;
+                currentRowCells.put(colName, value);
+            }
+            close();
+            if (currentRowName == null) {
+                return endOfData();
+            }
+            RowResult<Value> row = RowResult.create(currentRowName, currentRowCells.build());
+            currentRowName = null;
+            return row;
+        }
+
+        @Override
+        public void close() {
+            if (closed) {
+                return;
+            }
+            closed = true;
+            try {
+                resultSet.close();
+                endTransaction(conns);
+            } catch (RuntimeException e) {
+                log.warn("Failed to close the cursor of a streaming range scan", e);
+            } finally {
+                conns.close();
+            }
+        }
+
+        /**
+         * Rolls back the transaction that held the cursor open, and restores autocommit before the connection goes
+         * back to the pool.
+         */
+        @SuppressWarnings("deprecation")
+        private static void endTransaction(ConnectionSupplier conns) {
+            Connection connection = conns.get().getUnderlyingConnection();
+            try {
+                Connections.rollback(connection);
+            } finally {
+                Connections.setAutoCommit(connection, true);
+            }
+        }
+
+        @Override
+        @SuppressWarnings("checkstyle:NoFinalizer") // Guards against leaking pooled connections from abandoned scans.
+        protected void finalize() throws Throwable {
+            try {
+                if (!closed) {
+                    log.warn("A streaming range scan was not closed before being garbage collected. Callers must"
+                            + " close range iterators that they do not exhaust, or they hold a database connection.");
+                    close();
+                }
+            } finally {
+                super.finalize();
+            }
+        }
+    }
 }
@@ -15,18 +15,150 @@
  */
 package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
 
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Map.Entry;
+
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.collect.Collections2;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
-import com.palantir.atlasdb.keyvalue.dbkvs.DdlConfig;
+import com.palantir.atlasdb.keyvalue.api.Value;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.AbstractDbWriteTable;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.ConnectionSupplier;
 import com.palantir.atlasdb.keyvalue.dbkvs.impl.PrefixedTableNames;
+import com.palantir.exception.PalantirSqlException;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.nexus.db.sql.ExceptionCheck;
+import com.palantir.nexus.db.sql.SqlConnection;
 
 public class PostgresWriteTable extends AbstractDbWriteTable {
+    private static final Logger log = LoggerFactory.getLogger(PostgresWriteTable.class);
+    private static final int COPY_BUFFER_SIZE_BYTES = 1 << 16;
+    // All tables have the same columns, so a single staging table per connection serves every copy on it.
+    private static final String STAGING_TABLE_NAME = "pt_copy_staging";
+
+    private final int copyWriteThreshold;
+
     public PostgresWriteTable(
-            DdlConfig config,
+            PostgresDdlConfig config,
             ConnectionSupplier conns,
             TableReference tableRef,
             PrefixedTableNames prefixedTableNames) {
         super(config, conns, tableRef, prefixedTableNames);
+        this.copyWriteThreshold = config.copyWriteThreshold();
+    }
+
+    /**
+     * Whether to COPY is decided from the config alone, so that it needs no connection; DbKvs disables COPY in the
+     * config for drivers other than the Postgres driver, whose API it uses.
+     */
+    @Override
+    public boolean shouldPutInBulk(int numCells) {
+        return copyWriteThreshold > 0 && numCells >= copyWriteThreshold;
+    }
+
+    @Override
+    public void put(Collection<Map.Entry<Cell, byte[]>> data, long ts) {
+        if (shouldPutInBulk(data.size())) {
+            copy(Collections2.transform(data,
+                    entry -> Maps.immutableEntry(entry.getKey(), Value.create(entry.getValue(), ts))));
+        } else {
+            super.put(data, ts);
+        }
+    }
+
+    @Override
+    public void put(Collection<Map.Entry<Cell, Value>> data) {
+        if (shouldPutInBulk(data.size())) {
+            copy(data);
+        } else {
+            super.put(data);
+        }
+    }
+
+    /**
+     * Streams the given cells into a temporary staging table with {@code COPY ... FROM STDIN (FORMAT binary)}, and
+     * then inserts them from there in a single statement. This avoids the per-row overhead of batched inserts, and
+     * still fails with a {@link KeyAlreadyExistsException} if any of the cells has already been written.
+     * <p>
+     * The staging table is created once per connection and emptied around each copy, rather than created and dropped
+     * for every put.
+     */
+    private void copy(Collection<Entry<Cell, Value>> data) {
+        String prefixedTableName = prefixedTableNames.get(tableRef, conns);
+        SqlConnection conn = conns.get();
+
+        conn.executeUnregisteredQuery("/* CREATE_COPY_STAGING_TABLE */"
+                + " CREATE TEMP TABLE IF NOT EXISTS " + STAGING_TABLE_NAME + " ("
+                + "  row_name   BYTEA NOT NULL,"
+                + "  col_name   BYTEA NOT NULL,"
+                + "  ts         INT8 NOT NULL,"
+                + "  val        BYTEA)");
+        try {
+            // Guards against rows left behind by a copy whose cleanup failed.
+            conn.executeUnregisteredQuery("TRUNCATE " + STAGING_TABLE_NAME);
+            copyIn(conn, STAGING_TABLE_NAME, data);
+            conn.executeUnregisteredQuery("/* INSERT_FROM_COPY (" + prefixedTableName + ") */"
+                    + " INSERT INTO " + prefixedTableName + " (row_name, col_name, ts, val)"
+                    + " SELECT row_name, col_name, ts, val FROM " + STAGING_TABLE_NAME);
+        } catch (PalantirSqlException e) {
+            if (ExceptionCheck.isUniqueConstraintViolation(e)) {
+                throw new KeyAlreadyExistsException("primary key violation", e);
+            }
+            throw e;
+        } finally {
+            truncateStagingTable(conn);
+        }
+    }
+
+    private static void copyIn(SqlConnection conn, String stagingTableName, Collection<Entry<Cell, Value>> data) {
+        try {
+            CopyIn copyIn = conn.getUnderlyingConnection().unwrap(PGConnection.class).getCopyAPI().copyIn(
+                    "COPY " + stagingTableName + " (row_name, col_name, ts, val) FROM STDIN (FORMAT binary)");
+            try {
+                DataOutputStream out = new DataOutputStream(new PGCopyOutputStream(copyIn, COPY_BUFFER_SIZE_BYTES));
+                PostgresBinaryCopyFormat.writeHeader(out);
+                for (Entry<Cell, Value> entry : data) {
+                    Value value = entry.getValue();
+                    PostgresBinaryCopyFormat.writeTuple(out, entry.getKey(), value.getTimestamp(), value.getContents());
+                }
+                PostgresBinaryCopyFormat.writeTrailer(out);
+                // Flushes the remaining data, and ends the copy.
+                out.close();
+            } finally {
+                if (copyIn.isActive()) {
+                    copyIn.cancelCopy();
+                }
+            }
+        } catch (SQLException e) {
+            throw PalantirSqlException.create(e);
+        } catch (IOException e) {
+            PalantirSqlException sqlException = PalantirSqlException.createForChaining(
+                    "Failed to copy cells into " + stagingTableName);
+            sqlException.initCause(e);
+            throw sqlException;
+        }
+    }
+
+    private static void truncateStagingTable(SqlConnection conn) {
+        try {
+            conn.executeUnregisteredQuery("TRUNCATE " + STAGING_TABLE_NAME);
+        } catch (PalantirSqlException e) {
+            // The next copy on this connection truncates the table before using it anyway.
+            log.warn("Failed to empty the staging table {} after a copy.",
+                    SafeArg.of("stagingTableName", STAGING_TABLE_NAME), e);
+        }
     }
 }
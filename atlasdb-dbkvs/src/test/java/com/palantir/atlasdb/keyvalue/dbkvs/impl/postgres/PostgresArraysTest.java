@@ -0,0 +1,49 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.junit.Assert.assertEquals;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+
+public class PostgresArraysTest {
+    @Test
+    public void byteaElementsAreQuotedHexWithAnEscapedBackslash() {
+        String array = PostgresArrays.byteaArray(ImmutableList.of(new byte[] {1, (byte) 0xab}, new byte[] {0x7f}));
+
+        assertEquals("{\"\\\\x01ab\",\"\\\\x7f\"}", array);
+    }
+
+    @Test
+    public void emptyByteaElementIsEmptyHex() {
+        assertEquals("{\"\\\\x\"}", PostgresArrays.byteaArray(ImmutableList.of(new byte[0])));
+    }
+
+    @Test
+    public void bigintArrayIsCommaSeparated() {
+        String array = PostgresArrays.bigintArray(ImmutableList.of(1L, -2L, Long.MAX_VALUE));
+
+        assertEquals("{1,-2,9223372036854775807}", array);
+    }
+
+    @Test
+    public void emptyArraysHaveNoElements() {
+        assertEquals("{}", PostgresArrays.byteaArray(ImmutableList.of()));
+        assertEquals("{}", PostgresArrays.bigintArray(ImmutableList.of()));
+    }
+}
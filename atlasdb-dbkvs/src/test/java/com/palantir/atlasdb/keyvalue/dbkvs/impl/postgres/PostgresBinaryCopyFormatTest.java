@@ -0,0 +1,78 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.keyvalue.dbkvs.impl.postgres;
+
+import static org.junit.Assert.assertArrayEquals;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+import org.junit.Test;
+
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+public class PostgresBinaryCopyFormatTest {
+    private static final Cell CELL = Cell.create(new byte[] {1, 2}, new byte[] {3});
+    private static final long TIMESTAMP = 0x0102030405060708L;
+
+    private final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    private final DataOutputStream out = new DataOutputStream(bytes);
+
+    @Test
+    public void headerIsTheSignatureFollowedByNoFlagsAndNoExtension() throws IOException {
+        PostgresBinaryCopyFormat.writeHeader(out);
+
+        byte[] expected = ByteBuffer.allocate(19)
+                .put(new byte[] {'P', 'G', 'C', 'O', 'P', 'Y', '\n', (byte) 0xff, '\r', '\n', 0})
+                .putInt(0)
+                .putInt(0)
+                .array();
+        assertArrayEquals(expected, bytes.toByteArray());
+    }
+
+    @Test
+    public void tupleHasFourLengthPrefixedFields() throws IOException {
+        PostgresBinaryCopyFormat.writeTuple(out, CELL, TIMESTAMP, new byte[] {4, 5, 6});
+
+        byte[] expected = ByteBuffer.allocate(2 + (4 + 2) + (4 + 1) + (4 + 8) + (4 + 3))
+                .putShort((short) 4)
+                .putInt(2).put(new byte[] {1, 2})
+                .putInt(1).put(new byte[] {3})
+                .putInt(8).putLong(TIMESTAMP)
+                .putInt(3).put(new byte[] {4, 5, 6})
+                .array();
+        assertArrayEquals(expected, bytes.toByteArray());
+    }
+
+    @Test
+    public void nullValueHasNegativeLength() throws IOException {
+        PostgresBinaryCopyFormat.writeTuple(out, CELL, TIMESTAMP, null);
+
+        byte[] written = bytes.toByteArray();
+        byte[] valueLength = new byte[4];
+        System.arraycopy(written, written.length - 4, valueLength, 0, 4);
+        assertArrayEquals(ByteBuffer.allocate(4).putInt(-1).array(), valueLength);
+    }
+
+    @Test
+    public void trailerIsMinusOne() throws IOException {
+        PostgresBinaryCopyFormat.writeTrailer(out);
+
+        assertArrayEquals(new byte[] {(byte) 0xff, (byte) 0xff}, bytes.toByteArray());
+    }
+}
@@ -37,6 +37,7 @@ import feign.Client;
 import feign.Contract;
 import feign.Feign;
 import feign.Request;
+import feign.RequestInterceptor;
 import feign.codec.Decoder;
 import feign.codec.Encoder;
 import feign.codec.ErrorDecoder;
@@ -55,7 +56,8 @@ public final class AtlasDbFeignTargetFactory {
     private static final Contract contract = new JAXRSContract();
     private static final Encoder encoder = new JacksonEncoder(mapper);
     private static final Decoder decoder = new TextDelegateDecoder(
-            new OptionalAwareDecoder(new JacksonDecoder(mapper)));
+            new OptionalAwareDecoder(new SmileDelegateDecoder(new JacksonDecoder(mapper))));
+    private static final RequestInterceptor smileAcceptingInterceptor = new SmileAcceptingRequestInterceptor();
     private static final ErrorDecoder errorDecoder = new AtlasDbErrorDecoder();
 
     private AtlasDbFeignTargetFactory() {
@@ -81,6 +83,7 @@ public final class AtlasDbFeignTargetFactory {
                 .encoder(encoder)
                 .decoder(decoder)
                 .errorDecoder(errorDecoder)
+                .requestInterceptor(smileAcceptingInterceptor)
                 .retryer(new InterruptHonoringRetryer())
                 .client(refreshingHttpClient
                         ? FeignOkHttpClients.newRefreshingOkHttpClient(sslSocketFactory, Optional.empty(), userAgent)
@@ -115,7 +118,8 @@ public final class AtlasDbFeignTargetFactory {
                 DEFAULT_FEIGN_OPTIONS,
                 FailoverFeignTarget.DEFAULT_MAX_BACKOFF_MILLIS,
                 type,
-                userAgent);
+                userAgent,
+                true);
     }
 
     public static <T> T createProxyWithFailover(
@@ -127,6 +131,33 @@ public final class AtlasDbFeignTargetFactory {
             int maxBackoffMillis,
             Class<T> type,
             String userAgent) {
+        return createProxyWithFailover(
+                sslSocketFactory,
+                proxySelector,
+                endpointUris,
+                feignConnectTimeout,
+                feignReadTimeout,
+                maxBackoffMillis,
+                type,
+                userAgent,
+                true);
+    }
+
+    /**
+     * As {@link #createProxyWithFailover(Optional, Optional, Collection, int, int, int, Class, String)}, but allows
+     * the proxy to be restricted to JSON responses, rather than asking for {@link SmileEncoding Smile} responses
+     * where the server can produce them.
+     */
+    public static <T> T createProxyWithFailover(
+            Optional<SSLSocketFactory> sslSocketFactory,
+            Optional<ProxySelector> proxySelector,
+            Collection<String> endpointUris,
+            int feignConnectTimeout,
+            int feignReadTimeout,
+            int maxBackoffMillis,
+            Class<T> type,
+            String userAgent,
+            boolean acceptSmile) {
         return createProxyWithFailover(
                 sslSocketFactory,
                 proxySelector,
@@ -134,7 +165,8 @@ public final class AtlasDbFeignTargetFactory {
                 new Request.Options(feignConnectTimeout, feignReadTimeout),
                 maxBackoffMillis,
                 type,
-                userAgent);
+                userAgent,
+                acceptSmile);
     }
 
     private static <T> T createProxyWithFailover(
@@ -144,11 +176,16 @@ public final class AtlasDbFeignTargetFactory {
             Request.Options feignOptions,
             int maxBackoffMillis,
             Class<T> type,
-            String userAgent) {
+            String userAgent,
+            boolean acceptSmile) {
         FailoverFeignTarget<T> failoverFeignTarget = new FailoverFeignTarget<>(endpointUris, maxBackoffMillis, type);
         Client client = failoverFeignTarget.wrapClient(
                 FeignOkHttpClients.newOkHttpClient(sslSocketFactory, proxySelector, userAgent));
-        return Feign.builder()
+        Feign.Builder builder = Feign.builder();
+        if (acceptSmile) {
+            builder.requestInterceptor(smileAcceptingInterceptor);
+        }
+        return builder
                 .contract(contract)
                 .encoder(encoder)
                 .decoder(decoder)
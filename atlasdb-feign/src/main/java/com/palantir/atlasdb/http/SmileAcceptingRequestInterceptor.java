@@ -0,0 +1,44 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import java.util.Collection;
+
+import javax.ws.rs.core.MediaType;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.net.HttpHeaders;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+
+/**
+ * Asks for responses to requests that accept JSON in Smile instead, falling back to JSON if the server does not
+ * produce Smile. Requests that accept other media types are left alone.
+ */
+public class SmileAcceptingRequestInterceptor implements RequestInterceptor {
+    @VisibleForTesting
+    static final String SMILE_OR_JSON = SmileEncoding.MEDIA_TYPE + ", " + MediaType.APPLICATION_JSON + ";q=0.9";
+
+    @Override
+    public void apply(RequestTemplate template) {
+        Collection<String> accepted = template.headers().get(HttpHeaders.ACCEPT);
+        if (accepted != null && accepted.size() == 1 && accepted.contains(MediaType.APPLICATION_JSON)) {
+            template.header(HttpHeaders.ACCEPT, (String) null);
+            template.header(HttpHeaders.ACCEPT, SMILE_OR_JSON);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.datatype.jdk8.Jdk8Module;
+
+/**
+ * Jackson's Smile encoding, a binary equivalent of JSON. Clients created by {@link AtlasDbFeignTargetFactory} ask for
+ * responses in Smile ahead of JSON, so that servers whose resources produce Smile answer in it, and all other servers
+ * keep answering in JSON. Request bodies are always encoded as JSON, as a client cannot tell in advance whether
+ * the server that it is talking to accepts Smile.
+ */
+public final class SmileEncoding {
+    public static final String MEDIA_TYPE = "application/x-jackson-smile";
+
+    private SmileEncoding() {
+        // utility
+    }
+
+    /**
+     * Returns an object mapper that reads and writes Smile, configured in the same way as the JSON object mapper
+     * used by AtlasDB clients.
+     */
+    public static ObjectMapper createObjectMapper() {
+        return new ObjectMapper(new SmileFactory())
+                .registerModule(new Jdk8Module());
+    }
+}
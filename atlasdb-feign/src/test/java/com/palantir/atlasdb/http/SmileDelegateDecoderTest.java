@@ -0,0 +1,83 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.http;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+
+import javax.ws.rs.core.MediaType;
+
+import org.junit.Test;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.net.HttpHeaders;
+
+import feign.Response;
+import feign.codec.Decoder;
+
+public class SmileDelegateDecoderTest {
+    private static final int HTTP_OK = 200;
+    private static final String REASON = "reason";
+
+    private final Decoder delegate = mock(Decoder.class);
+    private final SmileDelegateDecoder smileDelegateDecoder = new SmileDelegateDecoder(delegate);
+
+    @Test
+    public void delegatesApplicationJsonContent() throws IOException {
+        Response response = createResponse(MediaType.APPLICATION_JSON, new byte[0]);
+
+        smileDelegateDecoder.decode(response, Long.class);
+
+        verify(delegate).decode(any(), any());
+    }
+
+    @Test
+    public void decodesSmileContent() throws IOException {
+        Response response = createResponse(SmileEncoding.MEDIA_TYPE,
+                SmileEncoding.createObjectMapper().writeValueAsBytes(ImmutableMap.of("timestamp", 42L)));
+
+        Object decoded = smileDelegateDecoder.decode(response, new TypeReference<Map<String, Long>>() {}.getType());
+
+        assertThat(decoded).isEqualTo(ImmutableMap.of("timestamp", 42L));
+        verify(delegate, never()).decode(any(), any());
+    }
+
+    @Test
+    public void decodesSmileContentIntoOptionals() throws IOException {
+        Response response = createResponse(SmileEncoding.MEDIA_TYPE,
+                SmileEncoding.createObjectMapper().writeValueAsBytes(Optional.of("value")));
+
+        Object decoded = smileDelegateDecoder.decode(response, new TypeReference<Optional<String>>() {}.getType());
+
+        assertThat(decoded).isEqualTo(Optional.of("value"));
+    }
+
+    private static Response createResponse(String contentType, byte[] body) {
+        Map<String, Collection<String>> headers = ImmutableMap.of(
+                HttpHeaders.CONTENT_TYPE, ImmutableList.of(contentType));
+        return Response.create(HTTP_OK, REASON, headers, body);
+    }
+}
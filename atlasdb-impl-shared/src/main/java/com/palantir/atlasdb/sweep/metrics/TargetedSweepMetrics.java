@@ -19,6 +19,8 @@ package com.palantir.atlasdb.sweep.metrics;
 import java.util.Collection;
 import java.util.Comparator;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -124,11 +126,21 @@ public class TargetedSweepMetrics {
         private final AccumulatingValueMetric abortedWritesDeleted;
         private final CurrentValueMetric<Long> sweepTimestamp;
         private final AggregatingVersionedMetric<Long> lastSweptTs;
+        private final ConcurrentMap<Integer, AggregatingVersionedMetric<Long>> lastSweptTsPerShard =
+                new ConcurrentHashMap<>();
+        private final String strategy;
+        private final Function<Long, Long> tsToMillis;
+        private final Clock wallClock;
+        private final long recomputeMillis;
 
         private MetricsForStrategy(MetricsManager manager, String strategy, Function<Long, Long> tsToMillis,
                 Clock wallClock, long recomputeMillis) {
             Map<String, String> tag = ImmutableMap.of(AtlasDbMetricNames.TAG_STRATEGY, strategy);
             this.manager = manager;
+            this.strategy = strategy;
+            this.tsToMillis = tsToMillis;
+            this.wallClock = wallClock;
+            this.recomputeMillis = recomputeMillis;
             enqueuedWrites = register(AtlasDbMetricNames.ENQUEUED_WRITES, TimestampedAccumulatingValueMetric.create(),
                     tag);
             entriesRead = registerAccumulating(AtlasDbMetricNames.ENTRIES_READ, tag);
@@ -147,6 +159,19 @@ public class TargetedSweepMetrics {
             register(AtlasDbMetricNames.LAG_MILLIS, millisSinceLastSweptTs::get, tag);
         }
 
+        private AggregatingVersionedMetric<Long> registerLastSweptTsForShard(int shard) {
+            Map<String, String> tag = ImmutableMap.of(
+                    AtlasDbMetricNames.TAG_STRATEGY, strategy,
+                    AtlasDbMetricNames.TAG_SHARD, Integer.toString(shard));
+            AggregatingVersionedMetric<Long> lastSweptTsForShard = new AggregatingVersionedMetric<>(
+                    new AggregatingVersionedSupplier<>(TargetedSweepMetrics::minimum, recomputeMillis));
+            Supplier<Long> millisSinceLastSweptTs = new CachedComposedSupplier<>(
+                    sweptTs -> estimateMillisSinceTs(sweptTs, wallClock, tsToMillis),
+                    lastSweptTsForShard::getVersionedValue);
+            register(AtlasDbMetricNames.LAG_MILLIS_PER_SHARD, millisSinceLastSweptTs::get, tag);
+            return lastSweptTsForShard;
+        }
+
         private AccumulatingValueMetric registerAccumulating(String name, Map<String, String> tag) {
             return register(name, new AccumulatingValueMetric(), tag);
         }
@@ -197,6 +222,7 @@ public class TargetedSweepMetrics {
 
         private void updateProgressForShard(int shard, long sweptTs) {
             lastSweptTs.update(shard, sweptTs);
+            lastSweptTsPerShard.computeIfAbsent(shard, this::registerLastSweptTsForShard).update(shard, sweptTs);
         }
     }
 }
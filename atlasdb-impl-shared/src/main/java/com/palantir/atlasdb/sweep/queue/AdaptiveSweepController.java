@@ -0,0 +1,126 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.palantir.common.time.Clock;
+import com.palantir.logsafe.SafeArg;
+
+/**
+ * Paces targeted sweep separately for each shard and strategy, adapting the number of entries read from the sweep
+ * queue in an iteration and how soon the shard is swept again to how the shard is doing:
+ *
+ * - A shard that did not catch up to the sweep timestamp is due again immediately, and its batch size doubles up to
+ *   {@link #MAX_BATCH_SIZE}, as long as its deletes take less than {@link #SLOW_DELETE_MILLIS}. If they take longer,
+ *   its batch size is halved instead.
+ * - A shard that caught up is due again after {@link #BASE_DELAY_MILLIS}, or, if it had nothing to sweep, after a
+ *   delay that doubles with every idle iteration up to {@link #MAX_IDLE_DELAY_MILLIS}.
+ * - A shard whose iteration failed, for instance because the KVS pushed back, has its batch size halved down to
+ *   {@link #MIN_BATCH_SIZE}, and is not due again until a delay that doubles with every consecutive failure up to
+ *   {@link #MAX_FAILURE_DELAY_MILLIS} has passed.
+ *
+ * The state is kept in memory, and each node paces the shards that it sweeps independently.
+ */
+final class AdaptiveSweepController {
+    private static final Logger log = LoggerFactory.getLogger(AdaptiveSweepController.class);
+
+    static final int MIN_BATCH_SIZE = SweepQueueUtils.BATCH_SIZE_KVS;
+    static final int MAX_BATCH_SIZE = SweepQueueUtils.SWEEP_BATCH_SIZE;
+    static final long SLOW_DELETE_MILLIS = TimeUnit.SECONDS.toMillis(10);
+    static final long BASE_DELAY_MILLIS = TimeUnit.SECONDS.toMillis(5);
+    static final long MAX_IDLE_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(1);
+    static final long MAX_FAILURE_DELAY_MILLIS = TimeUnit.MINUTES.toMillis(2);
+
+    private final Clock clock;
+    private final ConcurrentMap<ShardAndStrategy, ShardState> states = new ConcurrentHashMap<>();
+
+    @VisibleForTesting
+    AdaptiveSweepController(Clock clock) {
+        this.clock = clock;
+    }
+
+    static AdaptiveSweepController create() {
+        return new AdaptiveSweepController(System::currentTimeMillis);
+    }
+
+    int getBatchSize(ShardAndStrategy shardStrategy) {
+        return getState(shardStrategy).batchSize;
+    }
+
+    boolean isDue(ShardAndStrategy shardStrategy) {
+        return clock.getTimeMillis() >= getState(shardStrategy).nextIterationMillis;
+    }
+
+    void registerIteration(ShardAndStrategy shardStrategy, SweepIterationResult result) {
+        ShardState state = getState(shardStrategy);
+        synchronized (state) {
+            state.failureDelayMillis = BASE_DELAY_MILLIS;
+            if (!result.caughtUp()) {
+                state.idleDelayMillis = BASE_DELAY_MILLIS;
+                state.nextIterationMillis = clock.getTimeMillis();
+                if (result.deleteMillis() > SLOW_DELETE_MILLIS) {
+                    shrinkBatch(shardStrategy, state);
+                } else {
+                    state.batchSize = Math.min(MAX_BATCH_SIZE, state.batchSize * 2);
+                }
+            } else if (result.sweptAnything()) {
+                state.idleDelayMillis = BASE_DELAY_MILLIS;
+                state.nextIterationMillis = clock.getTimeMillis() + BASE_DELAY_MILLIS;
+            } else {
+                state.nextIterationMillis = clock.getTimeMillis() + state.idleDelayMillis;
+                state.idleDelayMillis = Math.min(MAX_IDLE_DELAY_MILLIS, state.idleDelayMillis * 2);
+            }
+        }
+    }
+
+    void registerFailure(ShardAndStrategy shardStrategy) {
+        ShardState state = getState(shardStrategy);
+        synchronized (state) {
+            shrinkBatch(shardStrategy, state);
+            state.nextIterationMillis = clock.getTimeMillis() + state.failureDelayMillis;
+            state.failureDelayMillis = Math.min(MAX_FAILURE_DELAY_MILLIS, state.failureDelayMillis * 2);
+        }
+    }
+
+    private static void shrinkBatch(ShardAndStrategy shardStrategy, ShardState state) {
+        int newBatchSize = Math.max(MIN_BATCH_SIZE, state.batchSize / 2);
+        if (newBatchSize != state.batchSize) {
+            log.info("Reducing the targeted sweep batch size for {} from {} to {}.",
+                    SafeArg.of("shardStrategy", shardStrategy.toText()),
+                    SafeArg.of("oldBatchSize", state.batchSize),
+                    SafeArg.of("newBatchSize", newBatchSize));
+            state.batchSize = newBatchSize;
+        }
+    }
+
+    private ShardState getState(ShardAndStrategy shardStrategy) {
+        return states.computeIfAbsent(shardStrategy, ignore -> new ShardState());
+    }
+
+    private static final class ShardState {
+        private volatile int batchSize = MAX_BATCH_SIZE;
+        private volatile long nextIterationMillis = 0L;
+        private long idleDelayMillis = BASE_DELAY_MILLIS;
+        private long failureDelayMillis = BASE_DELAY_MILLIS;
+    }
+}
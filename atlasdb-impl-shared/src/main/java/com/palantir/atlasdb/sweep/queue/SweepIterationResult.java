@@ -0,0 +1,41 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import org.immutables.value.Value;
+
+/**
+ * Describes how an iteration of targeted sweep for a single shard and strategy went: whether it found anything to
+ * sweep, whether it caught up to the sweep timestamp, and how long it took to delete what it swept.
+ */
+@Value.Immutable
+interface SweepIterationResult {
+    boolean sweptAnything();
+    boolean caughtUp();
+    long deleteMillis();
+
+    static SweepIterationResult nothingToSweep() {
+        return of(false, true, 0L);
+    }
+
+    static SweepIterationResult of(boolean sweptAnything, boolean caughtUp, long deleteMillis) {
+        return ImmutableSweepIterationResult.builder()
+                .sweptAnything(sweptAnything)
+                .caughtUp(caughtUp)
+                .deleteMillis(deleteMillis)
+                .build();
+    }
+}
@@ -23,6 +23,7 @@ import java.util.function.Supplier;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.base.Suppliers;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.schema.TargetedSweepSchema;
@@ -96,11 +97,24 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
      * @param sweepTs sweep timestamp, the upper limit to the start timestamp of writes to sweep
      */
     public void sweepNextBatch(ShardAndStrategy shardStrategy, long sweepTs) {
+        sweepNextBatch(shardStrategy, sweepTs, SweepQueueUtils.SWEEP_BATCH_SIZE);
+    }
+
+    /**
+     * Sweep the next batch for the shard and strategy specified by shardStrategy, with the sweep timestamp sweepTs,
+     * reading at most maxEntriesToRead entries from the sweep queue.
+     *
+     * @param shardStrategy shard and strategy to use
+     * @param sweepTs sweep timestamp, the upper limit to the start timestamp of writes to sweep
+     * @param maxEntriesToRead maximum number of writes to read from the sweep queue in this batch
+     * @return the result of the iteration, used to pace further iterations for this shard and strategy
+     */
+    SweepIterationResult sweepNextBatch(ShardAndStrategy shardStrategy, long sweepTs, int maxEntriesToRead) {
         metrics.updateSweepTimestamp(shardStrategy, sweepTs);
         long lastSweptTs = progress.getLastSweptTimestamp(shardStrategy);
 
         if (lastSweptTs + 1 >= sweepTs) {
-            return;
+            return SweepIterationResult.nothingToSweep();
         }
 
         log.debug("Beginning iteration of targeted sweep for {}, and sweep timestamp {}. Last previously swept "
@@ -108,20 +122,22 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
                 SafeArg.of("shardStrategy", shardStrategy.toText()),
                 SafeArg.of("sweepTs", sweepTs), SafeArg.of("lastSweptTs", lastSweptTs));
 
-        SweepBatch sweepBatch = reader.getNextBatchToSweep(shardStrategy, lastSweptTs, sweepTs);
+        SweepBatch sweepBatch = reader.getNextBatchToSweep(shardStrategy, lastSweptTs, sweepTs, maxEntriesToRead);
 
-        deleter.sweep(sweepBatch.writes(), Sweeper.of(shardStrategy));
+        Stopwatch deleteTimer = Stopwatch.createStarted();
+        long tombstones = deleter.sweep(sweepBatch.writes(), Sweeper.of(shardStrategy));
+        long deleteMillis = deleteTimer.elapsed(TimeUnit.MILLISECONDS);
 
         if (!sweepBatch.isEmpty()) {
             log.debug("Put {} ranged tombstones and swept up to timestamp {} for {}.",
-                    SafeArg.of("tombstones", sweepBatch.writes().size()),
+                    SafeArg.of("tombstones", tombstones),
                     SafeArg.of("lastSweptTs", sweepBatch.lastSweptTimestamp()),
                     SafeArg.of("shardStrategy", shardStrategy.toText()));
         }
 
         cleaner.clean(shardStrategy, lastSweptTs, sweepBatch.lastSweptTimestamp());
 
-        metrics.updateNumberOfTombstones(shardStrategy, sweepBatch.writes().size());
+        metrics.updateNumberOfTombstones(shardStrategy, tombstones);
         metrics.updateProgressForShard(shardStrategy, sweepBatch.lastSweptTimestamp());
 
         if (sweepBatch.isEmpty()) {
@@ -129,6 +145,8 @@ public final class SweepQueue implements MultiTableSweepQueueWriter {
         } else {
             metrics.registerOccurrenceOf(SweepOutcome.SUCCESS);
         }
+        return SweepIterationResult.of(
+                !sweepBatch.isEmpty(), sweepBatch.lastSweptTimestamp() + 1 >= sweepTs, deleteMillis);
     }
 
     /**
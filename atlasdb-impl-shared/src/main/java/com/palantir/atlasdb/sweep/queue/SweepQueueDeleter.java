@@ -17,11 +17,14 @@
 package com.palantir.atlasdb.sweep.queue;
 
 import java.util.Collection;
+import java.util.List;
 import java.util.Map;
-import java.util.function.Function;
+import java.util.TreeMap;
 import java.util.stream.Collectors;
 
-import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.primitives.UnsignedBytes;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
@@ -44,24 +47,55 @@ public class SweepQueueDeleter {
      * each write at either the write's timestamp - 1, or at its timestamp.
      * @param sweeper supplies the strategy-specific behaviour: the timestamp for the tombstone and whether we must use
      * sentinels or not.
+     * @return the number of ranged tombstones inserted
      */
-    public void sweep(Collection<WriteInfo> writes, Sweeper sweeper) {
+    public long sweep(Collection<WriteInfo> writes, Sweeper sweeper) {
         Map<TableReference, Map<Cell, Long>> maxTimestampByCell = writesPerTable(writes, sweeper);
+        long tombstones = 0;
         for (Map.Entry<TableReference, Map<Cell, Long>> entry : maxTimestampByCell.entrySet()) {
-            Iterables.partition(entry.getValue().keySet(), SweepQueueUtils.BATCH_SIZE_KVS)
-                    .forEach(cells -> {
-                        Map<Cell, Long> maxTimestampByCellPartition = cells.stream()
-                                .collect(Collectors.toMap(Function.identity(), entry.getValue()::get));
-                        follower.run(entry.getKey(), maxTimestampByCellPartition.keySet());
-                        if (sweeper.shouldAddSentinels()) {
-                            kvs.addGarbageCollectionSentinelValues(entry.getKey(),
-                                    maxTimestampByCellPartition.keySet());
-                            kvs.deleteAllTimestamps(entry.getKey(), maxTimestampByCellPartition, false);
-                        } else {
-                            kvs.deleteAllTimestamps(entry.getKey(), maxTimestampByCellPartition, true);
-                        }
-                    });
+            for (Map<Cell, Long> maxTimestampByCellPartition : partitionByRow(entry.getValue())) {
+                follower.run(entry.getKey(), maxTimestampByCellPartition.keySet());
+                if (sweeper.shouldAddSentinels()) {
+                    kvs.addGarbageCollectionSentinelValues(entry.getKey(), maxTimestampByCellPartition.keySet());
+                    kvs.deleteAllTimestamps(entry.getKey(), maxTimestampByCellPartition, false);
+                } else {
+                    kvs.deleteAllTimestamps(entry.getKey(), maxTimestampByCellPartition, true);
+                }
+                tombstones += maxTimestampByCellPartition.size();
+            }
         }
+        return tombstones;
+    }
+
+    /**
+     * Partitions the cells to sweep into batches of at most {@link SweepQueueUtils#BATCH_SIZE_KVS} cells, without
+     * splitting a row across batches unless the row alone has more cells than that. All the ranged tombstones for a
+     * row are then inserted by a single call to the KVS; for Cassandra, this means a single mutation of the row's
+     * partition, rather than one mutation for each of the batches that the row's cells happened to be spread over.
+     */
+    private static List<Map<Cell, Long>> partitionByRow(Map<Cell, Long> maxTimestampByCell) {
+        Map<byte[], List<Cell>> cellsByRow = maxTimestampByCell.keySet().stream().collect(Collectors.groupingBy(
+                Cell::getRowName, () -> new TreeMap<>(UnsignedBytes.lexicographicalComparator()), Collectors.toList()));
+
+        List<Map<Cell, Long>> batches = Lists.newArrayList();
+        Map<Cell, Long> batch = Maps.newHashMap();
+        for (List<Cell> row : cellsByRow.values()) {
+            if (!batch.isEmpty() && batch.size() + row.size() > SweepQueueUtils.BATCH_SIZE_KVS) {
+                batches.add(batch);
+                batch = Maps.newHashMap();
+            }
+            for (Cell cell : row) {
+                if (batch.size() == SweepQueueUtils.BATCH_SIZE_KVS) {
+                    batches.add(batch);
+                    batch = Maps.newHashMap();
+                }
+                batch.put(cell, maxTimestampByCell.get(cell));
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
     }
 
     private Map<TableReference, Map<Cell, Long>> writesPerTable(Collection<WriteInfo> writes, Sweeper sweeper) {
@@ -29,8 +29,13 @@ class SweepQueueReader {
     }
 
     SweepBatch getNextBatchToSweep(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs) {
+        return getNextBatchToSweep(shardStrategy, lastSweptTs, sweepTs, SweepQueueUtils.SWEEP_BATCH_SIZE);
+    }
+
+    SweepBatch getNextBatchToSweep(ShardAndStrategy shardStrategy, long lastSweptTs, long sweepTs, int maxEntries) {
         return sweepableTimestamps.nextSweepableTimestampPartition(shardStrategy, lastSweptTs, sweepTs)
-                .map(fine -> sweepableCells.getBatchForPartition(shardStrategy, fine, lastSweptTs, sweepTs))
+                .map(fine -> sweepableCells.getBatchForPartition(
+                        shardStrategy, fine, lastSweptTs, sweepTs, maxEntries))
                 .orElse(SweepBatch.of(ImmutableList.of(), sweepTs - 1L));
     }
 }
@@ -143,10 +143,17 @@ public class SweepableCells extends SweepQueueTable {
 
     SweepBatch getBatchForPartition(ShardAndStrategy shardStrategy, long partitionFine, long minTsExclusive,
             long sweepTs) {
+        return getBatchForPartition(shardStrategy, partitionFine, minTsExclusive, sweepTs,
+                SweepQueueUtils.SWEEP_BATCH_SIZE);
+    }
+
+    SweepBatch getBatchForPartition(ShardAndStrategy shardStrategy, long partitionFine, long minTsExclusive,
+            long sweepTs, int maxEntries) {
         SweepableCellsTable.SweepableCellsRow row = computeRow(partitionFine, shardStrategy);
-        RowColumnRangeIterator resultIterator = getRowColumnRange(row, partitionFine, minTsExclusive, sweepTs);
+        RowColumnRangeIterator resultIterator = getRowColumnRange(row, partitionFine, minTsExclusive, sweepTs,
+                Math.min(SweepQueueUtils.BATCH_SIZE_KVS, maxEntries));
         PeekingIterator<Map.Entry<Cell, Value>> peekingResultIterator = Iterators.peekingIterator(resultIterator);
-        Multimap<Long, WriteInfo> writesByStartTs = getBatchOfWrites(row, peekingResultIterator, sweepTs);
+        Multimap<Long, WriteInfo> writesByStartTs = getBatchOfWrites(row, peekingResultIterator, sweepTs, maxEntries);
         maybeMetrics.ifPresent(metrics -> metrics.updateEntriesRead(shardStrategy, writesByStartTs.size()));
         log.debug("Read {} entries from the sweep queue.", SafeArg.of("number", writesByStartTs.size()));
         TimestampsToSweep tsToSweep = getTimestampsToSweepDescendingAndCleanupAborted(shardStrategy,
@@ -157,9 +164,9 @@ public class SweepableCells extends SweepQueueTable {
     }
 
     private Multimap<Long, WriteInfo> getBatchOfWrites(SweepableCellsTable.SweepableCellsRow row,
-            PeekingIterator<Map.Entry<Cell, Value>> resultIterator, long sweepTs) {
+            PeekingIterator<Map.Entry<Cell, Value>> resultIterator, long sweepTs, int maxEntries) {
         Multimap<Long, WriteInfo> writesByStartTs = HashMultimap.create();
-        while (resultIterator.hasNext() && writesByStartTs.size() < SweepQueueUtils.SWEEP_BATCH_SIZE) {
+        while (resultIterator.hasNext() && writesByStartTs.size() < maxEntries) {
             Map.Entry<Cell, Value> entry = resultIterator.next();
             SweepableCellsTable.SweepableCellsColumn col = computeColumn(entry);
             long startTs = getTimestamp(row, col);
@@ -187,9 +194,9 @@ public class SweepableCells extends SweepQueueTable {
     }
 
     private RowColumnRangeIterator getRowColumnRange(SweepableCellsTable.SweepableCellsRow row, long partitionFine,
-            long minTsExclusive, long maxTsExclusive) {
+            long minTsExclusive, long maxTsExclusive, int batchSize) {
         return getRowsColumnRange(ImmutableList.of(row.persistToBytes()),
-                columnsBetween(minTsExclusive + 1, maxTsExclusive, partitionFine), SweepQueueUtils.BATCH_SIZE_KVS);
+                columnsBetween(minTsExclusive + 1, maxTsExclusive, partitionFine), batchSize);
     }
 
     private TimestampsToSweep getTimestampsToSweepDescendingAndCleanupAborted(ShardAndStrategy shardStrategy,
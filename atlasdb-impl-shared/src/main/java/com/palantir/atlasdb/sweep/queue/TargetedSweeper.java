@@ -18,6 +18,7 @@ package com.palantir.atlasdb.sweep.queue;
 
 import java.util.List;
 import java.util.Optional;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicLong;
@@ -46,6 +47,7 @@ import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.exception.NotInitializedException;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.logsafe.SafeArg;
+import com.palantir.remoting.api.errors.QosException;
 
 @SuppressWarnings({"FinalClass", "Not final for mocking in tests"})
 public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSweeper {
@@ -54,6 +56,7 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
     private final Supplier<Integer> shardsConfig;
     private final List<Follower> followers;
     private final MetricsManager metricsManager;
+    private final AdaptiveSweepController controller = AdaptiveSweepController.create();
 
     private TargetedSweepMetrics metrics;
     private SweepQueue queue;
@@ -162,13 +165,17 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
     @SuppressWarnings("checkstyle:RegexpMultiline") // Suppress VisibleForTesting warning
     @VisibleForTesting
     public void sweepNextBatch(ShardAndStrategy shardStrategy) {
+        sweepNextBatch(shardStrategy, SweepQueueUtils.SWEEP_BATCH_SIZE);
+    }
+
+    private SweepIterationResult sweepNextBatch(ShardAndStrategy shardStrategy, int maxEntriesToRead) {
         assertInitialized();
         if (!runSweep.get()) {
             metrics.registerOccurrenceOf(SweepOutcome.DISABLED);
-            return;
+            return SweepIterationResult.nothingToSweep();
         }
         long maxTsExclusive = Sweeper.of(shardStrategy).getSweepTimestamp(timestampsSupplier);
-        queue.sweepNextBatch(shardStrategy, maxTsExclusive);
+        return queue.sweepNextBatch(shardStrategy, maxTsExclusive, maxEntriesToRead);
     }
 
     @Override
@@ -205,30 +212,64 @@ public class TargetedSweeper implements MultiTableSweepQueueWriter, BackgroundSw
                 executorService = PTExecutors
                         .newScheduledThreadPoolExecutor(numThreads, new NamedThreadFactory("Targeted Sweep", true));
                 for (int i = 0; i < numThreads; i++) {
-                    executorService.scheduleWithFixedDelay(this::runOneIteration, 1, 5, TimeUnit.SECONDS);
+                    executorService.schedule(this::runOneIterationAndReschedule, 1, TimeUnit.SECONDS);
                 }
             }
         }
 
-        private void runOneIteration() {
+        /**
+         * Runs an iteration, and schedules the next one on this thread. A thread that swept a shard that is still
+         * behind runs its next iteration immediately; otherwise, it waits before looking for another shard that is
+         * due to be swept.
+         */
+        private void runOneIterationAndReschedule() {
+            boolean sweptShardIsBehind = runOneIteration();
+            long delayMillis = sweptShardIsBehind ? 0L : AdaptiveSweepController.BASE_DELAY_MILLIS;
+            try {
+                executorService.schedule(this::runOneIterationAndReschedule, delayMillis, TimeUnit.MILLISECONDS);
+            } catch (RejectedExecutionException e) {
+                log.debug("Not scheduling further iterations of targeted sweep for sweep strategy {}, as the "
+                        + "scheduler has been shut down.", SafeArg.of("sweepStrategy", sweepStrategy));
+            }
+        }
+
+        private boolean runOneIteration() {
             Optional<TargetedSweeperLock> maybeLock = Optional.empty();
             try {
                 maybeLock = tryToAcquireLockForNextShardAndStrategy();
-                maybeLock.ifPresent(lock -> sweepNextBatch(lock.getShardAndStrategy()));
+                if (!maybeLock.isPresent()) {
+                    return false;
+                }
+                ShardAndStrategy shardStrategy = maybeLock.get().getShardAndStrategy();
+                SweepIterationResult result = sweepNextBatch(shardStrategy, controller.getBatchSize(shardStrategy));
+                controller.registerIteration(shardStrategy, result);
+                return !result.caughtUp();
             } catch (InsufficientConsistencyException e) {
                 metrics.registerOccurrenceOf(SweepOutcome.NOT_ENOUGH_DB_NODES_ONLINE);
+                registerFailure(maybeLock);
                 logException(e, maybeLock);
             } catch (Throwable th) {
                 metrics.registerOccurrenceOf(SweepOutcome.ERROR);
+                registerFailure(maybeLock);
                 logException(th, maybeLock);
             } finally {
                 maybeLock.ifPresent(TargetedSweeperLock::unlock);
             }
+            return false;
+        }
+
+        /**
+         * Failures, including pushback from the KVS such as {@link QosException.Throttle}, shrink the batch size and
+         * back off further iterations for the failing shard.
+         */
+        private void registerFailure(Optional<TargetedSweeperLock> maybeLock) {
+            maybeLock.ifPresent(lock -> controller.registerFailure(lock.getShardAndStrategy()));
         }
 
         private Optional<TargetedSweeperLock> tryToAcquireLockForNextShardAndStrategy() {
             return IntStream.range(0, queue.getNumShards())
                     .map(ignore -> getShardAndIncrement())
+                    .filter(shard -> controller.isDue(ShardAndStrategy.of(shard, sweepStrategy)))
                     .mapToObj(shard -> TargetedSweeperLock.tryAcquire(shard, sweepStrategy, timeLock))
                     .filter(Optional::isPresent)
                     .map(Optional::get)
@@ -27,6 +27,7 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
@@ -70,6 +71,12 @@ public class InstrumentedTimelockService implements TimelockService {
         return executeWithRecord(() -> timelockService.startAtlasDbTransaction(request));
     }
 
+    @Override
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(IdentifiedTimeLockRequest request,
+            int count) {
+        return executeWithRecord(() -> timelockService.startAtlasDbTransactionBatch(request, count));
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return executeWithRecord(() -> timelockService.getImmutableTimestamp());
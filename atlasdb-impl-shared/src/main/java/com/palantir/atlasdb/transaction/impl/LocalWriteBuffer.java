@@ -0,0 +1,317 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.SortedMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.annotation.Nullable;
+
+import com.google.common.collect.AbstractIterator;
+import com.google.common.collect.Iterators;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Ordering;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+/**
+ * The local writes of a transaction to a single table, tuned for transactions that write many cells and then read
+ * few of them back.
+ *
+ * Values are held in a hash map, so writes and point reads take constant time. Newly written cells are appended to
+ * an unsorted buffer, which is only sorted and merged into a sorted array of cells when an ordered view is next
+ * read, and ranges are then found by binary search. A transaction that writes a large number of cells thus sorts
+ * them at most once per range read, rather than maintaining a skip list as it writes.
+ *
+ * Entries cannot be removed; deletes are written as empty values. Iterators over ordered views are weakly
+ * consistent: they see every cell that was written before they were created, and the latest value of each of
+ * these cells.
+ */
+final class LocalWriteBuffer extends AbstractMap<Cell, byte[]> implements SortedMap<Cell, byte[]> {
+    private static final Cell[] NO_CELLS = new Cell[0];
+
+    private final ConcurrentMap<Cell, byte[]> values = new ConcurrentHashMap<>();
+    private final List<Cell> unsortedCells = Lists.newArrayList();
+    private final SortedMap<Cell, byte[]> allCells = new RangeView(null, null);
+
+    private volatile Cell[] sortedCells = NO_CELLS;
+    private volatile boolean hasUnsortedCells = false;
+
+    @Override
+    public synchronized byte[] put(Cell cell, byte[] value) {
+        byte[] previous = values.put(cell, value);
+        if (previous == null) {
+            unsortedCells.add(cell);
+            hasUnsortedCells = true;
+        }
+        return previous;
+    }
+
+    @Override
+    public byte[] get(Object key) {
+        return values.get(key);
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return values.containsKey(key);
+    }
+
+    @Override
+    public int size() {
+        return values.size();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    @Override
+    public Set<Entry<Cell, byte[]>> entrySet() {
+        return allCells.entrySet();
+    }
+
+    @Override
+    public Set<Cell> keySet() {
+        return allCells.keySet();
+    }
+
+    @Override
+    public Comparator<? super Cell> comparator() {
+        return null;
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> subMap(Cell fromKey, Cell toKey) {
+        return allCells.subMap(fromKey, toKey);
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> headMap(Cell toKey) {
+        return allCells.headMap(toKey);
+    }
+
+    @Override
+    public SortedMap<Cell, byte[]> tailMap(Cell fromKey) {
+        return allCells.tailMap(fromKey);
+    }
+
+    @Override
+    public Cell firstKey() {
+        return allCells.firstKey();
+    }
+
+    @Override
+    public Cell lastKey() {
+        return allCells.lastKey();
+    }
+
+    private Cell[] getSortedCells() {
+        if (hasUnsortedCells) {
+            sortUnsortedCells();
+        }
+        return sortedCells;
+    }
+
+    private synchronized void sortUnsortedCells() {
+        if (!hasUnsortedCells) {
+            return;
+        }
+        Cell[] newCells = unsortedCells.toArray(NO_CELLS);
+        Arrays.sort(newCells);
+        Cell[] oldCells = sortedCells;
+        // Cells are only appended to the unsorted buffer the first time that they are written, so the two arrays
+        // are disjoint.
+        Cell[] merged = new Cell[oldCells.length + newCells.length];
+        int oldIndex = 0;
+        int newIndex = 0;
+        for (int i = 0; i < merged.length; i++) {
+            if (newIndex == newCells.length
+                    || (oldIndex < oldCells.length && oldCells[oldIndex].compareTo(newCells[newIndex]) < 0)) {
+                merged[i] = oldCells[oldIndex++];
+            } else {
+                merged[i] = newCells[newIndex++];
+            }
+        }
+        sortedCells = merged;
+        unsortedCells.clear();
+        hasUnsortedCells = false;
+    }
+
+    private static int lowerIndex(Cell[] cells, @Nullable Cell lowerInclusive) {
+        return lowerInclusive == null ? 0 : ceilingIndex(cells, lowerInclusive);
+    }
+
+    private static int upperIndex(Cell[] cells, @Nullable Cell upperExclusive) {
+        return upperExclusive == null ? cells.length : ceilingIndex(cells, upperExclusive);
+    }
+
+    private static int ceilingIndex(Cell[] cells, Cell cell) {
+        int index = Arrays.binarySearch(cells, cell);
+        return index >= 0 ? index : -(index + 1);
+    }
+
+    /**
+     * A view of the cells in [lowerInclusive, upperExclusive), where a null bound is unbounded.
+     */
+    private final class RangeView extends AbstractMap<Cell, byte[]> implements SortedMap<Cell, byte[]> {
+        @Nullable private final Cell lowerInclusive;
+        @Nullable private final Cell upperExclusive;
+
+        RangeView(@Nullable Cell lowerInclusive, @Nullable Cell upperExclusive) {
+            this.lowerInclusive = lowerInclusive;
+            this.upperExclusive = upperExclusive;
+        }
+
+        @Override
+        public byte[] get(Object key) {
+            return isInRange(key) ? values.get(key) : null;
+        }
+
+        @Override
+        public boolean containsKey(Object key) {
+            return isInRange(key) && values.containsKey(key);
+        }
+
+        @Override
+        public int size() {
+            Cell[] cells = getSortedCells();
+            return Math.max(0, upperIndex(cells, upperExclusive) - lowerIndex(cells, lowerInclusive));
+        }
+
+        @Override
+        public boolean isEmpty() {
+            return size() == 0;
+        }
+
+        @Override
+        public Set<Entry<Cell, byte[]>> entrySet() {
+            return new AbstractSet<Entry<Cell, byte[]>>() {
+                @Override
+                public Iterator<Entry<Cell, byte[]>> iterator() {
+                    return Iterators.transform(cellIterator(), cell -> Maps.immutableEntry(cell, values.get(cell)));
+                }
+
+                @Override
+                public int size() {
+                    return RangeView.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Set<Cell> keySet() {
+            return new AbstractSet<Cell>() {
+                @Override
+                public Iterator<Cell> iterator() {
+                    return cellIterator();
+                }
+
+                @Override
+                public boolean contains(Object object) {
+                    return containsKey(object);
+                }
+
+                @Override
+                public int size() {
+                    return RangeView.this.size();
+                }
+            };
+        }
+
+        @Override
+        public Comparator<? super Cell> comparator() {
+            return null;
+        }
+
+        @Override
+        public SortedMap<Cell, byte[]> subMap(Cell fromKey, Cell toKey) {
+            return new RangeView(max(lowerInclusive, fromKey), min(upperExclusive, toKey));
+        }
+
+        @Override
+        public SortedMap<Cell, byte[]> headMap(Cell toKey) {
+            return new RangeView(lowerInclusive, min(upperExclusive, toKey));
+        }
+
+        @Override
+        public SortedMap<Cell, byte[]> tailMap(Cell fromKey) {
+            return new RangeView(max(lowerInclusive, fromKey), upperExclusive);
+        }
+
+        @Override
+        public Cell firstKey() {
+            Cell[] cells = getSortedCells();
+            int index = lowerIndex(cells, lowerInclusive);
+            if (index >= upperIndex(cells, upperExclusive)) {
+                throw new NoSuchElementException();
+            }
+            return cells[index];
+        }
+
+        @Override
+        public Cell lastKey() {
+            Cell[] cells = getSortedCells();
+            int index = upperIndex(cells, upperExclusive) - 1;
+            if (index < lowerIndex(cells, lowerInclusive)) {
+                throw new NoSuchElementException();
+            }
+            return cells[index];
+        }
+
+        private Iterator<Cell> cellIterator() {
+            Cell[] cells = getSortedCells();
+            int end = upperIndex(cells, upperExclusive);
+            return new AbstractIterator<Cell>() {
+                private int index = lowerIndex(cells, lowerInclusive);
+
+                @Override
+                protected Cell computeNext() {
+                    return index < end ? cells[index++] : endOfData();
+                }
+            };
+        }
+
+        private boolean isInRange(Object key) {
+            if (!(key instanceof Cell)) {
+                return false;
+            }
+            Cell cell = (Cell) key;
+            return (lowerInclusive == null || cell.compareTo(lowerInclusive) >= 0)
+                    && (upperExclusive == null || cell.compareTo(upperExclusive) < 0);
+        }
+    }
+
+    @Nullable
+    private static Cell max(@Nullable Cell lowerBound, Cell cell) {
+        return lowerBound == null ? cell : Ordering.natural().max(lowerBound, cell);
+    }
+
+    @Nullable
+    private static Cell min(@Nullable Cell upperBound, Cell cell) {
+        return upperBound == null ? cell : Ordering.natural().min(upperBound, cell);
+    }
+}
@@ -50,6 +50,9 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.Sets;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.cleaner.api.Cleaner;
@@ -84,6 +87,8 @@ import com.palantir.lock.v2.LockToken;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.util.Pair;
 
+import gnu.trove.list.array.TLongArrayList;
+
 /**
  * This class will track all reads to verify that there are no read-write conflicts at commit time.
  * A read-write conflict is one where the value we read at our startTs is different than the value at our
@@ -129,6 +134,56 @@ public class SerializableTransaction extends SnapshotTransaction {
                                    ExecutorService deleteExecutor,
                                    CommitProfileProcessor commitProfileProcessor,
                                    boolean validateLocksOnReads) {
+        this(metricsManager,
+              keyValueService,
+              timelockService,
+              transactionService,
+              cleaner,
+              startTimeStamp,
+              conflictDetectionManager,
+              sweepStrategyManager,
+              immutableTimestamp,
+              immutableTsLock,
+              preCommitCondition,
+              constraintCheckingMode,
+              transactionTimeoutMillis,
+              readSentinelBehavior,
+              allowHiddenTableAccess,
+              timestampCache,
+              lockAcquireTimeoutMs,
+              getRangesExecutor,
+              defaultGetRangesConcurrency,
+              sweepQueue,
+              deleteExecutor,
+              commitProfileProcessor,
+              validateLocksOnReads,
+              Optional.empty());
+    }
+
+    public SerializableTransaction(MetricsManager metricsManager,
+                                   KeyValueService keyValueService,
+                                   TimelockService timelockService,
+                                   TransactionService transactionService,
+                                   Cleaner cleaner,
+                                   Supplier<Long> startTimeStamp,
+                                   ConflictDetectionManager conflictDetectionManager,
+                                   SweepStrategyManager sweepStrategyManager,
+                                   long immutableTimestamp,
+                                   Optional<LockToken> immutableTsLock,
+                                   PreCommitCondition preCommitCondition,
+                                   AtlasDbConstraintCheckingMode constraintCheckingMode,
+                                   Long transactionTimeoutMillis,
+                                   TransactionReadSentinelBehavior readSentinelBehavior,
+                                   boolean allowHiddenTableAccess,
+                                   TimestampCache timestampCache,
+                                   long lockAcquireTimeoutMs,
+                                   ExecutorService getRangesExecutor,
+                                   int defaultGetRangesConcurrency,
+                                   MultiTableSweepQueueWriter sweepQueue,
+                                   ExecutorService deleteExecutor,
+                                   CommitProfileProcessor commitProfileProcessor,
+                                   boolean validateLocksOnReads,
+                                   Optional<ExecutorService> pipelinedCommitExecutor) {
         super(metricsManager,
               keyValueService,
               timelockService,
@@ -151,7 +206,8 @@ public class SerializableTransaction extends SnapshotTransaction {
               sweepQueue,
               deleteExecutor,
               commitProfileProcessor,
-              validateLocksOnReads);
+              validateLocksOnReads,
+              pipelinedCommitExecutor);
     }
 
     @Override
@@ -164,6 +220,19 @@ public class SerializableTransaction extends SnapshotTransaction {
         return ret;
     }
 
+    @Override
+    @Idempotent
+    public ListenableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsync(TableReference tableRef,
+                                                                               Iterable<byte[]> rows,
+                                                                               ColumnSelection columnSelection) {
+        // Tracked until the read is marked, so that the transaction cannot commit before it is checked for conflicts.
+        return trackAsyncRead(() -> Futures.transform(super.getRowsAsync(tableRef, rows, columnSelection), ret -> {
+            ensureUncommitted();
+            markRowsRead(tableRef, rows, columnSelection, ret.values());
+            return ret;
+        }, MoreExecutors.directExecutor()));
+    }
+
     @Override
     public Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> getRowsColumnRange(
             TableReference tableRef,
@@ -211,6 +280,16 @@ public class SerializableTransaction extends SnapshotTransaction {
         return ret;
     }
 
+    @Override
+    @Idempotent
+    public ListenableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells) {
+        return trackAsyncRead(() -> Futures.transform(super.getAsync(tableRef, cells), ret -> {
+            ensureUncommitted();
+            markCellsRead(tableRef, cells, ret);
+            return ret;
+        }, MoreExecutors.directExecutor()));
+    }
+
     @Override
     @Idempotent
     public BatchingVisitable<RowResult<byte[]>> getRange(TableReference tableRef, RangeRequest rangeRequest) {
@@ -555,7 +634,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                             .build();
                 }
 
-                ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+                LocalWriteBuffer writes = writesByTable.get(table);
                 BatchingVisitableView<RowResult<byte[]>> bv = BatchingVisitableView.of(
                         readOnlyTransaction.getRange(table, range));
                 NavigableMap<Cell, ByteBuffer> readsInRange = Maps.transformValues(
@@ -586,7 +665,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                 reads = reads.headMap(endCell, false);
             }
         }
-        ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(table);
+        LocalWriteBuffer writes = writesByTable.get(table);
         if (writes != null) {
             reads = Maps.filterKeys(reads, Predicates.not(Predicates.in(writes.keySet())));
         }
@@ -715,10 +794,10 @@ public class SerializableTransaction extends SnapshotTransaction {
                 validateLocksOnReads) {
             @Override
             protected Map<Long, Long> getCommitTimestamps(TableReference tableRef,
-                                                          Iterable<Long> startTimestamps,
+                                                          long[] startTimestamps,
                                                           boolean waitForCommitterToComplete) {
-                Set<Long> beforeStart = Sets.newHashSet();
-                Set<Long> afterStart = Sets.newHashSet();
+                TLongArrayList beforeStart = new TLongArrayList(startTimestamps.length);
+                TLongArrayList afterStart = new TLongArrayList();
                 boolean containsMyStart = false;
                 long myStart = SerializableTransaction.this.getTimestamp();
                 for (long startTs : startTimestamps) {
@@ -730,13 +809,13 @@ public class SerializableTransaction extends SnapshotTransaction {
                         afterStart.add(startTs);
                     }
                 }
-                Map<Long, Long> ret = Maps.newHashMap();
+                Map<Long, Long> ret = Maps.newHashMapWithExpectedSize(startTimestamps.length);
                 if (!afterStart.isEmpty()) {
                     // We do not block when waiting for results that were written after our
                     // start timestamp.  If we block here it may lead to deadlock if two transactions
                     // (or a cycle of any length) have all written their data and all doing checks before committing.
-                    Map<Long, Long> afterResults = super.getCommitTimestamps(tableRef, afterStart, false);
-                    if (!afterResults.keySet().containsAll(afterStart)) {
+                    Map<Long, Long> afterResults = super.getCommitTimestamps(tableRef, afterStart.toArray(), false);
+                    if (afterResults.size() != afterStart.size()) {
                         // If we do not get back all these results we may be in the deadlock case so we should just
                         // fail out early.  It may be the case that abort more transactions than needed to break the
                         // deadlock cycle, but this should be pretty rare.
@@ -750,7 +829,7 @@ public class SerializableTransaction extends SnapshotTransaction {
                 }
                 // We are ok to block here because if there is a cycle of transactions that could result in a deadlock,
                 // then at least one of them will be in the ab
-                ret.putAll(super.getCommitTimestamps(tableRef, beforeStart, waitForCommitterToComplete));
+                ret.putAll(super.getCommitTimestamps(tableRef, beforeStart.toArray(), waitForCommitterToComplete));
                 if (containsMyStart) {
                     ret.put(myStart, commitTs);
                 }
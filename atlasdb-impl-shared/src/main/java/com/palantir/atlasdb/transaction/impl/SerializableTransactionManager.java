@@ -26,6 +26,7 @@ import com.google.common.base.Supplier;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.async.initializer.Callback;
 import com.palantir.atlasdb.AtlasDbConstants;
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.api.Cleaner;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
@@ -199,7 +200,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             TimestampCache timestampCache,
             MultiTableSweepQueueWriter sweepQueueWriter,
             Callback<TransactionManager> callback,
-            boolean validateLocksOnReads) {
+            boolean validateLocksOnReads,
+            Supplier<Boolean> pipelinedCommitEnabled) {
 
         return create(metricsManager,
                 keyValueService,
@@ -221,7 +223,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 callback,
                 PTExecutors.newSingleThreadScheduledExecutor(
                         new NamedThreadFactory("AsyncInitializer-SerializableTransactionManager", true)),
-                validateLocksOnReads);
+                validateLocksOnReads,
+                pipelinedCommitEnabled);
     }
 
     public static TransactionManager create(MetricsManager metricsManager,
@@ -243,7 +246,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             MultiTableSweepQueueWriter sweepQueueWriter,
             Callback<TransactionManager> callback,
             ScheduledExecutorService initializer,
-            boolean validateLocksOnReads) {
+            boolean validateLocksOnReads,
+            Supplier<Boolean> pipelinedCommitEnabled) {
         TransactionManager transactionManager = new SerializableTransactionManager(
                 metricsManager,
                 keyValueService,
@@ -261,7 +265,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 defaultGetRangesConcurrency,
                 sweepQueueWriter,
                 PTExecutors.newSingleThreadExecutor(true),
-                validateLocksOnReads);
+                validateLocksOnReads,
+                pipelinedCommitEnabled);
 
         if (!initializeAsync) {
             callback.runWithRetry(transactionManager);
@@ -295,7 +300,7 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 conflictDetectionManager,
                 sweepStrategyManager,
                 cleaner,
-                new TimestampCache(metricsManager.getRegistry(), () -> 1000L),
+                new DefaultTimestampCache(metricsManager.getRegistry(), () -> 1000L),
                 false,
                 () -> AtlasDbConstants.DEFAULT_TRANSACTION_LOCK_ACQUIRE_TIMEOUT_MS,
                 concurrentGetRangesThreadPoolSize,
@@ -322,6 +327,44 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
             MultiTableSweepQueueWriter sweepQueueWriter,
             ExecutorService deleteExecutor,
             boolean validateLocksOnReads) {
+        this(metricsManager,
+                keyValueService,
+                timelockService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                timestampCache,
+                allowHiddenTableAccess,
+                lockAcquireTimeoutMs,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                sweepQueueWriter,
+                deleteExecutor,
+                validateLocksOnReads,
+                () -> false);
+    }
+
+    public SerializableTransactionManager(MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            TimestampCache timestampCache,
+            boolean allowHiddenTableAccess,
+            Supplier<Long> lockAcquireTimeoutMs,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            ExecutorService deleteExecutor,
+            boolean validateLocksOnReads,
+            Supplier<Boolean> pipelinedCommitEnabled) {
         super(
                 metricsManager,
                 keyValueService,
@@ -339,7 +382,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 timestampCache,
                 sweepQueueWriter,
                 deleteExecutor,
-                validateLocksOnReads
+                validateLocksOnReads,
+                pipelinedCommitEnabled
         );
     }
 
@@ -371,7 +415,8 @@ public class SerializableTransactionManager extends SnapshotTransactionManager {
                 sweepQueueWriter,
                 deleteExecutor,
                 commitProfileProcessor,
-                validateLocksOnReads);
+                validateLocksOnReads,
+                getPipelinedCommitExecutorIfEnabled());
     }
 
     @VisibleForTesting
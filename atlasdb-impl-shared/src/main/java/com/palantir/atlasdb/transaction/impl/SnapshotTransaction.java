@@ -27,9 +27,9 @@ import java.util.Optional;
 import java.util.Set;
 import java.util.SortedMap;
 import java.util.concurrent.ConcurrentMap;
-import java.util.concurrent.ConcurrentNavigableMap;
-import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -73,7 +73,14 @@ import com.google.common.collect.Multimaps;
 import com.google.common.collect.Ordering;
 import com.google.common.collect.PeekingIterator;
 import com.google.common.collect.Sets;
+import com.google.common.primitives.Longs;
 import com.google.common.primitives.UnsignedBytes;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.ListeningExecutorService;
+import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbMetricNames;
 import com.palantir.atlasdb.AtlasDbPerformanceConstants;
@@ -127,9 +134,12 @@ import com.palantir.common.base.BatchingVisitables;
 import com.palantir.common.base.ClosableIterator;
 import com.palantir.common.base.ClosableIterators;
 import com.palantir.common.base.ForwardingClosableIterator;
+import com.palantir.common.base.Throwables;
 import com.palantir.common.collect.IterableUtils;
 import com.palantir.common.collect.IteratorUtils;
 import com.palantir.common.collect.MapEntries;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.common.streams.MoreStreams;
 import com.palantir.lock.AtlasCellLockDescriptor;
 import com.palantir.lock.AtlasRowLockDescriptor;
@@ -145,6 +155,8 @@ import com.palantir.logsafe.UnsafeArg;
 import com.palantir.util.AssertUtils;
 import com.palantir.util.paging.TokenBackedBasicResultsPage;
 
+import gnu.trove.set.hash.TLongHashSet;
+
 /**
  * This implements snapshot isolation for transactions.
  * <p>
@@ -167,6 +179,14 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
 
     private static final int BATCH_SIZE_GET_FIRST_PAGE = 1000;
 
+    // Asynchronous reads run the parts that block (on locks, or rolling back other transactions) here. This is
+    // shared by every transaction, so that these waits neither use up an unbounded number of threads nor hold up
+    // range scans on the get ranges executor.
+    private static final int BLOCKING_READ_THREADS = 64;
+    private static final ListeningExecutorService BLOCKING_READ_EXECUTOR = MoreExecutors.listeningDecorator(
+            PTExecutors.newFixedThreadPool(BLOCKING_READ_THREADS,
+                    new NamedThreadFactory("atlas-async-read-blocking", true)));
+
     private enum State {
         UNCOMMITTED,
         COMMITTED,
@@ -192,7 +212,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     private final PreCommitCondition preCommitCondition;
     protected final long timeCreated = System.currentTimeMillis();
 
-    protected final ConcurrentMap<TableReference, ConcurrentNavigableMap<Cell, byte[]>> writesByTable =
+    protected final ConcurrentMap<TableReference, LocalWriteBuffer> writesByTable =
             Maps.newConcurrentMap();
     protected final ConflictDetectionManager conflictDetectionManager;
     private final AtomicLong byteCount = new AtomicLong();
@@ -212,6 +232,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     protected final TimestampCache timestampValidationReadCache;
     protected final long lockAcquireTimeoutMs;
     protected final ExecutorService getRangesExecutor;
+    private final Set<ListenableFuture<?>> outstandingAsyncReads = Sets.newConcurrentHashSet();
     protected final int defaultGetRangesConcurrency;
     private final Set<TableReference> involvedTables = Sets.newConcurrentHashSet();
     protected final ExecutorService deleteExecutor;
@@ -219,6 +240,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     protected final CommitProfileProcessor commitProfileProcessor;
     protected final TransactionOutcomeMetrics transactionOutcomeMetrics;
     protected final boolean validateLocksOnReads;
+    protected final Optional<ExecutorService> pipelinedCommitExecutor;
 
     protected volatile boolean hasReads;
 
@@ -251,6 +273,61 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                ExecutorService deleteExecutor,
                                CommitProfileProcessor commitProfileProcessor,
                                boolean validateLocksOnReads) {
+        this(metricsManager,
+                keyValueService,
+                timelockService,
+                transactionService,
+                cleaner,
+                startTimeStamp,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                immutableTimestamp,
+                immutableTimestampLock,
+                preCommitCondition,
+                constraintCheckingMode,
+                transactionTimeoutMillis,
+                readSentinelBehavior,
+                allowHiddenTableAccess,
+                timestampValidationReadCache,
+                lockAcquireTimeoutMs,
+                getRangesExecutor,
+                defaultGetRangesConcurrency,
+                sweepQueue,
+                deleteExecutor,
+                commitProfileProcessor,
+                validateLocksOnReads,
+                Optional.empty());
+    }
+
+    /**
+     * @param pipelinedCommitExecutor If present, independent stages of the commit protocol are run concurrently on
+     *                                this executor; otherwise they are run one after another.
+     */
+    /* package */ SnapshotTransaction(
+                               MetricsManager metricsManager,
+                               KeyValueService keyValueService,
+                               TimelockService timelockService,
+                               TransactionService transactionService,
+                               Cleaner cleaner,
+                               Supplier<Long> startTimeStamp,
+                               ConflictDetectionManager conflictDetectionManager,
+                               SweepStrategyManager sweepStrategyManager,
+                               long immutableTimestamp,
+                               Optional<LockToken> immutableTimestampLock,
+                               PreCommitCondition preCommitCondition,
+                               AtlasDbConstraintCheckingMode constraintCheckingMode,
+                               Long transactionTimeoutMillis,
+                               TransactionReadSentinelBehavior readSentinelBehavior,
+                               boolean allowHiddenTableAccess,
+                               TimestampCache timestampValidationReadCache,
+                               long lockAcquireTimeoutMs,
+                               ExecutorService getRangesExecutor,
+                               int defaultGetRangesConcurrency,
+                               MultiTableSweepQueueWriter sweepQueue,
+                               ExecutorService deleteExecutor,
+                               CommitProfileProcessor commitProfileProcessor,
+                               boolean validateLocksOnReads,
+                               Optional<ExecutorService> pipelinedCommitExecutor) {
         this.metricsManager = metricsManager;
         this.transactionTimerContext = getTimer("transactionMillis").time();
         this.keyValueService = keyValueService;
@@ -277,6 +354,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         this.commitProfileProcessor = commitProfileProcessor;
         this.transactionOutcomeMetrics = TransactionOutcomeMetrics.create(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
+        this.pipelinedCommitExecutor = pipelinedCommitExecutor;
     }
 
     @Override
@@ -342,6 +420,52 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return results;
     }
 
+    @Override
+    public ListenableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsync(TableReference tableRef,
+                                                                               Iterable<byte[]> rows,
+                                                                               ColumnSelection columnSelection) {
+        return trackAsyncRead(() -> getRowsAsyncInternal(tableRef, rows, columnSelection));
+    }
+
+    private ListenableFuture<SortedMap<byte[], RowResult<byte[]>>> getRowsAsyncInternal(
+            TableReference tableRef,
+            Iterable<byte[]> rows,
+            ColumnSelection columnSelection) {
+        Timer.Context timer = getTimer("getRowsAsync").time();
+        checkAsyncGetPreconditions(tableRef);
+        if (Iterables.isEmpty(rows)) {
+            return Futures.immediateFuture(AbstractTransaction.EMPTY_SORTED_ROWS);
+        }
+        hasReads = true;
+        ImmutableMap.Builder<Cell, byte[]> result = ImmutableSortedMap.naturalOrder();
+        SortedMap<Cell, byte[]> writes = writesByTable.get(tableRef);
+        if (writes != null) {
+            for (byte[] row : rows) {
+                extractLocalWritesForRow(result, writes, row, columnSelection);
+            }
+        }
+        Set<Cell> locallyWrittenCells = result.build().keySet();
+
+        return Futures.transformAsync(
+                keyValueService.getRowsAsync(tableRef, rows, columnSelection, getStartTimestamp()),
+                rawKvsResults -> {
+                    // We don't need to do work postFiltering if we have a write locally.
+                    Map<Cell, Value> rawResults = Maps.newHashMap(rawKvsResults);
+                    rawResults.keySet().removeAll(locallyWrittenCells);
+                    return Futures.transformAsync(
+                            getWithPostFilteringAsync(tableRef, rawResults, Value.GET_VALUE),
+                            postFilteredResults -> {
+                                ensureUncommitted();
+                                result.putAll(postFilteredResults);
+                                timer.stop();
+                                return validatePreCommitRequirementsOnReadIfNecessaryAsync(tableRef,
+                                        toRowResultsWithoutDeletes(result.build()));
+                            },
+                            MoreExecutors.directExecutor());
+                },
+                MoreExecutors.directExecutor());
+    }
+
     @Override
     public Map<byte[], BatchingVisitable<Map.Entry<Cell, byte[]>>> getRowsColumnRange(
             TableReference tableRef,
@@ -521,7 +645,11 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                                                   Map<Cell, Value> rawResults,
                                                                   ImmutableMap.Builder<Cell, byte[]> result) {
         getWithPostFiltering(tableRef, rawResults, result, Value.GET_VALUE);
-        Map<Cell, byte[]> filterDeletedValues = Maps.filterValues(result.build(), Predicates.not(Value.IS_EMPTY));
+        return toRowResultsWithoutDeletes(result.build());
+    }
+
+    private static SortedMap<byte[], RowResult<byte[]>> toRowResultsWithoutDeletes(Map<Cell, byte[]> results) {
+        Map<Cell, byte[]> filterDeletedValues = Maps.filterValues(results, Predicates.not(Value.IS_EMPTY));
         return RowResults.viewOfSortedMap(Cells.breakCellsUpByRow(filterDeletedValues));
     }
 
@@ -559,15 +687,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
         hasReads = true;
 
-        Map<Cell, byte[]> result = Maps.newHashMap();
-        SortedMap<Cell, byte[]> writes = writesByTable.get(tableRef);
-        if (writes != null) {
-            for (Cell cell : cells) {
-                if (writes.containsKey(cell)) {
-                    result.put(cell, writes.get(cell));
-                }
-            }
-        }
+        Map<Cell, byte[]> result = getLocalWritesForCells(tableRef, cells);
 
         // We don't need to read any cells that were written locally.
         result.putAll(getFromKeyValueService(tableRef, Sets.difference(cells, result.keySet())));
@@ -581,6 +701,88 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return Maps.filterValues(result, Predicates.not(Value.IS_EMPTY));
     }
 
+    @Override
+    public ListenableFuture<Map<Cell, byte[]>> getAsync(TableReference tableRef, Set<Cell> cells) {
+        return trackAsyncRead(() -> getAsyncInternal(tableRef, cells));
+    }
+
+    private ListenableFuture<Map<Cell, byte[]>> getAsyncInternal(TableReference tableRef, Set<Cell> cells) {
+        Timer.Context timer = getTimer("getAsync").time();
+        checkAsyncGetPreconditions(tableRef);
+        if (Iterables.isEmpty(cells)) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        hasReads = true;
+
+        Map<Cell, byte[]> result = getLocalWritesForCells(tableRef, cells);
+
+        // We don't need to read any cells that were written locally.
+        Set<Cell> cellsToRead = ImmutableSet.copyOf(Sets.difference(cells, result.keySet()));
+        return Futures.transformAsync(
+                getFromKeyValueServiceAsync(tableRef, cellsToRead),
+                fromKeyValueService -> {
+                    ensureUncommitted();
+                    result.putAll(fromKeyValueService);
+                    timer.stop();
+                    return validatePreCommitRequirementsOnReadIfNecessaryAsync(tableRef,
+                            Maps.filterValues(result, Predicates.not(Value.IS_EMPTY)));
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Registers an asynchronous read as outstanding until its future completes, so that the transaction is not
+     * committed while the read may still be recorded, and aborting waits for it. The read is registered before it
+     * checks that the transaction is still uncommitted, so a commit either sees it or the read fails.
+     */
+    protected final <T> ListenableFuture<T> trackAsyncRead(Supplier<ListenableFuture<T>> read) {
+        SettableFuture<T> tracked = SettableFuture.create();
+        outstandingAsyncReads.add(tracked);
+        tracked.addListener(() -> outstandingAsyncReads.remove(tracked), MoreExecutors.directExecutor());
+        try {
+            tracked.setFuture(read.get());
+        } catch (RuntimeException | Error e) {
+            tracked.setException(e);
+            throw e;
+        }
+        return tracked;
+    }
+
+    private void checkAsyncGetPreconditions(TableReference tableRef) {
+        checkGetPreconditions(tableRef);
+        // Unlike synchronous reads, which may happen while committing to check constraints, asynchronous reads
+        // would escape the serializable conflict checks if they completed after the commit started.
+        ensureUncommitted();
+    }
+
+    private void awaitOutstandingAsyncReads() {
+        while (!outstandingAsyncReads.isEmpty()) {
+            try {
+                Futures.successfulAsList(ImmutableList.copyOf(outstandingAsyncReads)).get();
+            } catch (InterruptedException e) {
+                // Abort regardless; reads that complete later will find that the transaction is no longer open.
+                Thread.currentThread().interrupt();
+                return;
+            } catch (ExecutionException e) {
+                // Not possible for successfulAsList.
+                throw Throwables.rewrapAndThrowUncheckedException(e.getCause());
+            }
+        }
+    }
+
+    private Map<Cell, byte[]> getLocalWritesForCells(TableReference tableRef, Set<Cell> cells) {
+        Map<Cell, byte[]> result = Maps.newHashMap();
+        SortedMap<Cell, byte[]> writes = writesByTable.get(tableRef);
+        if (writes != null) {
+            for (Cell cell : cells) {
+                if (writes.containsKey(cell)) {
+                    result.put(cell, writes.get(cell));
+                }
+            }
+        }
+        return result;
+    }
+
     @Override
     public Map<Cell, byte[]> getIgnoringLocalWrites(TableReference tableRef, Set<Cell> cells) {
         checkGetPreconditions(tableRef);
@@ -608,6 +810,15 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return result.build();
     }
 
+    private ListenableFuture<Map<Cell, byte[]>> getFromKeyValueServiceAsync(TableReference tableRef,
+                                                                          Set<Cell> cells) {
+        Map<Cell, Long> toRead = Cells.constantValueMap(cells, getStartTimestamp());
+        return Futures.transformAsync(
+                keyValueService.getAsync(tableRef, toRead),
+                rawResults -> getWithPostFilteringAsync(tableRef, rawResults, Value.GET_VALUE),
+                MoreExecutors.directExecutor());
+    }
+
     private static byte[] getNextStartRowName(
             RangeRequest range,
             TokenBackedBasicResultsPage<RowResult<Value>, byte[]> prePostFilter) {
@@ -759,6 +970,22 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         throwIfPreCommitRequirementsNotMet(null, timestamp);
     }
 
+    /**
+     * Asynchronous version of {@link #validatePreCommitRequirementsOnReadIfNecessary(TableReference, long)}, which
+     * completes with the given result once validated. Validation talks to the lock service, so if it is necessary it
+     * is done on the blocking read executor.
+     */
+    private <T> ListenableFuture<T> validatePreCommitRequirementsOnReadIfNecessaryAsync(TableReference tableRef,
+                                                                                        T result) {
+        if (!isValidationNecessaryOnReads(tableRef)) {
+            return Futures.immediateFuture(result);
+        }
+        return BLOCKING_READ_EXECUTOR.submit(() -> {
+            throwIfPreCommitRequirementsNotMet(null, getStartTimestamp());
+            return result;
+        });
+    }
+
     private boolean isValidationNecessaryOnReads(TableReference tableRef) {
         return validateLocksOnReads && isValidationNecessary(tableRef);
     }
@@ -934,11 +1161,11 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         };
     }
 
-    private ConcurrentNavigableMap<Cell, byte[]> getLocalWrites(TableReference tableRef) {
-        ConcurrentNavigableMap<Cell, byte[]> writes = writesByTable.get(tableRef);
+    private LocalWriteBuffer getLocalWrites(TableReference tableRef) {
+        LocalWriteBuffer writes = writesByTable.get(tableRef);
         if (writes == null) {
-            writes = new ConcurrentSkipListMap<Cell, byte[]>();
-            ConcurrentNavigableMap<Cell, byte[]> previous = writesByTable.putIfAbsent(tableRef, writes);
+            writes = new LocalWriteBuffer();
+            LocalWriteBuffer previous = writesByTable.putIfAbsent(tableRef, writes);
             if (previous != null) {
                 writes = previous;
             }
@@ -1027,6 +1254,48 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                           Map<Cell, Value> rawResults,
                                           @Output ImmutableMap.Builder<Cell, T> results,
                                           Function<Value, T> transformer) {
+        recordRawResultsRead(tableRef, rawResults);
+        if (AtlasDbConstants.hiddenTables.contains(tableRef)) {
+            getHiddenTableResults(rawResults, results, transformer);
+            return;
+        }
+
+        Map<Cell, Value> remainingResultsToPostfilter = rawResults;
+        AtomicInteger resultCount = new AtomicInteger();
+        while (!remainingResultsToPostfilter.isEmpty()) {
+            remainingResultsToPostfilter = getWithPostFilteringInternal(
+                    tableRef, remainingResultsToPostfilter, results, resultCount, transformer);
+        }
+
+        getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED).mark(resultCount.get());
+    }
+
+    /**
+     * Asynchronous version of {@link #getWithPostFiltering(TableReference, Map, ImmutableMap.Builder, Function)}.
+     * Each round of post-filtering waits on the commit timestamps and reloaded values of the previous round, so the
+     * results builder is only ever used by one thread at a time.
+     */
+    private <T> ListenableFuture<Map<Cell, T>> getWithPostFilteringAsync(TableReference tableRef,
+                                                                         Map<Cell, Value> rawResults,
+                                                                         Function<Value, T> transformer) {
+        ImmutableMap.Builder<Cell, T> results = ImmutableMap.builderWithExpectedSize(rawResults.size());
+        recordRawResultsRead(tableRef, rawResults);
+        if (AtlasDbConstants.hiddenTables.contains(tableRef)) {
+            getHiddenTableResults(rawResults, results, transformer);
+            return Futures.immediateFuture(results.build());
+        }
+
+        AtomicInteger resultCount = new AtomicInteger();
+        return Futures.transform(
+                getWithPostFilteringInternalAsync(tableRef, rawResults, results, resultCount, transformer),
+                unused -> {
+                    getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED).mark(resultCount.get());
+                    return results.build();
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private void recordRawResultsRead(TableReference tableRef, Map<Cell, Value> rawResults) {
         long bytes = 0;
         for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
             bytes += e.getValue().getContents().length + Cells.getApproxSizeOfCell(e.getKey());
@@ -1046,26 +1315,18 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
         // TODO(hsaraogi): add table names as a tag
         getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_READ).mark(rawResults.size());
+    }
 
-        if (AtlasDbConstants.hiddenTables.contains(tableRef)) {
-            Preconditions.checkState(allowHiddenTableAccess, "hidden tables cannot be read in this transaction");
-            // hidden tables are used outside of the transaction protocol, and in general have invalid timestamps,
-            // so do not apply post-filtering as post-filtering would rollback (actually delete) the data incorrectly
-            // this case is hit when reading a hidden table from console
-            for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
-                results.put(e.getKey(), transformer.apply(e.getValue()));
-            }
-            return;
-        }
-
-        Map<Cell, Value> remainingResultsToPostfilter = rawResults;
-        AtomicInteger resultCount = new AtomicInteger();
-        while (!remainingResultsToPostfilter.isEmpty()) {
-            remainingResultsToPostfilter = getWithPostFilteringInternal(
-                    tableRef, remainingResultsToPostfilter, results, resultCount, transformer);
+    private <T> void getHiddenTableResults(Map<Cell, Value> rawResults,
+                                           @Output ImmutableMap.Builder<Cell, T> results,
+                                           Function<Value, T> transformer) {
+        Preconditions.checkState(allowHiddenTableAccess, "hidden tables cannot be read in this transaction");
+        // hidden tables are used outside of the transaction protocol, and in general have invalid timestamps,
+        // so do not apply post-filtering as post-filtering would rollback (actually delete) the data incorrectly
+        // this case is hit when reading a hidden table from console
+        for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
+            results.put(e.getKey(), transformer.apply(e.getValue()));
         }
-
-        getMeter(AtlasDbMetricNames.SNAPSHOT_TRANSACTION_CELLS_RETURNED).mark(resultCount.get());
     }
 
     /**
@@ -1077,11 +1338,108 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             @Output ImmutableMap.Builder<Cell, T> results,
             @Output AtomicInteger count,
             Function<Value, T> transformer) {
-        Set<Long> startTimestampsForValues = getStartTimestampsForValues(rawResults.values());
+        long[] startTimestampsForValues = getStartTimestampsForValues(rawResults.values());
         Map<Long, Long> commitTimestamps = getCommitTimestamps(tableRef, startTimestampsForValues, true);
+        ImmutableSet.Builder<Cell> keysAddedBuilder = ImmutableSet.builder();
+        Optional<Map<Cell, Long>> keysToReload = postFilterWithCommitTimestamps(
+                tableRef, rawResults, commitTimestamps, results, keysAddedBuilder, count, transformer);
+        Set<Cell> keysAddedToResults = keysAddedBuilder.build();
+
+        if (!keysToReload.isPresent()) {
+            return getRemainingResults(rawResults, keysAddedToResults);
+        } else if (!keysToReload.get().isEmpty()) {
+            Map<Cell, Value> nextRawResults = keyValueService.get(tableRef, keysToReload.get());
+            validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
+            return getRemainingResults(nextRawResults, keysAddedToResults);
+        } else {
+            return ImmutableMap.of();
+        }
+    }
+
+    private <T> ListenableFuture<Void> getWithPostFilteringInternalAsync(TableReference tableRef,
+            Map<Cell, Value> rawResults,
+            @Output ImmutableMap.Builder<Cell, T> results,
+            @Output AtomicInteger count,
+            Function<Value, T> transformer) {
+        if (rawResults.isEmpty()) {
+            return Futures.immediateFuture(null);
+        }
+        long[] startTimestampsForValues = getStartTimestampsForValues(rawResults.values());
+        return Futures.transformAsync(
+                getCommitTimestampsAsync(tableRef, startTimestampsForValues),
+                commitTimestamps -> {
+                    if (!needsRollback(rawResults, commitTimestamps)) {
+                        return postFilterWithCommitTimestampsAsync(
+                                tableRef, rawResults, commitTimestamps, results, count, transformer);
+                    }
+                    // Rolling back other transactions writes to the transactions table, so we don't do it inline.
+                    return Futures.dereference(BLOCKING_READ_EXECUTOR.submit(() -> postFilterWithCommitTimestampsAsync(
+                            tableRef, rawResults, commitTimestamps, results, count, transformer)));
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    private <T> ListenableFuture<Void> postFilterWithCommitTimestampsAsync(TableReference tableRef,
+            Map<Cell, Value> rawResults,
+            Map<Long, Long> commitTimestamps,
+            @Output ImmutableMap.Builder<Cell, T> results,
+            @Output AtomicInteger count,
+            Function<Value, T> transformer) {
+        ImmutableSet.Builder<Cell> keysAddedBuilder = ImmutableSet.builder();
+        Optional<Map<Cell, Long>> keysToReload = postFilterWithCommitTimestamps(
+                tableRef, rawResults, commitTimestamps, results, keysAddedBuilder, count, transformer);
+        Set<Cell> keysAddedToResults = keysAddedBuilder.build();
+
+        if (!keysToReload.isPresent()) {
+            return getWithPostFilteringInternalAsync(tableRef,
+                    getRemainingResults(rawResults, keysAddedToResults), results, count, transformer);
+        } else if (!keysToReload.get().isEmpty()) {
+            return Futures.transformAsync(
+                    keyValueService.getAsync(tableRef, keysToReload.get()),
+                    nextRawResults -> Futures.transformAsync(
+                            validatePreCommitRequirementsOnReadIfNecessaryAsync(tableRef, nextRawResults),
+                            validatedRawResults -> getWithPostFilteringInternalAsync(tableRef,
+                                    getRemainingResults(validatedRawResults, keysAddedToResults),
+                                    results, count, transformer),
+                            MoreExecutors.directExecutor()),
+                    MoreExecutors.directExecutor());
+        } else {
+            return Futures.immediateFuture(null);
+        }
+    }
+
+    /**
+     * Whether {@link #postFilterWithCommitTimestamps} would roll back any of the transactions that wrote the given
+     * values.
+     */
+    private boolean needsRollback(Map<Cell, Value> rawResults, Map<Long, Long> commitTimestamps) {
+        for (Value value : rawResults.values()) {
+            if (value.getTimestamp() == Value.INVALID_VALUE_TIMESTAMP) {
+                continue;
+            }
+            Long theirCommitTimestamp = commitTimestamps.get(value.getTimestamp());
+            if (theirCommitTimestamp == null && shouldDeleteAndRollback()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Outputs the values that are visible at our start timestamp to the results output param, and returns the keys
+     * that need to be reloaded at an earlier timestamp. If failed transactions could not be rolled back, this returns
+     * empty, and the remaining raw results should be post-filtered again.
+     */
+    private <T> Optional<Map<Cell, Long>> postFilterWithCommitTimestamps(TableReference tableRef,
+            Map<Cell, Value> rawResults,
+            Map<Long, Long> commitTimestamps,
+            @Output ImmutableMap.Builder<Cell, T> results,
+            @Output ImmutableSet.Builder<Cell> keysAddedBuilder,
+            @Output AtomicInteger count,
+            Function<Value, T> transformer) {
         Map<Cell, Long> keysToReload = Maps.newHashMapWithExpectedSize(0);
         Map<Cell, Long> keysToDelete = Maps.newHashMapWithExpectedSize(0);
-        ImmutableSet.Builder<Cell> keysAddedBuilder = ImmutableSet.builder();
+        int numKeysAdded = 0;
 
         for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
             Cell key = e.getKey();
@@ -1124,27 +1482,20 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                     if (value.getContents().length != 0) {
                         results.put(key, transformer.apply(value));
                         keysAddedBuilder.add(key);
+                        numKeysAdded++;
                     }
                 }
             }
         }
-        Set<Cell> keysAddedToResults = keysAddedBuilder.build();
-        count.addAndGet(keysAddedToResults.size());
+        count.addAndGet(numKeysAdded);
 
         if (!keysToDelete.isEmpty()) {
             // if we can't roll back the failed transactions, we should just try again
             if (!rollbackFailedTransactions(tableRef, keysToDelete, commitTimestamps, defaultTransactionService)) {
-                return getRemainingResults(rawResults, keysAddedToResults);
+                return Optional.empty();
             }
         }
-
-        if (!keysToReload.isEmpty()) {
-            Map<Cell, Value> nextRawResults = keyValueService.get(tableRef, keysToReload);
-            validatePreCommitRequirementsOnReadIfNecessary(tableRef, getStartTimestamp());
-            return getRemainingResults(nextRawResults, keysAddedToResults);
-        } else {
-            return ImmutableMap.of();
-        }
+        return Optional.of(keysToReload);
     }
 
     private Map<Cell, Value> getRemainingResults(Map<Cell, Value> rawResults, Set<Cell> keysAddedToResults) {
@@ -1185,7 +1536,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             // We need to check the status after incrementing writers to ensure that we fail if we are committing.
             ensureUncommitted();
 
-            ConcurrentNavigableMap<Cell, byte[]> writes = getLocalWrites(tableRef);
+            LocalWriteBuffer writes = getLocalWrites(tableRef);
 
             putWritesAndLogIfTooLarge(values, writes);
         } finally {
@@ -1202,22 +1553,24 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         }
     }
 
-    private void putWritesAndLogIfTooLarge(Map<Cell, byte[]> values, SortedMap<Cell, byte[]> writes) {
+    private void putWritesAndLogIfTooLarge(Map<Cell, byte[]> values, LocalWriteBuffer writes) {
         for (Map.Entry<Cell, byte[]> e : values.entrySet()) {
             byte[] val = MoreObjects.firstNonNull(e.getValue(), PtBytes.EMPTY_BYTE_ARRAY);
             Cell cell = e.getKey();
-            if (writes.put(cell, val) == null) {
-                long toAdd = val.length + Cells.getApproxSizeOfCell(cell);
-                long newVal = byteCount.addAndGet(toAdd);
-                if (newVal >= TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES
-                        && newVal - toAdd < TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES) {
-                    log.warn("A single transaction has put quite a few bytes: {}. "
-                            + "Enable debug logging for more information",
-                            SafeArg.of("numBytes", newVal));
-                    if (log.isDebugEnabled()) {
-                        log.debug("This exception and stack trace are provided for debugging purposes.",
-                                new RuntimeException());
-                    }
+            byte[] previous = writes.put(cell, val);
+            // Overwrites replace the previous value in the buffer, so byteCount tracks the size of the local writes.
+            long toAdd = previous == null
+                    ? val.length + Cells.getApproxSizeOfCell(cell)
+                    : val.length - previous.length;
+            long newVal = byteCount.addAndGet(toAdd);
+            if (newVal >= TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES
+                    && newVal - toAdd < TransactionConstants.WARN_LEVEL_FOR_QUEUED_BYTES) {
+                log.warn("A single transaction has put quite a few bytes: {}. "
+                        + "Enable debug logging for more information",
+                        SafeArg.of("numBytes", newVal));
+                if (log.isDebugEnabled()) {
+                    log.debug("This exception and stack trace are provided for debugging purposes.",
+                            new RuntimeException());
                 }
             }
         }
@@ -1228,6 +1581,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         if (state.get() == State.ABORTED) {
             return;
         }
+        awaitOutstandingAsyncReads();
         while (true) {
             ensureUncommitted();
             if (state.compareAndSet(State.UNCOMMITTED, State.ABORTED)) {
@@ -1250,7 +1604,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return state.get() == State.UNCOMMITTED;
     }
 
-    private void ensureUncommitted() {
+    protected final void ensureUncommitted() {
         if (!isUncommitted()) {
             throw new CommittedTransactionException();
         }
@@ -1294,6 +1648,10 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 // After we set state to committing we need to make sure no one is still writing.
                 throw new IllegalStateException("Cannot commit while other threads are still calling put.");
             }
+            if (!outstandingAsyncReads.isEmpty()) {
+                // Likewise, reads that are still in flight would not be checked for conflicts.
+                throw new IllegalStateException("Cannot commit while asynchronous reads are still outstanding.");
+            }
 
             checkConstraints();
             commitWrites(transactionService);
@@ -1359,27 +1717,32 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Timer.Context acquireLocksTimer = getTimer("commitAcquireLocks").time();
         LockToken commitLocksToken = acquireLocksForCommit();
         long microsForRowLocks = TimeUnit.NANOSECONDS.toMicros(acquireLocksTimer.stop());
+        AtomicLong pipelinedOverlapMicros = new AtomicLong();
         try {
             // Conflict checking. We can actually do this later without compromising correctness, but there is
             // no reason to postpone this check - we waste resources writing unnecessarily if these are going to fail.
-            long microsCheckingForConflicts = runAndReportTimeAndGetDurationMicros(
-                    () -> throwIfConflictOnCommit(commitLocksToken, transactionService),
-                    "commitCheckingForConflicts");
-
-            // Write to the targeted sweep queue. We must do this before writing to the key value service -
-            // otherwise we may have hanging values that targeted sweep won't know about.
-            long microsWritingToTargetedSweepQueue =
-                    runAndReportTimeAndGetDurationMicros(() -> sweepQueue.enqueue(writesByTable, getStartTimestamp()),
-                            "writingToSweepQueue");
+            // This cannot overlap with our own write to the key value service, as it would then see our own values.
+            // Write to the targeted sweep queue. We do this before writing to the key value service - otherwise, if
+            // the sweep queue write fails, we may have hanging values that targeted sweep won't know about. It does
+            // not depend on the conflict check, so pipelined commits overlap the two; if we then fail the conflict
+            // check, sweep only finds that the values it was told about were never written.
+            Map<String, Long> microsForPreWriteStages = runCommitStagesAndGetDurationsMicros(
+                    ImmutableMap.<String, Runnable>of(
+                            "commitCheckingForConflicts", () -> throwIfConflictOnCommit(
+                                    commitLocksToken, transactionService),
+                            "writingToSweepQueue", () -> sweepQueue.enqueue(writesByTable, getStartTimestamp())),
+                    pipelinedOverlapMicros);
 
             // Write to the key value service. We must do this before getting the commit timestamp - otherwise
             // we risk another transaction starting at a timestamp after our commit timestamp not seeing our writes.
             long microsForWrites = runAndReportTimeAndGetDurationMicros(
-                    () -> keyValueService.multiPut(writesByTable, getStartTimestamp()), "commitWrite");
+                    () -> keyValueService.multiPut(writesByTable, getStartTimestamp()),
+                    "commitWrite");
 
             // Now that all writes are done, get the commit timestamp
             // We must do this before we check that our locks are still valid to ensure that other transactions that
-            // will hold these locks are sure to have start timestamps after our commit timestamp.
+            // will hold these locks are sure to have start timestamps after our commit timestamp. This is why
+            // pipelined commits do not overlap this with the lock check.
             Timer.Context commitTimestampTimer = getTimer("getCommitTimestamp").time();
             long commitTimestamp = timelockService.getFreshTimestamp();
             commitTsForScrubbing = commitTimestamp;
@@ -1390,23 +1753,23 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             // scrub timestamp (same as the hard delete transaction's start timestamp).
             // May not need to be here specifically, but this is a very cheap operation - scheduling another thread
             // might well cost more.
-            long microsForPunch = runAndReportTimeAndGetDurationMicros(
-                    () -> cleaner.punch(commitTimestamp),
-                    "microsForPunch");
-
             // Serializable transactions need to check their reads haven't changed, by reading again at commitTs + 1.
             // This must happen before the lock check for thorough tables, because the lock check verifies the
             // immutable timestamp hasn't moved forward - thorough sweep might sweep a conflict out from underneath us.
-            long microsForReadWriteConflictCheck = runAndReportTimeAndGetDurationMicros(
-                    () -> throwIfReadWriteConflictForSerializable(commitTimestamp),
-                    "readWriteConflictCheck");
+            Map<String, Long> microsForPostCommitTsStages = runCommitStagesAndGetDurationsMicros(
+                    ImmutableMap.<String, Runnable>of(
+                            "microsForPunch", () -> cleaner.punch(commitTimestamp),
+                            "readWriteConflictCheck", () -> throwIfReadWriteConflictForSerializable(commitTimestamp)),
+                    pipelinedOverlapMicros);
 
             // Verify that our locks and pre-commit conditions are still valid before we actually commit;
             // this throwIfPreCommitRequirementsNotMet is required by the transaction protocol for correctness.
-            long microsForPreCommitLockCheck = runAndReportTimeAndGetDurationMicros(
-                    () -> throwIfImmutableTsOrCommitLocksExpired(commitLocksToken), "preCommitLockCheck");
-            long microsForUserPreCommitCondition = runAndReportTimeAndGetDurationMicros(
-                    () -> throwIfPreCommitConditionInvalid(commitTimestamp), "userPreCommitCondition");
+            // The two checks are independent of one another, and may thus be run concurrently.
+            Map<String, Long> microsForPreCommitChecks = runCommitStagesAndGetDurationsMicros(
+                    ImmutableMap.<String, Runnable>of(
+                            "preCommitLockCheck", () -> throwIfImmutableTsOrCommitLocksExpired(commitLocksToken),
+                            "userPreCommitCondition", () -> throwIfPreCommitConditionInvalid(commitTimestamp)),
+                    pipelinedOverlapMicros);
 
             long microsForPutCommitTs = runAndReportTimeAndGetDurationMicros(
                     () -> putCommitTimestamp(commitTimestamp, commitLocksToken, transactionService),
@@ -1418,15 +1781,16 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             optionalProfile = Optional.of(ImmutableTransactionCommitProfile.builder()
                     .startTimestamp(getTimestamp())
                     .acquireRowLocksMicros(microsForRowLocks)
-                    .conflictCheckMicros(microsCheckingForConflicts)
-                    .writingToSweepQueueMicros(microsWritingToTargetedSweepQueue)
+                    .conflictCheckMicros(microsForPreWriteStages.get("commitCheckingForConflicts"))
+                    .writingToSweepQueueMicros(microsForPreWriteStages.get("writingToSweepQueue"))
                     .keyValueServiceWriteMicros(microsForWrites)
                     .commitTimestampMicros(microsForGetCommitTs)
-                    .punchMicros(microsForPunch)
-                    .readWriteConflictCheckMicros(microsForReadWriteConflictCheck)
-                    .verifyPreCommitLockCheckMicros(microsForPreCommitLockCheck)
-                    .verifyUserPreCommitConditionMicros(microsForUserPreCommitCondition)
+                    .punchMicros(microsForPostCommitTsStages.get("microsForPunch"))
+                    .readWriteConflictCheckMicros(microsForPostCommitTsStages.get("readWriteConflictCheck"))
+                    .verifyPreCommitLockCheckMicros(microsForPreCommitChecks.get("preCommitLockCheck"))
+                    .verifyUserPreCommitConditionMicros(microsForPreCommitChecks.get("userPreCommitCondition"))
                     .putCommitTimestampMicros(microsForPutCommitTs)
+                    .pipelinedOverlapMicros(pipelinedOverlapMicros.get())
                     .commitTimestamp(commitTimestamp)
                     .totalCommitStageMicros(TimeUnit.NANOSECONDS.toMicros(commitStageTimer.stop()))
                     .totalTimeSinceTransactionCreationMicros(microsSinceCreation)
@@ -1450,6 +1814,48 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         return TimeUnit.NANOSECONDS.toMicros(timer.stop());
     }
 
+    /**
+     * Runs the given commit stages, reporting each to the timer it is keyed by, and returns the time in microseconds
+     * each stage took. If commits are pipelined the stages are run concurrently, and the time saved over running
+     * them one after another is added to overlapMicros; otherwise they are run serially in iteration order.
+     *
+     * When pipelined, all stages have finished by the time this method returns or throws, and if several stages
+     * fail, the exception thrown is that of the first failing stage in iteration order.
+     */
+    private Map<String, Long> runCommitStagesAndGetDurationsMicros(
+            Map<String, Runnable> stagesByTimerName,
+            AtomicLong overlapMicros) {
+        Map<String, Long> durationsMicros = Maps.newHashMapWithExpectedSize(stagesByTimerName.size());
+        if (!pipelinedCommitExecutor.isPresent()) {
+            stagesByTimerName.forEach((timerName, stage) ->
+                    durationsMicros.put(timerName, runAndReportTimeAndGetDurationMicros(stage, timerName)));
+            return durationsMicros;
+        }
+
+        Stopwatch stopwatch = Stopwatch.createStarted();
+        Map<String, Future<Long>> futures = Maps.newLinkedHashMap();
+        stagesByTimerName.forEach((timerName, stage) -> futures.put(timerName, pipelinedCommitExecutor.get().submit(
+                () -> runAndReportTimeAndGetDurationMicros(stage, timerName))));
+
+        Throwable firstFailure = null;
+        for (Map.Entry<String, Future<Long>> future : futures.entrySet()) {
+            try {
+                durationsMicros.put(future.getKey(), Uninterruptibles.getUninterruptibly(future.getValue()));
+            } catch (ExecutionException e) {
+                if (firstFailure == null) {
+                    firstFailure = e.getCause();
+                }
+            }
+        }
+        if (firstFailure != null) {
+            throw Throwables.throwUncheckedException(firstFailure);
+        }
+
+        long serialMicros = durationsMicros.values().stream().mapToLong(Long::longValue).sum();
+        overlapMicros.addAndGet(Math.max(0, serialMicros - stopwatch.elapsed(TimeUnit.MICROSECONDS)));
+        return durationsMicros;
+    }
+
     protected void throwIfReadWriteConflictForSerializable(long commitTimestamp) {
         // This is for overriding to get serializable transactions
     }
@@ -1531,7 +1937,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
      */
     protected void throwIfConflictOnCommit(LockToken commitLocksToken, TransactionService transactionService)
             throws TransactionConflictException {
-        for (Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> write : writesByTable.entrySet()) {
+        for (Entry<TableReference, LocalWriteBuffer> write : writesByTable.entrySet()) {
             ConflictHandler conflictHandler = getConflictHandlerForTable(write.getKey());
             throwIfWriteAlreadyCommitted(
                     write.getKey(),
@@ -1650,7 +2056,8 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                                                                   @Output Set<CellConflict> dominatingWrites,
                                                                   TransactionService transactionService) {
         Map<Cell, Long> rawResults = keyValueService.getLatestTimestamps(tableRef, keysToLoad);
-        Map<Long, Long> commitTimestamps = getCommitTimestamps(tableRef, rawResults.values(), false);
+        Map<Long, Long> commitTimestamps = getCommitTimestamps(
+                tableRef, getDistinctTimestamps(rawResults.values()), false);
         Map<Cell, Long> keysToDelete = Maps.newHashMapWithExpectedSize(0);
 
         for (Map.Entry<Cell, Long> e : rawResults.entrySet()) {
@@ -1864,35 +2271,37 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     /// Commit timestamp management
     ///////////////////////////////////////////////////////////////////////////
 
-    private Set<Long> getStartTimestampsForValues(Iterable<Value> values) {
-        Set<Long> results = Sets.newHashSet();
+    private static long[] getStartTimestampsForValues(Collection<Value> values) {
+        TLongHashSet results = new TLongHashSet(values.size());
         for (Value v : values) {
             results.add(v.getTimestamp());
         }
-        return results;
+        return results.toArray();
+    }
+
+    private static long[] getDistinctTimestamps(Collection<Long> timestamps) {
+        TLongHashSet results = new TLongHashSet(timestamps.size());
+        for (long timestamp : timestamps) {
+            results.add(timestamp);
+        }
+        return results.toArray();
     }
 
     /**
      * Returns a map from start timestamp to commit timestamp.  If a start timestamp wasn't
      * committed, then it will be missing from the map.  This method will block until the
      * transactions for these start timestamps are complete.
+     *
+     * @param startTimestamps distinct start timestamps
      */
     protected Map<Long, Long> getCommitTimestamps(@Nullable TableReference tableRef,
-                                                  Iterable<Long> startTimestamps,
+                                                  long[] startTimestamps,
                                                   boolean waitForCommitterToComplete) {
-        if (Iterables.isEmpty(startTimestamps)) {
+        if (startTimestamps.length == 0) {
             return ImmutableMap.of();
         }
-        Map<Long, Long> result = Maps.newHashMap();
-        Set<Long> gets = Sets.newHashSet();
-        for (long startTs : startTimestamps) {
-            Long cached = timestampValidationReadCache.getCommitTimestampIfPresent(startTs);
-            if (cached != null) {
-                result.put(startTs, cached);
-            } else {
-                gets.add(startTs);
-            }
-        }
+        Map<Long, Long> result = Maps.newHashMapWithExpectedSize(startTimestamps.length);
+        Set<Long> gets = getCachedCommitTimestamps(startTimestamps, result);
 
         if (gets.isEmpty()) {
             return result;
@@ -1900,20 +2309,84 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
 
         // Before we do the reads, we need to make sure the committer is done writing.
         if (waitForCommitterToComplete) {
-            Timer.Context timer = getTimer("waitForCommitTsMillis").time();
-            waitForCommitToComplete(startTimestamps);
-            long waitForCommitTsMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
-
-            if (tableRef != null) {
-                perfLogger.debug("Waited {} ms to get commit timestamps for table {}.",
-                        SafeArg.of("commitTsMillis", waitForCommitTsMillis),
-                        LoggingArgs.tableRef(tableRef));
+            timedWaitForCommitToComplete(tableRef, Longs.asList(startTimestamps));
+        }
+
+        logCommitTimestampLookup(tableRef, gets);
+        Map<Long, Long> rawResults = loadCommitTimestamps(gets);
+        cacheLoadedCommitTimestamps(rawResults, result);
+        return result;
+    }
+
+    /**
+     * Asynchronous version of {@link #getCommitTimestamps(TableReference, long[], boolean)}, which always waits
+     * for committers to complete. Waiting blocks on the lock service, so if any of the transactions started after
+     * our immutable timestamp, the wait is done on the blocking read executor.
+     */
+    private ListenableFuture<Map<Long, Long>> getCommitTimestampsAsync(@Nullable TableReference tableRef,
+                                                                     long[] startTimestamps) {
+        if (startTimestamps.length == 0) {
+            return Futures.immediateFuture(ImmutableMap.of());
+        }
+        Map<Long, Long> result = Maps.newHashMapWithExpectedSize(startTimestamps.length);
+        Set<Long> gets = getCachedCommitTimestamps(startTimestamps, result);
+
+        if (gets.isEmpty()) {
+            return Futures.immediateFuture(result);
+        }
+
+        ListenableFuture<?> committersComplete = Arrays.stream(startTimestamps).allMatch(ts -> ts < immutableTimestamp)
+                ? Futures.immediateFuture(null)
+                : BLOCKING_READ_EXECUTOR.submit(
+                        () -> timedWaitForCommitToComplete(tableRef, Longs.asList(startTimestamps)));
+        return Futures.transformAsync(
+                committersComplete,
+                unused -> {
+                    logCommitTimestampLookup(tableRef, gets);
+                    return Futures.transform(
+                            defaultTransactionService.getAsync(gets),
+                            rawResults -> {
+                                cacheLoadedCommitTimestamps(rawResults, result);
+                                return result;
+                            },
+                            MoreExecutors.directExecutor());
+                },
+                MoreExecutors.directExecutor());
+    }
+
+    /**
+     * Outputs the commit timestamps that are in the cache to the result output param, and returns the start
+     * timestamps that were not.
+     */
+    private Set<Long> getCachedCommitTimestamps(long[] startTimestamps, @Output Map<Long, Long> result) {
+        Set<Long> gets = Sets.newHashSet();
+        long[] cachedCommitTimestamps = timestampValidationReadCache.getCommitTimestampsIfPresent(startTimestamps);
+        for (int i = 0; i < startTimestamps.length; i++) {
+            if (cachedCommitTimestamps[i] != TimestampCache.NOT_PRESENT) {
+                result.put(startTimestamps[i], cachedCommitTimestamps[i]);
             } else {
-                perfLogger.debug("Waited {} ms to get commit timestamps",
-                        SafeArg.of("commitTsMillis", waitForCommitTsMillis));
+                gets.add(startTimestamps[i]);
             }
         }
+        return gets;
+    }
+
+    private void timedWaitForCommitToComplete(@Nullable TableReference tableRef, Iterable<Long> startTimestamps) {
+        Timer.Context timer = getTimer("waitForCommitTsMillis").time();
+        waitForCommitToComplete(startTimestamps);
+        long waitForCommitTsMillis = TimeUnit.NANOSECONDS.toMillis(timer.stop());
 
+        if (tableRef != null) {
+            perfLogger.debug("Waited {} ms to get commit timestamps for table {}.",
+                    SafeArg.of("commitTsMillis", waitForCommitTsMillis),
+                    LoggingArgs.tableRef(tableRef));
+        } else {
+            perfLogger.debug("Waited {} ms to get commit timestamps",
+                    SafeArg.of("commitTsMillis", waitForCommitTsMillis));
+        }
+    }
+
+    private static void logCommitTimestampLookup(@Nullable TableReference tableRef, Set<Long> gets) {
         if (tableRef != null) {
             log.trace("Getting commit timestamps for {} start timestamps in response to read from table {}",
                     SafeArg.of("numTimestamps", gets.size()),
@@ -1922,9 +2395,9 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
             log.trace("Getting commit timestamps for {} start timestamps",
                     SafeArg.of("numTimestamps", gets.size()));
         }
+    }
 
-        Map<Long, Long> rawResults = loadCommitTimestamps(gets);
-
+    private void cacheLoadedCommitTimestamps(Map<Long, Long> rawResults, @Output Map<Long, Long> result) {
         for (Map.Entry<Long, Long> e : rawResults.entrySet()) {
             if (e.getValue() != null) {
                 long startTs = e.getKey();
@@ -1933,7 +2406,6 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
                 timestampValidationReadCache.putAlreadyCommittedTransaction(startTs, commitTs);
             }
         }
-        return result;
     }
 
     private Map<Long, Long> loadCommitTimestamps(Set<Long> startTimestamps) {
@@ -2009,7 +2481,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
     }
 
     private boolean wasCommitSuccessful(long commitTs) throws Exception {
-        Map<Long, Long> commitTimestamps = getCommitTimestamps(null, Collections.singleton(getStartTimestamp()), false);
+        Map<Long, Long> commitTimestamps = getCommitTimestamps(null, new long[] {getStartTimestamp()}, false);
         long storedCommit = commitTimestamps.get(getStartTimestamp());
         if (storedCommit != commitTs && storedCommit != TransactionConstants.FAILED_COMMIT_TS) {
             Validate.isTrue(false, "Commit value is wrong. startTs %s  commitTs: %s", getStartTimestamp(), commitTs);
@@ -2055,7 +2527,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Multimap<Cell, TableReference> cellToTableName = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
+            for (Entry<TableReference, LocalWriteBuffer> entry : writesByTable.entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
                 for (Cell c : cells) {
@@ -2073,7 +2545,7 @@ public class SnapshotTransaction extends AbstractTransaction implements Constrai
         Multimap<TableReference, Cell> tableRefToCells = HashMultimap.create();
         State actualState = state.get();
         if (expectedState == actualState) {
-            for (Entry<TableReference, ConcurrentNavigableMap<Cell, byte[]>> entry : writesByTable.entrySet()) {
+            for (Entry<TableReference, LocalWriteBuffer> entry : writesByTable.entrySet()) {
                 TableReference table = entry.getKey();
                 Set<Cell> cells = entry.getValue().keySet();
                 tableRefToCells.putAll(table, cells);
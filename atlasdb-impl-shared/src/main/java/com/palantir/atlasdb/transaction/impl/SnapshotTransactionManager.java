@@ -20,10 +20,13 @@ import java.util.Optional;
 import java.util.concurrent.Callable;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.ExecutorService;
+import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 
+import javax.annotation.concurrent.GuardedBy;
+
 import com.codahale.metrics.Timer;
 import com.google.common.base.Preconditions;
 import com.google.common.base.Supplier;
@@ -50,6 +53,8 @@ import com.palantir.atlasdb.transaction.impl.logging.CommitProfileProcessor;
 import com.palantir.atlasdb.transaction.service.TransactionService;
 import com.palantir.atlasdb.util.MetricsManager;
 import com.palantir.common.base.Throwables;
+import com.palantir.common.concurrent.NamedThreadFactory;
+import com.palantir.common.concurrent.PTExecutors;
 import com.palantir.lock.LockService;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
 import com.palantir.lock.v2.LockToken;
@@ -59,6 +64,7 @@ import com.palantir.timestamp.TimestampService;
 
 /* package */ class SnapshotTransactionManager extends AbstractLockAwareTransactionManager {
     private static final int NUM_RETRIES = 10;
+    private static final int MAX_PIPELINED_COMMIT_THREADS = 64;
 
     final MetricsManager metricsManager;
     final KeyValueService keyValueService;
@@ -77,6 +83,10 @@ import com.palantir.timestamp.TimestampService;
     final int defaultGetRangesConcurrency;
     final MultiTableSweepQueueWriter sweepQueueWriter;
     final boolean validateLocksOnReads;
+    final Supplier<Boolean> pipelinedCommitEnabled;
+    // Only created once commit pipelining is first enabled.
+    @GuardedBy("this")
+    private ExecutorService pipelinedCommitExecutor;
 
     final List<Runnable> closingCallbacks;
     final AtomicBoolean isClosed;
@@ -101,6 +111,45 @@ import com.palantir.timestamp.TimestampService;
             MultiTableSweepQueueWriter sweepQueueWriter,
             ExecutorService deleteExecutor,
             boolean validateLocksOnReads) {
+        this(metricsManager,
+                keyValueService,
+                timelockService,
+                lockService,
+                transactionService,
+                constraintModeSupplier,
+                conflictDetectionManager,
+                sweepStrategyManager,
+                cleaner,
+                allowHiddenTableAccess,
+                lockAcquireTimeoutMs,
+                concurrentGetRangesThreadPoolSize,
+                defaultGetRangesConcurrency,
+                timestampCache,
+                sweepQueueWriter,
+                deleteExecutor,
+                validateLocksOnReads,
+                () -> false);
+    }
+
+    protected SnapshotTransactionManager(
+            MetricsManager metricsManager,
+            KeyValueService keyValueService,
+            TimelockService timelockService,
+            LockService lockService,
+            TransactionService transactionService,
+            Supplier<AtlasDbConstraintCheckingMode> constraintModeSupplier,
+            ConflictDetectionManager conflictDetectionManager,
+            SweepStrategyManager sweepStrategyManager,
+            Cleaner cleaner,
+            boolean allowHiddenTableAccess,
+            Supplier<Long> lockAcquireTimeoutMs,
+            int concurrentGetRangesThreadPoolSize,
+            int defaultGetRangesConcurrency,
+            TimestampCache timestampCache,
+            MultiTableSweepQueueWriter sweepQueueWriter,
+            ExecutorService deleteExecutor,
+            boolean validateLocksOnReads,
+            Supplier<Boolean> pipelinedCommitEnabled) {
         super(metricsManager, timestampCache);
         TimestampTracker.instrumentTimestamps(metricsManager, timelockService, cleaner);
         this.metricsManager = metricsManager;
@@ -122,6 +171,7 @@ import com.palantir.timestamp.TimestampService;
         this.deleteExecutor = deleteExecutor;
         this.commitProfileProcessor = CommitProfileProcessor.createDefault(metricsManager);
         this.validateLocksOnReads = validateLocksOnReads;
+        this.pipelinedCommitEnabled = pipelinedCommitEnabled;
     }
 
     @Override
@@ -237,7 +287,32 @@ import com.palantir.timestamp.TimestampService;
                 sweepQueueWriter,
                 deleteExecutor,
                 commitProfileProcessor,
-                validateLocksOnReads);
+                validateLocksOnReads,
+                getPipelinedCommitExecutorIfEnabled());
+    }
+
+    /**
+     * Commit pipelining is live reloadable, so this is evaluated for each transaction we create.
+     */
+    Optional<ExecutorService> getPipelinedCommitExecutorIfEnabled() {
+        return pipelinedCommitEnabled.get() ? Optional.of(getOrCreatePipelinedCommitExecutor()) : Optional.empty();
+    }
+
+    /**
+     * Once all of its threads are busy, or once it has been shut down, the stages of a commit are run in the
+     * committing thread, one after another, as they would be without pipelining.
+     */
+    private synchronized ExecutorService getOrCreatePipelinedCommitExecutor() {
+        if (pipelinedCommitExecutor == null) {
+            pipelinedCommitExecutor = PTExecutors.newThreadPoolExecutor(
+                    0,
+                    MAX_PIPELINED_COMMIT_THREADS,
+                    1, TimeUnit.MINUTES,
+                    new SynchronousQueue<>(),
+                    new NamedThreadFactory("AtlasPipelinedCommit", true),
+                    (stage, executor) -> stage.run());
+        }
+        return pipelinedCommitExecutor;
     }
 
     @Override
@@ -300,6 +375,7 @@ import com.palantir.timestamp.TimestampService;
             keyValueService.close();
             shutdownExecutor(deleteExecutor);
             shutdownExecutor(getRangesExecutor);
+            shutdownPipelinedCommitExecutorIfCreated();
             closeLockServiceIfPossible();
             for (Runnable callback : Lists.reverse(closingCallbacks)) {
                 callback.run();
@@ -308,6 +384,16 @@ import com.palantir.timestamp.TimestampService;
         }
     }
 
+    private void shutdownPipelinedCommitExecutorIfCreated() {
+        ExecutorService executor;
+        synchronized (this) {
+            executor = pipelinedCommitExecutor;
+        }
+        if (executor != null) {
+            shutdownExecutor(executor);
+        }
+    }
+
     private void shutdownExecutor(ExecutorService executor) {
         executor.shutdown();
         try {
@@ -77,6 +77,7 @@ public final class CommitProfileProcessor {
                             + "serializable r/w conflict check took {} μs, putCommitTs took {} μs, "
                             + "pre-commit lock checks took {} μs, user pre-commit conditions took {} μs, "
                             + "total time spent committing writes was {} μs, "
+                            + "pipelining commit stages saved {} μs, "
                             + "post-commit intra-transaction cleanup took {} μs, "
                             + "total time since tx creation {} μs, tables: {}, {}.")
                     .arguments(
@@ -98,6 +99,7 @@ public final class CommitProfileProcessor {
                             SafeArg.of("microsForUserPreCommitCondition",
                                     profile.verifyUserPreCommitConditionMicros()),
                             SafeArg.of("microsForCommitStage", profile.totalCommitStageMicros()),
+                            SafeArg.of("microsSavedByPipelining", profile.pipelinedOverlapMicros()),
                             SafeArg.of("microsForPostCommitOverhead", postCommitOverhead),
                             SafeArg.of("microsSinceCreation", profile.totalTimeSinceTransactionCreationMicros()),
                             tableRefs.safeTableRefs(),
@@ -31,6 +31,12 @@ public interface TransactionCommitProfile {
     long verifyUserPreCommitConditionMicros();
     long putCommitTimestampMicros();
 
+    /**
+     * Time saved by running independent commit stages concurrently, relative to running them serially.
+     * This is always zero unless commits are pipelined.
+     */
+    long pipelinedOverlapMicros();
+
     long totalCommitStageMicros();
     long totalTimeSinceTransactionCreationMicros();
 
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Semaphore;
+
+import javax.annotation.CheckForNull;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Supplier;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.Uninterruptibles;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+
+/**
+ * A {@link TransactionService} that coalesces concurrent calls to {@link #putUnlessExists(long, long)} into calls
+ * to {@link TransactionService#putUnlessExistsMultiple(Map)} on its delegate, so that many committing transactions
+ * share a single round trip to the transactions table.
+ *
+ * A bounded number of batches are written at a time. Puts that arrive while all of these are being written wait
+ * for one of them to finish, and then one of the waiting puts writes all of the puts that have accumulated in the
+ * meantime. The coalescing window is thus the latency of the batches in flight, and an uncontended put is written
+ * immediately.
+ *
+ * Coalescing only pays off if the key value service writes cells in different rows of the transactions table in a
+ * single round trip, so this should only be used if {@link
+ * com.palantir.atlasdb.keyvalue.api.KeyValueService#supportsMultiRowPutUnlessExists()} holds.
+ *
+ * Writing a batch is not atomic, so if it fails with a {@link KeyAlreadyExistsException}, the values actually
+ * written are read back to determine the outcome of each put in the batch.
+ */
+public final class CoalescingTransactionService implements TransactionService {
+    @VisibleForTesting
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
+    @VisibleForTesting
+    static final int DEFAULT_MAX_CONCURRENT_BATCHES = 4;
+
+    private final TransactionService delegate;
+    private final Supplier<Boolean> coalescingEnabled;
+    private final int maxBatchSize;
+
+    private final Queue<PendingPut> pendingPuts = new ConcurrentLinkedQueue<>();
+    private final Semaphore batchPermits;
+
+    @VisibleForTesting
+    CoalescingTransactionService(TransactionService delegate, Supplier<Boolean> coalescingEnabled, int maxBatchSize,
+            int maxConcurrentBatches) {
+        Preconditions.checkArgument(maxBatchSize > 0, "Max batch size must be positive, but was %s", maxBatchSize);
+        Preconditions.checkArgument(maxConcurrentBatches > 0,
+                "Max concurrent batches must be positive, but was %s", maxConcurrentBatches);
+        this.delegate = delegate;
+        this.coalescingEnabled = coalescingEnabled;
+        this.maxBatchSize = maxBatchSize;
+        this.batchPermits = new Semaphore(maxConcurrentBatches);
+    }
+
+    public static TransactionService create(TransactionService delegate, Supplier<Boolean> coalescingEnabled) {
+        return new CoalescingTransactionService(
+                delegate, coalescingEnabled, DEFAULT_MAX_BATCH_SIZE, DEFAULT_MAX_CONCURRENT_BATCHES);
+    }
+
+    @CheckForNull
+    @Override
+    public Long get(long startTimestamp) {
+        return delegate.get(startTimestamp);
+    }
+
+    @Override
+    public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        return delegate.get(startTimestamps);
+    }
+
+    @Override
+    public ListenableFuture<Map<Long, Long>> getAsync(Iterable<Long> startTimestamps) {
+        return delegate.getAsync(startTimestamps);
+    }
+
+    @Override
+    public void putUnlessExists(long startTimestamp, long commitTimestamp) throws KeyAlreadyExistsException {
+        if (!coalescingEnabled.get()) {
+            delegate.putUnlessExists(startTimestamp, commitTimestamp);
+            return;
+        }
+
+        PendingPut put = new PendingPut(startTimestamp, commitTimestamp);
+        pendingPuts.add(put);
+        // The queue is drained in order, so this terminates even if earlier puts fill up the batches.
+        while (!put.isDone()) {
+            boolean flushed;
+            batchPermits.acquireUninterruptibly();
+            try {
+                flushed = !put.isDone() && flushPendingPuts();
+            } finally {
+                batchPermits.release();
+            }
+            if (!flushed) {
+                // Our put has been taken by a batch in flight.
+                put.awaitDone();
+            }
+        }
+        put.throwIfFailed();
+    }
+
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp)
+            throws KeyAlreadyExistsException {
+        delegate.putUnlessExistsMultiple(startTimestampToCommitTimestamp);
+    }
+
+    /**
+     * Writes a batch of pending puts, returning false if there were none.
+     */
+    private boolean flushPendingPuts() {
+        Map<Long, PendingPut> batch = Maps.newLinkedHashMap();
+        // Readers may race with the writer of the same start timestamp, so we cannot put both in the same batch.
+        List<PendingPut> conflictingPuts = Lists.newArrayList();
+        PendingPut put;
+        while (batch.size() < maxBatchSize && (put = pendingPuts.poll()) != null) {
+            if (batch.putIfAbsent(put.startTimestamp, put) != null) {
+                conflictingPuts.add(put);
+            }
+        }
+
+        if (batch.isEmpty()) {
+            return false;
+        }
+        if (batch.size() == 1) {
+            putIndividually(Iterables.getOnlyElement(batch.values()));
+        } else {
+            putBatch(batch);
+        }
+        conflictingPuts.forEach(this::putIndividually);
+        return true;
+    }
+
+    private void putBatch(Map<Long, PendingPut> batch) {
+        try {
+            delegate.putUnlessExistsMultiple(Maps.transformValues(batch, pendingPut -> pendingPut.commitTimestamp));
+            batch.values().forEach(PendingPut::succeed);
+        } catch (KeyAlreadyExistsException e) {
+            resolveAfterKeyAlreadyExists(batch, e);
+        } catch (RuntimeException e) {
+            batch.values().forEach(pendingPut -> pendingPut.fail(e));
+        }
+    }
+
+    /**
+     * Any subset of the batch may have been written, so we read back the transactions table. Puts whose values were
+     * written succeeded, puts for which a different value was written failed, and puts for which nothing was
+     * written may not have been attempted, so are retried individually.
+     */
+    private void resolveAfterKeyAlreadyExists(Map<Long, PendingPut> batch, KeyAlreadyExistsException batchFailure) {
+        Map<Long, Long> writtenCommitTimestamps;
+        try {
+            writtenCommitTimestamps = delegate.get(batch.keySet());
+        } catch (RuntimeException e) {
+            batch.values().forEach(pendingPut -> pendingPut.fail(batchFailure));
+            return;
+        }
+
+        for (PendingPut pendingPut : batch.values()) {
+            Long writtenCommitTimestamp = writtenCommitTimestamps.get(pendingPut.startTimestamp);
+            if (writtenCommitTimestamp == null) {
+                putIndividually(pendingPut);
+            } else if (writtenCommitTimestamp == pendingPut.commitTimestamp) {
+                pendingPut.succeed();
+            } else {
+                pendingPut.fail(new KeyAlreadyExistsException("Commit timestamp for start timestamp "
+                        + pendingPut.startTimestamp + " was already set to " + writtenCommitTimestamp,
+                        batchFailure));
+            }
+        }
+    }
+
+    private void putIndividually(PendingPut pendingPut) {
+        try {
+            delegate.putUnlessExists(pendingPut.startTimestamp, pendingPut.commitTimestamp);
+            pendingPut.succeed();
+        } catch (RuntimeException e) {
+            pendingPut.fail(e);
+        }
+    }
+
+    private static final class PendingPut {
+        private final long startTimestamp;
+        private final long commitTimestamp;
+
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile RuntimeException failure;
+
+        PendingPut(long startTimestamp, long commitTimestamp) {
+            this.startTimestamp = startTimestamp;
+            this.commitTimestamp = commitTimestamp;
+        }
+
+        boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        void awaitDone() {
+            Uninterruptibles.awaitUninterruptibly(done);
+        }
+
+        void succeed() {
+            done.countDown();
+        }
+
+        void fail(RuntimeException exception) {
+            failure = exception;
+            done.countDown();
+        }
+
+        void throwIfFailed() {
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+}
@@ -19,6 +19,9 @@ import java.util.Map;
 
 import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.Maps;
+import com.google.common.util.concurrent.Futures;
+import com.google.common.util.concurrent.ListenableFuture;
+import com.google.common.util.concurrent.MoreExecutors;
 import com.palantir.atlasdb.keyvalue.api.Cell;
 import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.Value;
@@ -52,14 +55,29 @@ public final class SimpleTransactionService implements TransactionService {
 
     @Override
     public Map<Long, Long> get(Iterable<Long> startTimestamps) {
+        Map<Cell, Value> rawResults = keyValueService.get(
+                TransactionConstants.TRANSACTION_TABLE, getTransactionCells(startTimestamps));
+        return decodeCommitTimestamps(rawResults);
+    }
+
+    @Override
+    public ListenableFuture<Map<Long, Long>> getAsync(Iterable<Long> startTimestamps) {
+        return Futures.transform(
+                keyValueService.getAsync(TransactionConstants.TRANSACTION_TABLE, getTransactionCells(startTimestamps)),
+                SimpleTransactionService::decodeCommitTimestamps,
+                MoreExecutors.directExecutor());
+    }
+
+    private static Map<Cell, Long> getTransactionCells(Iterable<Long> startTimestamps) {
         Map<Cell, Long> startTsMap = Maps.newHashMap();
         for (Long startTimestamp : startTimestamps) {
             Cell cell = getTransactionCell(startTimestamp);
             startTsMap.put(cell, MAX_TIMESTAMP);
         }
+        return startTsMap;
+    }
 
-        Map<Cell, Value> rawResults = keyValueService.get(
-                TransactionConstants.TRANSACTION_TABLE, startTsMap);
+    private static Map<Long, Long> decodeCommitTimestamps(Map<Cell, Value> rawResults) {
         Map<Long, Long> result = Maps.newHashMapWithExpectedSize(rawResults
                 .size());
         for (Map.Entry<Cell, Value> e : rawResults.entrySet()) {
@@ -82,7 +100,16 @@ public final class SimpleTransactionService implements TransactionService {
                 ImmutableMap.of(key, value));
     }
 
-    private Cell getTransactionCell(long startTimestamp) {
+    @Override
+    public void putUnlessExistsMultiple(Map<Long, Long> startTimestampToCommitTimestamp) {
+        Map<Cell, byte[]> values = Maps.newHashMapWithExpectedSize(startTimestampToCommitTimestamp.size());
+        for (Map.Entry<Long, Long> e : startTimestampToCommitTimestamp.entrySet()) {
+            values.put(getTransactionCell(e.getKey()), TransactionConstants.getValueForTimestamp(e.getValue()));
+        }
+        keyValueService.putUnlessExists(TransactionConstants.TRANSACTION_TABLE, values);
+    }
+
+    private static Cell getTransactionCell(long startTimestamp) {
         return Cell.create(
                 TransactionConstants.getValueForTimestamp(startTimestamp),
                 TransactionConstants.COMMIT_TS_COLUMN);
@@ -182,6 +182,24 @@ public class TargetedSweepMetricsTest {
         assertThat(metricsManager).hasMillisSinceLastSweptConservativeEqualTo(clockTime - 5);
     }
 
+    @Test
+    public void millisSinceLastSweptIsAlsoExportedPerShard() {
+        metrics.updateEnqueuedWrites(CONS_ZERO, 1, 2000);
+        metrics.updateProgressForShard(CONS_ZERO, 100);
+        metrics.updateProgressForShard(CONS_ONE, 1);
+        metrics.updateProgressForShard(CONS_TWO, 1000);
+        waitForProgressToRecompute();
+
+        puncherStore.put(0, 5);
+        puncherStore.put(2, 50);
+        puncherStore.put(100, 70);
+        puncherStore.put(1000, 90);
+        assertThat(metricsManager).hasMillisSinceLastSweptConservativeEqualTo(clockTime - 5);
+        assertThat(metricsManager).hasMillisSinceLastSweptConservativeForShardEqualTo(0, clockTime - 70);
+        assertThat(metricsManager).hasMillisSinceLastSweptConservativeForShardEqualTo(1, clockTime - 5);
+        assertThat(metricsManager).hasMillisSinceLastSweptConservativeForShardEqualTo(2, clockTime - 90);
+    }
+
     @Test
     public void millisSinceLastSweptUpdatesAsClockUpdatesAfterWaiting() {
         metrics.updateEnqueuedWrites(CONS_ZERO, 1, 200);
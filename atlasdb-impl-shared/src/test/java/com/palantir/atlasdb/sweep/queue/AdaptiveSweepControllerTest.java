@@ -0,0 +1,157 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.BASE_DELAY_MILLIS;
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.MAX_BATCH_SIZE;
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.MAX_FAILURE_DELAY_MILLIS;
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.MAX_IDLE_DELAY_MILLIS;
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.MIN_BATCH_SIZE;
+import static com.palantir.atlasdb.sweep.queue.AdaptiveSweepController.SLOW_DELETE_MILLIS;
+
+import org.junit.Test;
+
+public class AdaptiveSweepControllerTest {
+    private static final ShardAndStrategy CONS_ZERO = ShardAndStrategy.conservative(0);
+    private static final ShardAndStrategy CONS_ONE = ShardAndStrategy.conservative(1);
+    private static final SweepIterationResult BEHIND = SweepIterationResult.of(true, false, 100L);
+    private static final SweepIterationResult BEHIND_AND_SLOW =
+            SweepIterationResult.of(true, false, SLOW_DELETE_MILLIS + 1);
+    private static final SweepIterationResult CAUGHT_UP = SweepIterationResult.of(true, true, 100L);
+
+    private long clockTime = 1_000L;
+    private final AdaptiveSweepController controller = new AdaptiveSweepController(() -> clockTime);
+
+    @Test
+    public void newShardsAreDueWithTheMaximumBatchSize() {
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void shardThatIsBehindIsDueImmediately() {
+        controller.registerIteration(CONS_ZERO, BEHIND);
+
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void shardThatCaughtUpIsDueAfterTheBaseDelay() {
+        controller.registerIteration(CONS_ZERO, CAUGHT_UP);
+
+        assertThat(controller.isDue(CONS_ZERO)).isFalse();
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+    }
+
+    @Test
+    public void idleShardIsPolledLessOftenUpToTheMaximumDelay() {
+        long expectedDelay = BASE_DELAY_MILLIS;
+        for (int i = 0; i < 10; i++) {
+            controller.registerIteration(CONS_ZERO, SweepIterationResult.nothingToSweep());
+            clockTime += expectedDelay - 1;
+            assertThat(controller.isDue(CONS_ZERO)).isFalse();
+            clockTime += 1;
+            assertThat(controller.isDue(CONS_ZERO)).isTrue();
+            expectedDelay = Math.min(MAX_IDLE_DELAY_MILLIS, expectedDelay * 2);
+        }
+        assertThat(expectedDelay).isEqualTo(MAX_IDLE_DELAY_MILLIS);
+    }
+
+    @Test
+    public void sweepingSomethingResetsTheIdleDelay() {
+        controller.registerIteration(CONS_ZERO, SweepIterationResult.nothingToSweep());
+        controller.registerIteration(CONS_ZERO, SweepIterationResult.nothingToSweep());
+        controller.registerIteration(CONS_ZERO, CAUGHT_UP);
+        controller.registerIteration(CONS_ZERO, SweepIterationResult.nothingToSweep());
+
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+    }
+
+    @Test
+    public void slowDeletesShrinkTheBatchSizeDownToTheMinimum() {
+        controller.registerIteration(CONS_ZERO, BEHIND_AND_SLOW);
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MAX_BATCH_SIZE / 2);
+
+        for (int i = 0; i < 20; i++) {
+            controller.registerIteration(CONS_ZERO, BEHIND_AND_SLOW);
+        }
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MIN_BATCH_SIZE);
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+    }
+
+    @Test
+    public void fastDeletesGrowTheBatchSizeBackUpToTheMaximum() {
+        for (int i = 0; i < 20; i++) {
+            controller.registerFailure(CONS_ZERO);
+        }
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MIN_BATCH_SIZE);
+
+        controller.registerIteration(CONS_ZERO, BEHIND);
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(2 * MIN_BATCH_SIZE);
+
+        for (int i = 0; i < 20; i++) {
+            controller.registerIteration(CONS_ZERO, BEHIND);
+        }
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MAX_BATCH_SIZE);
+    }
+
+    @Test
+    public void failuresShrinkTheBatchSizeAndBackOffUpToTheMaximumDelay() {
+        controller.registerFailure(CONS_ZERO);
+        assertThat(controller.getBatchSize(CONS_ZERO)).isEqualTo(MAX_BATCH_SIZE / 2);
+        assertThat(controller.isDue(CONS_ZERO)).isFalse();
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+
+        controller.registerFailure(CONS_ZERO);
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isFalse();
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+
+        for (int i = 0; i < 10; i++) {
+            controller.registerFailure(CONS_ZERO);
+        }
+        clockTime += MAX_FAILURE_DELAY_MILLIS - 1;
+        assertThat(controller.isDue(CONS_ZERO)).isFalse();
+        clockTime += 1;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+    }
+
+    @Test
+    public void successfulIterationResetsTheFailureBackoff() {
+        controller.registerFailure(CONS_ZERO);
+        controller.registerFailure(CONS_ZERO);
+        controller.registerIteration(CONS_ZERO, CAUGHT_UP);
+        controller.registerFailure(CONS_ZERO);
+
+        clockTime += BASE_DELAY_MILLIS;
+        assertThat(controller.isDue(CONS_ZERO)).isTrue();
+    }
+
+    @Test
+    public void shardsArePacedIndependently() {
+        controller.registerFailure(CONS_ZERO);
+
+        assertThat(controller.isDue(CONS_ONE)).isTrue();
+        assertThat(controller.getBatchSize(CONS_ONE)).isEqualTo(MAX_BATCH_SIZE);
+    }
+}
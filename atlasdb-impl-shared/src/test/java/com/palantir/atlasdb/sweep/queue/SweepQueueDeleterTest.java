@@ -0,0 +1,131 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.sweep.queue;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.atLeastOnce;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoMoreInteractions;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.Lists;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.sweep.Sweeper;
+
+public class SweepQueueDeleterTest {
+    private static final TableReference TABLE = TableReference.createFromFullyQualifiedName("test.table");
+    private static final long TIMESTAMP = 100L;
+
+    private final KeyValueService kvs = mock(KeyValueService.class);
+    private final SweepQueueDeleter deleter =
+            new SweepQueueDeleter(kvs, new TargetedSweepFollower(ImmutableList.of(), null));
+
+    @Test
+    public void insertsOneTombstonePerCellAndReportsThem() {
+        List<WriteInfo> writes = writesForRow(0, 3);
+
+        assertThat(deleter.sweep(writes, Sweeper.THOROUGH)).isEqualTo(3);
+        verify(kvs).deleteAllTimestamps(TABLE, ImmutableMap.of(
+                cell(0, 0), TIMESTAMP,
+                cell(0, 1), TIMESTAMP,
+                cell(0, 2), TIMESTAMP), true);
+        verifyNoMoreInteractions(kvs);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    public void conservativeSweepAddsSentinelsBeforeInsertingTombstones() {
+        List<WriteInfo> writes = writesForRow(0, 2);
+
+        assertThat(deleter.sweep(writes, Sweeper.CONSERVATIVE)).isEqualTo(2);
+        ArgumentCaptor<Iterable> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(kvs).addGarbageCollectionSentinelValues(eq(TABLE), captor.capture());
+        assertThat((Iterable<Cell>) captor.getValue()).containsExactlyInAnyOrder(cell(0, 0), cell(0, 1));
+        verify(kvs).deleteAllTimestamps(TABLE, ImmutableMap.of(
+                cell(0, 0), TIMESTAMP,
+                cell(0, 1), TIMESTAMP), false);
+    }
+
+    @Test
+    public void doesNotSplitRowsAcrossBatches() {
+        int cellsPerRow = SweepQueueUtils.BATCH_SIZE_KVS / 3 + 1;
+        List<WriteInfo> writes = Lists.newArrayList();
+        for (int row = 0; row < 6; row++) {
+            writes.addAll(writesForRow(row, cellsPerRow));
+        }
+
+        assertThat(deleter.sweep(writes, Sweeper.THOROUGH)).isEqualTo(6 * cellsPerRow);
+
+        List<Map<Cell, Long>> batches = captureDeletedBatches();
+        assertThat(batches).hasSize(3);
+        for (Map<Cell, Long> batch : batches) {
+            assertThat(batch).hasSize(2 * cellsPerRow);
+            assertThat(rowsOf(batch)).hasSize(2);
+        }
+    }
+
+    @Test
+    public void splitsRowsThatDoNotFitInASingleBatch() {
+        List<WriteInfo> writes = writesForRow(0, SweepQueueUtils.BATCH_SIZE_KVS + 1);
+
+        assertThat(deleter.sweep(writes, Sweeper.THOROUGH)).isEqualTo(SweepQueueUtils.BATCH_SIZE_KVS + 1);
+
+        List<Map<Cell, Long>> batches = captureDeletedBatches();
+        assertThat(batches.stream().map(Map::size).collect(Collectors.toList()))
+                .containsExactly(SweepQueueUtils.BATCH_SIZE_KVS, 1);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Map<Cell, Long>> captureDeletedBatches() {
+        ArgumentCaptor<Map> captor = ArgumentCaptor.forClass(Map.class);
+        verify(kvs, atLeastOnce()).deleteAllTimestamps(eq(TABLE), captor.capture(), eq(true));
+        List<Map<Cell, Long>> batches = Lists.newArrayList();
+        captor.getAllValues().forEach(batch -> batches.add(ImmutableMap.copyOf((Map<Cell, Long>) batch)));
+        return batches;
+    }
+
+    private static Set<String> rowsOf(Map<Cell, Long> batch) {
+        return batch.keySet().stream()
+                .map(cell -> PtBytes.toString(cell.getRowName()))
+                .collect(Collectors.toSet());
+    }
+
+    private static List<WriteInfo> writesForRow(int row, int numCells) {
+        List<WriteInfo> writes = Lists.newArrayList();
+        for (int col = 0; col < numCells; col++) {
+            writes.add(WriteInfo.write(TABLE, cell(row, col), TIMESTAMP));
+        }
+        return writes;
+    }
+
+    private static Cell cell(int row, int col) {
+        return Cell.create(PtBytes.toBytes("row" + row), PtBytes.toBytes("col" + col));
+    }
+}
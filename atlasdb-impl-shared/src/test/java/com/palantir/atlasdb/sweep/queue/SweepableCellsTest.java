@@ -277,6 +277,18 @@ public class SweepableCellsTest extends AbstractSweepQueueTest {
         SweepMetricsAssert.assertThat(metricsManager).hasAbortedWritesDeletedConservativeEquals(0);
     }
 
+    @Test
+    public void returnWhenMoreThanGivenMaximumNumberOfEntries() {
+        useSingleShard();
+        for (int i = 0; i < 10; i++) {
+            writeCommittedConservativeRowForTimestamp(i, 10);
+        }
+        SweepBatch conservativeBatch = sweepableCells.getBatchForPartition(conservative(0), 0L, -1L, SMALL_SWEEP_TS,
+                25);
+        assertThat(conservativeBatch.writes().size()).isEqualTo(30);
+        assertThat(conservativeBatch.lastSweptTimestamp()).isEqualTo(2);
+    }
+
     @Test
     public void returnWhenMoreThanSweepBatchSizeWithRepeatsHasFewerEntries() {
         useSingleShard();
@@ -0,0 +1,127 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.impl;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Random;
+import java.util.SortedMap;
+import java.util.TreeMap;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.palantir.atlasdb.encoding.PtBytes;
+import com.palantir.atlasdb.keyvalue.api.Cell;
+
+public class LocalWriteBufferTest {
+    private static final byte[] VALUE_1 = PtBytes.toBytes("value1");
+    private static final byte[] VALUE_2 = PtBytes.toBytes("value2");
+
+    private final LocalWriteBuffer buffer = new LocalWriteBuffer();
+
+    @Test
+    public void putReturnsPreviousValue() {
+        assertThat(buffer.put(cell(1, 1), VALUE_1)).isNull();
+        assertThat(buffer.put(cell(1, 1), VALUE_2)).isEqualTo(VALUE_1);
+
+        assertThat(buffer.get(cell(1, 1))).isEqualTo(VALUE_2);
+        assertThat(buffer).hasSize(1);
+    }
+
+    @Test
+    public void iteratesInCellOrder() {
+        buffer.put(cell(3, 1), VALUE_1);
+        buffer.put(cell(1, 2), VALUE_1);
+        buffer.put(cell(2, 1), VALUE_1);
+        buffer.put(cell(1, 1), VALUE_1);
+
+        assertThat(buffer.keySet()).containsExactly(cell(1, 1), cell(1, 2), cell(2, 1), cell(3, 1));
+        assertThat(buffer.firstKey()).isEqualTo(cell(1, 1));
+        assertThat(buffer.lastKey()).isEqualTo(cell(3, 1));
+    }
+
+    @Test
+    public void rangeViewsOnlyContainCellsInRange() {
+        buffer.put(cell(1, 1), VALUE_1);
+        buffer.put(cell(2, 1), VALUE_1);
+        buffer.put(cell(3, 1), VALUE_1);
+
+        SortedMap<Cell, byte[]> range = buffer.tailMap(cell(2, 0)).headMap(cell(3, 0));
+
+        assertThat(range.keySet()).containsExactly(cell(2, 1));
+        assertThat(range.containsKey(cell(1, 1))).isFalse();
+        assertThat(range.get(cell(3, 1))).isNull();
+        assertThat(range.keySet().contains(cell(2, 1))).isTrue();
+        assertThat(buffer.tailMap(cell(3, 0)).headMap(cell(2, 0))).isEmpty();
+    }
+
+    @Test
+    public void emptyRangeHasNoFirstOrLastKey() {
+        buffer.put(cell(1, 1), VALUE_1);
+
+        SortedMap<Cell, byte[]> range = buffer.tailMap(cell(2, 0));
+
+        assertThatThrownBy(range::firstKey).isInstanceOf(NoSuchElementException.class);
+        assertThatThrownBy(range::lastKey).isInstanceOf(NoSuchElementException.class);
+    }
+
+    @Test
+    public void iteratorsSeeLatestValuesOfCellsWrittenBeforeCreation() {
+        buffer.put(cell(1, 1), VALUE_1);
+        buffer.put(cell(2, 1), VALUE_1);
+        Iterator<Map.Entry<Cell, byte[]>> iterator = buffer.entrySet().iterator();
+
+        buffer.put(cell(2, 1), VALUE_2);
+        buffer.put(cell(3, 1), VALUE_1);
+
+        assertThat(ImmutableList.copyOf(iterator))
+                .extracting(Map.Entry::getValue)
+                .containsExactly(VALUE_1, VALUE_2);
+        assertThat(buffer.keySet()).containsExactly(cell(1, 1), cell(2, 1), cell(3, 1));
+    }
+
+    @Test
+    public void rangesMatchSortedMapAfterInterleavedWritesAndReads() {
+        Random random = new Random(0);
+        SortedMap<Cell, byte[]> expected = new TreeMap<>();
+        for (int i = 0; i < 1000; i++) {
+            Cell cell = cell(random.nextInt(50), random.nextInt(50));
+            byte[] value = PtBytes.toBytes(i);
+            assertThat(buffer.put(cell, value)).isEqualTo(expected.put(cell, value));
+
+            if (i % 50 == 0) {
+                Cell from = cell(random.nextInt(25), random.nextInt(50));
+                Cell to = cell(25 + random.nextInt(25), random.nextInt(50));
+                assertSameEntries(buffer.subMap(from, to), expected.subMap(from, to));
+            }
+        }
+        assertSameEntries(buffer, expected);
+    }
+
+    private static void assertSameEntries(SortedMap<Cell, byte[]> actual, SortedMap<Cell, byte[]> expected) {
+        assertThat(actual.keySet()).containsExactlyElementsOf(expected.keySet());
+        expected.forEach((cell, value) -> assertThat(actual.get(cell)).isEqualTo(value));
+    }
+
+    private static Cell cell(int row, int column) {
+        return Cell.create(PtBytes.toBytes("row" + row), PtBytes.toBytes("col" + column));
+    }
+}
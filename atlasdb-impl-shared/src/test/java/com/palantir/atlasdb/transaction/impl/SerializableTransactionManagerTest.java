@@ -280,7 +280,8 @@ public class SerializableTransactionManagerTest {
                 MultiTableSweepQueueWriter.NO_OP,
                 callBack,
                 executor,
-                true);
+                true,
+                () -> false);
     }
 
     private void nothingInitialized() {
@@ -0,0 +1,184 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.AdditionalAnswers.delegatesTo;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Test;
+import org.mockito.stubbing.Answer;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.impl.InMemoryKeyValueService;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+
+public class CoalescingTransactionServiceTest {
+    private final TransactionService delegate = mock(TransactionService.class, delegatesTo(
+            TransactionServices.createTransactionService(new InMemoryKeyValueService(false))));
+    private final TransactionService transactionService = new CoalescingTransactionService(
+            delegate, () -> true, CoalescingTransactionService.DEFAULT_MAX_BATCH_SIZE,
+            CoalescingTransactionService.DEFAULT_MAX_CONCURRENT_BATCHES);
+    private final ExecutorService executor = Executors.newFixedThreadPool(16);
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void putsAreVisibleToGets() {
+        transactionService.putUnlessExists(1L, 2L);
+
+        assertThat(transactionService.get(1L)).isEqualTo(2L);
+        assertThat(transactionService.get(ImmutableList.of(1L, 3L))).containsExactly(entry(1L, 2L));
+    }
+
+    @Test
+    public void throwsIfAlreadyExists() {
+        transactionService.putUnlessExists(1L, 2L);
+
+        assertThatThrownBy(() -> transactionService.putUnlessExists(1L, TransactionConstants.FAILED_COMMIT_TS))
+                .isInstanceOf(KeyAlreadyExistsException.class);
+        assertThat(transactionService.get(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void concurrentPutsAllSucceed() throws Exception {
+        List<Future<?>> futures = LongStream.range(0, 1000)
+                .mapToObj(startTs -> executor.submit(() -> transactionService.putUnlessExists(startTs, startTs + 1)))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        Map<Long, Long> written = transactionService.get(LongStream.range(0, 1000).boxed()
+                .collect(Collectors.toList()));
+        assertThat(written).hasSize(1000);
+        written.forEach((startTs, commitTs) -> assertThat(commitTs).isEqualTo(startTs + 1));
+    }
+
+    @Test
+    public void concurrentPutsForSameStartTimestampHaveExactlyOneWinner() throws Exception {
+        List<Future<Boolean>> futures = LongStream.range(0, 100)
+                .mapToObj(commitTs -> executor.submit(() -> {
+                    try {
+                        transactionService.putUnlessExists(1L, commitTs);
+                        return true;
+                    } catch (KeyAlreadyExistsException e) {
+                        return false;
+                    }
+                }))
+                .collect(Collectors.toList());
+        long winners = 0;
+        for (Future<Boolean> future : futures) {
+            winners += future.get() ? 1 : 0;
+        }
+
+        assertThat(winners).isEqualTo(1L);
+        assertThat(transactionService.get(1L)).isNotNull();
+    }
+
+    @Test
+    public void concurrentPutsSucceedUnlessAlreadyWritten() throws Exception {
+        LongStream.range(0, 1000).filter(startTs -> startTs % 2 == 0)
+                .forEach(startTs -> delegate.putUnlessExists(startTs, TransactionConstants.FAILED_COMMIT_TS));
+
+        List<Future<Boolean>> futures = LongStream.range(0, 1000)
+                .mapToObj(startTs -> executor.submit(() -> {
+                    try {
+                        transactionService.putUnlessExists(startTs, startTs + 1);
+                        return true;
+                    } catch (KeyAlreadyExistsException e) {
+                        return false;
+                    }
+                }))
+                .collect(Collectors.toList());
+        for (int startTs = 0; startTs < 1000; startTs++) {
+            assertThat(futures.get(startTs).get()).isEqualTo(startTs % 2 != 0);
+            assertThat(transactionService.get(startTs))
+                    .isEqualTo(startTs % 2 == 0 ? TransactionConstants.FAILED_COMMIT_TS : startTs + 1);
+        }
+    }
+
+    @Test
+    public void delegatesDirectlyIfDisabled() {
+        TransactionService disabled = new CoalescingTransactionService(
+                delegate, () -> false, CoalescingTransactionService.DEFAULT_MAX_BATCH_SIZE,
+                CoalescingTransactionService.DEFAULT_MAX_CONCURRENT_BATCHES);
+        disabled.putUnlessExists(1L, 2L);
+
+        verify(delegate).putUnlessExists(1L, 2L);
+        verify(delegate, never()).putUnlessExistsMultiple(any());
+        assertThat(disabled.get(1L)).isEqualTo(2L);
+    }
+
+    @Test
+    public void uncontendedPutIsWrittenIndividually() {
+        transactionService.putUnlessExists(1L, 2L);
+
+        verify(delegate).putUnlessExists(anyLong(), anyLong());
+        verify(delegate, never()).putUnlessExistsMultiple(any());
+    }
+
+    @Test
+    public void writesSeveralBatchesConcurrently() throws Exception {
+        CountDownLatch batchesInFlight = new CountDownLatch(2);
+        CountDownLatch release = new CountDownLatch(1);
+        Answer<Void> blockingWrite = invocation -> {
+            batchesInFlight.countDown();
+            release.await();
+            return null;
+        };
+        TransactionService slowDelegate = mock(TransactionService.class);
+        doAnswer(blockingWrite).when(slowDelegate).putUnlessExists(anyLong(), anyLong());
+        doAnswer(blockingWrite).when(slowDelegate).putUnlessExistsMultiple(any());
+        TransactionService coalescing = new CoalescingTransactionService(slowDelegate, () -> true, 100, 2);
+
+        List<Future<?>> futures = LongStream.range(0, 10)
+                .mapToObj(startTs -> executor.submit(() -> coalescing.putUnlessExists(startTs, startTs + 1)))
+                .collect(Collectors.toList());
+
+        assertThat(batchesInFlight.await(10, TimeUnit.SECONDS)).isTrue();
+        release.countDown();
+        for (Future<?> future : futures) {
+            future.get();
+        }
+    }
+
+    private static Map.Entry<Long, Long> entry(long key, long value) {
+        return Maps.immutableEntry(key, value);
+    }
+}
@@ -35,8 +35,12 @@ import com.palantir.docker.compose.connection.waiting.SuccessOrFailure;
 public final class DockerizedDatabase implements Closeable {
 
     private static final String DOCKER_LOGS_DIR = "container-logs";
+    private static final InetSocketAddress IN_PROCESS_ADDRESS = InetSocketAddress.createUnresolved("localhost", 0);
 
     public static DockerizedDatabase start(KeyValueServiceInstrumentation type) {
+        if (type.isInProcess()) {
+            return new DockerizedDatabase(null, new DockerizedDatabaseUri(type, IN_PROCESS_ADDRESS));
+        }
         DockerComposeRule docker = DockerComposeRule.builder()
                 .file(getDockerComposeFileAbsolutePath(type.getDockerComposeResourceFileName()))
                 .waitingForHostNetworkedPort(type.getKeyValueServicePort(), toBeOpen())
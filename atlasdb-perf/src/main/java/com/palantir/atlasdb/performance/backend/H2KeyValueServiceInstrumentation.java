@@ -0,0 +1,54 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.backend;
+
+import java.net.InetSocketAddress;
+
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableH2DdlConfig;
+import com.palantir.atlasdb.spi.KeyValueServiceConfig;
+import com.palantir.nexus.db.pool.config.ImmutableH2ConnectionConfig;
+import com.palantir.nexus.db.pool.config.ImmutableMaskedValue;
+
+/**
+ * Runs benchmarks against DbKvs backed by an in-memory H2 database in the benchmark JVM.
+ */
+public class H2KeyValueServiceInstrumentation extends KeyValueServiceInstrumentation {
+    // Every connection must see the same database, and it must outlive any individual connection.
+    private static final String URL = "jdbc:h2:mem:atlas;MODE=PostgreSQL;DB_CLOSE_DELAY=-1";
+
+    @Override
+    public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
+        return ImmutableDbKeyValueServiceConfig.builder()
+                .ddl(ImmutableH2DdlConfig.builder().build())
+                .connection(ImmutableH2ConnectionConfig.builder()
+                        .url(URL)
+                        .dbLogin("palantir")
+                        .dbPassword(ImmutableMaskedValue.of("palantir"))
+                        .build())
+                .build();
+    }
+
+    @Override
+    public boolean canConnect(InetSocketAddress addr) {
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "H2";
+    }
+}
@@ -36,6 +36,9 @@ public abstract class KeyValueServiceInstrumentation {
     static {
         addNewBackendType(new CassandraKeyValueServiceInstrumentation());
         addNewBackendType(new PostgresKeyValueServiceInstrumentation());
+        addNewBackendType(new PostgresArrayParametersKeyValueServiceInstrumentation());
+        addNewBackendType(new InMemoryKeyValueServiceInstrumentation());
+        addNewBackendType(new H2KeyValueServiceInstrumentation());
     }
 
     KeyValueServiceInstrumentation(int kvsPort, String dockerComposeFileName) {
@@ -43,6 +46,17 @@ public abstract class KeyValueServiceInstrumentation {
         this.dockerComposeFileName = dockerComposeFileName;
     }
 
+    /**
+     * For backends that run inside the benchmark JVM, and so do not need a docker container.
+     */
+    KeyValueServiceInstrumentation() {
+        this(0, null);
+    }
+
+    public boolean isInProcess() {
+        return dockerComposeFileName == null;
+    }
+
     public String getDockerComposeResourceFileName() {
         return dockerComposeFileName;
     }
@@ -19,6 +19,7 @@ import java.net.InetSocketAddress;
 
 import com.palantir.atlasdb.keyvalue.dbkvs.ImmutableDbKeyValueServiceConfig;
 import com.palantir.atlasdb.keyvalue.dbkvs.ImmutablePostgresDdlConfig;
+import com.palantir.atlasdb.keyvalue.dbkvs.PostgresDdlConfig;
 import com.palantir.atlasdb.spi.KeyValueServiceConfig;
 import com.palantir.nexus.db.pool.config.ImmutableMaskedValue;
 import com.palantir.nexus.db.pool.config.ImmutablePostgresConnectionConfig;
@@ -32,11 +33,15 @@ public class PostgresKeyValueServiceInstrumentation extends KeyValueServiceInstr
     @Override
     public KeyValueServiceConfig getKeyValueServiceConfig(InetSocketAddress addr) {
         return ImmutableDbKeyValueServiceConfig.builder()
-                .ddl(ImmutablePostgresDdlConfig.builder().build())
+                .ddl(getDdlConfig())
                 .connection(getImmutablePostgresConnectionConfig(addr))
                 .build();
     }
 
+    PostgresDdlConfig getDdlConfig() {
+        return ImmutablePostgresDdlConfig.builder().build();
+    }
+
     private ImmutablePostgresConnectionConfig getImmutablePostgresConnectionConfig(InetSocketAddress addr) {
         return ImmutablePostgresConnectionConfig.builder()
                 .host(addr.getHostString())
@@ -0,0 +1,142 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.performance.benchmarks;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Optional;
+import java.util.SortedMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.google.common.collect.Maps;
+import com.palantir.atlasdb.timelock.lock.ImmutableTimestampTracker;
+
+/**
+ * Compares the {@link ImmutableTimestampTracker} with the synchronized {@link java.util.TreeMap} that it replaced,
+ * under the access pattern of transaction starts: each thread locks a fresh timestamp, reads the immutable timestamp
+ * and unlocks the oldest of the timestamps that it holds.
+ */
+public class ImmutableTimestampTrackerBenchmarks {
+    private static final int TIMESTAMPS_HELD_PER_THREAD = 16;
+
+    @State(Scope.Benchmark)
+    public static class Tracker {
+        @Param({"SKIP_LIST", "SYNCHRONIZED_TREE_MAP"})
+        public String implementation;
+
+        private final AtomicLong timestamps = new AtomicLong();
+        private TimestampTracker tracker;
+
+        @Setup
+        public void setup() {
+            tracker = implementation.equals("SKIP_LIST")
+                    ? new SkipListTracker()
+                    : new SynchronizedTreeMapTracker();
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class HeldTimestamps {
+        private final UUID requestId = UUID.randomUUID();
+        private final Deque<Long> timestamps = new ArrayDeque<>();
+    }
+
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public Optional<Long> singleThreadLockAndUnlock(Tracker tracker, HeldTimestamps held) {
+        return lockAndUnlock(tracker, held);
+    }
+
+    @Benchmark
+    @Threads(32)
+    @Warmup(time = 3, timeUnit = TimeUnit.SECONDS)
+    @Measurement(time = 5, timeUnit = TimeUnit.SECONDS)
+    public Optional<Long> manyThreadsLockAndUnlock(Tracker tracker, HeldTimestamps held) {
+        return lockAndUnlock(tracker, held);
+    }
+
+    private static Optional<Long> lockAndUnlock(Tracker tracker, HeldTimestamps held) {
+        long timestamp = tracker.timestamps.incrementAndGet();
+        tracker.tracker.lock(timestamp, held.requestId);
+        held.timestamps.addLast(timestamp);
+
+        Optional<Long> immutableTimestamp = tracker.tracker.getImmutableTimestamp();
+
+        if (held.timestamps.size() > TIMESTAMPS_HELD_PER_THREAD) {
+            tracker.tracker.unlock(held.timestamps.removeFirst(), held.requestId);
+        }
+        return immutableTimestamp;
+    }
+
+    private interface TimestampTracker {
+        void lock(long timestamp, UUID requestId);
+
+        void unlock(long timestamp, UUID requestId);
+
+        Optional<Long> getImmutableTimestamp();
+    }
+
+    private static final class SkipListTracker implements TimestampTracker {
+        private final ImmutableTimestampTracker delegate = new ImmutableTimestampTracker();
+
+        @Override
+        public void lock(long timestamp, UUID requestId) {
+            delegate.lock(timestamp, requestId);
+        }
+
+        @Override
+        public void unlock(long timestamp, UUID requestId) {
+            delegate.unlock(timestamp, requestId);
+        }
+
+        @Override
+        public Optional<Long> getImmutableTimestamp() {
+            return delegate.getImmutableTimestamp();
+        }
+    }
+
+    private static final class SynchronizedTreeMapTracker implements TimestampTracker {
+        private final SortedMap<Long, UUID> holdersByTimestamp = Maps.newTreeMap();
+
+        @Override
+        public synchronized void lock(long timestamp, UUID requestId) {
+            holdersByTimestamp.putIfAbsent(timestamp, requestId);
+        }
+
+        @Override
+        public synchronized void unlock(long timestamp, UUID requestId) {
+            holdersByTimestamp.remove(timestamp, requestId);
+        }
+
+        @Override
+        public synchronized Optional<Long> getImmutableTimestamp() {
+            return holdersByTimestamp.isEmpty() ? Optional.empty() : Optional.of(holdersByTimestamp.firstKey());
+        }
+    }
+}
@@ -15,6 +15,7 @@
  */
 package com.palantir.atlasdb.performance.benchmarks;
 
+import java.util.List;
 import java.util.Map;
 
 import org.openjdk.jmh.annotations.Benchmark;
@@ -32,6 +33,8 @@ import com.palantir.atlasdb.performance.benchmarks.table.ConsecutiveNarrowTable;
 
 @State(Scope.Benchmark)
 public class KvsGetRowsBenchmarks {
+    private static final int MAX_ROWS_PER_REQUEST = 1_000;
+
     @Benchmark
     @Threads(1)
     @Warmup(time = 5)
@@ -47,4 +50,32 @@ public class KvsGetRowsBenchmarks {
                 "Should be %s rows, but were: %s", table.getRowList().size(), result.size());
         return result;
     }
+
+    /**
+     * Reads the same rows as {@link #getManyRowsWithGetRows}, but in requests of random sizes, so that a database
+     * whose query text depends on the number of rows read sees many distinct queries. Compare the POSTGRES and
+     * POSTGRES_ARRAY_PARAMETERS backends to measure the cost of this.
+     */
+    @Benchmark
+    @Threads(1)
+    @Warmup(time = 5)
+    @Measurement(time = 40)
+    public Object getManyRowsWithGetRowsOfVaryingSizes(ConsecutiveNarrowTable.CleanNarrowTable table) {
+        List<byte[]> rows = table.getRowList();
+        int numResults = 0;
+        int start = 0;
+        while (start < rows.size()) {
+            int end = Math.min(rows.size(), start + 1 + table.getRandom().nextInt(MAX_ROWS_PER_REQUEST));
+            numResults += table.getKvs().getRows(
+                    table.getTableRef(),
+                    rows.subList(start, end),
+                    ColumnSelection.all(),
+                    Long.MAX_VALUE
+            ).size();
+            start = end;
+        }
+        Preconditions.checkState(numResults == rows.size(),
+                "Should be %s rows, but were: %s", rows.size(), numResults);
+        return numResults;
+    }
 }
@@ -62,4 +62,11 @@ public class KeyValueServiceInstrumentationTest {
         KeyValueServiceInstrumentation.removeBackendType(mockKeyValueServiceInstrumentation);
     }
 
+    @Test
+    public void inProcessBackendsDoNotNeedDocker() {
+        assertThat(KeyValueServiceInstrumentation.forDatabase("IN_MEMORY").isInProcess()).isTrue();
+        assertThat(KeyValueServiceInstrumentation.forDatabase("H2").isInProcess()).isTrue();
+        assertThat(KeyValueServiceInstrumentation.forDatabase("POSTGRES").isInProcess()).isFalse();
+    }
+
 }
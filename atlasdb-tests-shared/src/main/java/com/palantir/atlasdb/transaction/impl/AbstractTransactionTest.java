@@ -30,6 +30,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Random;
+import java.util.SortedMap;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
@@ -864,6 +865,61 @@ public abstract class AbstractTransactionTest extends TransactionTestSetup {
         assertEquals("v3", get(t, "row2", "col1"));
     }
 
+    @Test
+    public void testGetAsync() throws InterruptedException, ExecutionException {
+        Transaction t = startTransaction();
+        put(t, "row1", "col1", "v1");
+        put(t, "row1", "col2", "v2");
+        t.commit();
+
+        t = startTransaction();
+        put(t, "row1", "col2", "v3");
+        delete(t, "row1", "col1");
+        put(t, "row2", "col1", "v4");
+        Map<Cell, byte[]> result = t.getAsync(TEST_TABLE, ImmutableSet.of(
+                createCell("row1", "col1"), createCell("row1", "col2"), createCell("row2", "col1"))).get();
+
+        assertEquals(2, result.size());
+        assertEquals("v3", PtBytes.toString(result.get(createCell("row1", "col2"))));
+        assertEquals("v4", PtBytes.toString(result.get(createCell("row2", "col1"))));
+    }
+
+    @Test
+    public void testGetAsyncIgnoresUncommittedValues() throws InterruptedException, ExecutionException {
+        Transaction t = startTransaction();
+        put(t, "row1", "col1", "v1");
+        t.commit();
+        Transaction reader = startTransaction();
+        putDirect("row1", "col1", "uncommitted", reader.getTimestamp() - 1);
+
+        Map<Cell, byte[]> result = reader.getAsync(TEST_TABLE, ImmutableSet.of(createCell("row1", "col1"))).get();
+
+        assertEquals("v1", PtBytes.toString(result.get(createCell("row1", "col1"))));
+    }
+
+    @Test
+    public void testGetRowsAsync() throws InterruptedException, ExecutionException {
+        Transaction t = startTransaction();
+        put(t, "row1", "col1", "v1");
+        put(t, "row2", "col1", "v2");
+        t.commit();
+
+        t = startTransaction();
+        put(t, "row1", "col2", "v3");
+        SortedMap<byte[], RowResult<byte[]>> rows = t.getRowsAsync(TEST_TABLE,
+                ImmutableList.of(PtBytes.toBytes("row1"), PtBytes.toBytes("row3")),
+                ColumnSelection.all()).get();
+
+        assertEquals(1, rows.size());
+        RowResult<byte[]> row = rows.get(PtBytes.toBytes("row1"));
+        assertEquals("v1", PtBytes.toString(row.getColumns().get(PtBytes.toBytes("col1"))));
+        assertEquals("v3", PtBytes.toString(row.getColumns().get(PtBytes.toBytes("col2"))));
+    }
+
+    private static Cell createCell(String rowName, String columnName) {
+        return Cell.create(PtBytes.toBytes(rowName), PtBytes.toBytes(columnName));
+    }
+
     @Test
     public void testReadMyWritesRange() {
         Transaction t = startTransaction();
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.transaction.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import com.palantir.atlasdb.keyvalue.api.KeyAlreadyExistsException;
+import com.palantir.atlasdb.keyvalue.api.KeyValueService;
+import com.palantir.atlasdb.transaction.impl.TransactionConstants;
+import com.palantir.atlasdb.transaction.impl.TransactionTables;
+import com.palantir.common.concurrent.PTExecutors;
+
+/**
+ * Runs concurrent commit timestamp writes through a {@link CoalescingTransactionService} against a real key value
+ * service, which must support multi-row put unless exists.
+ */
+public abstract class AbstractCoalescingTransactionServiceTest {
+    private static final int NUM_PUTS = 1000;
+
+    private KeyValueService kvs;
+    private TransactionService delegate;
+    private TransactionService transactionService;
+    private ExecutorService executor;
+
+    protected abstract KeyValueService getKeyValueService();
+
+    @Before
+    public void setUp() {
+        kvs = getKeyValueService();
+        TransactionTables.deleteTables(kvs);
+        TransactionTables.createTables(kvs);
+        delegate = TransactionServices.createTransactionService(kvs);
+        transactionService = CoalescingTransactionService.create(delegate, () -> true);
+        executor = PTExecutors.newFixedThreadPool(16);
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+        kvs.close();
+    }
+
+    @Test
+    public void supportsMultiRowPutUnlessExists() {
+        assertThat(kvs.supportsMultiRowPutUnlessExists()).isTrue();
+    }
+
+    @Test
+    public void concurrentPutsAllSucceed() throws Exception {
+        List<Future<?>> futures = LongStream.range(0, NUM_PUTS)
+                .mapToObj(startTs -> executor.submit(() -> transactionService.putUnlessExists(startTs, startTs + 1)))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        Map<Long, Long> written = transactionService.get(
+                LongStream.range(0, NUM_PUTS).boxed().collect(Collectors.toList()));
+        assertThat(written).hasSize(NUM_PUTS);
+        written.forEach((startTs, commitTs) -> assertThat(commitTs).isEqualTo(startTs + 1));
+    }
+
+    @Test
+    public void concurrentPutsSucceedUnlessAlreadyWritten() throws Exception {
+        LongStream.range(0, NUM_PUTS).filter(startTs -> startTs % 2 == 0)
+                .forEach(startTs -> delegate.putUnlessExists(startTs, TransactionConstants.FAILED_COMMIT_TS));
+
+        List<Future<Boolean>> futures = LongStream.range(0, NUM_PUTS)
+                .mapToObj(startTs -> executor.submit(() -> {
+                    try {
+                        transactionService.putUnlessExists(startTs, startTs + 1);
+                        return true;
+                    } catch (KeyAlreadyExistsException e) {
+                        return false;
+                    }
+                }))
+                .collect(Collectors.toList());
+        for (int startTs = 0; startTs < NUM_PUTS; startTs++) {
+            assertThat(futures.get(startTs).get()).isEqualTo(startTs % 2 != 0);
+            assertThat(transactionService.get(startTs))
+                    .isEqualTo(startTs % 2 == 0 ? TransactionConstants.FAILED_COMMIT_TS : startTs + 1);
+        }
+    }
+
+    @Test
+    public void concurrentPutsForSameStartTimestampHaveExactlyOneWinner() throws Exception {
+        List<Future<Boolean>> futures = LongStream.range(0, 100)
+                .mapToObj(commitTs -> executor.submit(() -> {
+                    try {
+                        transactionService.putUnlessExists(1L, commitTs);
+                        return true;
+                    } catch (KeyAlreadyExistsException e) {
+                        return false;
+                    }
+                }))
+                .collect(Collectors.toList());
+        long winners = 0;
+        for (Future<Boolean> future : futures) {
+            winners += future.get() ? 1 : 0;
+        }
+
+        assertThat(winners).isEqualTo(1L);
+        assertThat(transactionService.get(1L)).isNotNull();
+    }
+}
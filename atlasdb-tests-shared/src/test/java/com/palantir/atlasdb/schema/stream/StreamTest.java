@@ -84,6 +84,7 @@ import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamMeta
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamMetadataTable.TestHashComponentsStreamMetadataRow;
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamStore;
 import com.palantir.atlasdb.schema.stream.generated.TestHashComponentsStreamValueTable.TestHashComponentsStreamValueRow;
+import com.palantir.atlasdb.stream.ImmutableStreamStorePersistenceConfiguration;
 import com.palantir.atlasdb.stream.PersistentStreamStore;
 import com.palantir.atlasdb.table.description.Schemas;
 import com.palantir.atlasdb.transaction.api.Transaction;
@@ -297,6 +298,26 @@ public class StreamTest extends AtlasDbTestCase {
         storeAndCheckByteStreams(maxMemStore, getIncompressibleBytes(100));
     }
 
+    @Test
+    public void testStoreByteStreamFiveMegaBytes_parallelBatchedWrites() throws IOException {
+        PersistentStreamStore store = StreamTestStreamStore.of(txManager, StreamTestTableFactory.of(),
+                () -> ImmutableStreamStorePersistenceConfiguration.builder()
+                        .numParallelWriteTransactions(4)
+                        .numBlocksPerWriteTransaction(3)
+                        .build());
+        storeAndCheckByteStreams(store, getIncompressibleBytes(5_000_000));
+    }
+
+    @Test
+    public void testStoreWholeNumberOfBatches_parallelBatchedWrites() throws IOException {
+        PersistentStreamStore store = StreamTestStreamStore.of(txManager, StreamTestTableFactory.of(),
+                () -> ImmutableStreamStorePersistenceConfiguration.builder()
+                        .numParallelWriteTransactions(2)
+                        .numBlocksPerWriteTransaction(2)
+                        .build());
+        storeAndCheckByteStreams(store, getIncompressibleBytes(StreamTestStreamStore.BLOCK_SIZE_IN_BYTES * 4));
+    }
+
     @Test
     public void testStoreHugeToMaxMemStream() throws IOException {
         storeAndCheckByteStreams(maxMemStore, getIncompressibleBytes(20_000_000));
@@ -25,12 +25,16 @@ import static org.hamcrest.Matchers.is;
 import static org.hamcrest.Matchers.not;
 import static org.hamcrest.Matchers.notNullValue;
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertThat;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.spy;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -80,9 +84,12 @@ import com.google.common.collect.ImmutableSortedMap;
 import com.google.common.collect.Iterables;
 import com.google.common.collect.Lists;
 import com.google.common.collect.Multimaps;
+import com.google.common.util.concurrent.ListenableFuture;
 import com.google.common.util.concurrent.MoreExecutors;
+import com.google.common.util.concurrent.SettableFuture;
 import com.palantir.atlasdb.AtlasDbConstants;
 import com.palantir.atlasdb.AtlasDbTestCase;
+import com.palantir.atlasdb.cache.DefaultTimestampCache;
 import com.palantir.atlasdb.cache.TimestampCache;
 import com.palantir.atlasdb.cleaner.NoOpCleaner;
 import com.palantir.atlasdb.encoding.PtBytes;
@@ -94,6 +101,7 @@ import com.palantir.atlasdb.keyvalue.api.KeyValueService;
 import com.palantir.atlasdb.keyvalue.api.RangeRequest;
 import com.palantir.atlasdb.keyvalue.api.RowResult;
 import com.palantir.atlasdb.keyvalue.api.TableReference;
+import com.palantir.atlasdb.keyvalue.api.Value;
 import com.palantir.atlasdb.keyvalue.impl.ForwardingKeyValueService;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.CachePriority;
 import com.palantir.atlasdb.protos.generated.TableMetadataPersistence.SweepStrategy;
@@ -141,7 +149,7 @@ import com.palantir.timestamp.TimestampService;
 
 @SuppressWarnings("checkstyle:all")
 public class SnapshotTransactionTest extends AtlasDbTestCase {
-    protected final TimestampCache timestampCache = new TimestampCache(
+    protected final TimestampCache timestampCache = new DefaultTimestampCache(
             metricsManager.getRegistry(), () -> AtlasDbConstants.DEFAULT_TIMESTAMP_CACHE_SIZE);
     protected final ExecutorService getRangesExecutor = Executors.newFixedThreadPool(8);
     protected final int defaultGetRangesConcurrency = 2;
@@ -1103,6 +1111,84 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
         timelockService.unlock(Collections.singleton(res.getLock()));
     }
 
+    @Test
+    public void pipelinedCommitWritesAreVisibleToLaterTransactions() {
+        final Cell cell = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res =
+                timelockService.lockImmutableTimestamp(IdentifiedTimeLockRequest.create());
+
+        SnapshotTransaction snapshot = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP,
+                true,
+                Optional.of(getRangesExecutor));
+
+        snapshot.put(TABLE, ImmutableMap.of(cell, PtBytes.toBytes("value")));
+        snapshot.commit();
+        timelockService.unlock(Collections.singleton(res.getLock()));
+
+        Transaction readTransaction = txManager.createNewTransaction();
+        assertThat(readTransaction.get(TABLE, ImmutableSet.of(cell)).get(cell),
+                is(PtBytes.toBytes("value")));
+    }
+
+    @Test
+    public void pipelinedCommitThrowsIfLocksExpire() {
+        final Cell cell = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res =
+                timelockService.lockImmutableTimestamp(IdentifiedTimeLockRequest.create());
+
+        SnapshotTransaction snapshot = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP,
+                true,
+                Optional.of(getRangesExecutor));
+
+        snapshot.put(TABLE, ImmutableMap.of(cell, PtBytes.toBytes("value")));
+        timelockService.unlock(ImmutableSet.of(res.getLock()));
+
+        assertThatExceptionOfType(TransactionLockTimeoutException.class).isThrownBy(snapshot::commit);
+    }
+
+    @Test
+    public void pipelinedCommitDoesNotWriteValuesIfTheSweepQueueWriteFails() {
+        final Cell cell = Cell.create(PtBytes.toBytes("row1"), PtBytes.toBytes("column1"));
+        MultiTableSweepQueueWriter failingSweepQueue = mock(MultiTableSweepQueueWriter.class);
+        doThrow(new RuntimeException("Failed to write to the sweep queue"))
+                .when(failingSweepQueue).enqueue(any(), anyLong());
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res =
+                timelockService.lockImmutableTimestamp(IdentifiedTimeLockRequest.create());
+
+        SnapshotTransaction snapshot = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP,
+                true,
+                Optional.of(getRangesExecutor),
+                failingSweepQueue);
+
+        snapshot.put(TABLE, ImmutableMap.of(cell, PtBytes.toBytes("value")));
+        assertThatThrownBy(snapshot::commit).isInstanceOf(RuntimeException.class);
+        timelockService.unlock(Collections.singleton(res.getLock()));
+
+        verify(keyValueService, never()).multiPut(any(), anyLong());
+        assertNull(transactionService.get(transactionTs));
+    }
+
     @Test
     public void validateLocksOnReadsIfThoroughlySwept() {
         keyValueService.createTable(
@@ -1129,6 +1215,30 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             transaction.get(TABLE_SWEPT_THOROUGH, ImmutableSet.of(cellToRead)));
     }
 
+    @Test
+    public void cannotCommitWhileAsyncReadsAreOutstanding() {
+        SettableFuture<Map<Cell, Value>> pendingRead = SettableFuture.create();
+        doReturn(pendingRead).when(keyValueService).getAsync(any(), any());
+
+        TimelockService timelockService = new LegacyTimelockService(timestampService, lockService, lockClient);
+        long transactionTs = timelockService.getFreshTimestamp();
+        LockImmutableTimestampResponse res =
+                timelockService.lockImmutableTimestamp(IdentifiedTimeLockRequest.create());
+        SnapshotTransaction transaction = getSnapshotTransactionWith(
+                timelockService,
+                () -> transactionTs,
+                res,
+                PreCommitConditions.NO_OP);
+
+        ListenableFuture<Map<Cell, byte[]>> read = transaction.getAsync(TABLE, ImmutableSet.of(TEST_CELL));
+        assertThatThrownBy(transaction::commit)
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining("asynchronous reads");
+
+        pendingRead.set(ImmutableMap.of());
+        assertThatThrownBy(read::get).hasCauseInstanceOf(CommittedTransactionException.class);
+    }
+
     @Test
     public void validateLocksOnlyOnCommitIfValidationFlagIsFalse() {
         keyValueService.createTable(
@@ -1173,6 +1283,40 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
             LockImmutableTimestampResponse lockImmutableTimestampResponse,
             PreCommitCondition preCommitCondition,
             boolean validateLocksOnReads) {
+        return getSnapshotTransactionWith(
+                timelockService,
+                startTs,
+                lockImmutableTimestampResponse,
+                preCommitCondition,
+                validateLocksOnReads,
+                Optional.empty());
+    }
+
+    private SnapshotTransaction getSnapshotTransactionWith(
+            TimelockService timelockService,
+            Supplier<Long> startTs,
+            LockImmutableTimestampResponse lockImmutableTimestampResponse,
+            PreCommitCondition preCommitCondition,
+            boolean validateLocksOnReads,
+            Optional<ExecutorService> pipelinedCommitExecutor) {
+        return getSnapshotTransactionWith(
+                timelockService,
+                startTs,
+                lockImmutableTimestampResponse,
+                preCommitCondition,
+                validateLocksOnReads,
+                pipelinedCommitExecutor,
+                MultiTableSweepQueueWriter.NO_OP);
+    }
+
+    private SnapshotTransaction getSnapshotTransactionWith(
+            TimelockService timelockService,
+            Supplier<Long> startTs,
+            LockImmutableTimestampResponse lockImmutableTimestampResponse,
+            PreCommitCondition preCommitCondition,
+            boolean validateLocksOnReads,
+            Optional<ExecutorService> pipelinedCommitExecutor,
+            MultiTableSweepQueueWriter sweepQueueWriter) {
         return new SnapshotTransaction(
                 metricsManager,
                 keyValueService,
@@ -1194,10 +1338,11 @@ public class SnapshotTransactionTest extends AtlasDbTestCase {
                 AtlasDbConstants.DEFAULT_TRANSACTION_LOCK_ACQUIRE_TIMEOUT_MS,
                 getRangesExecutor,
                 defaultGetRangesConcurrency,
-                MultiTableSweepQueueWriter.NO_OP,
+                sweepQueueWriter,
                 MoreExecutors.newDirectExecutorService(),
                 CommitProfileProcessor.createNonLogging(metricsManager),
-                validateLocksOnReads);
+                validateLocksOnReads,
+                pipelinedCommitExecutor);
     }
 
     private void writeCells(TableReference table, ImmutableMap<Cell, byte[]> cellsToWrite) {
@@ -30,6 +30,7 @@ import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import javax.annotation.Nullable;
@@ -88,6 +89,10 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
 
     private final PaxosLeaderElectionEventRecorder eventRecorder;
 
+    private final long leaderLeaseNanos;
+    private final BooleanSupplier clocksAreInSync;
+    private volatile LeaderLease lease = LeaderLease.NONE;
+
     /**
      * @deprecated Use PaxosLeaderElectionServiceBuilder instead.
      */
@@ -104,7 +109,7 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
                                       Supplier<Boolean> onlyLogOnQuorumFailure) {
         this(proposer, knowledge, otherPotentialLeadersToHosts, acceptors, learners, executor,
                 updatePollingWaitInMs, randomWaitBeforeProposingLeadership, leaderPingResponseWaitMs,
-                PaxosLeaderElectionEventRecorder.NO_OP, onlyLogOnQuorumFailure);
+                PaxosLeaderElectionEventRecorder.NO_OP, onlyLogOnQuorumFailure, 0L, () -> false);
     }
 
     PaxosLeaderElectionService(PaxosProposer proposer,
@@ -117,7 +122,9 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
             long randomWaitBeforeProposingLeadership,
             long leaderPingResponseWaitMs,
             PaxosLeaderElectionEventRecorder eventRecorder,
-            Supplier<Boolean> onlyLogOnQuorumFailure) {
+            Supplier<Boolean> onlyLogOnQuorumFailure,
+            long leaderLeaseMs,
+            BooleanSupplier clocksAreInSync) {
         this.proposer = proposer;
         this.knowledge = knowledge;
         // XXX This map uses something that may be proxied as a key! Be very careful if making a new map from this.
@@ -130,6 +137,8 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
         this.leaderPingResponseWaitMs = leaderPingResponseWaitMs;
         lock = new ReentrantLock();
         this.eventRecorder = eventRecorder;
+        this.leaderLeaseNanos = TimeUnit.MILLISECONDS.toNanos(leaderLeaseMs);
+        this.clocksAreInSync = clocksAreInSync;
         this.latestRoundVerifier = new CoalescingPaxosLatestRoundVerifier(
                 new PaxosLatestRoundVerifierImpl(acceptors, proposer.getQuorumSize(), executor,
                         onlyLogOnQuorumFailure));
@@ -432,8 +441,31 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
             return StillLeadingStatus.NOT_LEADING;
         }
 
-        return latestRoundVerifier.isLatestRound(value.getRound())
+        if (holdsLeaseFor(value.getRound())) {
+            return StillLeadingStatus.LEADING;
+        }
+
+        // The lease must start no later than the acceptors' promises, which they make when they answer below.
+        long verificationStartNanos = System.nanoTime();
+        StillLeadingStatus status = latestRoundVerifier.isLatestRound(value.getRound())
                 .toStillLeadingStatus();
+        if (status == StillLeadingStatus.LEADING && leaderLeaseNanos > 0) {
+            lease = new LeaderLease(value.getRound(), verificationStartNanos + leaderLeaseNanos);
+        }
+        return status;
+    }
+
+    /**
+     * A quorum of acceptors have promised not to let another node become leader until after this node's lease
+     * expires, so until then this node knows that it is still leading without asking them again. The lease is not
+     * used while clocks are not known to run at the same rate, since the promises are measured by the acceptors'
+     * clocks.
+     */
+    private boolean holdsLeaseFor(long round) {
+        LeaderLease currentLease = lease;
+        return currentLease.round == round
+                && System.nanoTime() - currentLease.expiryNanos < 0
+                && clocksAreInSync.getAsBoolean();
     }
 
     private boolean isLatestRound(PaxosValue value) {
@@ -505,6 +537,18 @@ public class PaxosLeaderElectionService implements PingableLeader, LeaderElectio
         return learned;
     }
 
+    private static final class LeaderLease {
+        private static final LeaderLease NONE = new LeaderLease(PaxosAcceptor.NO_LOG_ENTRY, System.nanoTime());
+
+        private final long round;
+        private final long expiryNanos;
+
+        LeaderLease(long round, long expiryNanos) {
+            this.round = round;
+            this.expiryNanos = expiryNanos;
+        }
+    }
+
     @Value.Immutable
     interface LeadershipState {
 
@@ -18,6 +18,7 @@ package com.palantir.leader;
 import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ExecutorService;
+import java.util.function.BooleanSupplier;
 import java.util.function.Supplier;
 
 import com.google.common.collect.ImmutableList;
@@ -39,6 +40,8 @@ public class PaxosLeaderElectionServiceBuilder {
     private long leaderPingResponseWaitMs;
     private PaxosLeaderElectionEventRecorder eventRecorder = PaxosLeaderElectionEventRecorder.NO_OP;
     private Supplier<Boolean> onlyLogOnQuorumFailure = () -> true;
+    private long leaderLeaseMs = 0L;
+    private BooleanSupplier clocksAreInSync = () -> true;
 
     public PaxosLeaderElectionServiceBuilder proposer(PaxosProposer proposer) {
         this.proposer = proposer;
@@ -100,6 +103,25 @@ public class PaxosLeaderElectionServiceBuilder {
         return this;
     }
 
+    /**
+     * If positive, this node serves requests as leader for this long after verifying that it is the leader, without
+     * verifying this again. The acceptors must have been wrapped with
+     * {@link com.palantir.paxos.LeaseGrantingPaxosAcceptor} for the same lease duration.
+     */
+    public PaxosLeaderElectionServiceBuilder leaderLeaseMs(long leaderLeaseMs) {
+        this.leaderLeaseMs = leaderLeaseMs;
+        return this;
+    }
+
+    /**
+     * Whether the clocks of the nodes in the cluster are currently known to run at about the same rate; leader leases
+     * are not used while they are not.
+     */
+    public PaxosLeaderElectionServiceBuilder clocksAreInSync(BooleanSupplier clocksAreInSync) {
+        this.clocksAreInSync = clocksAreInSync;
+        return this;
+    }
+
     public PaxosLeaderElectionService build() {
         return new PaxosLeaderElectionService(
                 proposer,
@@ -112,6 +134,8 @@ public class PaxosLeaderElectionServiceBuilder {
                 randomWaitBeforeProposingLeadershipMs,
                 leaderPingResponseWaitMs,
                 eventRecorder,
-                onlyLogOnQuorumFailure);
+                onlyLogOnQuorumFailure,
+                leaderLeaseMs,
+                clocksAreInSync);
     }
 }
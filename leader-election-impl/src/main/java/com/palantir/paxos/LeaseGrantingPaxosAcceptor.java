@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+
+/**
+ * An acceptor that lets the leader serve requests for a while after it has verified that its round is the latest,
+ * without verifying this again.
+ *
+ * Each time the acceptor reports its latest round, it promises not to prepare any later round for
+ * {@link #PROMISE_TO_LEASE_RATIO} times the leader's lease. A leader that has heard from a quorum of acceptors that
+ * its round is the latest thus knows that no other node can become leader until the earliest of these promises
+ * expires, and holds a lease for the configured lease duration from when it started verifying. The promise is longer
+ * than the lease to allow for the clocks of the leader and the acceptors running at different rates.
+ *
+ * Promises are not persisted, so an acceptor promises not to prepare a later round for one promise duration after it
+ * starts, in case it had promised so before it stopped.
+ */
+public final class LeaseGrantingPaxosAcceptor implements PaxosAcceptor {
+    @VisibleForTesting
+    static final int PROMISE_TO_LEASE_RATIO = 2;
+
+    private final PaxosAcceptor delegate;
+    private final long promiseNanos;
+    private final LongSupplier clock;
+
+    private long promisedRound;
+    private long promiseExpiryNanos;
+
+    @VisibleForTesting
+    LeaseGrantingPaxosAcceptor(PaxosAcceptor delegate, long leaderLeaseMillis, LongSupplier clock) {
+        Preconditions.checkArgument(leaderLeaseMillis > 0,
+                "Leader lease must be positive, but was %s ms", leaderLeaseMillis);
+        this.delegate = delegate;
+        this.promiseNanos = TimeUnit.MILLISECONDS.toNanos(leaderLeaseMillis) * PROMISE_TO_LEASE_RATIO;
+        this.clock = clock;
+        this.promisedRound = delegate.getLatestSequencePreparedOrAccepted();
+        this.promiseExpiryNanos = clock.getAsLong() + promiseNanos;
+    }
+
+    public static PaxosAcceptor create(PaxosAcceptor delegate, long leaderLeaseMillis) {
+        return new LeaseGrantingPaxosAcceptor(delegate, leaderLeaseMillis, System::nanoTime);
+    }
+
+    /**
+     * Prepares are serialised with reports of the latest round, so that a round cannot be prepared between the
+     * acceptor reading its latest round and promising not to prepare a later one.
+     */
+    @Override
+    public synchronized PaxosPromise prepare(long seq, PaxosProposalId pid) {
+        if (seq > promisedRound && clock.getAsLong() - promiseExpiryNanos < 0) {
+            return PaxosPromise.reject(pid);
+        }
+        return delegate.prepare(seq, pid);
+    }
+
+    @Override
+    public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+        return delegate.accept(seq, proposal);
+    }
+
+    @Override
+    public synchronized long getLatestSequencePreparedOrAccepted() {
+        long latestRound = delegate.getLatestSequencePreparedOrAccepted();
+        promisedRound = latestRound;
+        promiseExpiryNanos = clock.getAsLong() + promiseNanos;
+        return latestRound;
+    }
+}
@@ -0,0 +1,671 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+
+import javax.annotation.concurrent.GuardedBy;
+
+import org.apache.commons.io.FileUtils;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.google.common.primitives.Ints;
+import com.google.common.primitives.Longs;
+import com.palantir.common.persist.Persistable;
+import com.palantir.logsafe.SafeArg;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.util.crypto.Sha256Hash;
+
+/**
+ * A {@link PaxosStateLog} that appends rounds to preallocated, memory-mapped segment files, rather than writing a
+ * file per round as {@link PaxosStateLogImpl} does.
+ *
+ * An in-memory hash index maps each sequence number to the location of its latest round, and the least and greatest
+ * entries are tracked as rounds are written and truncated, so reading a round or an extreme entry takes constant
+ * time and does not touch the disk. Concurrent writes are group committed: each write returns once its round is
+ * durable, but a single sync of the segment files covers all of the rounds appended before it started.
+ * Truncation appends a record of the truncation, removes the truncated entries from the index, and deletes segment
+ * files once none of their records are live. Segments are only deleted once every other segment has been synced,
+ * so that the records that superseded theirs, including the truncation record, are durable first.
+ *
+ * Each record consists of a magic number, the sequence number, the payload length, a SHA-256 checksum of the
+ * sequence number, length and payload, and then the payload. Records without a payload are checksummed too. The
+ * magic number is written last, and the checksum is verified when segments are recovered, so a record torn by a
+ * crash is discarded along with anything after it.
+ *
+ * On creation, any rounds in the directory that were written by {@link PaxosStateLogImpl} are migrated into
+ * segments, after which their files are deleted. This migration is one way: older versions will not be able to read
+ * a log that has been migrated.
+ */
+public final class SegmentedPaxosStateLog<V extends Persistable & Versionable> implements PaxosStateLog<V> {
+    private static final Logger log = LoggerFactory.getLogger(SegmentedPaxosStateLog.class);
+
+    @VisibleForTesting
+    static final String SEGMENT_FILE_PREFIX = "segment-";
+    private static final int DEFAULT_SEGMENT_SIZE_BYTES = 16 * 1024 * 1024;
+
+    private static final int RECORD_MAGIC = 0x5058534c;
+    // Special payload lengths, for rounds that are known to exist but are not readable, and for truncations.
+    private static final int NO_PAYLOAD = -1;
+    private static final int TRUNCATION = -2;
+    private static final int CHECKSUM_BYTES = 32;
+    private static final int RECORD_HEADER_BYTES = Integer.BYTES + Long.BYTES + Integer.BYTES + CHECKSUM_BYTES;
+
+    private final File directory;
+    private final int segmentSizeBytes;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    @GuardedBy("lock")
+    private final Map<Long, RecordLocation> index = Maps.newHashMap();
+    // The sequence numbers in the index, in order, for truncation.
+    @GuardedBy("lock")
+    private final NavigableSet<Long> sequenceNumbers = Sets.newTreeSet();
+    @GuardedBy("lock")
+    private long leastLogEntry = PaxosAcceptor.NO_LOG_ENTRY;
+    @GuardedBy("lock")
+    private long greatestLogEntry = PaxosAcceptor.NO_LOG_ENTRY;
+    @GuardedBy("lock")
+    private final Map<Long, Long> seqToVersionMap = Maps.newHashMap();
+    @GuardedBy("lock")
+    private final NavigableMap<Long, Segment> segmentsById = Maps.newTreeMap();
+    @GuardedBy("lock")
+    private final Set<Segment> segmentsToSync = Sets.newHashSet();
+    @GuardedBy("lock")
+    private Segment activeSegment;
+    @GuardedBy("lock")
+    private RecordLocation truncationRecord = null;
+    @GuardedBy("lock")
+    private long appendedRecords = 0;
+
+    private final Object syncLock = new Object();
+    @GuardedBy("syncLock")
+    private long syncedRecords = 0;
+
+    private SegmentedPaxosStateLog(File directory, int segmentSizeBytes) {
+        this.directory = directory;
+        this.segmentSizeBytes = segmentSizeBytes;
+    }
+
+    public static <V extends Persistable & Versionable> SegmentedPaxosStateLog<V> create(String path) {
+        return create(path, DEFAULT_SEGMENT_SIZE_BYTES);
+    }
+
+    @VisibleForTesting
+    static <V extends Persistable & Versionable> SegmentedPaxosStateLog<V> create(String path, int segmentSizeBytes) {
+        SegmentedPaxosStateLog<V> stateLog = new SegmentedPaxosStateLog<>(new File(path), segmentSizeBytes);
+        try {
+            FileUtils.forceMkdir(stateLog.directory);
+            stateLog.initialize();
+        } catch (IOException e) {
+            throw new RuntimeException("IO problem related to the path " + stateLog.directory.getAbsolutePath(), e);
+        }
+        return stateLog;
+    }
+
+    private void initialize() throws IOException {
+        lock.lock();
+        try {
+            recoverSegments();
+            migrateLegacyLog();
+            if (index.isEmpty()) {
+                // As in PaxosStateLogImpl, a brand new log has a lowest entry, so that #getLeastLogEntry is correct.
+                append(PaxosAcceptor.NO_LOG_ENTRY, null);
+            }
+            syncAppendedSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void writeRound(long seq, V round) {
+        byte[] bytes = round.persistToBytes();
+        long record;
+
+        lock.lock();
+        try {
+            // reject old state
+            Long latestVersion = seqToVersionMap.get(seq);
+            if (latestVersion != null && round.getVersion() < latestVersion) {
+                return;
+            }
+
+            record = append(seq, bytes);
+            seqToVersionMap.put(seq, round.getVersion());
+        } finally {
+            lock.unlock();
+        }
+
+        awaitSync(record);
+    }
+
+    @Override
+    public byte[] readRound(long seq) throws IOException {
+        lock.lock();
+        try {
+            RecordLocation location = index.get(seq);
+            if (location == null) {
+                return null;
+            }
+            byte[] bytes = location.segment.readPayload(location.offset);
+            if (bytes == null) {
+                throw new CorruptLogFileException();
+            }
+            return bytes;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getLeastLogEntry() {
+        lock.lock();
+        try {
+            return leastLogEntry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public long getGreatestLogEntry() {
+        lock.lock();
+        try {
+            return greatestLogEntry;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void truncate(long toDeleteInclusive) {
+        lock.lock();
+        try {
+            // We never want to remove our most recent entry
+            long upperBoundInclusive = index.isEmpty() || greatestLogEntry < 0
+                    ? toDeleteInclusive
+                    : Math.min(greatestLogEntry - 1, toDeleteInclusive);
+
+            if (index.isEmpty() || leastLogEntry > upperBoundInclusive) {
+                return;
+            }
+
+            // The truncation is recorded in the log, since earlier segments that are still live may contain
+            // records that it truncated. It need not be synced before we return, as if it is lost those records are
+            // merely retained, but deleteDeadSegments syncs it before deleting any segment that it made dead.
+            appendRecord(upperBoundInclusive, TRUNCATION, null);
+            deleteDeadSegments();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @GuardedBy("lock")
+    private void applyRecord(long seq, int length, RecordLocation location) {
+        if (length == TRUNCATION) {
+            Iterator<Long> truncated = sequenceNumbers.headSet(seq, true).iterator();
+            while (truncated.hasNext()) {
+                long truncatedSeq = truncated.next();
+                index.remove(truncatedSeq).segment.liveRecords--;
+                seqToVersionMap.remove(truncatedSeq);
+                truncated.remove();
+            }
+            if (sequenceNumbers.isEmpty()) {
+                leastLogEntry = PaxosAcceptor.NO_LOG_ENTRY;
+                greatestLogEntry = PaxosAcceptor.NO_LOG_ENTRY;
+            } else {
+                leastLogEntry = sequenceNumbers.first();
+            }
+            // The latest truncation record is live, so that the truncated records are not resurrected on recovery.
+            if (truncationRecord != null) {
+                truncationRecord.segment.liveRecords--;
+            }
+            truncationRecord = location;
+        } else {
+            RecordLocation previous = index.put(seq, location);
+            if (previous != null) {
+                previous.segment.liveRecords--;
+            } else {
+                sequenceNumbers.add(seq);
+                leastLogEntry = sequenceNumbers.first();
+                greatestLogEntry = sequenceNumbers.last();
+            }
+        }
+        location.segment.liveRecords++;
+    }
+
+    @GuardedBy("lock")
+    private void deleteDeadSegments() {
+        List<Segment> deadSegments = Lists.newArrayList();
+        Iterator<Segment> segments = segmentsById.values().iterator();
+        while (segments.hasNext()) {
+            Segment segment = segments.next();
+            if (segment != activeSegment && segment.liveRecords == 0) {
+                segments.remove();
+                segmentsToSync.remove(segment);
+                deadSegments.add(segment);
+            }
+        }
+        if (deadSegments.isEmpty()) {
+            return;
+        }
+
+        // The records that made these segments dead may not have been synced yet, and must not be lost with them.
+        for (Segment segment : segmentsById.values()) {
+            segment.force();
+        }
+        for (Segment segment : deadSegments) {
+            segment.close();
+            if (!segment.file.delete()) {
+                log.warn("failed to delete log segment {}", UnsafeArg.of("path", segment.file.getAbsolutePath()));
+            }
+        }
+        syncDirectory();
+    }
+
+    /**
+     * Makes the creation and deletion of segment files durable, which syncing the files themselves does not.
+     */
+    private void syncDirectory() {
+        try (FileChannel channel = FileChannel.open(directory.toPath(), StandardOpenOption.READ)) {
+            channel.force(true);
+        } catch (IOException e) {
+            // Some platforms, such as Windows, do not allow directories to be opened or synced.
+            log.warn("failed to sync the paxos log directory {}", UnsafeArg.of("path", directory.getAbsolutePath()), e);
+        }
+    }
+
+    /**
+     * Appends a round, and returns its position in the order of appended records, which may be passed to
+     * {@link #awaitSync(long)}. A null payload records that the sequence number exists, but has no readable round.
+     */
+    @GuardedBy("lock")
+    private long append(long seq, byte[] payload) {
+        return appendRecord(seq, payload == null ? NO_PAYLOAD : payload.length, payload);
+    }
+
+    @GuardedBy("lock")
+    private long appendRecord(long seq, int length, byte[] payload) {
+        int recordBytes = RECORD_HEADER_BYTES + Math.max(0, length);
+        if (activeSegment == null || activeSegment.remaining() < recordBytes) {
+            rollSegment(recordBytes);
+        }
+
+        int offset = activeSegment.append(seq, length, payload);
+        applyRecord(seq, length, new RecordLocation(activeSegment, offset));
+        segmentsToSync.add(activeSegment);
+        return ++appendedRecords;
+    }
+
+    @GuardedBy("lock")
+    private void rollSegment(int minimumSizeBytes) {
+        long id = segmentsById.isEmpty() ? 0 : segmentsById.lastKey() + 1;
+        File file = new File(directory, getFilenameFromSegmentId(id));
+        try {
+            activeSegment = Segment.create(file, id, Math.max(segmentSizeBytes, minimumSizeBytes));
+        } catch (IOException e) {
+            log.error("problem creating paxos log segment", e);
+            throw new RuntimeException("Could not create log segment " + file.getAbsolutePath(), e);
+        }
+        segmentsById.put(id, activeSegment);
+        syncDirectory();
+        deleteDeadSegments();
+    }
+
+    /**
+     * Waits until the given record is durable. The first thread to get here syncs every segment written to since
+     * the last sync, and so makes durable every record appended before it started, on behalf of all of their writers.
+     */
+    private void awaitSync(long record) {
+        synchronized (syncLock) {
+            if (syncedRecords >= record) {
+                return;
+            }
+
+            long target;
+            List<Segment> toSync;
+            lock.lock();
+            try {
+                target = appendedRecords;
+                toSync = Lists.newArrayList(segmentsToSync);
+                segmentsToSync.clear();
+            } finally {
+                lock.unlock();
+            }
+
+            for (Segment segment : toSync) {
+                segment.force();
+            }
+            syncedRecords = target;
+        }
+    }
+
+    /**
+     * Only for use during initialization, when there are no concurrent writers to group commit with.
+     */
+    @GuardedBy("lock")
+    private void syncAppendedSegments() {
+        for (Segment segment : segmentsToSync) {
+            segment.force();
+        }
+        segmentsToSync.clear();
+    }
+
+    @GuardedBy("lock")
+    private void recoverSegments() throws IOException {
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Could not list files in " + directory.getAbsolutePath());
+        }
+
+        for (File file : files) {
+            String name = file.getName();
+            if (!name.startsWith(SEGMENT_FILE_PREFIX)) {
+                continue;
+            }
+            long id;
+            try {
+                id = Long.parseLong(name.substring(SEGMENT_FILE_PREFIX.length()));
+            } catch (NumberFormatException e) {
+                continue;
+            }
+            segmentsById.put(id, Segment.open(file, id));
+        }
+
+        for (Segment segment : segmentsById.values()) {
+            boolean isLastSegment = segment.id == segmentsById.lastKey();
+            segment.recover(isLastSegment,
+                    (seq, length, offset) -> applyRecord(seq, length, new RecordLocation(segment, offset)));
+        }
+
+        if (!segmentsById.isEmpty()) {
+            activeSegment = segmentsById.lastEntry().getValue();
+        }
+        deleteDeadSegments();
+    }
+
+    /**
+     * Appends any rounds stored in the one-file-per-round layout of {@link PaxosStateLogImpl}, syncs them, and only
+     * then deletes their files. If we crash part way through, the remaining files are migrated again on restart,
+     * which is safe because no new rounds are written until migration has finished.
+     */
+    @GuardedBy("lock")
+    private void migrateLegacyLog() throws IOException {
+        NavigableMap<Long, File> legacyFiles = Maps.newTreeMap();
+        File[] files = directory.listFiles();
+        if (files == null) {
+            throw new IOException("Could not list files in " + directory.getAbsolutePath());
+        }
+        for (File file : files) {
+            try {
+                legacyFiles.put(Long.parseLong(file.getName()), file);
+            } catch (NumberFormatException e) {
+                // not a legacy round
+            }
+        }
+        if (legacyFiles.isEmpty()) {
+            return;
+        }
+
+        log.info("Migrating {} paxos rounds from the legacy log layout in {}",
+                SafeArg.of("numRounds", legacyFiles.size()),
+                UnsafeArg.of("path", directory.getAbsolutePath()));
+        PaxosStateLogImpl<V> legacyLog = new PaxosStateLogImpl<>(directory.getPath());
+        for (long seq : legacyFiles.keySet()) {
+            byte[] bytes;
+            try {
+                bytes = legacyLog.readRound(seq);
+            } catch (IOException | RuntimeException e) {
+                log.warn("Could not read legacy paxos round {}; recording it as corrupt",
+                        SafeArg.of("seq", seq), e);
+                bytes = null;
+            }
+            append(seq, bytes);
+        }
+
+        syncAppendedSegments();
+
+        for (File file : legacyFiles.values()) {
+            if (!file.delete()) {
+                log.warn("failed to delete legacy log file {}", UnsafeArg.of("path", file.getAbsolutePath()));
+            }
+        }
+        for (File file : files) {
+            if (file.getName().endsWith(".tmp")) {
+                file.delete();
+            }
+        }
+    }
+
+    private static String getFilenameFromSegmentId(long id) {
+        return SEGMENT_FILE_PREFIX + String.format("%019d", id);
+    }
+
+    private static byte[] checksum(long seq, int length, byte[] payload) {
+        MessageDigest digest = Sha256Hash.getMessageDigest();
+        digest.update(Longs.toByteArray(seq));
+        digest.update(Ints.toByteArray(length));
+        digest.update(payload);
+        return Sha256Hash.createFrom(digest).getBytes();
+    }
+
+    private static final class RecordLocation {
+        private final Segment segment;
+        private final int offset;
+
+        RecordLocation(Segment segment, int offset) {
+            this.segment = segment;
+            this.offset = offset;
+        }
+    }
+
+    private interface RecordVisitor {
+        void visit(long seq, int length, int offset);
+    }
+
+    /**
+     * A preallocated, memory-mapped segment file. All access is guarded by the lock of the enclosing log, except
+     * for {@link #force()}, which is safe to call concurrently with appends and with {@link #close()}.
+     */
+    private static final class Segment {
+        private final long id;
+        private final File file;
+        private final MappedByteBuffer buffer;
+
+        private int writeOffset = 0;
+        private int liveRecords = 0;
+        @GuardedBy("this")
+        private boolean closed = false;
+
+        private Segment(long id, File file, MappedByteBuffer buffer) {
+            this.id = id;
+            this.file = file;
+            this.buffer = buffer;
+        }
+
+        static Segment create(File file, long id, int sizeBytes) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                raf.setLength(sizeBytes);
+                Segment segment = new Segment(id, file, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0,
+                        sizeBytes));
+                // Make sure that the new file itself is durable, not just its contents.
+                raf.getFD().sync();
+                return segment;
+            }
+        }
+
+        static Segment open(File file, long id) throws IOException {
+            try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+                return new Segment(id, file, raf.getChannel().map(FileChannel.MapMode.READ_WRITE, 0, raf.length()));
+            }
+        }
+
+        int remaining() {
+            return buffer.capacity() - writeOffset;
+        }
+
+        int append(long seq, int length, byte[] payload) {
+            int offset = writeOffset;
+            ByteBuffer record = buffer.duplicate();
+            record.position(offset + Integer.BYTES);
+            record.putLong(seq);
+            record.putInt(length);
+            record.put(checksum(seq, length, payload == null ? new byte[0] : payload));
+            if (payload != null) {
+                record.put(payload);
+            }
+            int end = record.position();
+            // The magic number goes last, so that a record is never visible before it is complete.
+            buffer.putInt(offset, RECORD_MAGIC);
+            writeOffset = end;
+            return offset;
+        }
+
+        /**
+         * Returns the payload of the record at the given offset, or null if it has none or is corrupt.
+         */
+        byte[] readPayload(int offset) {
+            return lengthAt(offset) < 0 ? null : readVerifiedPayload(offset);
+        }
+
+        /**
+         * Returns the payload of the record at the given offset, which is empty if it has none, or null if the
+         * record does not match its checksum.
+         */
+        private byte[] readVerifiedPayload(int offset) {
+            ByteBuffer record = buffer.duplicate();
+            record.position(offset + Integer.BYTES);
+            long seq = record.getLong();
+            int length = record.getInt();
+            byte[] checksum = new byte[CHECKSUM_BYTES];
+            record.get(checksum);
+            byte[] payload = new byte[Math.max(0, length)];
+            record.get(payload);
+            return Arrays.equals(checksum, checksum(seq, length, payload)) ? payload : null;
+        }
+
+        /**
+         * Visits each valid record in order, and positions this segment to append after the last of them.
+         *
+         * If this is the last segment, which will be appended to, anything after the last valid record (such as a
+         * torn write, or unacknowledged writes after it) is zeroed, so that it cannot be mistaken for a record once
+         * new records are appended in its place.
+         */
+        void recover(boolean isLastSegment, RecordVisitor visitor) {
+            int offset = 0;
+            while (isValidRecordAt(offset)) {
+                visitor.visit(buffer.getLong(offset + Integer.BYTES), lengthAt(offset), offset);
+                offset += recordSizeAt(offset);
+            }
+            writeOffset = offset;
+
+            if (!isLastSegment) {
+                return;
+            }
+            boolean discardedBytes = false;
+            for (int i = offset; i < buffer.capacity(); i++) {
+                if (buffer.get(i) != 0) {
+                    buffer.put(i, (byte) 0);
+                    discardedBytes = true;
+                }
+            }
+            if (discardedBytes) {
+                log.warn("Discarded torn or corrupt records at the end of paxos log segment {}",
+                        SafeArg.of("segmentId", id));
+                force();
+            }
+        }
+
+        private boolean isValidRecordAt(int offset) {
+            if (offset + RECORD_HEADER_BYTES > buffer.capacity() || buffer.getInt(offset) != RECORD_MAGIC) {
+                return false;
+            }
+            int length = lengthAt(offset);
+            if (length < 0 && length != NO_PAYLOAD && length != TRUNCATION) {
+                return false;
+            }
+            return length <= buffer.capacity() - offset - RECORD_HEADER_BYTES
+                    && readVerifiedPayload(offset) != null;
+        }
+
+        private int recordSizeAt(int offset) {
+            return RECORD_HEADER_BYTES + Math.max(0, lengthAt(offset));
+        }
+
+        private int lengthAt(int offset) {
+            return buffer.getInt(offset + Integer.BYTES + Long.BYTES);
+        }
+
+        synchronized void force() {
+            if (!closed) {
+                buffer.force();
+            }
+        }
+
+        /**
+         * Unmaps this segment, so that the space of its file is freed as soon as it is deleted, rather than once its
+         * buffer is garbage collected. The segment must not be used afterwards.
+         */
+        synchronized void close() {
+            closed = true;
+            unmap(buffer);
+        }
+
+        private static void unmap(MappedByteBuffer buffer) {
+            try {
+                Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+                Method invokeCleaner;
+                try {
+                    invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+                } catch (NoSuchMethodException e) {
+                    // Java 8, where the buffer's cleaner is accessible instead.
+                    Method cleaner = buffer.getClass().getMethod("cleaner");
+                    cleaner.setAccessible(true);
+                    Object bufferCleaner = cleaner.invoke(buffer);
+                    bufferCleaner.getClass().getMethod("clean").invoke(bufferCleaner);
+                    return;
+                }
+                Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+                theUnsafe.setAccessible(true);
+                invokeCleaner.invoke(theUnsafe.get(null), buffer);
+            } catch (ReflectiveOperationException | RuntimeException e) {
+                log.debug("Could not unmap a paxos log segment; it will be unmapped when garbage collected", e);
+            }
+        }
+    }
+}
@@ -18,18 +18,33 @@ package com.palantir.leader;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
 
+import java.util.UUID;
 import java.util.concurrent.Executors;
+import java.util.function.BooleanSupplier;
 
 import org.junit.Test;
 
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
 import com.google.common.net.HostAndPort;
+import com.palantir.leader.LeaderElectionService.StillLeadingStatus;
+import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosProposer;
+import com.palantir.paxos.PaxosValue;
 
 public class PaxosLeaderElectionServiceTest {
+    private static final String LEADER_UUID = UUID.randomUUID().toString();
+    private static final PaxosValue LEADING_VALUE = new PaxosValue(LEADER_UUID, 3L, null);
+
+    private final PaxosProposer proposer = mock(PaxosProposer.class);
+    private final PaxosLearner knowledge = mock(PaxosLearner.class);
+    private final PaxosAcceptor acceptor = mock(PaxosAcceptor.class);
+
     @Test
     public void weAreOneOfThePotentialLeaders() throws Exception {
         PingableLeader other = mock(PingableLeader.class);
@@ -50,4 +65,55 @@ public class PaxosLeaderElectionServiceTest {
         assertThat(service.getPotentialLeaders()).containsExactlyInAnyOrder(other, service);
     }
 
+    @Test
+    public void verifiesLeadershipForEveryRequestWithoutALease() {
+        PaxosLeaderElectionService service = createLeaderWithLease(0L, () -> true);
+
+        assertThat(service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE)))
+                .isEqualTo(StillLeadingStatus.LEADING);
+        assertThat(service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE)))
+                .isEqualTo(StillLeadingStatus.LEADING);
+        verify(acceptor, times(2)).getLatestSequencePreparedOrAccepted();
+    }
+
+    @Test
+    public void doesNotVerifyLeadershipAgainWhileHoldingALease() {
+        PaxosLeaderElectionService service = createLeaderWithLease(60_000L, () -> true);
+
+        assertThat(service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE)))
+                .isEqualTo(StillLeadingStatus.LEADING);
+        assertThat(service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE)))
+                .isEqualTo(StillLeadingStatus.LEADING);
+        verify(acceptor, times(1)).getLatestSequencePreparedOrAccepted();
+    }
+
+    @Test
+    public void verifiesLeadershipForEveryRequestWhileClocksAreNotInSync() {
+        PaxosLeaderElectionService service = createLeaderWithLease(60_000L, () -> false);
+
+        service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE));
+        service.isStillLeading(new PaxosLeadershipToken(LEADING_VALUE));
+        verify(acceptor, times(2)).getLatestSequencePreparedOrAccepted();
+    }
+
+    private PaxosLeaderElectionService createLeaderWithLease(long leaderLeaseMs, BooleanSupplier clocksAreInSync) {
+        when(proposer.getUuid()).thenReturn(LEADER_UUID);
+        when(proposer.getQuorumSize()).thenReturn(1);
+        when(knowledge.getGreatestLearnedValue()).thenReturn(LEADING_VALUE);
+        when(acceptor.getLatestSequencePreparedOrAccepted()).thenReturn(LEADING_VALUE.getRound());
+
+        return new PaxosLeaderElectionServiceBuilder()
+                .proposer(proposer)
+                .knowledge(knowledge)
+                .potentialLeadersToHosts(ImmutableMap.of())
+                .acceptors(ImmutableList.of(acceptor))
+                .learners(ImmutableList.of())
+                .executor(Executors.newCachedThreadPool())
+                .pingRateMs(0L)
+                .randomWaitBeforeProposingLeadershipMs(0L)
+                .leaderPingResponseWaitMs(0L)
+                .leaderLeaseMs(leaderLeaseMs)
+                .clocksAreInSync(clocksAreInSync)
+                .build();
+    }
 }
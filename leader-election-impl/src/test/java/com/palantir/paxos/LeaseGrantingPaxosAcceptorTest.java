@@ -0,0 +1,91 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Before;
+import org.junit.Test;
+
+public class LeaseGrantingPaxosAcceptorTest {
+    private static final long LEASE_MILLIS = 100L;
+    private static final long PROMISE_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(LEASE_MILLIS) * LeaseGrantingPaxosAcceptor.PROMISE_TO_LEASE_RATIO;
+    private static final long LATEST_ROUND = 5L;
+    private static final PaxosProposalId PROPOSAL_ID = new PaxosProposalId(1L, UUID.randomUUID().toString());
+    private static final PaxosPromise DELEGATE_PROMISE = PaxosPromise.accept(PROPOSAL_ID, null, null);
+
+    private final PaxosAcceptor delegate = mock(PaxosAcceptor.class);
+
+    private long time = 0L;
+    private LeaseGrantingPaxosAcceptor acceptor;
+
+    @Before
+    public void setUp() {
+        when(delegate.getLatestSequencePreparedOrAccepted()).thenReturn(LATEST_ROUND);
+        when(delegate.prepare(anyLong(), any())).thenReturn(DELEGATE_PROMISE);
+        acceptor = new LeaseGrantingPaxosAcceptor(delegate, LEASE_MILLIS, () -> time);
+    }
+
+    @Test
+    public void rejectsLaterRoundsWhilePromised() {
+        acceptor.getLatestSequencePreparedOrAccepted();
+
+        assertThat(acceptor.prepare(LATEST_ROUND + 1, PROPOSAL_ID).isSuccessful()).isFalse();
+        verify(delegate, never()).prepare(anyLong(), any());
+    }
+
+    @Test
+    public void preparesThePromisedRound() {
+        acceptor.getLatestSequencePreparedOrAccepted();
+
+        assertThat(acceptor.prepare(LATEST_ROUND, PROPOSAL_ID)).isEqualTo(DELEGATE_PROMISE);
+    }
+
+    @Test
+    public void preparesLaterRoundsOncePromiseExpires() {
+        acceptor.getLatestSequencePreparedOrAccepted();
+        time += PROMISE_NANOS;
+
+        assertThat(acceptor.prepare(LATEST_ROUND + 1, PROPOSAL_ID)).isEqualTo(DELEGATE_PROMISE);
+    }
+
+    @Test
+    public void reportingTheLatestRoundExtendsThePromise() {
+        time += PROMISE_NANOS - 1;
+        acceptor.getLatestSequencePreparedOrAccepted();
+        time += PROMISE_NANOS - 1;
+
+        assertThat(acceptor.prepare(LATEST_ROUND + 1, PROPOSAL_ID).isSuccessful()).isFalse();
+    }
+
+    @Test
+    public void promisesNotToPrepareLaterRoundsOnStartup() {
+        assertThat(acceptor.prepare(LATEST_ROUND + 1, PROPOSAL_ID).isSuccessful()).isFalse();
+
+        time += PROMISE_NANOS;
+        assertThat(acceptor.prepare(LATEST_ROUND + 1, PROPOSAL_ID)).isEqualTo(DELEGATE_PROMISE);
+    }
+}
@@ -0,0 +1,250 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+public class SegmentedPaxosStateLogTest {
+    private static final int SEGMENT_SIZE_BYTES = 1024;
+
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(8);
+    private String path;
+
+    @Before
+    public void setUp() throws IOException {
+        path = folder.newFolder().getPath();
+    }
+
+    @After
+    public void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    public void newLogHasNoLogEntryAsLeastAndGreatest() {
+        PaxosStateLog<PaxosValue> log = createLog();
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+    }
+
+    @Test
+    public void canReadWrittenRounds() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        log.writeRound(1, value(1));
+        log.writeRound(2, value(2));
+
+        assertThat(log.readRound(1)).isEqualTo(value(1).persistToBytes());
+        assertThat(log.readRound(2)).isEqualTo(value(2).persistToBytes());
+        assertThat(log.readRound(3)).isNull();
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(2L);
+    }
+
+    @Test
+    public void doesNotOverwriteRoundsWithOlderVersions() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        log.writeRound(1, new PaxosValue("leader", 1, new byte[] {1}));
+        log.writeRound(1, new PaxosValue("leader", 2, new byte[] {2}));
+        log.writeRound(1, new PaxosValue("leader", 1, new byte[] {3}));
+
+        assertThat(PaxosValue.BYTES_HYDRATOR.hydrateFromBytes(log.readRound(1)).getData()).containsExactly(2);
+    }
+
+    @Test
+    public void roundsSurviveRestart() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        for (int seq = 0; seq < 100; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+
+        PaxosStateLog<PaxosValue> reopened = createLog();
+        assertThat(reopened.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(reopened.getGreatestLogEntry()).isEqualTo(99L);
+        for (int seq = 0; seq < 100; seq++) {
+            assertThat(reopened.readRound(seq)).isEqualTo(value(seq).persistToBytes());
+        }
+    }
+
+    @Test
+    public void concurrentWritesAreAllPersisted() throws Exception {
+        PaxosStateLog<PaxosValue> log = createLog();
+        List<Future<?>> futures = IntStream.range(0, 500)
+                .mapToObj(seq -> executor.submit(() -> log.writeRound(seq, value(seq))))
+                .collect(Collectors.toList());
+        for (Future<?> future : futures) {
+            future.get();
+        }
+
+        PaxosStateLog<PaxosValue> reopened = createLog();
+        for (int seq = 0; seq < 500; seq++) {
+            assertThat(reopened.readRound(seq)).isEqualTo(value(seq).persistToBytes());
+        }
+    }
+
+    @Test
+    public void truncateRemovesRoundsAndSegments() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        for (int seq = 0; seq < 100; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+        int segmentsBeforeTruncation = numSegments();
+
+        log.truncate(89);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(90L);
+        assertThat(log.readRound(50)).isNull();
+        assertThat(numSegments()).isLessThan(segmentsBeforeTruncation);
+    }
+
+    @Test
+    public void truncationSurvivesRestart() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        for (int seq = 0; seq < 100; seq++) {
+            log.writeRound(seq, value(seq));
+        }
+        // Rewrite an old round in the latest segment, so that its segment is not deleted on truncation.
+        log.writeRound(5, new PaxosValue("leader", 5, new byte[] {5}));
+        log.truncate(89);
+
+        PaxosStateLog<PaxosValue> reopened = createLog();
+        assertThat(reopened.getLeastLogEntry()).isEqualTo(90L);
+        assertThat(reopened.readRound(5)).isNull();
+    }
+
+    @Test
+    public void truncateNeverRemovesGreatestRound() {
+        PaxosStateLog<PaxosValue> log = createLog();
+        log.writeRound(1, value(1));
+        log.writeRound(2, value(2));
+
+        log.truncate(5);
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(2L);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(2L);
+    }
+
+    @Test
+    public void migratesLegacyLog() throws IOException {
+        PaxosStateLog<PaxosValue> legacyLog = new PaxosStateLogImpl<>(path);
+        legacyLog.writeRound(1, value(1));
+        legacyLog.writeRound(2, value(2));
+
+        PaxosStateLog<PaxosValue> log = createLog();
+
+        assertThat(log.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(log.getGreatestLogEntry()).isEqualTo(2L);
+        assertThat(log.readRound(1)).isEqualTo(value(1).persistToBytes());
+        assertThat(log.readRound(2)).isEqualTo(value(2).persistToBytes());
+        for (String name : new File(path).list()) {
+            assertThat(name).startsWith(SegmentedPaxosStateLog.SEGMENT_FILE_PREFIX);
+        }
+    }
+
+    @Test
+    public void discardsTornWritesOnRecovery() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        log.writeRound(1, value(1));
+        log.writeRound(2, value(2));
+        corruptLastByteOfLastRecord();
+
+        PaxosStateLog<PaxosValue> reopened = createLog();
+        assertThat(reopened.getGreatestLogEntry()).isEqualTo(1L);
+
+        reopened.writeRound(3, value(3));
+        PaxosStateLog<PaxosValue> reopenedAgain = createLog();
+        assertThat(reopenedAgain.getGreatestLogEntry()).isEqualTo(3L);
+        assertThat(reopenedAgain.readRound(2)).isNull();
+        assertThat(reopenedAgain.readRound(3)).isEqualTo(value(3).persistToBytes());
+    }
+
+    @Test
+    public void discardsCorruptTruncationRecordsOnRecovery() throws IOException {
+        PaxosStateLog<PaxosValue> log = createLog();
+        log.writeRound(1, value(1));
+        log.writeRound(2, value(2));
+        log.writeRound(3, value(3));
+        log.truncate(2);
+        corruptLastByteOfLastRecord();
+
+        PaxosStateLog<PaxosValue> reopened = createLog();
+        assertThat(reopened.getLeastLogEntry()).isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThat(reopened.readRound(1)).isEqualTo(value(1).persistToBytes());
+    }
+
+    @Test
+    public void readingCorruptLegacyRoundThrows() throws IOException {
+        new PaxosStateLogImpl<PaxosValue>(path);
+
+        PaxosStateLog<PaxosValue> log = createLog();
+
+        assertThatThrownBy(() -> log.readRound(PaxosAcceptor.NO_LOG_ENTRY))
+                .isInstanceOf(PaxosStateLog.CorruptLogFileException.class);
+    }
+
+    private SegmentedPaxosStateLog<PaxosValue> createLog() {
+        return SegmentedPaxosStateLog.create(path, SEGMENT_SIZE_BYTES);
+    }
+
+    private int numSegments() {
+        return new File(path).list().length;
+    }
+
+    private void corruptLastByteOfLastRecord() throws IOException {
+        File lastSegment = new File(path).listFiles()[0];
+        for (File file : new File(path).listFiles()) {
+            if (file.getName().compareTo(lastSegment.getName()) > 0) {
+                lastSegment = file;
+            }
+        }
+        try (RandomAccessFile file = new RandomAccessFile(lastSegment, "rw")) {
+            long offset = file.length() - 1;
+            while (offset > 0) {
+                file.seek(offset);
+                if (file.read() != 0) {
+                    break;
+                }
+                offset--;
+            }
+            file.seek(offset);
+            file.write(0xff);
+        }
+    }
+
+    private static PaxosValue value(int seq) {
+        return new PaxosValue("leader", seq, new byte[] {(byte) seq, 1, 2, 3});
+    }
+}
@@ -77,6 +77,13 @@ public class LockRefresher implements AutoCloseable {
         tokensToRefresh.removeAll(tokens);
     }
 
+    /**
+     * Returns whether the given lock is still being refreshed, i.e. it is registered and has not failed to refresh.
+     */
+    public boolean isRegistered(LockToken token) {
+        return tokensToRefresh.contains(token);
+    }
+
     @Override
     public void close() {
         executor.shutdown();
@@ -18,12 +18,16 @@ package com.palantir.lock.client;
 
 import java.net.ConnectException;
 import java.net.UnknownHostException;
+import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Sets;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.common.base.Throwables;
 import com.palantir.common.concurrent.PTExecutors;
@@ -33,6 +37,7 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
@@ -46,11 +51,24 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
     private final TimelockService delegate;
     private final LockRefresher lockRefresher;
     private final TimeLockUnlocker unlocker;
+    private final Supplier<Boolean> batchTransactionStarts;
+    private final TransactionStartCoalescer transactionStartCoalescer;
 
     public static TimeLockClient createDefault(TimelockService timelockService) {
+        return createDefault(timelockService, () -> false);
+    }
+
+    /**
+     * Creates a client that, while batchTransactionStarts returns true, coalesces concurrent calls to
+     * {@link #startAtlasDbTransaction(IdentifiedTimeLockRequest)} into batches. See
+     * {@link TransactionStartCoalescer}.
+     */
+    public static TimeLockClient createDefault(TimelockService timelockService,
+            Supplier<Boolean> batchTransactionStarts) {
         ExecutorService asyncUnlockExecutor = createSingleThreadScheduledExecutor("async-unlock");
         AsyncTimeLockUnlocker asyncUnlocker = new AsyncTimeLockUnlocker(timelockService, asyncUnlockExecutor);
-        return new TimeLockClient(timelockService, createLockRefresher(timelockService), asyncUnlocker);
+        return new TimeLockClient(
+                timelockService, createLockRefresher(timelockService), asyncUnlocker, batchTransactionStarts);
     }
 
     public static TimeLockClient withSynchronousUnlocker(TimelockService timelockService) {
@@ -59,9 +77,18 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
 
     @VisibleForTesting
     TimeLockClient(TimelockService delegate, LockRefresher lockRefresher, TimeLockUnlocker unlocker) {
+        this(delegate, lockRefresher, unlocker, () -> false);
+    }
+
+    @VisibleForTesting
+    TimeLockClient(TimelockService delegate, LockRefresher lockRefresher, TimeLockUnlocker unlocker,
+            Supplier<Boolean> batchTransactionStarts) {
         this.delegate = delegate;
         this.lockRefresher = lockRefresher;
         this.unlocker = unlocker;
+        this.batchTransactionStarts = batchTransactionStarts;
+        this.transactionStartCoalescer = new TransactionStartCoalescer(
+                delegate, lockRefresher, TransactionStartCoalescer.DEFAULT_MAX_BATCH_SIZE);
     }
 
     @Override
@@ -88,11 +115,23 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
 
     @Override
     public StartAtlasDbTransactionResponse startAtlasDbTransaction(IdentifiedTimeLockRequest request) {
+        if (batchTransactionStarts.get()) {
+            return executeOnTimeLock(transactionStartCoalescer::startAtlasDbTransaction);
+        }
         StartAtlasDbTransactionResponse response = executeOnTimeLock(() -> delegate.startAtlasDbTransaction(request));
         lockRefresher.registerLock(response.immutableTimestamp().getLock());
         return response;
     }
 
+    @Override
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(IdentifiedTimeLockRequest request,
+            int count) {
+        StartAtlasDbTransactionBatchResponse response = executeOnTimeLock(
+                () -> delegate.startAtlasDbTransactionBatch(request, count));
+        lockRefresher.registerLock(response.immutableTimestamp().getLock());
+        return response;
+    }
+
     @Override
     public long getImmutableTimestamp() {
         return executeOnTimeLock(delegate::getImmutableTimestamp);
@@ -114,19 +153,35 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
 
     @Override
     public Set<LockToken> refreshLockLeases(Set<LockToken> tokens) {
-        return executeOnTimeLock(() -> delegate.refreshLockLeases(tokens));
+        Map<LockToken, LockToken> serverTokens = transactionStartCoalescer.getServerTokens(tokens);
+        Set<LockToken> refreshed = executeOnTimeLock(
+                () -> delegate.refreshLockLeases(ImmutableSet.copyOf(serverTokens.values())));
+        return withValidServerTokens(serverTokens, refreshed);
     }
 
     @Override
     public Set<LockToken> unlock(Set<LockToken> tokens) {
-        lockRefresher.unregisterLocks(tokens);
-        return executeOnTimeLock(() -> delegate.unlock(tokens));
+        Map<LockToken, LockToken> serverTokens = transactionStartCoalescer.getServerTokens(tokens);
+        Set<LockToken> toUnlock = transactionStartCoalescer.release(tokens);
+        lockRefresher.unregisterLocks(toUnlock);
+        Set<LockToken> unlocked = executeOnTimeLock(() -> delegate.unlock(toUnlock));
+
+        // Tokens sharing a lock that is still referred to by other tokens are released if the lock is still held.
+        Set<LockToken> stillShared = Sets.difference(ImmutableSet.copyOf(serverTokens.values()), toUnlock);
+        if (stillShared.isEmpty()) {
+            return withValidServerTokens(serverTokens, unlocked);
+        }
+        Set<LockToken> stillHeld = transactionStartCoalescer.getHeldSharedLocks(stillShared);
+        return withValidServerTokens(serverTokens, Sets.union(unlocked, stillHeld));
     }
 
     @Override
     public void tryUnlock(Set<LockToken> tokens) {
-        lockRefresher.unregisterLocks(tokens);
-        unlocker.enqueue(tokens);
+        Set<LockToken> toUnlock = transactionStartCoalescer.release(tokens);
+        lockRefresher.unregisterLocks(toUnlock);
+        if (!toUnlock.isEmpty()) {
+            unlocker.enqueue(toUnlock);
+        }
     }
 
     @Override
@@ -134,6 +189,13 @@ public class TimeLockClient implements AutoCloseable, TimelockService {
         return executeOnTimeLock(delegate::currentTimeMillis);
     }
 
+    private static Set<LockToken> withValidServerTokens(
+            Map<LockToken, LockToken> serverTokens,
+            Set<LockToken> validServerTokens) {
+        return Sets.filter(serverTokens.keySet(), token -> validServerTokens.contains(serverTokens.get(token)))
+                .immutableCopy();
+    }
+
     private <T> T executeOnTimeLock(Callable<T> callable) {
         try {
             return callable.call();
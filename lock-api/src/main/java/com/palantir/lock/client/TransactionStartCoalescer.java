@@ -0,0 +1,227 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Iterables;
+import com.google.common.collect.Lists;
+import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
+import com.palantir.lock.v2.IdentifiedTimeLockRequest;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
+import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
+import com.palantir.lock.v2.TimelockService;
+
+/**
+ * Coalesces concurrent calls to {@link TimelockService#startAtlasDbTransaction(IdentifiedTimeLockRequest)} into
+ * calls to {@link TimelockService#startAtlasDbTransactionBatch(IdentifiedTimeLockRequest, int)}, so that many
+ * transactions starting at once share a single round trip to TimeLock.
+ *
+ * At most one batch is requested at a time. Starts that arrive while a batch is in flight wait for it, and one of
+ * them then requests a batch for all of the starts that have accumulated in the meantime. Every start in a batch was
+ * requested before the batch was, so its start timestamp is as fresh as if it were requested individually. An
+ * uncontended start is requested individually.
+ *
+ * The transactions in a batch share one immutable timestamp lock. Each is handed its own client-side token, which
+ * refers to the shared lock; the shared lock is only unlocked once all of the tokens referring to it have been
+ * unlocked, and a token is valid exactly when the shared lock is. {@link TimeLockClient} translates tokens through
+ * this class before refreshing or unlocking them. If TimeLock hands out no timestamps for a batch, its lock is
+ * unlocked straight away, as no token would ever refer to it.
+ */
+final class TransactionStartCoalescer {
+    @VisibleForTesting
+    static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final TimelockService delegate;
+    private final LockRefresher lockRefresher;
+    private final int maxBatchSize;
+
+    private final Queue<PendingStart> pendingStarts = new ConcurrentLinkedQueue<>();
+    private final Lock batchLock = new ReentrantLock();
+    private final ConcurrentMap<LockToken, SharedLock> sharedLocksByToken = Maps.newConcurrentMap();
+
+    TransactionStartCoalescer(TimelockService delegate, LockRefresher lockRefresher, int maxBatchSize) {
+        Preconditions.checkArgument(maxBatchSize > 0, "Max batch size must be positive, but was %s", maxBatchSize);
+        this.delegate = delegate;
+        this.lockRefresher = lockRefresher;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    StartAtlasDbTransactionResponse startAtlasDbTransaction() {
+        PendingStart start = new PendingStart();
+        pendingStarts.add(start);
+        while (!start.isDone()) {
+            batchLock.lock();
+            try {
+                if (!start.isDone()) {
+                    startPendingTransactions();
+                }
+            } finally {
+                batchLock.unlock();
+            }
+        }
+        return start.getResponse();
+    }
+
+    /**
+     * Returns the tokens known to TimeLock that the given tokens refer to. Tokens that were not handed out by this
+     * class refer to themselves.
+     */
+    Map<LockToken, LockToken> getServerTokens(Set<LockToken> tokens) {
+        return tokens.stream().collect(ImmutableMap.toImmutableMap(token -> token, this::toServerToken));
+    }
+
+    /**
+     * Releases the given tokens, and returns the server tokens that are no longer referred to by any token, and
+     * should thus be unlocked.
+     */
+    Set<LockToken> release(Set<LockToken> tokens) {
+        Set<LockToken> serverTokensToUnlock = Sets.newHashSet();
+        for (LockToken token : tokens) {
+            SharedLock sharedLock = sharedLocksByToken.remove(token);
+            if (sharedLock == null) {
+                serverTokensToUnlock.add(token);
+            } else if (sharedLock.release()) {
+                serverTokensToUnlock.add(sharedLock.serverToken);
+            }
+        }
+        return serverTokensToUnlock;
+    }
+
+    /**
+     * Returns which of the given server tokens of shared locks, that were still referred to when released, are still
+     * held as far as this client knows, i.e. their leases have not failed to refresh.
+     */
+    Set<LockToken> getHeldSharedLocks(Set<LockToken> serverTokens) {
+        return Sets.filter(serverTokens, lockRefresher::isRegistered).immutableCopy();
+    }
+
+    private LockToken toServerToken(LockToken token) {
+        SharedLock sharedLock = sharedLocksByToken.get(token);
+        return sharedLock == null ? token : sharedLock.serverToken;
+    }
+
+    private void startPendingTransactions() {
+        List<PendingStart> batch = Lists.newArrayList();
+        PendingStart start;
+        while (batch.size() < maxBatchSize && (start = pendingStarts.poll()) != null) {
+            batch.add(start);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            if (batch.size() == 1) {
+                startIndividually(Iterables.getOnlyElement(batch));
+            } else {
+                startBatch(batch);
+            }
+        } catch (RuntimeException | Error e) {
+            batch.forEach(pendingStart -> pendingStart.fail(e));
+        }
+    }
+
+    private void startIndividually(PendingStart start) {
+        StartAtlasDbTransactionResponse response = delegate.startAtlasDbTransaction(IdentifiedTimeLockRequest.create());
+        lockRefresher.registerLock(response.immutableTimestamp().getLock());
+        start.succeed(response);
+    }
+
+    private void startBatch(List<PendingStart> batch) {
+        StartAtlasDbTransactionBatchResponse response =
+                delegate.startAtlasDbTransactionBatch(IdentifiedTimeLockRequest.create(), batch.size());
+        LockToken serverToken = response.immutableTimestamp().getLock();
+        long immutableTimestamp = response.immutableTimestamp().getImmutableTimestamp();
+        int numStarted = (int) Math.min(response.freshTimestamps().size(), batch.size());
+        if (numStarted == 0) {
+            delegate.unlock(ImmutableSet.of(serverToken));
+            pendingStarts.addAll(batch);
+            return;
+        }
+
+        SharedLock sharedLock = new SharedLock(serverToken, numStarted);
+        lockRefresher.registerLock(serverToken);
+        for (int i = 0; i < numStarted; i++) {
+            LockToken token = LockToken.of(UUID.randomUUID());
+            sharedLocksByToken.put(token, sharedLock);
+            batch.get(i).succeed(StartAtlasDbTransactionResponse.of(
+                    LockImmutableTimestampResponse.of(immutableTimestamp, token),
+                    response.freshTimestamps().getLowerBound() + i));
+        }
+
+        // TimeLock may hand out fewer timestamps than requested; the remaining starts go in the next batch.
+        pendingStarts.addAll(batch.subList(numStarted, batch.size()));
+    }
+
+    private static final class SharedLock {
+        private final LockToken serverToken;
+        private final AtomicInteger references;
+
+        SharedLock(LockToken serverToken, int references) {
+            this.serverToken = serverToken;
+            this.references = new AtomicInteger(references);
+        }
+
+        boolean release() {
+            return references.decrementAndGet() == 0;
+        }
+    }
+
+    private static final class PendingStart {
+        private volatile boolean done;
+        private volatile StartAtlasDbTransactionResponse response;
+        private volatile Throwable failure;
+
+        boolean isDone() {
+            return done;
+        }
+
+        void succeed(StartAtlasDbTransactionResponse startResponse) {
+            response = startResponse;
+            done = true;
+        }
+
+        void fail(Throwable throwable) {
+            failure = throwable;
+            done = true;
+        }
+
+        StartAtlasDbTransactionResponse getResponse() {
+            if (failure != null) {
+                Throwables.throwIfUnchecked(failure);
+            }
+            return response;
+        }
+    }
+}
@@ -25,6 +25,7 @@ import org.immutables.value.Value;
 import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
 import com.fasterxml.jackson.databind.annotation.JsonSerialize;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.LockMode;
 
 @Value.Immutable
 @JsonSerialize(as = ImmutableLockRequest.class)
@@ -43,6 +44,15 @@ public interface LockRequest {
     @Value.Parameter
     Optional<String> getClientDescription();
 
+    /**
+     * The mode in which the locks are acquired. Locks acquired in {@link LockMode#READ} mode may be held by any
+     * number of requests at once, and only exclude requests for the same locks in {@link LockMode#WRITE} mode.
+     */
+    @Value.Default
+    default LockMode getLockMode() {
+        return LockMode.WRITE;
+    }
+
     static LockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs) {
         return ImmutableLockRequest.of(
                 UUID.randomUUID(),
@@ -59,4 +69,13 @@ public interface LockRequest {
                 Optional.of(clientDescription));
     }
 
+    static LockRequest of(Set<LockDescriptor> lockDescriptors, long acquireTimeoutMs, LockMode lockMode) {
+        return ImmutableLockRequest.of(
+                UUID.randomUUID(),
+                lockDescriptors,
+                acquireTimeoutMs,
+                Optional.of("Thread: " + Thread.currentThread().getName()))
+                .withLockMode(lockMode);
+    }
+
 }
@@ -62,6 +62,20 @@ public interface TimelockService {
     @Path("start-atlasdb-transaction")
     StartAtlasDbTransactionResponse startAtlasDbTransaction(IdentifiedTimeLockRequest request);
 
+    /**
+     * Starts a batch of transactions, whose start timestamps are all protected by a single immutable timestamp lock.
+     * The lock must be held until every transaction in the batch has finished.
+     *
+     * @param request request identifying the immutable timestamp lock
+     * @param count number of start timestamps requested; fewer may be returned
+     * @return the immutable timestamp lock and the start timestamps of the batch
+     */
+    @POST
+    @Path("start-atlasdb-transaction-batch")
+    StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(
+            IdentifiedTimeLockRequest request,
+            @Safe @QueryParam("count") int count);
+
     @POST
     @Path("immutable-timestamp")
     long getImmutableTimestamp();
@@ -0,0 +1,211 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.lock.client;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyInt;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableSet;
+import com.google.common.collect.Lists;
+import com.palantir.lock.v2.IdentifiedTimeLockRequest;
+import com.palantir.lock.v2.LockImmutableTimestampResponse;
+import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
+import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.timestamp.TimestampRange;
+
+public class TransactionStartCoalescerTest {
+    private static final long IMMUTABLE_TIMESTAMP = 10L;
+    private static final LockToken INDIVIDUAL_TOKEN = LockToken.of(UUID.randomUUID());
+    private static final LockToken SHARED_TOKEN = LockToken.of(UUID.randomUUID());
+
+    private final TimelockService delegate = mock(TimelockService.class);
+    private final LockRefresher lockRefresher = mock(LockRefresher.class);
+    private final TransactionStartCoalescer coalescer = new TransactionStartCoalescer(delegate, lockRefresher, 10);
+
+    private final CountDownLatch individualStartRequested = new CountDownLatch(1);
+    private final CountDownLatch individualStartLatch = new CountDownLatch(1);
+
+    @Test
+    public void uncontendedStartIsRequestedIndividually() {
+        individualStartLatch.countDown();
+        whenStartingIndividually();
+
+        StartAtlasDbTransactionResponse response = coalescer.startAtlasDbTransaction();
+
+        assertThat(response.immutableTimestamp().getLock()).isEqualTo(INDIVIDUAL_TOKEN);
+        assertThat(response.freshTimestamp()).isEqualTo(1L);
+        verify(lockRefresher).registerLock(INDIVIDUAL_TOKEN);
+        verify(delegate, never()).startAtlasDbTransactionBatch(any(), anyInt());
+    }
+
+    @Test
+    public void startsThatArriveDuringAStartShareOneBatch() throws Exception {
+        whenStartingIndividually();
+        whenStartingBatch(TimestampRange.createInclusiveRange(100, 102));
+
+        List<StartAtlasDbTransactionResponse> responses = startWhileAnIndividualStartIsInFlight(3);
+
+        verify(delegate).startAtlasDbTransactionBatch(any(), eq(3));
+        verify(lockRefresher).registerLock(SHARED_TOKEN);
+        assertThat(responses.stream().map(StartAtlasDbTransactionResponse::freshTimestamp).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(100L, 101L, 102L);
+        assertThat(responses.stream()
+                .map(response -> response.immutableTimestamp().getImmutableTimestamp())
+                .collect(Collectors.toList()))
+                .containsOnly(IMMUTABLE_TIMESTAMP);
+
+        Set<LockToken> tokens = clientTokens(responses);
+        assertThat(tokens).hasSize(3).doesNotContain(SHARED_TOKEN);
+        assertThat(coalescer.getServerTokens(tokens).values()).containsOnly(SHARED_TOKEN);
+    }
+
+    @Test
+    public void sharedLockIsOnlyReleasedOnceAllOfItsTokensAreReleased() throws Exception {
+        whenStartingIndividually();
+        whenStartingBatch(TimestampRange.createInclusiveRange(100, 102));
+
+        List<LockToken> tokens = Lists.newArrayList(clientTokens(startWhileAnIndividualStartIsInFlight(3)));
+
+        assertThat(coalescer.release(ImmutableSet.of(tokens.get(0), tokens.get(1)))).isEmpty();
+        assertThat(coalescer.getServerTokens(ImmutableSet.of(tokens.get(2))).values()).containsOnly(SHARED_TOKEN);
+        assertThat(coalescer.release(ImmutableSet.of(tokens.get(2)))).containsOnly(SHARED_TOKEN);
+    }
+
+    @Test
+    public void unknownTokensReferToThemselves() {
+        Set<LockToken> tokens = ImmutableSet.of(INDIVIDUAL_TOKEN);
+
+        assertThat(coalescer.getServerTokens(tokens)).containsEntry(INDIVIDUAL_TOKEN, INDIVIDUAL_TOKEN);
+        assertThat(coalescer.release(tokens)).containsOnly(INDIVIDUAL_TOKEN);
+    }
+
+    @Test
+    public void startsThatDoNotReceiveATimestampAreRetried() throws Exception {
+        whenStartingIndividually();
+        when(delegate.startAtlasDbTransactionBatch(any(), anyInt())).thenReturn(
+                StartAtlasDbTransactionBatchResponse.of(
+                        LockImmutableTimestampResponse.of(IMMUTABLE_TIMESTAMP, SHARED_TOKEN),
+                        TimestampRange.createInclusiveRange(100, 101)));
+
+        List<StartAtlasDbTransactionResponse> responses = startWhileAnIndividualStartIsInFlight(3);
+
+        verify(delegate).startAtlasDbTransactionBatch(any(), eq(3));
+        assertThat(responses.stream().map(StartAtlasDbTransactionResponse::freshTimestamp).collect(Collectors.toList()))
+                .containsExactlyInAnyOrder(100L, 101L, 1L);
+    }
+
+    @Test
+    public void lockOfABatchWithoutTimestampsIsUnlockedRatherThanRefreshed() throws Exception {
+        whenStartingIndividually();
+        TimestampRange noTimestamps = mock(TimestampRange.class);
+        when(noTimestamps.size()).thenReturn(0L);
+        LockToken unusedToken = LockToken.of(UUID.randomUUID());
+        when(delegate.startAtlasDbTransactionBatch(any(), anyInt()))
+                .thenReturn(StartAtlasDbTransactionBatchResponse.of(
+                        LockImmutableTimestampResponse.of(IMMUTABLE_TIMESTAMP, unusedToken), noTimestamps))
+                .thenReturn(StartAtlasDbTransactionBatchResponse.of(
+                        LockImmutableTimestampResponse.of(IMMUTABLE_TIMESTAMP, SHARED_TOKEN),
+                        TimestampRange.createInclusiveRange(100, 101)));
+
+        List<StartAtlasDbTransactionResponse> responses = startWhileAnIndividualStartIsInFlight(2);
+
+        verify(delegate).unlock(ImmutableSet.of(unusedToken));
+        verify(lockRefresher, never()).registerLock(unusedToken);
+        assertThat(coalescer.getServerTokens(clientTokens(responses)).values()).containsOnly(SHARED_TOKEN);
+    }
+
+    @Test
+    public void sharedLocksAreHeldWhileTheyAreStillBeingRefreshed() {
+        LockToken lostToken = LockToken.of(UUID.randomUUID());
+        when(lockRefresher.isRegistered(SHARED_TOKEN)).thenReturn(true);
+
+        assertThat(coalescer.getHeldSharedLocks(ImmutableSet.of(SHARED_TOKEN, lostToken))).containsOnly(SHARED_TOKEN);
+        verify(delegate, never()).refreshLockLeases(any());
+    }
+
+    private void whenStartingIndividually() {
+        when(delegate.startAtlasDbTransaction(any())).thenAnswer(invocation -> {
+            individualStartRequested.countDown();
+            individualStartLatch.await();
+            return StartAtlasDbTransactionResponse.of(
+                    LockImmutableTimestampResponse.of(IMMUTABLE_TIMESTAMP, INDIVIDUAL_TOKEN), 1L);
+        });
+    }
+
+    private void whenStartingBatch(TimestampRange freshTimestamps) {
+        when(delegate.startAtlasDbTransactionBatch(any(IdentifiedTimeLockRequest.class), anyInt())).thenReturn(
+                StartAtlasDbTransactionBatchResponse.of(
+                        LockImmutableTimestampResponse.of(IMMUTABLE_TIMESTAMP, SHARED_TOKEN), freshTimestamps));
+    }
+
+    /**
+     * Blocks a first start in TimeLock, waits for the given number of further starts to queue up behind it, and then
+     * returns the responses to these further starts.
+     */
+    private List<StartAtlasDbTransactionResponse> startWhileAnIndividualStartIsInFlight(int numStarts)
+            throws Exception {
+        FutureTask<StartAtlasDbTransactionResponse> firstStart = new FutureTask<>(coalescer::startAtlasDbTransaction);
+        new Thread(firstStart).start();
+        individualStartRequested.await();
+
+        List<Thread> threads = Lists.newArrayList();
+        List<FutureTask<StartAtlasDbTransactionResponse>> starts = Lists.newArrayList();
+        for (int i = 0; i < numStarts; i++) {
+            FutureTask<StartAtlasDbTransactionResponse> start = new FutureTask<>(coalescer::startAtlasDbTransaction);
+            Thread thread = new Thread(start);
+            thread.start();
+            threads.add(thread);
+            starts.add(start);
+        }
+        // A start that is waiting for the in-flight start has already been queued.
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+
+        individualStartLatch.countDown();
+        firstStart.get();
+        List<StartAtlasDbTransactionResponse> responses = Lists.newArrayList();
+        for (FutureTask<StartAtlasDbTransactionResponse> start : starts) {
+            responses.add(start.get());
+        }
+        return responses;
+    }
+
+    private static Set<LockToken> clientTokens(List<StartAtlasDbTransactionResponse> responses) {
+        return responses.stream()
+                .map(response -> response.immutableTimestamp().getLock())
+                .collect(Collectors.toSet());
+    }
+}
@@ -37,6 +37,7 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.TimelockService;
 import com.palantir.lock.v2.WaitForLocksRequest;
@@ -109,6 +110,14 @@ public class LegacyTimelockService implements TimelockService {
         return StartAtlasDbTransactionResponse.of(immutableTimestampResponse, freshTimestamp);
     }
 
+    @Override
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(IdentifiedTimeLockRequest request,
+            int count) {
+        LockImmutableTimestampResponse immutableTimestampResponse = lockImmutableTimestamp(request);
+        TimestampRange freshTimestamps = getFreshTimestamps(count);
+        return StartAtlasDbTransactionBatchResponse.of(immutableTimestampResponse, freshTimestamps);
+    }
+
     @Override
     public long getImmutableTimestamp() {
         long ts = timestampService.getFreshTimestamp();
@@ -135,7 +144,7 @@ public class LegacyTimelockService implements TimelockService {
     }
 
     private com.palantir.lock.LockRequest toLegacyLockRequest(LockRequest request) {
-        SortedMap<LockDescriptor, LockMode> locks = buildLockMap(request.getLockDescriptors(), LockMode.WRITE);
+        SortedMap<LockDescriptor, LockMode> locks = buildLockMap(request.getLockDescriptors(), request.getLockMode());
         return com.palantir.lock.LockRequest.builder(locks)
                 .blockForAtMost(SimpleTimeDuration.of(request.getAcquireTimeoutMs(), TimeUnit.MILLISECONDS))
                 .build();
@@ -55,12 +55,15 @@ public class ClockSkewMonitorCreator {
         return new ClockSkewMonitorCreator(metricsManager, remoteServers, optionalSecurity, registrar);
     }
 
-    public void registerClockServices() {
-        runClockSkewMonitorInBackground();
+    public ClockSkewMonitor registerClockServices() {
+        ClockSkewMonitor monitor = runClockSkewMonitorInBackground();
         registrar.accept(new ClockServiceImpl());
+        return monitor;
     }
 
-    private void runClockSkewMonitorInBackground() {
-        ClockSkewMonitor.create(metricsManager, remoteServers, optionalSecurity).runInBackground();
+    private ClockSkewMonitor runClockSkewMonitorInBackground() {
+        ClockSkewMonitor monitor = ClockSkewMonitor.create(metricsManager, remoteServers, optionalSecurity);
+        monitor.runInBackground();
+        return monitor;
     }
 }
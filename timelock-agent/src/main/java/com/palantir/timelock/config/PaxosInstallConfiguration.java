@@ -27,9 +27,47 @@ public interface PaxosInstallConfiguration {
         return new File("var/data/paxos");
     }
 
+    /**
+     * If true, the per-client timestamp Paxos logs are stored in preallocated, memory-mapped segment files, rather
+     * than in a file per round. Existing logs are migrated on startup; this migration cannot be reversed, so servers
+     * that have enabled this must not be downgraded to versions that do not support it.
+     */
+    @JsonProperty("use-segmented-log")
+    @Value.Default
+    default boolean useSegmentedLog() {
+        return false;
+    }
+
+    /**
+     * If true, the timestamp Paxos requests of all clients to each other node are sent through a single endpoint, so
+     * that the concurrent requests of different clients share one round trip and one set of connections. Only the
+     * transport is shared: each client still has its own Paxos instance, with its own rounds and its own log
+     * directories, so the number of logs and fsyncs still grows with the number of clients. A request that fails
+     * fails only for its own client. All nodes must run a version that serves this endpoint before this is enabled.
+     */
+    @JsonProperty("use-batch-paxos")
+    @Value.Default
+    default boolean useBatchPaxos() {
+        return false;
+    }
+
+    /**
+     * If positive, the TimeLock leader serves requests for this long after confirming its leadership with a quorum,
+     * instead of confirming it for every request. Followers will not elect a new leader for twice this long after
+     * they last confirmed the current leader's round, so failover is delayed accordingly. Leases are only relied upon
+     * while the clock skew monitor finds the nodes' clocks to be in sync. All nodes must use the same value.
+     */
+    @JsonProperty("leader-lease-millis")
+    @Value.Default
+    default long leaderLeaseMillis() {
+        return 0L;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkArgument(dataDirectory().mkdirs() || dataDirectory().isDirectory(),
                 "Could not create paxos data directory %s", dataDirectory());
+        Preconditions.checkArgument(leaderLeaseMillis() >= 0,
+                "Leader lease must not be negative, but was %s ms", leaderLeaseMillis());
     }
 }
@@ -39,6 +39,16 @@ public interface PaxosRuntimeConfiguration {
         return true;
     }
 
+    /**
+     * If true, timestamp services extend their persisted upper limit in the background before it is reached, so that
+     * timestamp requests do not usually wait for a Paxos round. Takes effect when leadership is next gained.
+     */
+    @JsonProperty("extend-timestamp-bound-asynchronously")
+    @Value.Default
+    default boolean extendTimestampBoundAsynchronously() {
+        return false;
+    }
+
     @Value.Check
     default void check() {
         Preconditions.checkArgument(pingRateMs() > 0,
@@ -18,6 +18,7 @@ package com.palantir.timelock.paxos;
 
 import java.nio.file.Paths;
 import java.util.Set;
+import java.util.function.BooleanSupplier;
 import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -60,7 +61,10 @@ public class PaxosLeadershipCreator {
         this.registrar = registrar;
     }
 
-    public void registerLeaderElectionService() {
+    /**
+     * Registers the leader election service, which only relies on leader leases while {@code clocksAreInSync}.
+     */
+    public void registerLeaderElectionService(BooleanSupplier clocksAreInSync) {
         Set<String> remoteServers = PaxosRemotingUtils.getRemoteServerPaths(install);
 
         LeaderConfig leaderConfig = getLeaderConfig();
@@ -76,7 +80,8 @@ public class PaxosLeadershipCreator {
                         .remoteAcceptorUris(paxosSubresourceUris)
                         .remoteLearnerUris(paxosSubresourceUris)
                         .build(),
-                "leader-election-service");
+                "leader-election-service",
+                clocksAreInSync);
         localPingableLeader = localPaxosServices.pingableLeader();
         leaderElectionService = localPaxosServices.leaderElectionService();
 
@@ -111,6 +116,7 @@ public class PaxosLeadershipCreator {
                 .quorumSize(PaxosRemotingUtils.getQuorumSize(PaxosRemotingUtils.getClusterAddresses(install)))
                 .leaderPingResponseWaitMs(paxosRuntimeConfiguration.pingRateMs())
                 .randomWaitBeforeProposingLeadershipMs(paxosRuntimeConfiguration.pingRateMs())
+                .leaderLeaseMs(install.paxos().leaderLeaseMillis())
                 .build();
     }
 
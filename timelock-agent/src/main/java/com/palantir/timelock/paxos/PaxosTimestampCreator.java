@@ -20,8 +20,10 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.Executor;
 import java.util.concurrent.ExecutorService;
 import java.util.function.Supplier;
+import java.util.stream.Collectors;
 
 import javax.net.ssl.SSLSocketFactory;
 
@@ -30,6 +32,9 @@ import com.google.common.collect.ImmutableList;
 import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.palantir.atlasdb.config.LeaderConfig;
 import com.palantir.atlasdb.factory.Leaders;
+import com.palantir.atlasdb.http.AtlasDbHttpClients;
+import com.palantir.atlasdb.timelock.paxos.BatchPaxosAcceptor;
+import com.palantir.atlasdb.timelock.paxos.BatchingPaxosAcceptorClient;
 import com.palantir.atlasdb.timelock.paxos.DelegatingManagedTimestampService;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
 import com.palantir.atlasdb.timelock.paxos.PaxosResource;
@@ -54,32 +59,44 @@ public class PaxosTimestampCreator implements TimestampCreator {
     private final Optional<SSLSocketFactory> optionalSecurity;
     private final Supplier<PaxosRuntimeConfiguration> paxosRuntime;
 
+    // Shared by all clients, so that the number of threads depends on the number of requests in flight rather than
+    // the number of clients.
+    private final ExecutorService executor = PTExecutors.newCachedThreadPool(new ThreadFactoryBuilder()
+            .setNameFormat("atlas-consensus-%d")
+            .setDaemon(true)
+            .build());
+    private final Optional<List<BatchingPaxosAcceptorClient>> batchAcceptorClients;
+
     public PaxosTimestampCreator(MetricRegistry metricRegistry, PaxosResource paxosResource,
             Set<String> remoteServers,
             Optional<SSLSocketFactory> optionalSecurity,
             Supplier<PaxosRuntimeConfiguration> paxosRuntime) {
+        this(metricRegistry, paxosResource, remoteServers, optionalSecurity, paxosRuntime, false);
+    }
+
+    /**
+     * As above, where if {@code useBatchPaxos} is set, the acceptor requests of all clients to each remote server are
+     * sent through its {@link BatchPaxosAcceptor}.
+     */
+    public PaxosTimestampCreator(MetricRegistry metricRegistry, PaxosResource paxosResource,
+            Set<String> remoteServers,
+            Optional<SSLSocketFactory> optionalSecurity,
+            Supplier<PaxosRuntimeConfiguration> paxosRuntime,
+            boolean useBatchPaxos) {
         this.metricRegistry = metricRegistry;
         this.paxosResource = paxosResource;
         this.remoteServers = remoteServers;
         this.optionalSecurity = optionalSecurity;
         this.paxosRuntime = paxosRuntime;
+        this.batchAcceptorClients = useBatchPaxos
+                ? Optional.of(createBatchAcceptorClients())
+                : Optional.empty();
     }
 
     @Override
     public Supplier<ManagedTimestampService> createTimestampService(String client, LeaderConfig unused) {
-        ExecutorService executor = PTExecutors.newCachedThreadPool(new ThreadFactoryBuilder()
-                .setNameFormat("atlas-consensus-" + client + "-%d")
-                .setDaemon(true)
-                .build());
-
         Set<String> namespacedUris = PaxosTimeLockUriUtils.getClientPaxosUris(remoteServers, client);
-        List<PaxosAcceptor> acceptors = Leaders.createProxyAndLocalList(
-                metricRegistry,
-                paxosResource.getPaxosAcceptor(client),
-                namespacedUris,
-                optionalSecurity,
-                PaxosAcceptor.class,
-                "timestamp-bound-store." + client);
+        List<PaxosAcceptor> acceptors = createAcceptors(client, namespacedUris);
 
         PaxosLearner ourLearner = paxosResource.getPaxosLearner(client);
         List<PaxosLearner> learners = Leaders.createProxyAndLocalList(
@@ -102,14 +119,47 @@ public class PaxosTimestampCreator implements TimestampCreator {
 
         PaxosSynchronizer.synchronizeLearner(ourLearner, learners);
 
-        return () -> createManagedPaxosTimestampService(proposer, client, acceptors, learners);
+        return () -> createManagedPaxosTimestampService(proposer, client, acceptors, learners, executor);
+    }
+
+    private List<PaxosAcceptor> createAcceptors(String client, Set<String> namespacedUris) {
+        PaxosAcceptor ourAcceptor = paxosResource.getPaxosAcceptor(client);
+        if (batchAcceptorClients.isPresent()) {
+            return ImmutableList.<PaxosAcceptor>builder()
+                    .addAll(batchAcceptorClients.get().stream()
+                            .map(batchClient -> batchClient.forClient(client))
+                            .collect(Collectors.toList()))
+                    .add(ourAcceptor)
+                    .build();
+        }
+        return Leaders.createProxyAndLocalList(
+                metricRegistry,
+                ourAcceptor,
+                namespacedUris,
+                optionalSecurity,
+                PaxosAcceptor.class,
+                "timestamp-bound-store." + client);
+    }
+
+    private List<BatchingPaxosAcceptorClient> createBatchAcceptorClients() {
+        return AtlasDbHttpClients.createProxies(
+                metricRegistry,
+                optionalSecurity,
+                remoteServers,
+                true,
+                BatchPaxosAcceptor.class,
+                "timestamp-bound-store.batch")
+                .stream()
+                .map(BatchingPaxosAcceptorClient::new)
+                .collect(Collectors.toList());
     }
 
     private ManagedTimestampService createManagedPaxosTimestampService(
             PaxosProposer proposer,
             String client,
             List<PaxosAcceptor> acceptors,
-            List<PaxosLearner> learners) {
+            List<PaxosLearner> learners,
+            Executor lookaheadExecutor) {
         // TODO (jkong): live reload ping
         TimestampBoundStore boundStore = instrument(TimestampBoundStore.class,
                 new PaxosTimestampBoundStore(
@@ -117,9 +167,13 @@ public class PaxosTimestampCreator implements TimestampCreator {
                         paxosResource.getPaxosLearner(client),
                         ImmutableList.copyOf(acceptors),
                         ImmutableList.copyOf(learners),
-                        paxosRuntime.get().maximumWaitBeforeProposalMs()),
+                        paxosRuntime.get().maximumWaitBeforeProposalMs(),
+                        executor),
                 client);
-        PersistentTimestampService persistentTimestampService = PersistentTimestampServiceImpl.create(boundStore);
+        boolean extendBoundAsynchronously = paxosRuntime.get().extendTimestampBoundAsynchronously();
+        PersistentTimestampService persistentTimestampService = extendBoundAsynchronously
+                ? PersistentTimestampServiceImpl.create(boundStore, lookaheadExecutor, metricRegistry)
+                : PersistentTimestampServiceImpl.create(boundStore);
         return new DelegatingManagedTimestampService(persistentTimestampService, persistentTimestampService);
     }
 
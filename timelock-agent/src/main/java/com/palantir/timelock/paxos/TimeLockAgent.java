@@ -21,13 +21,17 @@ import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import com.codahale.metrics.MetricRegistry;
+import com.fasterxml.jackson.jaxrs.smile.JacksonSmileProvider;
 import com.palantir.atlasdb.config.ImmutableLeaderConfig;
 import com.palantir.atlasdb.http.BlockingTimeoutExceptionMapper;
 import com.palantir.atlasdb.http.NotCurrentLeaderExceptionMapper;
+import com.palantir.atlasdb.http.SmileEncoding;
 import com.palantir.atlasdb.timelock.TimeLockResource;
 import com.palantir.atlasdb.timelock.TimeLockServices;
 import com.palantir.atlasdb.timelock.TooManyRequestsExceptionMapper;
+import com.palantir.atlasdb.timelock.clock.ClockSkewMonitor;
 import com.palantir.atlasdb.timelock.lock.LockLog;
+import com.palantir.atlasdb.timelock.paxos.BatchPaxosAcceptorResource;
 import com.palantir.atlasdb.timelock.paxos.ManagedTimestampService;
 import com.palantir.atlasdb.timelock.paxos.PaxosResource;
 import com.palantir.atlasdb.util.MetricsManager;
@@ -82,7 +86,8 @@ public class TimeLockAgent {
         this.registrar = registrar;
 
         this.paxosResource = PaxosResource.create(metricsManager.getRegistry(),
-                install.paxos().dataDirectory().toString());
+                install.paxos().dataDirectory().toString(),
+                install.paxos().useSegmentedLog());
         this.leadershipCreator = new PaxosLeadershipCreator(this.metricsManager, install, runtime, registrar);
         this.lockCreator = new LockCreator(runtime, deprecated);
         this.timestampCreator = getTimestampCreator(metricsManager.getRegistry());
@@ -110,13 +115,17 @@ public class TimeLockAgent {
         return new PaxosTimestampCreator(metrics, paxosResource,
                 PaxosRemotingUtils.getRemoteServerPaths(install),
                 PaxosRemotingUtils.getSslConfigurationOptional(install).map(SslSocketFactories::createSslSocketFactory),
-                JavaSuppliers.compose(TimeLockRuntimeConfiguration::paxos, runtime));
+                JavaSuppliers.compose(TimeLockRuntimeConfiguration::paxos, runtime),
+                install.paxos().useBatchPaxos());
     }
 
     private void createAndRegisterResources() {
         registerPaxosResource();
         registerExceptionMappers();
-        leadershipCreator.registerLeaderElectionService();
+        registerMessageBodyProviders();
+        ClockSkewMonitor clockSkewMonitor =
+                ClockSkewMonitorCreator.create(metricsManager, install, registrar).registerClockServices();
+        leadershipCreator.registerLeaderElectionService(clockSkewMonitor::clocksAreInSync);
 
         // Finally, register the health check, and endpoints associated with the clients.
         healthCheckSupplier = leadershipCreator.getHealthCheck();
@@ -125,8 +134,6 @@ public class TimeLockAgent {
                 this::createInvalidatingTimeLockServices,
                 JavaSuppliers.compose(TimeLockRuntimeConfiguration::maxNumberOfClients, runtime));
         registrar.accept(resource);
-
-        ClockSkewMonitorCreator.create(metricsManager, install, registrar).registerClockServices();
     }
 
     @SuppressWarnings("unused") // used by external health checks
@@ -163,6 +170,7 @@ public class TimeLockAgent {
     // No runtime configuration at the moment.
     private void registerPaxosResource() {
         registrar.accept(paxosResource);
+        registrar.accept(new BatchPaxosAcceptorResource(paxosResource));
     }
 
     private void registerExceptionMappers() {
@@ -171,6 +179,11 @@ public class TimeLockAgent {
         registrar.accept(new TooManyRequestsExceptionMapper());
     }
 
+    // JSON is provided by the server; Smile is only produced by resources that declare it.
+    private void registerMessageBodyProviders() {
+        registrar.accept(new JacksonSmileProvider(SmileEncoding.createObjectMapper()));
+    }
+
     /**
      * Creates timestamp and lock services for the given client. It is expected that for each client there should
      * only be (up to) one active timestamp service, and one active lock service at any time.
@@ -27,6 +27,7 @@ import javax.ws.rs.container.AsyncResponse;
 import javax.ws.rs.container.Suspended;
 import javax.ws.rs.core.MediaType;
 
+import com.palantir.atlasdb.http.SmileEncoding;
 import com.palantir.atlasdb.timelock.lock.AsyncResult;
 import com.palantir.atlasdb.timelock.lock.LockLog;
 import com.palantir.lock.v2.IdentifiedTimeLockRequest;
@@ -34,6 +35,7 @@ import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockResponse;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.lock.v2.WaitForLocksResponse;
@@ -41,8 +43,8 @@ import com.palantir.logsafe.Safe;
 import com.palantir.timestamp.TimestampRange;
 
 @Path("/timelock")
-@Consumes(MediaType.APPLICATION_JSON)
-@Produces(MediaType.APPLICATION_JSON)
+@Consumes({MediaType.APPLICATION_JSON, SmileEncoding.MEDIA_TYPE})
+@Produces({MediaType.APPLICATION_JSON, SmileEncoding.MEDIA_TYPE})
 public class AsyncTimelockResource {
     private final LockLog lockLog;
     private final AsyncTimelockService timelock;
@@ -78,6 +80,14 @@ public class AsyncTimelockResource {
                 timelock.getFreshTimestamp());
     }
 
+    @POST
+    @Path("start-atlasdb-transaction-batch")
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(
+            IdentifiedTimeLockRequest request,
+            @Safe @QueryParam("count") int count) {
+        return timelock.startAtlasDbTransactionBatch(request, count);
+    }
+
     @POST
     @Path("immutable-timestamp")
     public long getImmutableTimestamp() {
@@ -27,6 +27,7 @@ import com.palantir.lock.v2.IdentifiedTimeLockRequest;
 import com.palantir.lock.v2.LockImmutableTimestampResponse;
 import com.palantir.lock.v2.LockRequest;
 import com.palantir.lock.v2.LockToken;
+import com.palantir.lock.v2.StartAtlasDbTransactionBatchResponse;
 import com.palantir.lock.v2.WaitForLocksRequest;
 import com.palantir.timestamp.TimestampRange;
 
@@ -66,6 +67,16 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return LockImmutableTimestampResponse.of(immutableTs, token);
     }
 
+    @Override
+    public StartAtlasDbTransactionBatchResponse startAtlasDbTransactionBatch(IdentifiedTimeLockRequest request,
+            int count) {
+        // The timestamps must be fetched after the immutable timestamp is locked, so that the lock protects them.
+        LockImmutableTimestampResponse immutableTimestampResponse = lockImmutableTimestamp(request);
+        return StartAtlasDbTransactionBatchResponse.of(
+                immutableTimestampResponse,
+                timestampService.getFreshTimestamps(count));
+    }
+
     @Override
     public long getImmutableTimestamp() {
         long timestamp = timestampService.getFreshTimestamp();
@@ -77,6 +88,7 @@ public class AsyncTimelockServiceImpl implements AsyncTimelockService {
         return lockService.lock(
                 request.getRequestId(),
                 request.getLockDescriptors(),
+                request.getLockMode(),
                 TimeLimit.of(request.getAcquireTimeoutMs()));
     }
 
@@ -36,15 +36,19 @@ public class ClockSkewComparer {
         lastRequestDuration = newRequest.localTimeAtEnd() - newRequest.localTimeAtStart();
     }
 
-    public void compare() {
+    /**
+     * Records the skew between the two requests, and returns whether the clocks were in sync over this interval.
+     */
+    public boolean compare() {
         if (clockHasMovedBackwards()) {
             // The clock not moving forwards is already tracked by the ReversalDetectingClockService, so it is fine
             // to no op here. We don't want to use these values.
-            return;
+            return false;
         }
 
         long skew = getSkew();
         events.clockSkew(server, skew, minElapsedTime, lastRequestDuration);
+        return !ClockSkewEvents.isSignificantSkew(skew, minElapsedTime, lastRequestDuration);
     }
 
     private long getSkew() {
@@ -56,7 +56,7 @@ public class ClockSkewEvents {
     }
 
     public void clockSkew(String server, long skew, long minRequestInterval, long duration) {
-        if (skew >= ERROR_SKEW_THRESHOLD_NANOS && requestHasLikelyRepresentativeSkew(minRequestInterval, duration)) {
+        if (isSignificantSkew(skew, minRequestInterval, duration)) {
             log.debug("Significant skew of {} ns over at least {} ns was detected on the remote server {}."
                             + " (Our request took approximately {} ns.)",
                     SafeArg.of("skew", skew),
@@ -89,6 +89,10 @@ public class ClockSkewEvents {
         exception.inc();
     }
 
+    static boolean isSignificantSkew(long skew, long minRequestInterval, long duration) {
+        return skew >= ERROR_SKEW_THRESHOLD_NANOS && requestHasLikelyRepresentativeSkew(minRequestInterval, duration);
+    }
+
     @VisibleForTesting
     static boolean requestHasLikelyRepresentativeSkew(long minTimeBetweenRequests, long duration) {
         return minTimeBetweenRequests <= REPRESENTATIVE_INTERVAL_SINCE_PREVIOUS_REQUEST.toNanos()
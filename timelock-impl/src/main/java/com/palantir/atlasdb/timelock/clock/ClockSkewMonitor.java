@@ -41,6 +41,8 @@ import com.palantir.common.concurrent.PTExecutors;
 public final class ClockSkewMonitor {
     @VisibleForTesting
     static final Duration PAUSE_BETWEEN_REQUESTS = Duration.of(1, ChronoUnit.SECONDS);
+    @VisibleForTesting
+    static final Duration IN_SYNC_WINDOW = Duration.of(30, ChronoUnit.SECONDS);
 
     private final ClockSkewEvents events;
     private final Map<String, ReversalDetectingClockService> clocksByServer;
@@ -48,6 +50,9 @@ public final class ClockSkewMonitor {
     private final ScheduledExecutorService executorService;
     private final ReversalDetectingClockService localClockService;
 
+    private final Map<String, Long> lastInSyncComparisonByServer = Maps.newConcurrentMap();
+    private volatile long lastOutOfSyncComparison;
+
     public static ClockSkewMonitor create(MetricsManager metricsManager,
             Set<String> remoteServers, Optional<SSLSocketFactory> optionalSecurity) {
         Map<String, ClockService> clocksByServer = Maps.toMap(
@@ -75,6 +80,7 @@ public final class ClockSkewMonitor {
                 clocksByServer,
                 (server, clock) -> new ReversalDetectingClockService(clock, server, events)));
         this.localClockService = new ReversalDetectingClockService(localClockService, "local", events);
+        this.lastOutOfSyncComparison = System.nanoTime() - IN_SYNC_WINDOW.toNanos();
     }
 
     public void runInBackground() {
@@ -82,6 +88,24 @@ public final class ClockSkewMonitor {
                 this::runOnce, 0, PAUSE_BETWEEN_REQUESTS.toNanos(), TimeUnit.NANOSECONDS);
     }
 
+    /**
+     * Returns true if the clocks of all of the other nodes were recently found to progress at the same pace as the
+     * local clock, and none of them was found not to within the last {@link #IN_SYNC_WINDOW}.
+     */
+    public boolean clocksAreInSync() {
+        long now = System.nanoTime();
+        if (now - lastOutOfSyncComparison < IN_SYNC_WINDOW.toNanos()) {
+            return false;
+        }
+        for (String server : clocksByServer.keySet()) {
+            Long lastInSyncComparison = lastInSyncComparisonByServer.get(server);
+            if (lastInSyncComparison == null || now - lastInSyncComparison >= IN_SYNC_WINDOW.toNanos()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
     private void runOnce() {
         Map<String, RequestTime> newRequests = getRemoteRequestTimes();
         checkAndUpdatePreviousRequestTimes(newRequests);
@@ -117,7 +141,11 @@ public final class ClockSkewMonitor {
         newRequests.forEach((remoteHost, newRequest) -> {
             RequestTime previousRequest = previousRequestsByServer.get(remoteHost);
             if (previousRequest != null) {
-                new ClockSkewComparer(remoteHost, events, previousRequest, newRequest).compare();
+                if (new ClockSkewComparer(remoteHost, events, previousRequest, newRequest).compare()) {
+                    lastInSyncComparisonByServer.put(remoteHost, System.nanoTime());
+                } else {
+                    lastOutOfSyncComparison = System.nanoTime();
+                }
             }
             previousRequestsByServer.put(remoteHost, newRequest);
         });
@@ -28,6 +28,7 @@ import org.slf4j.LoggerFactory;
 
 import com.google.common.collect.ImmutableSet;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.LockMode;
 import com.palantir.lock.v2.LockToken;
 
 public class AsyncLockService implements Closeable {
@@ -49,7 +50,7 @@ public class AsyncLockService implements Closeable {
                 new LockCollection(),
                 new ImmutableTimestampTracker(),
                 new LockAcquirer(lockLog, timeoutExecutor),
-                new HeldLocksCollection(),
+                new HeldLocksCollection(lockLog),
                 new AwaitedLocksCollection(),
                 reaperExecutor);
     }
@@ -82,9 +83,14 @@ public class AsyncLockService implements Closeable {
     }
 
     public AsyncResult<LockToken> lock(UUID requestId, Set<LockDescriptor> lockDescriptors, TimeLimit timeout) {
+        return lock(requestId, lockDescriptors, LockMode.WRITE, timeout);
+    }
+
+    public AsyncResult<LockToken> lock(UUID requestId, Set<LockDescriptor> lockDescriptors, LockMode mode,
+            TimeLimit timeout) {
         return heldLocks.getExistingOrAcquire(
                 requestId,
-                () -> acquireLocks(requestId, lockDescriptors, timeout));
+                () -> acquireLocks(requestId, lockDescriptors, mode, timeout));
     }
 
     public AsyncResult<LockToken> lockImmutableTimestamp(UUID requestId, long timestamp) {
@@ -104,14 +110,15 @@ public class AsyncLockService implements Closeable {
     }
 
     private AsyncResult<HeldLocks> acquireLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
-            TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+            LockMode mode, TimeLimit timeout) {
+        OrderedLocks orderedLocks = locks.getAll(lockDescriptors, mode);
         return lockAcquirer.acquireLocks(requestId, orderedLocks, timeout);
     }
 
     private AsyncResult<Void> awaitLocks(UUID requestId, Set<LockDescriptor> lockDescriptors,
             TimeLimit timeout) {
-        OrderedLocks orderedLocks = locks.getAll(lockDescriptors);
+        // As with the legacy lock service, waiting for locks only waits for their exclusive holders.
+        OrderedLocks orderedLocks = locks.getAll(lockDescriptors, LockMode.READ);
         return lockAcquirer.waitForLocks(requestId, orderedLocks, timeout);
     }
 
@@ -18,25 +18,36 @@ package com.palantir.atlasdb.timelock.lock;
 
 import java.util.LinkedHashMap;
 import java.util.Objects;
+import java.util.Set;
 import java.util.UUID;
 
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.NotThreadSafe;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.ImmutableSet;
 import com.google.common.collect.Maps;
+import com.google.common.collect.Sets;
 import com.palantir.atlasdb.timelock.util.LoggableIllegalStateException;
 import com.palantir.lock.LockDescriptor;
 import com.palantir.logsafe.SafeArg;
 
+/**
+ * A lock that may be held exclusively by a single request, or shared between any number of requests through the
+ * {@link SharedLock} returned by {@link #shared()}. Requests are granted in the order in which they are made, so a
+ * shared request queued behind an exclusive request waits for it, even if the lock is currently held in shared mode.
+ */
 public class ExclusiveLock implements AsyncLock {
 
     private final LockDescriptor descriptor;
+    private final SharedLock sharedLock = new SharedLock(this);
 
     @GuardedBy("this")
     private final LockRequestQueue queue = new LockRequestQueue();
     @GuardedBy("this")
     private UUID currentHolder = null;
+    @GuardedBy("this")
+    private final Set<UUID> sharedHolders = Sets.newHashSet();
 
     public ExclusiveLock(LockDescriptor descriptor) {
         this.descriptor = descriptor;
@@ -44,12 +55,12 @@ public class ExclusiveLock implements AsyncLock {
 
     @Override
     public synchronized AsyncResult<Void> lock(UUID requestId) {
-        return submit(new LockRequest(requestId, false));
+        return submit(new LockRequest(requestId, false, false));
     }
 
     @Override
     public synchronized AsyncResult<Void> waitUntilAvailable(UUID requestId) {
-        return submit(new LockRequest(requestId, true));
+        return submit(new LockRequest(requestId, false, true));
     }
 
     @Override
@@ -57,12 +68,16 @@ public class ExclusiveLock implements AsyncLock {
         if (Objects.equals(requestId, currentHolder)) {
             currentHolder = null;
             processQueue();
+        } else if (sharedHolders.remove(requestId)) {
+            processQueue();
         }
     }
 
     @Override
     public synchronized void timeout(UUID requestId) {
         queue.timeoutAndRemoveIfStillQueued(requestId);
+        // A timed out exclusive request may have been blocking shared requests queued behind it.
+        processQueue();
     }
 
     @Override
@@ -70,11 +85,31 @@ public class ExclusiveLock implements AsyncLock {
         return descriptor;
     }
 
+    /**
+     * Returns a view of this lock that is acquired in shared mode.
+     */
+    public SharedLock shared() {
+        return sharedLock;
+    }
+
+    synchronized AsyncResult<Void> lockShared(UUID requestId) {
+        return submit(new LockRequest(requestId, true, false));
+    }
+
+    synchronized AsyncResult<Void> waitUntilAvailableForShared(UUID requestId) {
+        return submit(new LockRequest(requestId, true, true));
+    }
+
     @VisibleForTesting
     synchronized UUID getCurrentHolder() {
         return currentHolder;
     }
 
+    @VisibleForTesting
+    synchronized Set<UUID> getSharedHolders() {
+        return ImmutableSet.copyOf(sharedHolders);
+    }
+
     @GuardedBy("this")
     private AsyncResult<Void> submit(LockRequest request) {
         queue.enqueue(request);
@@ -85,24 +120,35 @@ public class ExclusiveLock implements AsyncLock {
 
     @GuardedBy("this")
     private void processQueue() {
-        while (!queue.isEmpty() && currentHolder == null) {
+        while (!queue.isEmpty() && canBeGranted(queue.peek())) {
             LockRequest head = queue.dequeue();
 
             if (!head.releaseImmediately) {
-                currentHolder = head.requestId;
+                if (head.shared) {
+                    sharedHolders.add(head.requestId);
+                } else {
+                    currentHolder = head.requestId;
+                }
             }
 
             head.result.complete(null);
         }
     }
 
+    @GuardedBy("this")
+    private boolean canBeGranted(LockRequest request) {
+        return currentHolder == null && (request.shared || sharedHolders.isEmpty());
+    }
+
     private static class LockRequest {
         private final AsyncResult<Void> result = new AsyncResult<>();
         private final UUID requestId;
+        private final boolean shared;
         private final boolean releaseImmediately;
 
-        LockRequest(UUID requestId, boolean releaseImmediately) {
+        LockRequest(UUID requestId, boolean shared, boolean releaseImmediately) {
             this.requestId = requestId;
+            this.shared = shared;
             this.releaseImmediately = releaseImmediately;
         }
     }
@@ -127,6 +173,10 @@ public class ExclusiveLock implements AsyncLock {
             return queue.isEmpty();
         }
 
+        public LockRequest peek() {
+            return queue.values().iterator().next();
+        }
+
         public LockRequest dequeue() {
             return queue.remove(queue.keySet().iterator().next());
         }
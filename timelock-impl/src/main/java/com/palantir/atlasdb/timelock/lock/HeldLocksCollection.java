@@ -16,29 +16,76 @@
 
 package com.palantir.atlasdb.timelock.lock;
 
-import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Queue;
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
 import java.util.function.Predicate;
 import java.util.function.Supplier;
 
+import javax.annotation.concurrent.GuardedBy;
+
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.collect.Lists;
 import com.google.common.collect.Maps;
 import com.google.common.collect.Sets;
+import com.palantir.common.time.Clock;
 import com.palantir.leader.NotCurrentLeaderException;
 import com.palantir.lock.v2.LockToken;
 
+/**
+ * Tracks the locks held by each request, and reaps those whose leases have expired.
+ *
+ * To avoid scanning every held lock on each reap, requests are indexed by the time at which their leases expire,
+ * rounded up to {@link #EXPIRY_BUCKET_MILLIS}. Refreshing a lease does not move its request in the index; instead,
+ * when a reap finds that a lease has been refreshed since it was indexed, the request is moved to the bucket for its
+ * new expiry. A reap therefore only touches requests whose leases were due to expire, and each live lease is
+ * examined about once per lease period. New requests are examined on the first reap after they are made.
+ */
 public class HeldLocksCollection {
 
+    @VisibleForTesting
+    static final long EXPIRY_BUCKET_MILLIS = 1_000;
+
     @VisibleForTesting
     final ConcurrentMap<UUID, AsyncResult<HeldLocks>> heldLocksById = Maps.newConcurrentMap();
 
+    private final Queue<TrackedRequest> newRequests = new ConcurrentLinkedQueue<>();
+    @GuardedBy("this")
+    private final NavigableMap<Long, List<TrackedRequest>> requestsByExpiryBucket = Maps.newTreeMap();
+
+    private final LockLog lockLog;
+    private final Clock clock;
+
+    public HeldLocksCollection(LockLog lockLog) {
+        this(lockLog, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    HeldLocksCollection() {
+        this(new LockLog(new MetricRegistry(), () -> Long.MAX_VALUE));
+    }
+
+    @VisibleForTesting
+    HeldLocksCollection(LockLog lockLog, Clock clock) {
+        this.lockLog = lockLog;
+        this.clock = clock;
+    }
+
     public AsyncResult<LockToken> getExistingOrAcquire(
             UUID requestId,
             Supplier<AsyncResult<HeldLocks>> lockAcquirer) {
         AsyncResult<HeldLocks> locksFuture = heldLocksById.computeIfAbsent(
-                requestId, ignored -> lockAcquirer.get());
+                requestId, ignored -> {
+                    AsyncResult<HeldLocks> result = lockAcquirer.get();
+                    newRequests.add(new TrackedRequest(requestId, result));
+                    return result;
+                });
         return locksFuture.map(HeldLocks::getToken);
     }
 
@@ -54,14 +101,52 @@ public class HeldLocksCollection {
         return filter(tokens, HeldLocks::refresh);
     }
 
-    public void removeExpired() {
-        Iterator<AsyncResult<HeldLocks>> iterator = heldLocksById.values().iterator();
-        while (iterator.hasNext()) {
-            AsyncResult<HeldLocks> lockResult = iterator.next();
-            if (shouldRemove(lockResult)) {
-                iterator.remove();
+    public synchronized void removeExpired() {
+        long startNanos = System.nanoTime();
+        long startTimeMillis = clock.getTimeMillis();
+        long nextBucket = bucketFor(startTimeMillis);
+        int numReaped = 0;
+
+        TrackedRequest newRequest;
+        while ((newRequest = newRequests.poll()) != null) {
+            numReaped += reapOrReindex(newRequest, nextBucket);
+        }
+
+        Map.Entry<Long, List<TrackedRequest>> dueBucket;
+        while ((dueBucket = requestsByExpiryBucket.firstEntry()) != null && dueBucket.getKey() <= startTimeMillis) {
+            requestsByExpiryBucket.pollFirstEntry();
+            for (TrackedRequest request : dueBucket.getValue()) {
+                numReaped += reapOrReindex(request, nextBucket);
             }
         }
+
+        lockLog.reapComplete(System.nanoTime() - startNanos, numReaped);
+    }
+
+    /**
+     * Returns 1 if the request was reaped, and 0 otherwise.
+     */
+    @GuardedBy("this")
+    private int reapOrReindex(TrackedRequest request, long nextBucket) {
+        if (heldLocksById.get(request.requestId) != request.result) {
+            // Already unlocked (and possibly since re-requested, in which case it is tracked by a newer entry).
+            return 0;
+        }
+        if (shouldRemove(request.result)) {
+            heldLocksById.remove(request.requestId, request.result);
+            return 1;
+        }
+
+        // Pending requests are examined again on the next reap; held locks when their leases are next due to expire.
+        long bucket = request.result.isCompletedSuccessfully()
+                ? Math.max(nextBucket, bucketFor(request.result.get().getLeaseExpirationTimeMillis()))
+                : nextBucket;
+        requestsByExpiryBucket.computeIfAbsent(bucket, ignored -> Lists.newArrayList()).add(request);
+        return 0;
+    }
+
+    private static long bucketFor(long timeMillis) {
+        return timeMillis - Math.floorMod(timeMillis, EXPIRY_BUCKET_MILLIS) + EXPIRY_BUCKET_MILLIS;
     }
 
     public void failAllOutstandingRequestsWithNotCurrentLeaderException() {
@@ -88,4 +173,14 @@ public class HeldLocksCollection {
         return filtered;
     }
 
+    private static final class TrackedRequest {
+        private final UUID requestId;
+        private final AsyncResult<HeldLocks> result;
+
+        TrackedRequest(UUID requestId, AsyncResult<HeldLocks> result) {
+            this.requestId = requestId;
+            this.result = result;
+        }
+    }
+
 }
@@ -26,6 +26,7 @@ import com.google.common.cache.CacheLoader;
 import com.google.common.cache.LoadingCache;
 import com.google.common.collect.Lists;
 import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.LockMode;
 
 public class LockCollection {
 
@@ -43,11 +44,15 @@ public class LockCollection {
     }
 
     public OrderedLocks getAll(Set<LockDescriptor> descriptors) {
+        return getAll(descriptors, LockMode.WRITE);
+    }
+
+    public OrderedLocks getAll(Set<LockDescriptor> descriptors, LockMode mode) {
         List<LockDescriptor> orderedDescriptors = sort(descriptors);
 
         List<AsyncLock> locks = Lists.newArrayListWithExpectedSize(descriptors.size());
         for (LockDescriptor descriptor : orderedDescriptors) {
-            locks.add(getLock(descriptor));
+            locks.add(getLock(descriptor, mode));
         }
         return OrderedLocks.fromOrderedList(locks);
     }
@@ -58,8 +63,9 @@ public class LockCollection {
         return orderedDescriptors;
     }
 
-    private AsyncLock getLock(LockDescriptor descriptor) {
-        return locksById.getUnchecked(descriptor);
+    private AsyncLock getLock(LockDescriptor descriptor, LockMode mode) {
+        ExclusiveLock lock = locksById.getUnchecked(descriptor);
+        return mode == LockMode.READ ? lock.shared() : lock;
     }
 
 }
@@ -25,6 +25,7 @@ import org.immutables.value.Value;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import com.codahale.metrics.Histogram;
 import com.codahale.metrics.Meter;
 import com.codahale.metrics.MetricRegistry;
 import com.codahale.metrics.Timer;
@@ -44,12 +45,16 @@ public class LockEvents {
     private final Meter successfulSlowAcquisitionMeter;
     private final Meter timedOutSlowAcquisitionMeter;
     private final Meter lockExpiredMeter;
+    private final Timer reapTimer;
+    private final Histogram reapedHistogram;
 
     public LockEvents(MetricRegistry metrics) {
         requestTimer = metrics.timer("lock.blocking-time");
         successfulSlowAcquisitionMeter = metrics.meter("lock.successful-slow-acquisition");
         timedOutSlowAcquisitionMeter = metrics.meter("lock.timeout-slow-acquisition");
         lockExpiredMeter = metrics.meter("lock.expired");
+        reapTimer = metrics.timer("lock.reap-time");
+        reapedHistogram = metrics.histogram("lock.reaped-per-pass");
     }
 
     public void requestComplete(long blockingTimeMillis) {
@@ -63,6 +68,11 @@ public class LockEvents {
         lockExpiredMeter.mark();
     }
 
+    public void reapComplete(long durationNanos, int numReaped) {
+        reapTimer.update(durationNanos, TimeUnit.NANOSECONDS);
+        reapedHistogram.update(numReaped);
+    }
+
     public void successfulSlowAcquisition(RequestInfo request, long acquisitionTimeMillis) {
         log.warn("Locks took a long time to acquire",
                 SafeArg.of("requestId", request.id()),
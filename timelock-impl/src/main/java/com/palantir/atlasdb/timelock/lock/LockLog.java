@@ -78,4 +78,8 @@ public final class LockLog {
         events.lockExpired(requestId, lockDescriptors);
     }
 
+    public void reapComplete(long durationNanos, int numReaped) {
+        events.reapComplete(durationNanos, numReaped);
+    }
+
 }
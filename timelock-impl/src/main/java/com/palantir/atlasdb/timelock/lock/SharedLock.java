@@ -0,0 +1,60 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import java.util.UUID;
+
+import com.palantir.lock.LockDescriptor;
+
+/**
+ * The shared mode of an {@link ExclusiveLock}. Any number of requests may hold a shared lock at once, but not while
+ * the underlying lock is held exclusively.
+ */
+public class SharedLock implements AsyncLock {
+
+    private final ExclusiveLock lock;
+
+    SharedLock(ExclusiveLock lock) {
+        this.lock = lock;
+    }
+
+    @Override
+    public AsyncResult<Void> lock(UUID requestId) {
+        return lock.lockShared(requestId);
+    }
+
+    @Override
+    public AsyncResult<Void> waitUntilAvailable(UUID requestId) {
+        return lock.waitUntilAvailableForShared(requestId);
+    }
+
+    @Override
+    public void unlock(UUID requestId) {
+        lock.unlock(requestId);
+    }
+
+    @Override
+    public void timeout(UUID requestId) {
+        lock.timeout(requestId);
+    }
+
+    @Override
+    public LockDescriptor getDescriptor() {
+        return lock.getDescriptor();
+    }
+
+}
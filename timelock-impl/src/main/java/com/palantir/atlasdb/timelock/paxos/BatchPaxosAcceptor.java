@@ -0,0 +1,92 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.util.List;
+
+import javax.ws.rs.Consumes;
+import javax.ws.rs.POST;
+import javax.ws.rs.Path;
+import javax.ws.rs.Produces;
+import javax.ws.rs.core.MediaType;
+
+import org.immutables.value.Value;
+
+import com.fasterxml.jackson.databind.annotation.JsonDeserialize;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosPromise;
+import com.palantir.paxos.PaxosProposal;
+import com.palantir.paxos.PaxosProposalId;
+
+/**
+ * The {@link PaxosAcceptor}s of all of the clients on a node, so that requests for many clients can be sent to the
+ * node in one round trip. Each request is handled by the acceptor of its client, exactly as if it had been sent to
+ * that acceptor on its own; the responses are returned in the order of the requests. A request that fails, for
+ * example because its client's acceptor could not be created, gets a failed response without failing the rest of its
+ * batch.
+ */
+@Path("/" + PaxosTimeLockConstants.INTERNAL_NAMESPACE
+        + "/" + PaxosTimeLockConstants.BATCH_PAXOS_NAMESPACE
+        + "/acceptor")
+public interface BatchPaxosAcceptor {
+    @POST
+    @Path("prepare")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    List<BatchPaxosResponse<PaxosPromise>> prepare(List<PrepareRequest> requests);
+
+    @POST
+    @Path("accept")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    List<BatchPaxosResponse<BooleanPaxosResponse>> accept(List<AcceptRequest> requests);
+
+    @POST // This is marked as a POST because we cannot accept stale or cached results for this method.
+    @Path("latest-sequences-prepared-or-accepted")
+    @Produces(MediaType.APPLICATION_JSON)
+    @Consumes(MediaType.APPLICATION_JSON)
+    List<BatchPaxosResponse<Long>> getLatestSequencesPreparedOrAccepted(List<String> clients);
+
+    @JsonDeserialize(as = ImmutablePrepareRequest.class)
+    @JsonSerialize(as = ImmutablePrepareRequest.class)
+    @Value.Immutable
+    interface PrepareRequest {
+        @Value.Parameter
+        String client();
+
+        @Value.Parameter
+        long seq();
+
+        @Value.Parameter
+        PaxosProposalId proposalId();
+    }
+
+    @JsonDeserialize(as = ImmutableAcceptRequest.class)
+    @JsonSerialize(as = ImmutableAcceptRequest.class)
+    @Value.Immutable
+    interface AcceptRequest {
+        @Value.Parameter
+        String client();
+
+        @Value.Parameter
+        long seq();
+
+        @Value.Parameter
+        PaxosProposal proposal();
+    }
+}
@@ -0,0 +1,82 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.google.common.base.Preconditions;
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.logsafe.UnsafeArg;
+import com.palantir.paxos.PaxosPromise;
+
+public final class BatchPaxosAcceptorResource implements BatchPaxosAcceptor {
+    private static final Logger log = LoggerFactory.getLogger(BatchPaxosAcceptorResource.class);
+
+    // Clients name directories, so they are restricted to the names allowed in the paths of the PaxosResource.
+    private static final Pattern CLIENT_PATTERN = Pattern.compile("[a-zA-Z0-9_-]+");
+
+    private final PaxosResource paxosResource;
+
+    public BatchPaxosAcceptorResource(PaxosResource paxosResource) {
+        this.paxosResource = paxosResource;
+    }
+
+    @Override
+    public List<BatchPaxosResponse<PaxosPromise>> prepare(List<PrepareRequest> requests) {
+        return map(requests, PrepareRequest::client, request ->
+                getAcceptor(request.client()).prepare(request.seq(), request.proposalId()));
+    }
+
+    @Override
+    public List<BatchPaxosResponse<BooleanPaxosResponse>> accept(List<AcceptRequest> requests) {
+        return map(requests, AcceptRequest::client, request ->
+                getAcceptor(request.client()).accept(request.seq(), request.proposal()));
+    }
+
+    @Override
+    public List<BatchPaxosResponse<Long>> getLatestSequencesPreparedOrAccepted(List<String> clients) {
+        return map(clients, Function.identity(), client -> getAcceptor(client).getLatestSequencePreparedOrAccepted());
+    }
+
+    private PaxosAcceptor getAcceptor(String client) {
+        Preconditions.checkArgument(CLIENT_PATTERN.matcher(client).matches(), "Invalid client name: %s", client);
+        return paxosResource.getPaxosAcceptor(client);
+    }
+
+    private static <T, R> List<BatchPaxosResponse<R>> map(
+            List<T> requests,
+            Function<T, String> clientOfRequest,
+            Function<T, R> function) {
+        return requests.stream()
+                .map(request -> {
+                    try {
+                        return BatchPaxosResponse.success(function.apply(request));
+                    } catch (RuntimeException e) {
+                        log.warn("Failed to handle a batched paxos request for client {}",
+                                UnsafeArg.of("client", clientOfRequest.apply(request)), e);
+                        return BatchPaxosResponse.<R>failure(e);
+                    }
+                })
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.util.Objects;
+
+import javax.annotation.Nullable;
+
+import com.fasterxml.jackson.annotation.JsonCreator;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.google.common.base.Preconditions;
+
+/**
+ * The response to one request of a batch sent to a {@link BatchPaxosAcceptor}: either the result of the request, or
+ * a description of why it failed. Requests in a batch fail independently, so that one client's failure does not fail
+ * the requests of the other clients in the same batch.
+ */
+public final class BatchPaxosResponse<T> {
+    @Nullable
+    private final T result;
+    @Nullable
+    private final String failure;
+
+    @JsonCreator
+    private BatchPaxosResponse(
+            @JsonProperty("result") @Nullable T result,
+            @JsonProperty("failure") @Nullable String failure) {
+        Preconditions.checkArgument((result == null) != (failure == null),
+                "Exactly one of a result and a failure must be present");
+        this.result = result;
+        this.failure = failure;
+    }
+
+    public static <T> BatchPaxosResponse<T> success(T result) {
+        return new BatchPaxosResponse<>(Preconditions.checkNotNull(result, "result"), null);
+    }
+
+    public static <T> BatchPaxosResponse<T> failure(Throwable throwable) {
+        return new BatchPaxosResponse<>(null, String.valueOf(throwable));
+    }
+
+    @JsonProperty("result")
+    @Nullable
+    public T getResult() {
+        return result;
+    }
+
+    @JsonProperty("failure")
+    @Nullable
+    public String getFailure() {
+        return failure;
+    }
+
+    /**
+     * Returns the result of the request, or throws if it failed.
+     */
+    @JsonIgnore
+    public T getResultOrThrow() {
+        if (failure != null) {
+            throw new IllegalStateException("The batched paxos request failed on the remote node: " + failure);
+        }
+        return result;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+        if (this == other) {
+            return true;
+        }
+        if (other == null || getClass() != other.getClass()) {
+            return false;
+        }
+        BatchPaxosResponse<?> that = (BatchPaxosResponse<?>) other;
+        return Objects.equals(result, that.result) && Objects.equals(failure, that.failure);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(result, failure);
+    }
+
+    @Override
+    public String toString() {
+        return failure == null
+                ? "BatchPaxosResponse{result=" + result + "}"
+                : "BatchPaxosResponse{failure=" + failure + "}";
+    }
+}
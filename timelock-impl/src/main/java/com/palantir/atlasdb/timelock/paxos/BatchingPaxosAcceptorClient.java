@@ -0,0 +1,66 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosPromise;
+import com.palantir.paxos.PaxosProposal;
+import com.palantir.paxos.PaxosProposalId;
+
+/**
+ * Talks to the acceptors of all clients on one remote node through a single {@link BatchPaxosAcceptor}, coalescing
+ * the concurrent requests of different clients into one round trip per kind of request. A request that fails on the
+ * remote node throws only for its own client.
+ */
+public final class BatchingPaxosAcceptorClient {
+    private final RequestCoalescer<BatchPaxosAcceptor.PrepareRequest, BatchPaxosResponse<PaxosPromise>> prepares;
+    private final RequestCoalescer<BatchPaxosAcceptor.AcceptRequest, BatchPaxosResponse<BooleanPaxosResponse>> accepts;
+    private final RequestCoalescer<String, BatchPaxosResponse<Long>> latestSequences;
+
+    public BatchingPaxosAcceptorClient(BatchPaxosAcceptor remote) {
+        this.prepares = new RequestCoalescer<>(remote::prepare);
+        this.accepts = new RequestCoalescer<>(remote::accept);
+        this.latestSequences = new RequestCoalescer<>(remote::getLatestSequencesPreparedOrAccepted);
+    }
+
+    public PaxosAcceptor forClient(String client) {
+        return new ClientAcceptor(client);
+    }
+
+    private final class ClientAcceptor implements PaxosAcceptor {
+        private final String client;
+
+        ClientAcceptor(String client) {
+            this.client = client;
+        }
+
+        @Override
+        public PaxosPromise prepare(long seq, PaxosProposalId pid) {
+            return prepares.apply(ImmutablePrepareRequest.of(client, seq, pid)).getResultOrThrow();
+        }
+
+        @Override
+        public BooleanPaxosResponse accept(long seq, PaxosProposal proposal) {
+            return accepts.apply(ImmutableAcceptRequest.of(client, seq, proposal)).getResultOrThrow();
+        }
+
+        @Override
+        public long getLatestSequencePreparedOrAccepted() {
+            return latestSequences.apply(client).getResultOrThrow();
+        }
+    }
+}
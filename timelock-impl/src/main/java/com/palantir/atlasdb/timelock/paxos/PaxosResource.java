@@ -26,10 +26,16 @@ import org.immutables.value.Value;
 import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.Maps;
 import com.palantir.atlasdb.util.AtlasDbMetrics;
+import com.palantir.common.persist.Persistable;
+import com.palantir.leader.PaxosKnowledgeEventRecorder;
 import com.palantir.paxos.PaxosAcceptor;
 import com.palantir.paxos.PaxosAcceptorImpl;
 import com.palantir.paxos.PaxosLearner;
 import com.palantir.paxos.PaxosLearnerImpl;
+import com.palantir.paxos.PaxosStateLog;
+import com.palantir.paxos.PaxosStateLogImpl;
+import com.palantir.paxos.SegmentedPaxosStateLog;
+import com.palantir.paxos.Versionable;
 
 @Path("/" + PaxosTimeLockConstants.INTERNAL_NAMESPACE
         + "/" + PaxosTimeLockConstants.CLIENT_PAXOS_NAMESPACE
@@ -37,11 +43,13 @@ import com.palantir.paxos.PaxosLearnerImpl;
 public final class PaxosResource {
     private final MetricRegistry metricRegistry;
     private final String logDirectory;
+    private final boolean useSegmentedLog;
     private final Map<String, PaxosComponents> paxosComponentsByClient = Maps.newConcurrentMap();
 
-    private PaxosResource(MetricRegistry metricRegistry, String logDirectory) {
+    private PaxosResource(MetricRegistry metricRegistry, String logDirectory, boolean useSegmentedLog) {
         this.metricRegistry = metricRegistry;
         this.logDirectory = logDirectory;
+        this.useSegmentedLog = useSegmentedLog;
     }
 
     public static PaxosResource create(MetricRegistry metricRegistry) {
@@ -49,7 +57,11 @@ public final class PaxosResource {
     }
 
     public static PaxosResource create(MetricRegistry metricRegistry, String logDirectory) {
-        return new PaxosResource(metricRegistry, logDirectory);
+        return create(metricRegistry, logDirectory, false);
+    }
+
+    public static PaxosResource create(MetricRegistry metricRegistry, String logDirectory, boolean useSegmentedLog) {
+        return new PaxosResource(metricRegistry, logDirectory, useSegmentedLog);
     }
 
     public PaxosComponents createInstrumentedComponents(String client) {
@@ -58,7 +70,7 @@ public final class PaxosResource {
         PaxosLearner learner = instrument(
                 metricRegistry,
                 PaxosLearner.class,
-                PaxosLearnerImpl.newLearner(learnerLogDir),
+                PaxosLearnerImpl.newLearner(createLog(learnerLogDir), PaxosKnowledgeEventRecorder.NO_OP),
                 client);
 
         String acceptorLogDir = Paths.get(logDirectory, client, PaxosTimeLockConstants.ACCEPTOR_SUBDIRECTORY_PATH)
@@ -66,7 +78,7 @@ public final class PaxosResource {
         PaxosAcceptor acceptor = instrument(
                 metricRegistry,
                 PaxosAcceptor.class,
-                PaxosAcceptorImpl.newAcceptor(acceptorLogDir),
+                PaxosAcceptorImpl.newAcceptor(createLog(acceptorLogDir)),
                 client);
 
         return ImmutablePaxosComponents.builder()
@@ -75,6 +87,10 @@ public final class PaxosResource {
                 .build();
     }
 
+    private <V extends Persistable & Versionable> PaxosStateLog<V> createLog(String logDir) {
+        return useSegmentedLog ? SegmentedPaxosStateLog.create(logDir) : new PaxosStateLogImpl<>(logDir);
+    }
+
     private static <T> T instrument(MetricRegistry metricRegistry, Class<T> serviceClass, T service, String client) {
         // TODO(nziebart): tag with the client name, when tritium supports it
         return AtlasDbMetrics.instrument(metricRegistry, serviceClass, service, MetricRegistry.name(serviceClass));
@@ -63,14 +63,27 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
     @GuardedBy("this")
     private SequenceAndBound agreedState;
 
-    private final ExecutorService executor = PTExecutors.newCachedThreadPool(
-            PTExecutors.newNamedThreadFactory(true));
+    private final ExecutorService executor;
 
     public PaxosTimestampBoundStore(PaxosProposer proposer,
             PaxosLearner knowledge,
             List<PaxosAcceptor> acceptors,
             List<PaxosLearner> learners,
             long maximumWaitBeforeProposalMs) {
+        this(proposer, knowledge, acceptors, learners, maximumWaitBeforeProposalMs,
+                PTExecutors.newCachedThreadPool(PTExecutors.newNamedThreadFactory(true)));
+    }
+
+    /**
+     * As above, where requests to the acceptors and learners are made on the given executor, which may be shared with
+     * other bound stores.
+     */
+    public PaxosTimestampBoundStore(PaxosProposer proposer,
+            PaxosLearner knowledge,
+            List<PaxosAcceptor> acceptors,
+            List<PaxosLearner> learners,
+            long maximumWaitBeforeProposalMs,
+            ExecutorService executor) {
         DebugLogger.logger.info("Creating PaxosTimestampBoundStore. The UUID of my proposer is {}."
                 + " Currently, I believe the timestamp bound is {}.",
                 SafeArg.of("proposerUuid", proposer.getUuid()),
@@ -80,6 +93,7 @@ public class PaxosTimestampBoundStore implements TimestampBoundStore {
         this.acceptors = acceptors;
         this.learners = learners;
         this.maximumWaitBeforeProposalMs = maximumWaitBeforeProposalMs;
+        this.executor = executor;
     }
 
     /**
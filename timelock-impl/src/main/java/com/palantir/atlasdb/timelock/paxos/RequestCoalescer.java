@@ -0,0 +1,125 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import com.google.common.base.Throwables;
+import com.google.common.collect.Lists;
+
+/**
+ * Coalesces concurrent requests into calls of a batch function, which returns the responses to a list of requests in
+ * the same order.
+ *
+ * At most one batch is in flight at a time. Requests that arrive while a batch is in flight wait for it, and one of
+ * them then sends a batch of all of the requests that have accumulated in the meantime, so an uncontended request is
+ * sent on its own. If the batch function throws, every request in the batch fails with the same exception, so batch
+ * functions whose requests can fail individually should report those failures in their responses instead, as
+ * {@link BatchPaxosAcceptor} does.
+ */
+final class RequestCoalescer<T, R> {
+    @VisibleForTesting
+    static final int MAX_BATCH_SIZE = 500;
+
+    private final Function<List<T>, List<R>> batchFunction;
+
+    private final Queue<PendingRequest<T, R>> pendingRequests = new ConcurrentLinkedQueue<>();
+    private final Lock batchLock = new ReentrantLock();
+
+    RequestCoalescer(Function<List<T>, List<R>> batchFunction) {
+        this.batchFunction = batchFunction;
+    }
+
+    R apply(T request) {
+        PendingRequest<T, R> pendingRequest = new PendingRequest<>(request);
+        pendingRequests.add(pendingRequest);
+        while (!pendingRequest.isDone()) {
+            batchLock.lock();
+            try {
+                if (!pendingRequest.isDone()) {
+                    processPendingRequests();
+                }
+            } finally {
+                batchLock.unlock();
+            }
+        }
+        return pendingRequest.getResponse();
+    }
+
+    private void processPendingRequests() {
+        List<PendingRequest<T, R>> batch = Lists.newArrayList();
+        PendingRequest<T, R> pendingRequest;
+        while (batch.size() < MAX_BATCH_SIZE && (pendingRequest = pendingRequests.poll()) != null) {
+            batch.add(pendingRequest);
+        }
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<R> responses = batchFunction.apply(
+                    batch.stream().map(request -> request.request).collect(Collectors.toList()));
+            Preconditions.checkState(responses.size() == batch.size(),
+                    "Received %s responses to a batch of %s requests", responses.size(), batch.size());
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).succeed(responses.get(i));
+            }
+        } catch (RuntimeException | Error e) {
+            batch.forEach(request -> request.fail(e));
+        }
+    }
+
+    private static final class PendingRequest<T, R> {
+        private final T request;
+
+        private volatile boolean done;
+        private volatile R response;
+        private volatile Throwable failure;
+
+        PendingRequest(T request) {
+            this.request = request;
+        }
+
+        boolean isDone() {
+            return done;
+        }
+
+        void succeed(R batchResponse) {
+            response = batchResponse;
+            done = true;
+        }
+
+        void fail(Throwable throwable) {
+            failure = throwable;
+            done = true;
+        }
+
+        R getResponse() {
+            if (failure != null) {
+                Throwables.throwIfUnchecked(failure);
+            }
+            return response;
+        }
+    }
+}
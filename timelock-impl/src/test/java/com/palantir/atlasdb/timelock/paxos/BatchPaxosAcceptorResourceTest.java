@@ -0,0 +1,109 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.io.IOException;
+import java.util.List;
+
+import org.junit.Before;
+import org.junit.ClassRule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.ImmutableList;
+import com.palantir.paxos.BooleanPaxosResponse;
+import com.palantir.paxos.PaxosAcceptor;
+import com.palantir.paxos.PaxosPromise;
+import com.palantir.paxos.PaxosProposal;
+import com.palantir.paxos.PaxosProposalId;
+import com.palantir.paxos.PaxosValue;
+
+public class BatchPaxosAcceptorResourceTest {
+    private static final String CLIENT_1 = "alice";
+    private static final String CLIENT_2 = "bob";
+    private static final String INVALID_CLIENT = "../alice";
+
+    private static final long PAXOS_ROUND_ONE = 1;
+    private static final long PAXOS_ROUND_TWO = 2;
+    private static final String PAXOS_UUID = "paxos";
+    private static final PaxosProposalId PROPOSAL_ID = new PaxosProposalId(1, PAXOS_UUID);
+    private static final PaxosProposal PAXOS_PROPOSAL = new PaxosProposal(
+            PROPOSAL_ID, new PaxosValue(PAXOS_UUID, PAXOS_ROUND_TWO, new byte[] { 0 }));
+
+    @ClassRule
+    public static final TemporaryFolder TEMPORARY_FOLDER = new TemporaryFolder();
+
+    private PaxosResource paxosResource;
+    private BatchPaxosAcceptor batchAcceptor;
+
+    @Before
+    public void setUp() throws IOException {
+        paxosResource = PaxosResource.create(new MetricRegistry(), TEMPORARY_FOLDER.newFolder().getPath());
+        batchAcceptor = new BatchPaxosAcceptorResource(paxosResource);
+    }
+
+    @Test
+    public void requestsAreHandledByTheAcceptorsOfTheirClients() {
+        List<BatchPaxosResponse<PaxosPromise>> promises = batchAcceptor.prepare(ImmutableList.of(
+                ImmutablePrepareRequest.of(CLIENT_1, PAXOS_ROUND_ONE, PROPOSAL_ID)));
+        List<BatchPaxosResponse<BooleanPaxosResponse>> responses = batchAcceptor.accept(ImmutableList.of(
+                ImmutableAcceptRequest.of(CLIENT_2, PAXOS_ROUND_TWO, PAXOS_PROPOSAL)));
+
+        assertThat(promises).hasSize(1);
+        assertThat(promises.get(0).getResultOrThrow().isSuccessful()).isTrue();
+        assertThat(responses).hasSize(1);
+        assertThat(responses.get(0).getResultOrThrow().isSuccessful()).isTrue();
+        assertThat(paxosResource.getPaxosAcceptor(CLIENT_1).getLatestSequencePreparedOrAccepted())
+                .isEqualTo(PAXOS_ROUND_ONE);
+        assertThat(paxosResource.getPaxosAcceptor(CLIENT_2).getLatestSequencePreparedOrAccepted())
+                .isEqualTo(PAXOS_ROUND_TWO);
+    }
+
+    @Test
+    public void returnsResponsesInTheOrderOfTheRequests() {
+        batchAcceptor.accept(ImmutableList.of(ImmutableAcceptRequest.of(CLIENT_2, PAXOS_ROUND_TWO, PAXOS_PROPOSAL)));
+
+        assertThat(batchAcceptor.getLatestSequencesPreparedOrAccepted(ImmutableList.of(CLIENT_2, CLIENT_1, CLIENT_2)))
+                .containsExactly(
+                        BatchPaxosResponse.success(PAXOS_ROUND_TWO),
+                        BatchPaxosResponse.success(PaxosAcceptor.NO_LOG_ENTRY),
+                        BatchPaxosResponse.success(PAXOS_ROUND_TWO));
+    }
+
+    @Test
+    public void failsOnlyTheRequestsOfClientsThatAreNotValidDirectoryNames() {
+        List<BatchPaxosResponse<Long>> responses = batchAcceptor.getLatestSequencesPreparedOrAccepted(
+                ImmutableList.of(CLIENT_1, INVALID_CLIENT));
+
+        assertThat(responses.get(0)).isEqualTo(BatchPaxosResponse.success(PaxosAcceptor.NO_LOG_ENTRY));
+        assertThat(responses.get(1).getFailure()).contains(IllegalArgumentException.class.getName());
+    }
+
+    @Test
+    public void clientsThrowOnlyForTheirOwnFailedRequests() {
+        BatchingPaxosAcceptorClient client = new BatchingPaxosAcceptorClient(batchAcceptor);
+
+        assertThat(client.forClient(CLIENT_1).getLatestSequencePreparedOrAccepted())
+                .isEqualTo(PaxosAcceptor.NO_LOG_ENTRY);
+        assertThatThrownBy(() -> client.forClient(INVALID_CLIENT).getLatestSequencePreparedOrAccepted())
+                .isInstanceOf(IllegalStateException.class)
+                .hasMessageContaining(IllegalArgumentException.class.getName());
+    }
+}
@@ -0,0 +1,112 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.paxos;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.FutureTask;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.Lists;
+
+public class RequestCoalescerTest {
+    private final List<List<Integer>> batches = Lists.newCopyOnWriteArrayList();
+    private final CountDownLatch firstBatchStarted = new CountDownLatch(1);
+    private final CountDownLatch firstBatchLatch = new CountDownLatch(1);
+
+    private final RequestCoalescer<Integer, String> coalescer = new RequestCoalescer<>(requests -> {
+        batches.add(requests);
+        firstBatchStarted.countDown();
+        try {
+            firstBatchLatch.await();
+        } catch (InterruptedException e) {
+            throw new RuntimeException(e);
+        }
+        return requests.stream().map(String::valueOf).collect(Collectors.toList());
+    });
+
+    @Test
+    public void uncontendedRequestIsSentOnItsOwn() {
+        firstBatchLatch.countDown();
+
+        assertThat(coalescer.apply(1)).isEqualTo("1");
+        assertThat(batches).containsExactly(ImmutableList.of(1));
+    }
+
+    @Test
+    public void requestsThatArriveDuringABatchShareTheNextBatch() throws Exception {
+        FutureTask<String> first = start(0);
+        firstBatchStarted.await();
+
+        List<Thread> threads = Lists.newArrayList();
+        List<FutureTask<String>> requests = Lists.newArrayList();
+        for (int i = 1; i <= 3; i++) {
+            FutureTask<String> request = new FutureTask<>(requestFor(i));
+            Thread thread = new Thread(request);
+            thread.start();
+            threads.add(thread);
+            requests.add(request);
+        }
+        // A request that is waiting for the in-flight batch has already been queued.
+        for (Thread thread : threads) {
+            while (thread.getState() != Thread.State.WAITING) {
+                Thread.yield();
+            }
+        }
+        firstBatchLatch.countDown();
+
+        assertThat(first.get()).isEqualTo("0");
+        for (int i = 0; i < requests.size(); i++) {
+            assertThat(requests.get(i).get()).isEqualTo(String.valueOf(i + 1));
+        }
+        assertThat(batches).hasSize(2);
+        assertThat(batches.get(1)).containsExactlyInAnyOrder(1, 2, 3);
+    }
+
+    @Test
+    public void failuresOfTheBatchFunctionArePropagated() {
+        RuntimeException failure = new RuntimeException("failed");
+        RequestCoalescer<Integer, String> failingCoalescer = new RequestCoalescer<>(requests -> {
+            throw failure;
+        });
+
+        assertThatThrownBy(() -> failingCoalescer.apply(1)).isEqualTo(failure);
+    }
+
+    @Test
+    public void throwsIfTheBatchFunctionReturnsTheWrongNumberOfResponses() {
+        RequestCoalescer<Integer, String> brokenCoalescer = new RequestCoalescer<>(requests -> ImmutableList.of());
+
+        assertThatThrownBy(() -> brokenCoalescer.apply(1)).isInstanceOf(IllegalStateException.class);
+    }
+
+    private FutureTask<String> start(int request) {
+        FutureTask<String> task = new FutureTask<>(requestFor(request));
+        new Thread(task).start();
+        return task;
+    }
+
+    private Callable<String> requestFor(int request) {
+        return () -> coalescer.apply(request);
+    }
+}
@@ -30,6 +30,7 @@ import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockContende
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.LockAndUnlockUncontendedBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanDynamicColumnsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.RangeScanRowsBenchmark;
+import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TimelockEncodingBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TimestampBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionReadRowsBenchmark;
 import com.palantir.atlasdb.timelock.benchmarks.benchmarks.TransactionWriteBenchmarkContended;
@@ -41,9 +42,11 @@ import com.palantir.tritium.metrics.registry.DefaultTaggedMetricRegistry;
 
 public class BenchmarksResource implements BenchmarksService {
 
+    private final AtlasDbConfig config;
     private final TransactionManager txnManager;
 
     public BenchmarksResource(AtlasDbConfig config) {
+        this.config = config;
         this.txnManager = TransactionManagers.builder()
                 .config(config)
                 .userAgent(UserAgents.DEFAULT_USER_AGENT)
@@ -109,6 +112,11 @@ public class BenchmarksResource implements BenchmarksService {
         return TimestampBenchmark.execute(txnManager, numClients, numRequestsPerClient);
     }
 
+    @Override
+    public Map<String, Object> timelockEncoding(int numClients, int numRequestsPerClient, boolean acceptSmile) {
+        return TimelockEncodingBenchmark.execute(config, numClients, numRequestsPerClient, acceptSmile);
+    }
+
     @Override
     public Map<String, Object> rangeScanRows(int numClients, int numRequestsPerClient, int dataSize, int numRows) {
         return RangeScanRowsBenchmark.execute(txnManager, numClients, numRequestsPerClient, dataSize, numRows);
@@ -98,6 +98,13 @@ public interface BenchmarksService {
             @QueryParam("numClients") int numClients,
             @QueryParam("numRequestsPerClient") int numRequestsPerClient);
 
+    @GET
+    @Path("/timelock-encoding")
+    Map<String, Object> timelockEncoding(
+            @QueryParam("numClients") int numClients,
+            @QueryParam("numRequestsPerClient") int numRequestsPerClient,
+            @QueryParam("acceptSmile") boolean acceptSmile);
+
     @GET
     @Path("/range-scan-rows")
     Map<String, Object> rangeScanRows(
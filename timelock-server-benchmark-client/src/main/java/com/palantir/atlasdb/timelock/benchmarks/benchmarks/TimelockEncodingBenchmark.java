@@ -0,0 +1,87 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package com.palantir.atlasdb.timelock.benchmarks.benchmarks;
+
+import java.util.Map;
+import java.util.Optional;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableMap;
+import com.google.common.collect.ImmutableSet;
+import com.palantir.atlasdb.config.AtlasDbConfig;
+import com.palantir.atlasdb.config.ServerListConfig;
+import com.palantir.atlasdb.config.ServerListConfigs;
+import com.palantir.atlasdb.config.TimeLockClientConfig;
+import com.palantir.atlasdb.factory.ServiceCreator;
+import com.palantir.atlasdb.http.AtlasDbFeignTargetFactory;
+import com.palantir.atlasdb.http.UserAgents;
+import com.palantir.lock.v2.IdentifiedTimeLockRequest;
+import com.palantir.lock.v2.StartAtlasDbTransactionResponse;
+import com.palantir.lock.v2.TimelockService;
+import com.palantir.util.OptionalResolver;
+
+/**
+ * Starts a transaction and releases its immutable timestamp lock against TimeLock directly, with a client that
+ * either only accepts JSON responses, or asks for Smile responses. Comparing the two shows the effect of the
+ * response encoding on the throughput of TimeLock's most frequent requests.
+ */
+public final class TimelockEncodingBenchmark extends AbstractBenchmark {
+
+    private final TimelockService timelock;
+    private final boolean acceptSmile;
+
+    public static Map<String, Object> execute(AtlasDbConfig config, int numClients, int requestsPerClient,
+            boolean acceptSmile) {
+        return new TimelockEncodingBenchmark(createTimelockClient(config, acceptSmile), numClients,
+                requestsPerClient, acceptSmile).execute();
+    }
+
+    private TimelockEncodingBenchmark(TimelockService timelock, int numClients, int numRequestsPerClient,
+            boolean acceptSmile) {
+        super(numClients, numRequestsPerClient);
+        this.timelock = timelock;
+        this.acceptSmile = acceptSmile;
+    }
+
+    @Override
+    protected void performOneCall() {
+        StartAtlasDbTransactionResponse response = timelock.startAtlasDbTransaction(IdentifiedTimeLockRequest.create());
+        Preconditions.checkState(response.freshTimestamp() > 0);
+        timelock.unlock(ImmutableSet.of(response.immutableTimestamp().getLock()));
+    }
+
+    @Override
+    protected Map<String, Object> getExtraParameters() {
+        return ImmutableMap.of("encoding", acceptSmile ? "smile" : "json");
+    }
+
+    private static TimelockService createTimelockClient(AtlasDbConfig config, boolean acceptSmile) {
+        TimeLockClientConfig timelockConfig = config.timelock().orElseThrow(
+                () -> new IllegalStateException("The TimeLock encoding benchmark requires TimeLock to be configured"));
+        ServerListConfig servers = ServerListConfigs.namespaceUris(timelockConfig.serversList(),
+                OptionalResolver.resolve(timelockConfig.client(), config.namespace()));
+        return AtlasDbFeignTargetFactory.createProxyWithFailover(
+                ServiceCreator.createSslSocketFactory(servers.sslConfiguration()),
+                Optional.empty(),
+                servers.servers(),
+                10_000,
+                65_000,
+                1_000,
+                TimelockService.class,
+                UserAgents.DEFAULT_USER_AGENT,
+                acceptSmile);
+    }
+}
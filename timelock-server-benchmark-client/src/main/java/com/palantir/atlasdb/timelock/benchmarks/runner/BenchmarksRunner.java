@@ -29,6 +29,12 @@ public class BenchmarksRunner extends BenchmarkRunnerBase {
         runAndPrintResults(client::timestamp, 4, 1000);
     }
 
+    @Test
+    public void timelockEncoding() {
+        runAndPrintResults(() -> client.timelockEncoding(4, 1000, false));
+        runAndPrintResults(() -> client.timelockEncoding(4, 1000, true));
+    }
+
     @Test
     public void lockAndUnlockUncontended() {
         runAndPrintResults(client::lockAndUnlockUncontended, 4, 500);
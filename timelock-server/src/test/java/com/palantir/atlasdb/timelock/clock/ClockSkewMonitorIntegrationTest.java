@@ -16,6 +16,7 @@
 
 package com.palantir.atlasdb.timelock.clock;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
@@ -92,6 +93,27 @@ public class ClockSkewMonitorIntegrationTest {
                 .clockSkew(server, 100L, 100L, 0L);
     }
 
+    @Test
+    public void clocksAreNotInSyncBeforeTheyHaveBeenCompared() {
+        assertThat(monitor.clocksAreInSync()).isFalse();
+    }
+
+    @Test
+    public void clocksAreInSyncAfterAComparisonWithoutSignificantSkew() {
+        compareAfterProgressingClocks(1_000_000_000L, 1_010_000_000L);
+
+        verify(mockedEvents).clockSkew(server, 10_000_000L, 1_000_000_000L, 0L);
+        assertThat(monitor.clocksAreInSync()).isTrue();
+    }
+
+    @Test
+    public void clocksAreNotInSyncAfterAComparisonWithSignificantSkew() {
+        compareAfterProgressingClocks(1_000_000_000L, 1_100_000_000L);
+
+        verify(mockedEvents).clockSkew(server, 100_000_000L, 1_000_000_000L, 0L);
+        assertThat(monitor.clocksAreInSync()).isFalse();
+    }
+
     @Test
     public void logsIfLocalTimeGoesBackwards() {
         when(mockedLocalClockService.getSystemTimeInNanos())
@@ -114,6 +136,21 @@ public class ClockSkewMonitorIntegrationTest {
                 .clockWentBackwards(server, 5);
     }
 
+    private void compareAfterProgressingClocks(long localProgress, long remoteProgress) {
+        RequestTime requestTime = RequestTime.builder()
+                .localTimeAtStart(1)
+                .localTimeAtEnd(1)
+                .remoteSystemTime(1)
+                .build();
+        mockLocalAndRemoteClockSuppliers(requestTime);
+        executorService.tick(1, TimeUnit.NANOSECONDS);
+
+        mockLocalAndRemoteClockSuppliers(requestTime
+                .progressLocalClock(localProgress)
+                .progressRemoteClock(remoteProgress));
+        tickOneIteration();
+    }
+
     private void tickOneIteration() {
         executorService.tick(ClockSkewMonitor.PAUSE_BETWEEN_REQUESTS.toNanos(), TimeUnit.NANOSECONDS);
     }
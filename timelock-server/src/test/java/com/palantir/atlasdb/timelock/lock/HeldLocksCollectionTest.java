@@ -18,17 +18,21 @@ package com.palantir.atlasdb.timelock.lock;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
 import static org.mockito.Mockito.when;
 
 import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java.util.function.Supplier;
 
 import org.junit.Test;
 
+import com.codahale.metrics.MetricRegistry;
 import com.google.common.collect.ImmutableSet;
 import com.palantir.lock.v2.LockToken;
 
@@ -36,7 +40,10 @@ public class HeldLocksCollectionTest {
 
     private static final UUID REQUEST_ID = UUID.randomUUID();
 
-    private final HeldLocksCollection heldLocksCollection = new HeldLocksCollection();
+    private final MetricRegistry metrics = new MetricRegistry();
+    private final AtomicLong time = new AtomicLong();
+    private final HeldLocksCollection heldLocksCollection = new HeldLocksCollection(
+            new LockLog(metrics, () -> Long.MAX_VALUE), time::get);
 
     @Test
     public void callsSupplierForNewRequest() {
@@ -89,6 +96,66 @@ public class HeldLocksCollectionTest {
         assertThat(heldLocksCollection.heldLocksById.size()).isEqualTo(0);
     }
 
+    @Test
+    public void onlyExaminesHeldLocksWhenTheirLeasesAreDueToExpire() {
+        HeldLocks heldLocks = mockHeldLocksWithLeaseExpiringAt(20_000L);
+
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, times(1)).unlockIfExpired();
+
+        time.set(10_000L);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, times(1)).unlockIfExpired();
+
+        time.set(20_000L + HeldLocksCollection.EXPIRY_BUCKET_MILLIS);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, times(2)).unlockIfExpired();
+    }
+
+    @Test
+    public void reexaminesRefreshedLocksWhenTheirNewLeasesAreDueToExpire() {
+        HeldLocks heldLocks = mockHeldLocksWithLeaseExpiringAt(20_000L);
+        heldLocksCollection.removeExpired();
+
+        when(heldLocks.getLeaseExpirationTimeMillis()).thenReturn(40_000L);
+        time.set(20_000L + HeldLocksCollection.EXPIRY_BUCKET_MILLIS);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, times(2)).unlockIfExpired();
+
+        time.set(30_000L);
+        heldLocksCollection.removeExpired();
+        verify(heldLocks, times(2)).unlockIfExpired();
+
+        when(heldLocks.unlockIfExpired()).thenReturn(true);
+        time.set(40_000L + HeldLocksCollection.EXPIRY_BUCKET_MILLIS);
+        heldLocksCollection.removeExpired();
+        assertThat(heldLocksCollection.heldLocksById).isEmpty();
+    }
+
+    @Test
+    public void doesNotExamineUnlockedLocks() {
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        when(heldLocks.unlock()).thenReturn(true);
+        LockToken token = addCompletedRequest(heldLocks);
+
+        heldLocksCollection.unlock(ImmutableSet.of(token));
+        heldLocksCollection.removeExpired();
+
+        verify(heldLocks, never()).unlockIfExpired();
+    }
+
+    @Test
+    public void recordsReapMetrics() {
+        mockExpiredRequest();
+        mockNonExpiredRequest();
+        mockFailedRequest();
+
+        heldLocksCollection.removeExpired();
+
+        assertThat(metrics.timer("lock.reap-time").getCount()).isEqualTo(1L);
+        assertThat(metrics.histogram("lock.reaped-per-pass").getSnapshot().getMax()).isEqualTo(2L);
+    }
+
     @Test
     public void refreshReturnsSubsetOfUnlockedLocks() {
         LockToken unlockableRequest = mockRefreshableRequest();
@@ -167,11 +234,22 @@ public class HeldLocksCollectionTest {
         return request;
     }
 
+    private HeldLocks mockHeldLocksWithLeaseExpiringAt(long expirationTimeMillis) {
+        HeldLocks heldLocks = mock(HeldLocks.class);
+        when(heldLocks.unlockIfExpired()).thenReturn(false);
+        when(heldLocks.getLeaseExpirationTimeMillis()).thenReturn(expirationTimeMillis);
+        addCompletedRequest(heldLocks);
+        return heldLocks;
+    }
+
     private LockToken mockHeldLocksForNewRequest(Consumer<HeldLocks> mockApplier) {
-        LockToken request = LockToken.of(UUID.randomUUID());
         HeldLocks heldLocks = mock(HeldLocks.class);
         mockApplier.accept(heldLocks);
+        return addCompletedRequest(heldLocks);
+    }
 
+    private LockToken addCompletedRequest(HeldLocks heldLocks) {
+        LockToken request = LockToken.of(UUID.randomUUID());
         AsyncResult<HeldLocks> completedResult = new AsyncResult<>();
         completedResult.complete(heldLocks);
         heldLocksCollection.getExistingOrAcquire(request.getRequestId(),
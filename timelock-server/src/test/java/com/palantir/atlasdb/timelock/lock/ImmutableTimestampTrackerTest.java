@@ -19,8 +19,14 @@ package com.palantir.atlasdb.timelock.lock;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
 
 import org.junit.Test;
 
@@ -81,6 +87,32 @@ public class ImmutableTimestampTrackerTest {
         assertThatThrownBy(() -> unlock(TIMESTAMP_1, REQUEST_1)).isInstanceOf(IllegalStateException.class);
     }
 
+    @Test
+    public void tracksLeastTimestampUnderConcurrentLocksAndUnlocks() throws Exception {
+        lock(TIMESTAMP_1, REQUEST_1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = LongStream.range(TIMESTAMP_2, 1000)
+                    .mapToObj(timestamp -> executor.submit(() -> {
+                        UUID requestId = UUID.randomUUID();
+                        lock(timestamp, requestId);
+                        assertThat(tracker.getImmutableTimestamp()).contains(TIMESTAMP_1);
+                        if (timestamp % 2 == 0) {
+                            unlock(timestamp, requestId);
+                        }
+                    }))
+                    .collect(Collectors.toList());
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        unlock(TIMESTAMP_1, REQUEST_1);
+        assertThat(tracker.getImmutableTimestamp()).contains(3L);
+    }
+
     private AsyncResult<Void> lock(long timestamp, UUID requestId) {
         return tracker.getLockFor(timestamp).lock(requestId);
     }
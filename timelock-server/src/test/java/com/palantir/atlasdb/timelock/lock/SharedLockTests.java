@@ -0,0 +1,119 @@
+/*
+ * Copyright 2018 Palantir Technologies, Inc. All rights reserved.
+ *
+ * Licensed under the BSD-3 License (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://opensource.org/licenses/BSD-3-Clause
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package com.palantir.atlasdb.timelock.lock;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.UUID;
+
+import org.junit.Test;
+
+import com.palantir.lock.LockDescriptor;
+import com.palantir.lock.StringLockDescriptor;
+
+public class SharedLockTests {
+
+    private static final UUID REQUEST_1 = UUID.randomUUID();
+    private static final UUID REQUEST_2 = UUID.randomUUID();
+    private static final UUID REQUEST_3 = UUID.randomUUID();
+
+    private static final LockDescriptor LOCK_DESCRIPTOR = StringLockDescriptor.of("foo");
+
+    private final ExclusiveLock exclusiveLock = new ExclusiveLock(LOCK_DESCRIPTOR);
+    private final SharedLock sharedLock = exclusiveLock.shared();
+
+    @Test
+    public void sharedLockCanBeHeldByMultipleRequests() {
+        assertThat(sharedLock.lock(REQUEST_1).isCompletedSuccessfully()).isTrue();
+        assertThat(sharedLock.lock(REQUEST_2).isCompletedSuccessfully()).isTrue();
+
+        assertThat(exclusiveLock.getSharedHolders()).containsExactlyInAnyOrder(REQUEST_1, REQUEST_2);
+    }
+
+    @Test
+    public void exclusiveLockWaitsForAllSharedHolders() {
+        sharedLock.lock(REQUEST_1);
+        sharedLock.lock(REQUEST_2);
+        AsyncResult<Void> exclusive = exclusiveLock.lock(REQUEST_3);
+
+        sharedLock.unlock(REQUEST_1);
+        assertThat(exclusive.isComplete()).isFalse();
+
+        sharedLock.unlock(REQUEST_2);
+        assertThat(exclusive.isCompletedSuccessfully()).isTrue();
+        assertThat(exclusiveLock.getCurrentHolder()).isEqualTo(REQUEST_3);
+    }
+
+    @Test
+    public void sharedLockWaitsForExclusiveHolder() {
+        exclusiveLock.lock(REQUEST_1);
+        AsyncResult<Void> shared = sharedLock.lock(REQUEST_2);
+
+        assertThat(shared.isComplete()).isFalse();
+
+        exclusiveLock.unlock(REQUEST_1);
+        assertThat(shared.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void sharedRequestsQueueBehindExclusiveRequests() {
+        sharedLock.lock(REQUEST_1);
+        AsyncResult<Void> exclusive = exclusiveLock.lock(REQUEST_2);
+        AsyncResult<Void> shared = sharedLock.lock(REQUEST_3);
+
+        assertThat(shared.isComplete()).isFalse();
+
+        sharedLock.unlock(REQUEST_1);
+        assertThat(exclusive.isCompletedSuccessfully()).isTrue();
+        assertThat(shared.isComplete()).isFalse();
+
+        exclusiveLock.unlock(REQUEST_2);
+        assertThat(shared.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void timingOutQueuedExclusiveRequestUnblocksSharedRequests() {
+        sharedLock.lock(REQUEST_1);
+        exclusiveLock.lock(REQUEST_2);
+        AsyncResult<Void> shared = sharedLock.lock(REQUEST_3);
+
+        exclusiveLock.timeout(REQUEST_2);
+
+        assertThat(shared.isCompletedSuccessfully()).isTrue();
+    }
+
+    @Test
+    public void waitUntilAvailableOnlyWaitsForExclusiveHolder() {
+        sharedLock.lock(REQUEST_1);
+        assertThat(sharedLock.waitUntilAvailable(REQUEST_2).isCompletedSuccessfully()).isTrue();
+
+        sharedLock.unlock(REQUEST_1);
+        exclusiveLock.lock(REQUEST_1);
+        AsyncResult<Void> wait = sharedLock.waitUntilAvailable(REQUEST_3);
+        assertThat(wait.isComplete()).isFalse();
+
+        exclusiveLock.unlock(REQUEST_1);
+        assertThat(wait.isCompletedSuccessfully()).isTrue();
+        assertThat(exclusiveLock.getSharedHolders()).isEmpty();
+    }
+
+    @Test
+    public void hasSameDescriptorAsExclusiveLock() {
+        assertThat(sharedLock.getDescriptor()).isEqualTo(LOCK_DESCRIPTOR);
+    }
+
+}
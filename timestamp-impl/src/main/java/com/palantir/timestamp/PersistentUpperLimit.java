@@ -15,9 +15,36 @@
  */
 package com.palantir.timestamp;
 
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import com.codahale.metrics.Histogram;
+import com.codahale.metrics.Meter;
+import com.codahale.metrics.MetricRegistry;
+import com.codahale.metrics.Timer;
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.primitives.Longs;
 
+/**
+ * Tracks the upper limit of the timestamps that may be handed out, persisting it to a {@link TimestampBoundStore}
+ * before it is increased.
+ *
+ * If a lookahead executor is provided, the limit is raised asynchronously once less than half of the buffer above
+ * the timestamps handed out remains, and the buffer is sized to cover {@link #LOOKAHEAD} of timestamps at the
+ * observed rate at which they are requested. Timestamp requests then only wait for the store if the rate increases
+ * faster than the buffer can be extended. Requests that do wait are group committed, in that they wait for the
+ * write in progress and are then covered by its buffer, rather than each writing a new limit.
+ */
 public class PersistentUpperLimit {
+    private static final Logger log = LoggerFactory.getLogger(PersistentUpperLimit.class);
 
     /**
      * Some internal atlas clients have behavior tied to this value and will need to
@@ -26,12 +53,54 @@ public class PersistentUpperLimit {
     @VisibleForTesting
     static final long BUFFER = 1_000_000;
 
+    @VisibleForTesting
+    static final long MAX_BUFFER = 100 * BUFFER;
+
+    @VisibleForTesting
+    static final Duration LOOKAHEAD = Duration.ofSeconds(1);
+
     private volatile long currentLimit;
+    private volatile long buffer = BUFFER;
     private final TimestampBoundStore store;
+    private final Optional<Executor> lookaheadExecutor;
+    private final LongSupplier nanoClock;
+    private final AtomicBoolean lookaheadInProgress = new AtomicBoolean(false);
+
+    private final Timer storeTimer;
+    private final Histogram headroomHistogram;
+    private final Meter blockingStoreMeter;
+
+    // Guarded by this.
+    private long lastSampledLimit;
+    private long lastSampleNanos;
 
     public PersistentUpperLimit(TimestampBoundStore boundStore) {
+        this(boundStore, Optional.empty(), new MetricRegistry(), System::nanoTime);
+    }
+
+    public PersistentUpperLimit(
+            TimestampBoundStore boundStore,
+            Executor lookaheadExecutor,
+            MetricRegistry metricRegistry) {
+        this(boundStore, Optional.of(lookaheadExecutor), metricRegistry, System::nanoTime);
+    }
+
+    @VisibleForTesting
+    PersistentUpperLimit(
+            TimestampBoundStore boundStore,
+            Optional<Executor> lookaheadExecutor,
+            MetricRegistry metricRegistry,
+            LongSupplier nanoClock) {
         this.store = boundStore;
+        this.lookaheadExecutor = lookaheadExecutor;
+        this.nanoClock = nanoClock;
+        this.storeTimer = metricRegistry.timer(MetricRegistry.name(PersistentUpperLimit.class, "storeUpperLimit"));
+        this.headroomHistogram = metricRegistry.histogram(MetricRegistry.name(PersistentUpperLimit.class, "headroom"));
+        this.blockingStoreMeter = metricRegistry.meter(
+                MetricRegistry.name(PersistentUpperLimit.class, "blockingStores"));
         this.currentLimit = boundStore.getUpperLimit();
+        this.lastSampledLimit = currentLimit;
+        this.lastSampleNanos = nanoClock.getAsLong();
     }
 
     public long get() {
@@ -42,6 +111,7 @@ public class PersistentUpperLimit {
         if (newLimit > currentLimit) {
             updateLimit(newLimit);
         }
+        maybeExtendLimitAsynchronously(newLimit);
     }
 
     private synchronized void updateLimit(long newLimit) {
@@ -49,14 +119,77 @@ public class PersistentUpperLimit {
             return;
         }
 
-        long newLimitWithBuffer = newLimit + BUFFER;
+        blockingStoreMeter.mark();
+        storeLimitWithBuffer(newLimit);
+    }
+
+    private void maybeExtendLimitAsynchronously(long requestedLimit) {
+        if (!lookaheadExecutor.isPresent()
+                || currentLimit - requestedLimit >= buffer / 2
+                || !lookaheadInProgress.compareAndSet(false, true)) {
+            return;
+        }
+
+        try {
+            lookaheadExecutor.get().execute(() -> {
+                try {
+                    extendLimit(requestedLimit);
+                } catch (Throwable t) {
+                    // The failure is surfaced to the next request that has to store the limit itself.
+                    log.info("Failed to extend the timestamp upper limit in the background.", t);
+                } finally {
+                    lookaheadInProgress.set(false);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            lookaheadInProgress.set(false);
+            log.info("Could not schedule an extension of the timestamp upper limit.", e);
+        }
+    }
+
+    private synchronized void extendLimit(long requestedLimit) {
+        if (currentLimit - requestedLimit >= buffer / 2) {
+            return;
+        }
+
+        storeLimitWithBuffer(requestedLimit);
+    }
+
+    private void storeLimitWithBuffer(long requestedLimit) {
+        headroomHistogram.update(currentLimit - requestedLimit);
+        if (lookaheadExecutor.isPresent()) {
+            resizeBuffer(requestedLimit);
+        }
+
+        // The requested limit may be stale by the time a background extension runs, and the buffer may have shrunk
+        // since the current limit was stored, so extend from whichever is greater to never move the limit backwards.
+        long newLimitWithBuffer = Math.max(currentLimit, requestedLimit) + buffer;
         storeUpperLimit(newLimitWithBuffer);
         currentLimit = newLimitWithBuffer;
     }
 
+    /**
+     * Sizes the buffer to cover {@link #LOOKAHEAD} of timestamps, at the rate at which they were requested since the
+     * limit was last stored.
+     */
+    private void resizeBuffer(long requestedLimit) {
+        long now = nanoClock.getAsLong();
+        long elapsedNanos = Math.max(now - lastSampleNanos, 1L);
+        long requestedSinceLastSample = Math.max(requestedLimit - lastSampledLimit, 0L);
+        double lookahead = (double) requestedSinceLastSample * LOOKAHEAD.toNanos() / elapsedNanos;
+        buffer = Longs.constrainToRange((long) lookahead, BUFFER, MAX_BUFFER);
+        lastSampledLimit = requestedLimit;
+        lastSampleNanos = now;
+    }
+
     private void storeUpperLimit(long upperLimit) {
         DebugLogger.willStoreNewUpperLimit(upperLimit);
-        store.storeUpperLimit(upperLimit);
+        long startNanos = nanoClock.getAsLong();
+        try {
+            store.storeUpperLimit(upperLimit);
+        } finally {
+            storeTimer.update(nanoClock.getAsLong() - startNanos, TimeUnit.NANOSECONDS);
+        }
         DebugLogger.didStoreNewUpperLimit(upperLimit);
     }
 
@@ -20,15 +20,25 @@ import static org.hamcrest.core.Is.is;
 import static org.mockito.Matchers.anyLong;
 import static org.mockito.Mockito.doThrow;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
 import org.junit.Before;
 import org.junit.Rule;
 import org.junit.Test;
 import org.junit.rules.ExpectedException;
 
+import com.codahale.metrics.MetricRegistry;
+import com.google.common.collect.Lists;
+
 public class PersistentUpperLimitTest {
     private static final long TIMESTAMP = 12345L;
     private static final long INITIAL_UPPER_LIMIT = 10L;
@@ -36,6 +46,8 @@ public class PersistentUpperLimitTest {
 
     private TimestampBoundStore boundStore;
     private PersistentUpperLimit upperLimit;
+    private final AtomicLong nanos = new AtomicLong();
+    private final MetricRegistry metricRegistry = new MetricRegistry();
 
     @Rule
     public ExpectedException exception = ExpectedException.none();
@@ -112,4 +124,83 @@ public class PersistentUpperLimitTest {
         assertThat(upperLimit.get(), is(INITIAL_UPPER_LIMIT));
     }
 
+    @Test
+    public void shouldExtendTheUpperLimitInTheBackgroundBeforeItIsReached() {
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(Runnable::run);
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        lookaheadLimit.increaseToAtLeast(TIMESTAMP);
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        long requested = TIMESTAMP + BUFFER / 2 + 1;
+        lookaheadLimit.increaseToAtLeast(requested);
+
+        verify(boundStore).storeUpperLimit(TIMESTAMP + 2 * BUFFER);
+        assertThat(lookaheadLimit.get(), is(TIMESTAMP + 2 * BUFFER));
+        assertThat(metricRegistry.meter(MetricRegistry.name(PersistentUpperLimit.class, "blockingStores")).getCount(),
+                is(1L));
+    }
+
+    @Test
+    public void shouldSizeTheBufferFromTheRateOfRequests() {
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(Runnable::run);
+        long timestampsPerSecond = 10 * BUFFER;
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        lookaheadLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + timestampsPerSecond);
+
+        assertThat(lookaheadLimit.get(), is(INITIAL_UPPER_LIMIT + 2 * timestampsPerSecond));
+    }
+
+    @Test
+    public void shouldNotMoveTheLimitBackwardsWhenTheRateDropsAfterABurst() {
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(Runnable::run);
+        long burst = 50 * BUFFER;
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(1));
+        lookaheadLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT + burst);
+        long limitAfterBurst = lookaheadLimit.get();
+        assertThat(limitAfterBurst, is(INITIAL_UPPER_LIMIT + 2 * burst));
+
+        nanos.addAndGet(TimeUnit.SECONDS.toNanos(100));
+        lookaheadLimit.increaseToAtLeast(limitAfterBurst - 10 * BUFFER);
+
+        verify(boundStore).storeUpperLimit(limitAfterBurst + BUFFER);
+        assertThat(lookaheadLimit.get(), is(limitAfterBurst + BUFFER));
+    }
+
+    @Test
+    public void shouldNotExceedTheMaximumBuffer() {
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(Runnable::run);
+
+        nanos.incrementAndGet();
+        lookaheadLimit.increaseToAtLeast(TIMESTAMP);
+
+        assertThat(lookaheadLimit.get(), is(TIMESTAMP + PersistentUpperLimit.MAX_BUFFER));
+    }
+
+    @Test
+    public void shouldOnlyHaveOneBackgroundExtensionInProgress() {
+        List<Runnable> tasks = Lists.newArrayList();
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(tasks::add);
+
+        lookaheadLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT - 1);
+        lookaheadLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT);
+
+        assertThat(tasks.size(), is(1));
+        verify(boundStore, never()).storeUpperLimit(anyLong());
+    }
+
+    @Test
+    public void shouldNotChangeTheUpperLimitIfTheBackgroundExtensionFails() {
+        doThrow(RuntimeException.class).when(boundStore).storeUpperLimit(anyLong());
+        PersistentUpperLimit lookaheadLimit = createWithLookahead(Runnable::run);
+
+        lookaheadLimit.increaseToAtLeast(INITIAL_UPPER_LIMIT);
+
+        assertThat(lookaheadLimit.get(), is(INITIAL_UPPER_LIMIT));
+    }
+
+    private PersistentUpperLimit createWithLookahead(Executor executor) {
+        return new PersistentUpperLimit(boundStore, Optional.of(executor), metricRegistry, nanos::get);
+    }
 }